@@ -0,0 +1,224 @@
+package com.litenotes.bench;
+
+import com.litenotes.model.Category;
+import com.litenotes.model.Note;
+import com.litenotes.repository.Database;
+import com.litenotes.service.NoteCache;
+import com.litenotes.service.NoteWriteQueue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Prepara las bases de datos temporales sobre las que se miden las pruebas de
+ * rendimiento.
+ *
+ * <p>Generar un millón de notas lleva bastante más que cualquier medición,
+ * así que cada tamaño se genera una sola vez como plantilla en la carpeta
+ * indicada por {@value #DATA_PROPERTY} y se reutiliza entre ejecuciones. Cada
+ * prueba trabaja sobre una copia de la plantilla, de modo que las escrituras
+ * de una no alteran los datos de la siguiente.</p>
+ *
+ * <p>Las notas generadas tienen identificadores consecutivos desde {@code 1},
+ * un contenido de unos 400 caracteres con palabras variadas para el índice de
+ * texto completo, y se reparten por igual entre {@value #CATEGORIES}
+ * categorías.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+final class BenchmarkData {
+
+    /** Propiedad de sistema con la carpeta de las plantillas. */
+    static final String DATA_PROPERTY = "litenotes.bench.data";
+
+    /** Número de categorías entre las que se reparten las notas. */
+    static final int CATEGORIES = 10;
+
+    private static final String[] WORDS = {
+        "reunión", "proyecto", "lista", "compra", "idea", "viaje", "informe",
+        "presupuesto", "cliente", "tarea", "revisar", "enviar", "llamar",
+        "semana", "canción", "receta", "libro", "código", "error", "factura"
+    };
+
+    /**
+     * Genera las notas en una sola sentencia. Parámetros: número de notas,
+     * número de categorías, lista de palabras en JSON y su longitud.
+     */
+    private static final String SEED_SQL = """
+        WITH RECURSIVE seq(i) AS (
+            SELECT 1 UNION ALL SELECT i + 1 FROM seq WHERE i < ?1
+        )
+        INSERT INTO notes (title, content, category_id, created_at, updated_at)
+        SELECT 'Nota ' || i,
+               json_extract(?3, '$[' || (i % ?4) || ']') || ' '
+                   || json_extract(?3, '$[' || (i / 7 % ?4) || ']') || ' '
+                   || json_extract(?3, '$[' || (i / 49 % ?4) || ']') || ' '
+                   || printf('%.380c', 'x') || ' ' || i,
+               1 + i % ?2,
+               unixepoch() * 1000,
+               unixepoch() * 1000
+        FROM seq
+        """;
+
+    private BenchmarkData() {}
+
+    /**
+     * Abre una copia de la plantilla con el número de notas indicado y deja
+     * {@link Database} apuntando a ella, con la caché de notas vacía.
+     *
+     * @param notes Número de notas de la base de datos.
+     * @return La ruta de la copia, que debe pasarse después a {@link #close(Path)}.
+     * @throws IOException Si no se puede copiar la plantilla.
+     * @throws SQLException Si no se puede generar la plantilla o abrir la copia.
+     */
+    static Path open(int notes) throws IOException, SQLException {
+        Path template = template(notes);
+        Path copy = Files.createTempFile("litenotes-bench-", ".db");
+        Files.copy(template, copy, StandardCopyOption.REPLACE_EXISTING);
+
+        Database.configure(copy.toString());
+        Database.initialize();
+        NoteCache.shared().invalidate();
+        return copy;
+    }
+
+    /**
+     * Cierra la base de datos abierta con {@link #open(int)} y borra la copia.
+     *
+     * @param copy Ruta devuelta por {@link #open(int)}.
+     * @throws IOException Si no se pueden borrar los archivos.
+     */
+    static void close(Path copy) throws IOException {
+        NoteWriteQueue.shutdownShared();
+        Database.close();
+        NoteCache.shared().invalidate();
+
+        for (String suffix : new String[] {"", "-wal", "-shm"}) {
+            Files.deleteIfExists(Path.of(copy + suffix));
+        }
+    }
+
+    /**
+     * Devuelve una nota con el identificador de una nota existente elegida al
+     * azar y un contenido nuevo, lista para actualizarse.
+     *
+     * @param notes Número de notas generadas.
+     * @return La nota modificada.
+     */
+    static Note randomUpdate(int notes) {
+        int id = randomId(notes);
+        return new Note(id, "Nota " + id + " editada", "Contenido editado " + System.nanoTime(),
+                category(id));
+    }
+
+    /**
+     * Devuelve una nota nueva, sin identificador.
+     *
+     * @return La nota.
+     */
+    static Note newNote() {
+        int n = ThreadLocalRandom.current().nextInt(1_000_000);
+        return new Note("Nota nueva " + n, WORDS[n % WORDS.length] + " contenido nuevo", category(n));
+    }
+
+    /**
+     * Devuelve el identificador de una nota generada elegida al azar.
+     *
+     * @param notes Número de notas generadas.
+     * @return Un identificador entre {@code 1} y {@code notes}.
+     */
+    static int randomId(int notes) {
+        return 1 + ThreadLocalRandom.current().nextInt(notes);
+    }
+
+    /**
+     * Devuelve una de las categorías generadas elegida al azar.
+     *
+     * @return El identificador de la categoría.
+     */
+    static int randomCategoryId() {
+        return 1 + ThreadLocalRandom.current().nextInt(CATEGORIES);
+    }
+
+    private static Category category(int n) {
+        int id = 1 + n % CATEGORIES;
+        return new Category(id, "Categoría " + id);
+    }
+
+    /**
+     * Devuelve la plantilla del tamaño indicado, generándola si aún no existe.
+     * Se genera con otro nombre y se renombra al terminar, para que una
+     * generación interrumpida no deje una plantilla incompleta.
+     */
+    private static Path template(int notes) throws IOException, SQLException {
+        Path dir = Path.of(System.getProperty(DATA_PROPERTY, "target/bench-data"));
+        Path template = dir.resolve("notes-" + notes + ".db");
+        if (Files.exists(template)) {
+            // Una plantilla de una versión anterior se migra una sola vez aquí
+            // y no en cada copia
+            Database.configure(template.toString());
+            try {
+                Database.initialize();
+            } finally {
+                Database.close();
+            }
+            return template;
+        }
+
+        Files.createDirectories(dir);
+        Path partial = dir.resolve("notes-" + notes + ".db.part");
+        Files.deleteIfExists(partial);
+
+        System.out.printf("Generando plantilla de %d notas en %s...%n", notes, template);
+        Database.configure(partial.toString());
+        Database.initialize();
+
+        try (Connection conn = Database.getConnection()) {
+            seed(conn, notes);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+            }
+        } finally {
+            Database.close();
+        }
+
+        Files.move(partial, template, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(Path.of(partial + "-wal"));
+        Files.deleteIfExists(Path.of(partial + "-shm"));
+        return template;
+    }
+
+    private static void seed(Connection conn, int notes) throws SQLException {
+        conn.setAutoCommit(false);
+
+        try (PreparedStatement category = conn.prepareStatement(
+                "INSERT INTO categories (id, name) VALUES (?, ?)")) {
+            for (int id = 1; id <= CATEGORIES; id++) {
+                category.setInt(1, id);
+                category.setString(2, "Categoría " + id);
+                category.addBatch();
+            }
+            category.executeBatch();
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(SEED_SQL)) {
+            pstmt.setInt(1, notes);
+            pstmt.setInt(2, CATEGORIES);
+            pstmt.setString(3, "[\"" + String.join("\",\"", WORDS) + "\"]");
+            pstmt.setInt(4, WORDS.length);
+            pstmt.executeUpdate();
+        }
+
+        conn.commit();
+        conn.setAutoCommit(true);
+    }
+}
@@ -0,0 +1,110 @@
+package com.litenotes.bench;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.NoBenchmarksException;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Lanza todas las pruebas de rendimiento y guarda sus resultados juntos en un
+ * único archivo JSON, con el formato estándar de JMH, para poder comparar
+ * ejecuciones de distintas versiones.
+ *
+ * <p>Uso (normalmente a través de {@code mvn -Pbench verify}):</p>
+ * <pre>
+ * java -cp ... com.litenotes.bench.BenchmarkMain [expresión]
+ * </pre>
+ *
+ * <p>La expresión regular opcional selecciona qué pruebas se ejecutan, como la
+ * opción de JMH. Las propiedades de sistema ajustan la ejecución:</p>
+ * <ul>
+ *   <li>{@code litenotes.bench.sizes}: tamaños de base de datos, separados por
+ *       comas (por defecto {@code 1000,100000,1000000}).</li>
+ *   <li>{@code litenotes.bench.threads}: número de hilos con los que se
+ *       repiten las cargas mixtas (por defecto {@code 1,2,4,8}).</li>
+ *   <li>{@code litenotes.bench.result}: archivo JSON de resultados (por
+ *       defecto {@code target/jmh-result.json}).</li>
+ * </ul>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public final class BenchmarkMain {
+
+    private static final String MIXED = MixedWorkloadBenchmark.class.getName();
+
+    private BenchmarkMain() {}
+
+    /**
+     * Ejecuta las pruebas seleccionadas.
+     *
+     * @param args Expresión regular opcional con las pruebas que se ejecutan.
+     * @throws RunnerException Si JMH no puede ejecutar alguna prueba.
+     * @throws IOException Si no se puede crear la carpeta de resultados.
+     */
+    public static void main(String[] args) throws RunnerException, IOException {
+        String include = args.length > 0 ? args[0] : ".*";
+        String[] sizes = list("litenotes.bench.sizes", "1000,100000,1000000");
+        String[] threads = list("litenotes.bench.threads", "1,2,4,8");
+        Path result = Path.of(System.getProperty("litenotes.bench.result", "target/jmh-result.json"));
+
+        List<RunResult> results = new ArrayList<>();
+
+        // Operaciones individuales, con un solo hilo
+        results.addAll(run(options(include, sizes).exclude(MIXED)));
+
+        // Cargas mixtas, repetidas para cada número de hilos
+        if (Pattern.compile(include).matcher(MIXED + ".mixed").find()) {
+            for (String count : threads) {
+                results.addAll(run(options(MIXED, sizes).threads(Integer.parseInt(count))));
+            }
+        }
+
+        Path parent = result.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        ResultFormatFactory.getInstance(ResultFormatType.JSON, result.toString()).writeOut(results);
+        System.out.println("Resultados guardados en " + result);
+    }
+
+    /**
+     * Ejecuta las pruebas seleccionadas, o ninguna si la expresión no
+     * coincide con ellas.
+     */
+    private static Collection<RunResult> run(ChainedOptionsBuilder options) throws RunnerException {
+        try {
+            return new Runner(options.build()).run();
+        } catch (NoBenchmarksException e) {
+            return List.of();
+        }
+    }
+
+    private static ChainedOptionsBuilder options(String include, String[] sizes) {
+        return new OptionsBuilder()
+                .include(include)
+                .param("notes", sizes)
+                .shouldFailOnError(true);
+    }
+
+    private static String[] list(String property, String defaults) {
+        return Arrays.stream(System.getProperty(property, defaults).split(","))
+                .map(String::strip)
+                .filter(value -> !value.isEmpty())
+                .toArray(String[]::new);
+    }
+}
@@ -0,0 +1,176 @@
+package com.litenotes.bench;
+
+import com.litenotes.model.Category;
+import com.litenotes.model.Note;
+import com.litenotes.repository.CategoryRepository;
+import com.litenotes.repository.ContentCompression;
+import com.litenotes.repository.Database;
+import com.litenotes.repository.NoteRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el coste de leer y guardar notas largas con y sin compresión del
+ * contenido, y muestra al terminar cada prueba el tamaño del archivo, para
+ * poner el ahorro de disco y de E/S frente al tiempo de CPU.
+ *
+ * <p>Las notas imitan los registros de aplicación que los usuarios pegan en
+ * sus notas: líneas con fecha, nivel, hilo y mensaje, con muchas repeticiones
+ * pero no idénticas. Cada prueba crea su propia base de datos con unos
+ * {@value #TOTAL_CHARS} caracteres de contenido en total.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressionBenchmark {
+
+    /** Contenido total aproximado de la base de datos, en caracteres. */
+    private static final int TOTAL_CHARS = 64 * 1024 * 1024;
+
+    private static final String[] LEVELS = {"INFO ", "INFO ", "INFO ", "DEBUG", "WARN ", "ERROR"};
+
+    private static final String[] MESSAGES = {
+        "Petición procesada: GET /api/notes?page=%d en %d ms",
+        "Conexión %d devuelta al pool tras %d ms",
+        "Reintentando la operación %d (intento %d de 5)",
+        "Usuario %d abrió la nota %d",
+        "Caché de plantillas: %d aciertos, %d fallos",
+        "Tiempo de espera agotado al contactar con el servidor %d tras %d ms"
+    };
+
+    /** Códec con el que se guardan las notas, o {@code none}. */
+    @Param({"none", "deflate"})
+    public String codec;
+
+    /** Tamaño del contenido de cada nota, en caracteres. */
+    @Param({"16384", "1048576"})
+    public int contentSize;
+
+    private Path database;
+    private NoteRepository repository;
+    private Category category;
+    private int first;
+    private int count;
+    private String replacement;
+
+    /**
+     * Crea la base de datos con las notas del tamaño indicado.
+     *
+     * @throws Exception Si no se puede preparar.
+     */
+    @Setup(Level.Trial)
+    public void open() throws Exception {
+        ContentCompression.configure(codec, 4096);
+
+        database = Files.createTempFile("litenotes-compression-", ".db");
+        Files.delete(database);
+        Database.configure(database.toString());
+        Database.initialize();
+
+        repository = new NoteRepository();
+        category = new CategoryRepository().findOrCreate("Registros");
+
+        SplittableRandom random = new SplittableRandom(42);
+        count = Math.max(32, TOTAL_CHARS / contentSize);
+
+        List<Note> batch = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            batch.add(new Note("Registro " + i, log(random, contentSize), category));
+            if (batch.size() * (long) contentSize >= 8L * 1024 * 1024) {
+                repository.applyBatch(batch, List.of(), List.of());
+                batch.clear();
+            }
+        }
+        repository.applyBatch(batch, List.of(), List.of());
+
+        first = repository.getPage(0, count).get(count - 1).getId();
+        replacement = log(random, contentSize);
+    }
+
+    /**
+     * Muestra el tamaño del archivo, borra la base de datos y restablece la
+     * configuración de la compresión.
+     *
+     * @throws Exception Si no se puede borrar.
+     */
+    @TearDown(Level.Trial)
+    public void close() throws Exception {
+        Database.close();
+        System.out.printf("%nArchivo con %s y notas de %d caracteres: %.1f MB%n",
+                codec, contentSize, Files.size(database) / (1024.0 * 1024));
+
+        for (String suffix : new String[] {"", "-wal", "-shm"}) {
+            Files.deleteIfExists(Path.of(database + suffix));
+        }
+        ContentCompression.configure(
+                System.getProperty(ContentCompression.CODEC_PROPERTY, "deflate"), 4096);
+    }
+
+    /**
+     * Lee una nota completa elegida al azar.
+     *
+     * @return La nota leída.
+     */
+    @Benchmark
+    public Note read() {
+        return repository.getById(first + ThreadLocalRandom.current().nextInt(count));
+    }
+
+    /**
+     * Sustituye el contenido de una nota elegida al azar.
+     */
+    @Benchmark
+    public void write() {
+        int id = first + ThreadLocalRandom.current().nextInt(count);
+        repository.update(new Note(id, "Registro " + id, replacement, category));
+    }
+
+    /**
+     * Genera un registro de aplicación de aproximadamente {@code size}
+     * caracteres.
+     */
+    private static String log(SplittableRandom random, int size) {
+        StringBuilder log = new StringBuilder(size + 160);
+        long millis = 1_790_000_000_000L + random.nextLong(1_000_000_000L);
+
+        while (log.length() < size) {
+            millis += random.nextInt(2000);
+            log.append(Instant.ofEpochMilli(millis))
+               .append(' ').append(LEVELS[random.nextInt(LEVELS.length)])
+               .append(" [worker-").append(random.nextInt(16)).append("] ")
+               .append(String.format(MESSAGES[random.nextInt(MESSAGES.length)],
+                       random.nextInt(100_000), random.nextInt(5000)))
+               .append('\n');
+        }
+
+        log.setLength(size);
+        return log.toString();
+    }
+}
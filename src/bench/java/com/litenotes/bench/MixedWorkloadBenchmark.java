@@ -0,0 +1,97 @@
+package com.litenotes.bench;
+
+import com.litenotes.service.NoteService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el rendimiento de {@link NoteService} con lecturas y escrituras
+ * mezcladas desde varios hilos a la vez, como cuando la aplicación importa o
+ * guarda notas mientras el usuario navega.
+ *
+ * <p>Cada operación es, al azar, una escritura (la modificación de una nota
+ * existente) con la probabilidad indicada por {@link #writePercent}, o una
+ * lectura: una página de una categoría o una nota completa, a partes iguales.
+ * El número de hilos lo fija {@link BenchmarkMain}, que repite esta prueba
+ * para cada valor de {@code litenotes.bench.threads}.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MixedWorkloadBenchmark {
+
+    /** Número de notas de la base de datos. */
+    @Param({"1000", "100000", "1000000"})
+    public int notes;
+
+    /** Porcentaje de operaciones que son escrituras. */
+    @Param({"5", "50"})
+    public int writePercent;
+
+    private Path database;
+    private NoteService service;
+
+    /**
+     * Abre una copia nueva de la base de datos del tamaño indicado.
+     *
+     * @throws Exception Si no se puede preparar.
+     */
+    @Setup(Level.Trial)
+    public void open() throws Exception {
+        database = BenchmarkData.open(notes);
+        service = new NoteService();
+    }
+
+    /**
+     * Cierra y borra la copia.
+     *
+     * @throws Exception Si no se puede borrar.
+     */
+    @TearDown(Level.Trial)
+    public void close() throws Exception {
+        BenchmarkData.close(database);
+    }
+
+    /**
+     * Ejecuta una operación elegida al azar.
+     *
+     * @return El resultado de la lectura, o {@code null} en las escrituras.
+     */
+    @Benchmark
+    public Object mixed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        if (random.nextInt(100) < writePercent) {
+            service.updateNote(BenchmarkData.randomUpdate(notes));
+            return null;
+        }
+
+        if (random.nextBoolean()) {
+            return service.getNotesPage(BenchmarkData.randomId(notes), 100, BenchmarkData.randomCategoryId());
+        }
+
+        return service.getNoteById(BenchmarkData.randomId(notes));
+    }
+}
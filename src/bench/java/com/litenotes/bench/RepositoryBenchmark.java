@@ -0,0 +1,153 @@
+package com.litenotes.bench;
+
+import com.litenotes.model.Note;
+import com.litenotes.repository.NoteRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide las operaciones de {@link NoteRepository} directamente sobre SQLite,
+ * sin la caché ni la cola de escritura de la capa de servicio.
+ *
+ * <p>Cada escritura es una transacción propia con sincronización
+ * {@code FULL}, por lo que su tiempo incluye la espera al disco.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    /** Número de notas de la base de datos. */
+    @Param({"1000", "100000", "1000000"})
+    public int notes;
+
+    private Path database;
+    private NoteRepository repository;
+
+    /**
+     * Abre una copia nueva de la base de datos del tamaño indicado.
+     *
+     * @throws Exception Si no se puede preparar.
+     */
+    @Setup(Level.Trial)
+    public void open() throws Exception {
+        database = BenchmarkData.open(notes);
+        repository = new NoteRepository();
+    }
+
+    /**
+     * Cierra y borra la copia.
+     *
+     * @throws Exception Si no se puede borrar.
+     */
+    @TearDown(Level.Trial)
+    public void close() throws Exception {
+        BenchmarkData.close(database);
+    }
+
+    /**
+     * Nota insertada antes de cada medición de {@link #delete(DeleteTarget)}.
+     */
+    @State(Scope.Thread)
+    public static class DeleteTarget {
+
+        int id;
+
+        /**
+         * Inserta la nota que se va a eliminar, fuera de la medición.
+         *
+         * @param state Estado de la prueba.
+         * @throws SQLException Si no se puede insertar.
+         */
+        @Setup(Level.Invocation)
+        public void insert(RepositoryBenchmark state) throws SQLException {
+            Note note = BenchmarkData.newNote();
+            state.repository.applyBatch(List.of(note), List.of(), List.of());
+            id = note.getId();
+        }
+    }
+
+    /**
+     * Lee el resumen de todas las notas.
+     *
+     * @return Las notas leídas.
+     */
+    @Benchmark
+    public List<Note> getAll() {
+        return repository.getAll();
+    }
+
+    /**
+     * Lee el resumen de las notas de una categoría, que contiene una décima
+     * parte del total.
+     *
+     * @return Las notas leídas.
+     */
+    @Benchmark
+    public List<Note> getByCategory() {
+        return repository.getByCategory(BenchmarkData.randomCategoryId());
+    }
+
+    /**
+     * Lee una página de una categoría a partir de una posición al azar.
+     *
+     * @return Las notas de la página.
+     */
+    @Benchmark
+    public List<Note> getPage() {
+        return repository.getPage(BenchmarkData.randomId(notes), 100, BenchmarkData.randomCategoryId());
+    }
+
+    /**
+     * Inserta una nota.
+     *
+     * @return La nota insertada.
+     */
+    @Benchmark
+    public Note insert() {
+        Note note = BenchmarkData.newNote();
+        repository.insert(note);
+        return note;
+    }
+
+    /**
+     * Actualiza una nota existente elegida al azar.
+     */
+    @Benchmark
+    public void update() {
+        repository.update(BenchmarkData.randomUpdate(notes));
+    }
+
+    /**
+     * Elimina una nota insertada antes de la medición.
+     *
+     * @param target Nota que se elimina.
+     */
+    @Benchmark
+    public void delete(DeleteTarget target) {
+        repository.delete(target.id);
+    }
+}
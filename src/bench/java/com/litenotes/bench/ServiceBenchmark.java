@@ -0,0 +1,161 @@
+package com.litenotes.bench;
+
+import com.litenotes.model.Note;
+import com.litenotes.service.NoteService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide las operaciones de {@link NoteService} tal como las usa la interfaz:
+ * las lecturas pasan por la caché de notas y las escrituras por la cola que
+ * las agrupa en transacciones.
+ *
+ * <p>Las escrituras esperan a que se confirmen en disco, igual que
+ * {@code createNote}, {@code updateNote} y {@code deleteNote}.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    /** Número de notas de la base de datos. */
+    @Param({"1000", "100000", "1000000"})
+    public int notes;
+
+    private Path database;
+    private NoteService service;
+
+    /**
+     * Abre una copia nueva de la base de datos del tamaño indicado.
+     *
+     * @throws Exception Si no se puede preparar.
+     */
+    @Setup(Level.Trial)
+    public void open() throws Exception {
+        database = BenchmarkData.open(notes);
+        service = new NoteService();
+    }
+
+    /**
+     * Cierra y borra la copia.
+     *
+     * @throws Exception Si no se puede borrar.
+     */
+    @TearDown(Level.Trial)
+    public void close() throws Exception {
+        BenchmarkData.close(database);
+    }
+
+    /**
+     * Nota creada antes de cada medición de {@link #deleteNote(DeleteTarget)}.
+     */
+    @State(Scope.Thread)
+    public static class DeleteTarget {
+
+        int id;
+
+        /**
+         * Crea la nota que se va a eliminar, fuera de la medición.
+         *
+         * @param state Estado de la prueba.
+         */
+        @Setup(Level.Invocation)
+        public void create(ServiceBenchmark state) {
+            Note note = BenchmarkData.newNote();
+            state.service.createNote(note);
+            id = note.getId();
+        }
+    }
+
+    /**
+     * Lee el resumen de todas las notas.
+     *
+     * @return Las notas leídas.
+     */
+    @Benchmark
+    public List<Note> getAllNotes() {
+        return service.getAllNotes();
+    }
+
+    /**
+     * Lee el resumen de las notas de una categoría.
+     *
+     * @return Las notas leídas.
+     */
+    @Benchmark
+    public List<Note> getNotesByCategory() {
+        return service.getNotesByCategory(BenchmarkData.randomCategoryId());
+    }
+
+    /**
+     * Lee una página de una categoría a partir de una posición al azar.
+     *
+     * @return Las notas de la página.
+     */
+    @Benchmark
+    public List<Note> getNotesPage() {
+        return service.getNotesPage(BenchmarkData.randomId(notes), 100, BenchmarkData.randomCategoryId());
+    }
+
+    /**
+     * Lee una nota completa elegida al azar.
+     *
+     * @return La nota leída.
+     */
+    @Benchmark
+    public Note getNoteById() {
+        return service.getNoteById(BenchmarkData.randomId(notes));
+    }
+
+    /**
+     * Crea una nota.
+     *
+     * @return La nota creada.
+     */
+    @Benchmark
+    public Note createNote() {
+        Note note = BenchmarkData.newNote();
+        service.createNote(note);
+        return note;
+    }
+
+    /**
+     * Actualiza una nota existente elegida al azar.
+     */
+    @Benchmark
+    public void updateNote() {
+        service.updateNote(BenchmarkData.randomUpdate(notes));
+    }
+
+    /**
+     * Elimina una nota creada antes de la medición.
+     *
+     * @param target Nota que se elimina.
+     */
+    @Benchmark
+    public void deleteNote(DeleteTarget target) {
+        service.deleteNote(target.id);
+    }
+}
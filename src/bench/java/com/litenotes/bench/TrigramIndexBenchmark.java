@@ -0,0 +1,121 @@
+package com.litenotes.bench;
+
+import com.litenotes.model.SearchResult;
+import com.litenotes.service.NoteService;
+import com.litenotes.service.TrigramIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide las búsquedas del {@link TrigramIndex} frente a la búsqueda de texto
+ * completo, y lo que tarda en cargarse el índice.
+ *
+ * <p>Las búsquedas usan el índice ya cargado; {@link #load()} lo vacía antes
+ * de cada medición.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TrigramIndexBenchmark {
+
+    /** Número de notas de la base de datos. */
+    @Param({"1000", "100000", "1000000"})
+    public int notes;
+
+    private Path database;
+    private NoteService service;
+
+    /**
+     * Abre una copia nueva de la base de datos y carga el índice.
+     *
+     * @throws Exception Si no se puede preparar.
+     */
+    @Setup(Level.Trial)
+    public void open() throws Exception {
+        System.setProperty(TrigramIndex.MAX_NOTES_PROPERTY, String.valueOf(Math.max(notes, 500_000)));
+        database = BenchmarkData.open(notes);
+        TrigramIndex.shared().invalidate();
+        service = new NoteService();
+        service.searchApproximate("presupuesto", 0, 1);
+    }
+
+    /**
+     * Cierra y borra la copia.
+     *
+     * @throws Exception Si no se puede borrar.
+     */
+    @TearDown(Level.Trial)
+    public void close() throws Exception {
+        TrigramIndex.shared().invalidate();
+        BenchmarkData.close(database);
+    }
+
+    /**
+     * Busca el final del contenido de una nota al azar, en mitad de una
+     * palabra.
+     *
+     * @return Los resultados.
+     */
+    @Benchmark
+    public List<SearchResult> substring() {
+        return TrigramIndex.shared().substring("xx " + BenchmarkData.randomId(notes), 0, 50);
+    }
+
+    /**
+     * Busca una palabra mal escrita.
+     *
+     * @return Los resultados.
+     */
+    @Benchmark
+    public List<SearchResult> similar() {
+        return TrigramIndex.shared().similar("presupusto", BenchmarkData.randomCategoryId(), 50);
+    }
+
+    /**
+     * Busca la misma palabra bien escrita con el índice de texto completo,
+     * como referencia.
+     *
+     * @return Los resultados.
+     */
+    @Benchmark
+    public List<SearchResult> fullText() {
+        return service.search("presupuesto", BenchmarkData.randomCategoryId(), 50);
+    }
+
+    /**
+     * Vacía el índice y lo vuelve a cargar con una búsqueda.
+     *
+     * @return Los resultados de la búsqueda.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public List<SearchResult> load() {
+        TrigramIndex.shared().invalidate();
+        return TrigramIndex.shared().substring("presupuesto", 0, 1);
+    }
+}
@@ -1,5 +1,8 @@
 package com.litenotes;
 
+import com.litenotes.repository.Database;
+import com.litenotes.service.NoteWriteQueue;
+import com.litenotes.service.ServiceExecutor;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -23,6 +26,20 @@ import javafx.stage.Stage;
  */
 public class App extends Application {
 
+    /**
+     * Prepara la base de datos antes de crear la ventana: abre las conexiones
+     * y aplica las migraciones pendientes del esquema. Se ejecuta fuera del
+     * hilo de JavaFX, de modo que una migración larga no bloquea la interfaz;
+     * si falla, la aplicación no llega a arrancar.
+     *
+     * @throws Exception Si no se puede abrir la base de datos o falla una
+     *         migración.
+     */
+    @Override
+    public void init() throws Exception {
+        Database.initialize();
+    }
+
     /**
      * Método de inicio de la aplicación JavaFX. Carga la vista principal desde
      * el archivo FXML y configura la ventana inicial.
@@ -39,6 +56,19 @@ public class App extends Application {
         stage.show();
     }
 
+    /**
+     * Se invoca al cerrar la aplicación. Detiene el ejecutor de operaciones en
+     * segundo plano, espera a que se escriban las modificaciones pendientes y
+     * libera las conexiones a la base de datos que mantiene abiertas
+     * {@link Database}.
+     */
+    @Override
+    public void stop() {
+        ServiceExecutor.shutdown();
+        NoteWriteQueue.shutdownShared();
+        Database.close();
+    }
+
     /**
      * Método principal que inicia la ejecución de la aplicación.
      *
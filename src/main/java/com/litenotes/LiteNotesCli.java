@@ -0,0 +1,456 @@
+package com.litenotes;
+
+import com.litenotes.loadtest.DataGenerator;
+import com.litenotes.loadtest.LoadDriver;
+import com.litenotes.metrics.Metrics;
+import com.litenotes.model.NoteRevision;
+import com.litenotes.repository.Database;
+import com.litenotes.repository.NoteRepository;
+import com.litenotes.server.NoteServer;
+import com.litenotes.service.NoteExporter;
+import com.litenotes.service.NoteImporter;
+import com.litenotes.service.NoteService;
+import com.litenotes.service.NoteWriteQueue;
+import com.litenotes.service.RevisionCompactor;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Punto de entrada de LiteNotes sin interfaz gráfica, pensado para tareas
+ * masivas que se lanzan desde un terminal o un script.
+ *
+ * <p>Uso:</p>
+ * <pre>
+ * java -cp litenotes.jar com.litenotes.LiteNotesCli [--db ruta] import origen [--restart]
+ * java -cp litenotes.jar com.litenotes.LiteNotesCli [--db ruta] export destino [--format f] [--gzip]
+ * java -cp litenotes.jar com.litenotes.LiteNotesCli [--db ruta] generate [--notes n] [...]
+ * java -cp litenotes.jar com.litenotes.LiteNotesCli [--db ruta] loadtest [--threads n] [...]
+ * java -cp litenotes.jar com.litenotes.LiteNotesCli [--db ruta] serve [--host h] [--port n]
+ * java -cp litenotes.jar com.litenotes.LiteNotesCli [--db ruta] history nota [revisión]
+ * </pre>
+ *
+ * <p>La opción {@code --db} equivale a la propiedad de sistema
+ * {@value Database#PATH_PROPERTY}. El programa termina con código {@code 0} si
+ * todo va bien, {@code 1} si la operación falla y {@code 2} si los argumentos
+ * no son válidos.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public final class LiteNotesCli {
+
+    private static final String USAGE = """
+            Uso: LiteNotesCli [--db ruta] <comando> [opciones]
+
+            Comandos:
+              import <origen> [--restart]
+                  Importa notas desde una carpeta, un ZIP o un archivo JSONL.
+                  Si una importación anterior del mismo origen se interrumpió,
+                  continúa donde lo dejó; --restart la descarta y empieza de cero.
+
+              export <destino> [--format jsonl|markdown|txt] [--gzip]
+                  Exporta todas las notas. Sin --format, el formato se deduce
+                  del destino: .jsonl, .txt, o Markdown para una carpeta o un
+                  .zip. Un destino terminado en .gz se comprime con gzip.
+
+              generate [--notes n] [--categories n] [--skew s] [--median-size t]
+                       [--spread d] [--huge-fraction f] [--huge-size t] [--seed n]
+                  Rellena la base de datos con notas sintéticas. Los tamaños
+                  admiten los sufijos k y m (por ejemplo, 4m). Por defecto:
+                  10000 notas, 20 categorías con sesgo 1, contenidos de unos 2k
+                  y una nota de 4m de cada 10000.
+
+              loadtest [--threads n] [--warmup s] [--duration s]
+                       [--mix list=40,filter=30,create=10,update=15,delete=5]
+                  Lanza la mezcla de operaciones indicada desde varios hilos y
+                  muestra el rendimiento y las latencias p50, p99 y p999 de cada
+                  operación. Por defecto: 8 hilos, 5 s de calentamiento y 30 s
+                  de medición. Después se muestran las métricas de cada
+                  llamada al servicio y a los repositorios, calentamiento
+                  incluido.
+
+              compress [--vacuum]
+                  Comprime las notas largas guardadas antes de que existiera la
+                  compresión y compacta el historial de revisiones pendiente.
+                  Con --vacuum reescribe después el archivo para devolver al
+                  sistema el espacio liberado.
+
+              serve [--host h] [--port n]
+                  Publica las notas y las categorías como API JSON por HTTP
+                  hasta que se detiene el proceso. Por defecto escucha en
+                  127.0.0.1:8080.
+
+              history <nota> [revisión]
+                  Lista las versiones anteriores de una nota, de la más
+                  reciente a la más antigua, o muestra el título y el contenido
+                  de una de ellas.
+            """;
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private LiteNotesCli() {}
+
+    /**
+     * Ejecuta el comando indicado en los argumentos.
+     *
+     * @param args Argumentos de línea de comandos.
+     */
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    private static int run(String[] args) {
+        List<String> rest = new ArrayList<>(Arrays.asList(args));
+
+        if (rest.size() >= 2 && rest.get(0).equals("--db")) {
+            Database.configure(rest.get(1));
+            rest = rest.subList(2, rest.size());
+        }
+
+        if (rest.isEmpty()) {
+            System.err.print(USAGE);
+            return 2;
+        }
+
+        String command = rest.get(0);
+        List<String> options = rest.subList(1, rest.size());
+
+        try {
+            return switch (command) {
+                case "import" -> importNotes(options);
+                case "export" -> exportNotes(options);
+                case "generate" -> generate(options);
+                case "loadtest" -> loadTest(options);
+                case "compress" -> compress(options);
+                case "serve" -> serve(options);
+                case "history" -> history(options);
+                default -> {
+                    System.err.println("Comando desconocido: " + command);
+                    System.err.print(USAGE);
+                    yield 2;
+                }
+            };
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+            e.printStackTrace();
+            return 1;
+        } finally {
+            NoteWriteQueue.shutdownShared();
+            Database.close();
+        }
+    }
+
+    private static int importNotes(List<String> options) throws Exception {
+        boolean restart = options.contains("--restart");
+        List<String> paths = options.stream().filter(o -> !o.startsWith("--")).toList();
+
+        if (paths.size() != 1) {
+            System.err.print(USAGE);
+            return 2;
+        }
+
+        Path source = Path.of(paths.get(0));
+        if (!Files.exists(source)) {
+            System.err.println("No existe el origen: " + source);
+            return 1;
+        }
+
+        NoteImporter importer = new NoteImporter();
+        if (restart) {
+            importer.restart(source);
+        }
+
+        long start = System.nanoTime();
+        NoteImporter.Result result = importer.importFrom(source, (processed, total) ->
+                System.err.printf("\rImportando: %d/%d", processed, total));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        System.err.println();
+        if (result.resumedFrom() > 0) {
+            System.out.printf("Reanudada desde la entrada %d.%n", result.resumedFrom());
+        }
+        System.out.printf("%d notas importadas y %d entradas omitidas en %d ms.%n",
+                result.imported(), result.skipped(), millis);
+        result.errors().forEach(error -> System.out.println("  " + error));
+
+        return 0;
+    }
+
+    private static int exportNotes(List<String> options) {
+        List<String> paths = new ArrayList<>();
+        NoteExporter.Format format = null;
+        boolean gzip = false;
+
+        for (int i = 0; i < options.size(); i++) {
+            String option = options.get(i);
+            if (option.equals("--gzip")) {
+                gzip = true;
+            } else if (option.equals("--format") && i + 1 < options.size()) {
+                try {
+                    format = NoteExporter.Format.valueOf(options.get(++i).toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Formato desconocido: " + options.get(i));
+                    return 2;
+                }
+            } else if (!option.startsWith("--")) {
+                paths.add(option);
+            } else {
+                System.err.print(USAGE);
+                return 2;
+            }
+        }
+
+        if (paths.size() != 1) {
+            System.err.print(USAGE);
+            return 2;
+        }
+
+        Path target = Path.of(paths.get(0));
+        if (format == null) {
+            format = NoteExporter.formatFor(target);
+        }
+        gzip |= target.getFileName().toString().endsWith(".gz");
+
+        long start = System.nanoTime();
+        long count;
+        try {
+            count = new NoteExporter().export(target, format, gzip);
+        } catch (IOException e) {
+            System.err.println("No se pudo escribir " + target + ": " + e.getMessage());
+            return 1;
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("%d notas exportadas a %s en %d ms.%n", count, target, millis);
+        return 0;
+    }
+
+    private static int generate(List<String> arguments) throws Exception {
+        Map<String, String> options = parseOptions(arguments, Set.of("--notes", "--categories", "--skew",
+                "--median-size", "--spread", "--huge-fraction", "--huge-size", "--seed"));
+        if (options == null) {
+            return 2;
+        }
+
+        DataGenerator.Options defaults = DataGenerator.Options.defaults();
+        DataGenerator.Options generation = new DataGenerator.Options(
+                Integer.parseInt(options.getOrDefault("--notes", String.valueOf(defaults.notes()))),
+                Integer.parseInt(options.getOrDefault("--categories", String.valueOf(defaults.categories()))),
+                Double.parseDouble(options.getOrDefault("--skew", String.valueOf(defaults.categorySkew()))),
+                parseSize(options.getOrDefault("--median-size", String.valueOf(defaults.medianContentSize()))),
+                Double.parseDouble(options.getOrDefault("--spread", String.valueOf(defaults.contentSpread()))),
+                Double.parseDouble(options.getOrDefault("--huge-fraction", String.valueOf(defaults.hugeFraction()))),
+                parseSize(options.getOrDefault("--huge-size", String.valueOf(defaults.hugeContentSize()))),
+                Long.parseLong(options.getOrDefault("--seed", String.valueOf(defaults.seed()))));
+
+        long start = System.nanoTime();
+        DataGenerator.Summary summary = new DataGenerator().generate(generation, inserted ->
+                System.err.printf("\rGenerando: %d/%d", inserted, generation.notes()));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        System.err.println();
+        System.out.printf("%d notas en %d categorías (%d MB de contenido; la mayor, %d KB) en %d ms.%n",
+                summary.notes(), summary.categories(), summary.contentChars() / (1024 * 1024),
+                summary.largestNote() / 1024, millis);
+        return 0;
+    }
+
+    private static int loadTest(List<String> arguments) throws Exception {
+        Map<String, String> options = parseOptions(arguments, Set.of("--threads", "--warmup", "--duration", "--mix"));
+        if (options == null) {
+            return 2;
+        }
+
+        Map<LoadDriver.Operation, Integer> mix = LoadDriver.Options.defaultMix();
+        if (options.containsKey("--mix")) {
+            mix = new EnumMap<>(LoadDriver.Operation.class);
+            for (String weight : options.get("--mix").split(",")) {
+                String[] parts = weight.split("=", 2);
+                if (parts.length != 2) {
+                    System.err.println("Peso no válido en --mix: " + weight);
+                    return 2;
+                }
+                try {
+                    mix.put(LoadDriver.Operation.valueOf(parts[0].strip().toUpperCase(Locale.ROOT)),
+                            Integer.parseInt(parts[1].strip()));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Peso no válido en --mix: " + weight);
+                    return 2;
+                }
+            }
+        }
+
+        LoadDriver.Options load = new LoadDriver.Options(
+                Integer.parseInt(options.getOrDefault("--threads", "8")),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("--warmup", "5"))),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("--duration", "30"))),
+                mix);
+
+        System.err.printf("Ejecutando %d hilos durante %d s (más %d s de calentamiento)...%n",
+                load.threads(), load.duration().toSeconds(), load.warmup().toSeconds());
+
+        Metrics.setEnabled(true);
+        LoadDriver.Report report = new LoadDriver().run(load);
+        System.out.print(report.format());
+        System.out.println();
+        System.out.print(Metrics.report());
+        return 0;
+    }
+
+    private static int compress(List<String> options) throws Exception {
+        boolean vacuum = options.remove("--vacuum");
+        if (!options.isEmpty()) {
+            System.err.print(USAGE);
+            return 2;
+        }
+
+        Path file = Path.of(Database.getPath());
+        long before = size(file);
+        long start = System.nanoTime();
+
+        int count = new NoteRepository().compressPending(compressed ->
+                System.err.printf("\rComprimidas: %d", compressed));
+        System.err.println();
+        int revisions = RevisionCompactor.shared().compactAll();
+
+        if (vacuum) {
+            Database.vacuum();
+        }
+        // Al cerrar se vuelca el diario WAL en el archivo
+        Database.close();
+
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("%d notas comprimidas y %d revisiones compactadas en %d ms;"
+                        + " el archivo pasa de %d MB a %d MB.%n",
+                count, revisions, millis, before / (1024 * 1024), size(file) / (1024 * 1024));
+        return 0;
+    }
+
+    private static int history(List<String> options) {
+        if (options.isEmpty() || options.size() > 2) {
+            System.err.print(USAGE);
+            return 2;
+        }
+
+        int noteId = Integer.parseInt(options.get(0));
+        NoteService service = new NoteService();
+
+        if (options.size() == 1) {
+            List<NoteRevision> revisions = service.getRevisions(noteId);
+            for (NoteRevision revision : revisions) {
+                System.out.printf("%4d  %-19s  %s%n", revision.getNumber(), formatDate(revision.getSavedAt()),
+                        revision.getTitle());
+            }
+            System.out.printf("%d revisiones.%n", revisions.size());
+            return 0;
+        }
+
+        NoteRevision revision = service.getRevision(noteId, Integer.parseInt(options.get(1)));
+        if (revision == null) {
+            System.err.println("La nota " + noteId + " no tiene la revisión " + options.get(1));
+            return 1;
+        }
+        System.out.println(revision.getTitle());
+        System.out.println();
+        System.out.println(revision.getContent());
+        return 0;
+    }
+
+    private static String formatDate(long millis) {
+        if (millis == 0) {
+            return "(sin fecha)";
+        }
+        return DATE_FORMAT.format(Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()));
+    }
+
+    private static int serve(List<String> arguments) throws Exception {
+        Map<String, String> options = parseOptions(arguments, Set.of("--host", "--port"));
+        if (options == null) {
+            return 2;
+        }
+
+        InetSocketAddress address = new InetSocketAddress(options.getOrDefault("--host", "127.0.0.1"),
+                Integer.parseInt(options.getOrDefault("--port", "8080")));
+
+        Database.initialize();
+        NoteServer server = new NoteServer(address);
+        server.start();
+        System.out.printf("Escuchando en http://%s:%d/api/%n",
+                server.getAddress().getHostString(), server.getAddress().getPort());
+
+        // Al detener el proceso se escriben las modificaciones pendientes
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            NoteWriteQueue.shutdownShared();
+            Database.close();
+            stopped.countDown();
+        }, "litenotes-server-stop"));
+
+        stopped.await();
+        return 0;
+    }
+
+    private static long size(Path file) throws IOException {
+        return Files.exists(file) ? Files.size(file) : 0;
+    }
+
+    /**
+     * Lee opciones de la forma {@code --nombre valor}.
+     *
+     * @return Las opciones leídas, o {@code null} si hay alguna desconocida o
+     *         sin valor, tras mostrar el uso.
+     */
+    private static Map<String, String> parseOptions(List<String> arguments, Set<String> known) {
+        Map<String, String> options = new HashMap<>();
+
+        for (int i = 0; i < arguments.size(); i++) {
+            String name = arguments.get(i);
+            if (!known.contains(name) || i + 1 >= arguments.size()) {
+                System.err.println("Opción no válida: " + name);
+                System.err.print(USAGE);
+                return null;
+            }
+            options.put(name, arguments.get(++i));
+        }
+
+        return options;
+    }
+
+    /**
+     * Interpreta un tamaño en caracteres con un sufijo opcional {@code k} o
+     * {@code m}.
+     */
+    private static int parseSize(String value) {
+        String size = value.strip().toLowerCase(Locale.ROOT);
+        int factor = 1;
+
+        if (size.endsWith("k")) {
+            factor = 1024;
+        } else if (size.endsWith("m")) {
+            factor = 1024 * 1024;
+        }
+        if (factor > 1) {
+            size = size.substring(0, size.length() - 1);
+        }
+
+        return Math.toIntExact((long) (Double.parseDouble(size) * factor));
+    }
+}
@@ -0,0 +1,64 @@
+package com.litenotes.controller;
+
+import javafx.application.Platform;
+import javafx.scene.control.Alert;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * Utilidades para consumir desde los controladores los futuros devueltos por
+ * los servicios asíncronos. El resultado se entrega siempre en el hilo de
+ * JavaFX mediante {@link Platform#runLater(Runnable)}.
+ *
+ * <p>Si la operación falla, se muestra el mensaje del error en un
+ * {@link Alert}; las operaciones canceladas se ignoran sin avisar.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+final class FxAsync {
+
+    private FxAsync() {}
+
+    /**
+     * Ejecuta la acción en el hilo de JavaFX cuando el futuro se complete con
+     * éxito.
+     *
+     * @param future Futuro devuelto por un servicio asíncrono.
+     * @param onSuccess Acción que recibe el resultado.
+     * @param <T> Tipo del resultado.
+     */
+    static <T> void onSuccess(CompletableFuture<T> future, Consumer<T> onSuccess) {
+        future.whenComplete((result, error) -> Platform.runLater(() -> {
+            if (error == null) {
+                onSuccess.accept(result);
+            } else {
+                showError(error);
+            }
+        }));
+    }
+
+    /**
+     * Muestra el error de una operación asíncrona, salvo que se trate de una
+     * cancelación.
+     *
+     * @param error Error con el que terminó el futuro.
+     */
+    static void showError(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+
+        if (cause instanceof CancellationException) {
+            return;
+        }
+
+        cause.printStackTrace();
+        String message = cause.getMessage() != null ? cause.getMessage() : cause.toString();
+        new Alert(Alert.AlertType.ERROR, message).show();
+    }
+}
@@ -2,24 +2,54 @@ package com.litenotes.controller;
 
 import com.litenotes.model.Category;
 import com.litenotes.model.Note;
-import com.litenotes.service.CategoryService;
-import com.litenotes.service.NoteService;
+import com.litenotes.model.NoteEvent;
+import com.litenotes.model.SearchResult;
+import com.litenotes.service.AsyncCategoryService;
+import com.litenotes.service.AsyncNoteService;
+import com.litenotes.service.NoteExporter;
+import com.litenotes.service.NoteImporter;
+import com.litenotes.service.TitleIndex;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
 import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
+import javafx.scene.control.MenuButton;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.TextField;
+import javafx.stage.DirectoryChooser;
+import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
 /**
  * Controlador principal de la aplicación LiteNotes. Gestiona la pantalla inicial,
- * permitiendo al usuario visualizar, filtrar, crear, editar y eliminar notas.
+ * permitiendo al usuario visualizar, filtrar, buscar, crear, editar y eliminar
+ * notas, así como importarlas y exportarlas de forma masiva.
  * 
- * <p>Este controlador interactúa con {@link NoteService} y {@link CategoryService}
- * para obtener y manipular los datos mostrados en la interfaz.</p>
+ * <p>Este controlador interactúa con {@link AsyncNoteService} y
+ * {@link AsyncCategoryService} para obtener y manipular los datos mostrados en
+ * la interfaz. Todas las consultas se hacen en segundo plano y sus resultados
+ * se aplican en el hilo de JavaFX; si el usuario cambia el filtro o la
+ * búsqueda antes de que lleguen, los resultados antiguos se descartan.</p>
+ *
+ * <p>Las altas, modificaciones y bajas no recargan la lista: el controlador
+ * recibe los {@link NoteEvent} de cada escritura confirmada y actualiza solo
+ * la nota afectada, respetando el filtro de categoría activo.</p>
  *
  * @author Aníbal
  * @version 1.0
@@ -27,35 +57,80 @@ import javafx.stage.Stage;
  */
 public class MainController {
 
+    /** Número máximo de resultados que se muestran en una búsqueda. */
+    private static final int SEARCH_LIMIT = 200;
+
+    /** Número de notas que se cargan cada vez que el usuario se desplaza. */
+    private static final int PAGE_SIZE = 100;
+
     @FXML
     private ListView<Note> notesList;
 
     @FXML
     private ComboBox<Category> filterBox;
 
-    private final NoteService noteService = new NoteService();
-    private final CategoryService categoryService = new CategoryService();
+    @FXML
+    private TextField searchField;
+
+    @FXML
+    private MenuButton importButton;
+
+    @FXML
+    private MenuButton exportButton;
+
+    @FXML
+    private ProgressBar importProgress;
+
+    @FXML
+    private Label importStatus;
+
+    private final AsyncNoteService noteService = new AsyncNoteService();
+    private final AsyncCategoryService categoryService = new AsyncCategoryService();
 
     private final ObservableList<Note> notes = FXCollections.observableArrayList();
 
+    /** Fragmentos resaltados de la última búsqueda, indexados por ID de nota. */
+    private final Map<Integer, String> snippets = new HashMap<>();
+
+    private final PagedNoteList pager = new PagedNoteList(notes, PAGE_SIZE);
+
+    /** Búsqueda por título del campo de búsqueda, que reutiliza la anterior. */
+    private final TitleIndex.Search titleSearch = noteService.newTitleSearch();
+
+    /** Búsqueda en curso; cualquier otra respuesta que llegue se descarta. */
+    private CompletableFuture<List<SearchResult>> pendingSearch;
+
     /**
-     * Inicializa la interfaz principal. Carga las notas, las categorías,
-     * configura el filtro y habilita la apertura de notas mediante doble clic.
+     * Inicializa la interfaz principal. Carga las categorías y la primera
+     * página de notas, configura el filtro y la búsqueda, y habilita la
+     * apertura de notas mediante doble clic.
      */
     @FXML
     public void initialize() {
 
-        // Cargar notas
-        notes.setAll(noteService.getAllNotes());
+        // Las páginas siguientes se cargan al desplazarse por la lista
         notesList.setItems(notes);
+        notesList.setCellFactory(list -> new NoteListCell(
+                note -> snippets.get(note.getId()),
+                pager::onCellShown
+        ));
 
         // Cargar categorías en el filtro
         filterBox.getItems().add(new Category(0, "Todas"));
-        filterBox.getItems().addAll(categoryService.getAllCategories());
         filterBox.getSelectionModel().selectFirst();
+        loadCategories();
+
+        // Cargar la primera página de notas
+        applyFilter();
+
+        // Aplicar en su sitio los cambios guardados desde cualquier ventana
+        noteService.addChangeListener(event -> Platform.runLater(() -> applyChange(event)));
 
         filterBox.setOnAction(e -> applyFilter());
 
+        // Buscar mientras se escribe
+        searchField.textProperty().addListener((obs, oldText, newText) -> applyFilter());
+
         // Doble clic para abrir nota
         notesList.setOnMouseClicked(event -> {
             if (event.getClickCount() == 2) {
@@ -67,42 +142,326 @@ public class MainController {
         });
     }
 
+    /**
+     * Carga en el filtro las categorías guardadas, a continuación de la
+     * opción "Todas".
+     */
+    private void loadCategories() {
+        FxAsync.onSuccess(categoryService.getAllCategories(), categories -> {
+            Category selected = filterBox.getValue();
+            filterBox.getItems().remove(1, filterBox.getItems().size());
+            filterBox.getItems().addAll(categories);
+
+            if (filterBox.getItems().contains(selected)) {
+                filterBox.setValue(selected);
+            } else {
+                filterBox.getSelectionModel().selectFirst();
+            }
+        });
+    }
+
     /**
      * Aplica el filtro seleccionado en el ComboBox de categorías.
      * Si se selecciona "Todas", se muestran todas las notas.
      * En caso contrario, solo las notas pertenecientes a la categoría elegida.
+     * Las notas se cargan por páginas a medida que el usuario se desplaza.
+     *
+     * <p>Si el campo de búsqueda contiene texto, se muestran en su lugar las
+     * notas de esa categoría que lo contienen. Las que lo tienen en el título
+     * se muestran en el acto, desde el índice de títulos en memoria; las que
+     * solo lo tienen en el contenido se añaden detrás cuando llega la búsqueda
+     * de texto completo. Si ninguna de las dos encuentra nada, se buscan
+     * fragmentos del texto y palabras parecidas, por si el usuario ha escrito
+     * parte de una palabra o se ha equivocado.</p>
      */
     private void applyFilter() {
-        Category selected = filterBox.getValue();
+        int categoryId = filterBox.getValue().getId();
+        String query = searchField.getText();
+
+        if (pendingSearch != null) {
+            pendingSearch.cancel(false);
+            pendingSearch = null;
+        }
+
+        if (query != null && !query.isBlank()) {
+            List<Note> titleMatches = titleSearch.find(query, categoryId, SEARCH_LIMIT);
+            if (titleMatches != null) {
+                snippets.clear();
+                pager.showAll(titleMatches);
+            }
 
-        if (selected.getId() == 0) {
-            notes.setAll(noteService.getAllNotes());
+            CompletableFuture<List<SearchResult>> search =
+                    noteService.search(query, categoryId, SEARCH_LIMIT);
+            pendingSearch = search;
+
+            FxAsync.onSuccess(search, results -> {
+                if (search != pendingSearch) {
+                    return; // el usuario ya ha cambiado la búsqueda
+                }
+                pendingSearch = null;
+
+                if (results.isEmpty() && (titleMatches == null || titleMatches.isEmpty())
+                        && query.strip().length() >= 3) {
+                    searchApproximate(query, categoryId);
+                } else {
+                    showResults(titleMatches, results);
+                }
+            });
         } else {
-            notes.setAll(noteService.getNotesByCategory(selected.getId()));
+            snippets.clear();
+            pager.reset((afterId, limit) -> noteService.getNotesPage(afterId, limit, categoryId));
         }
     }
 
     /**
-     * Abre la ventana de creación de una nueva nota.
-     * Tras cerrarse la ventana, se actualiza la lista aplicando el filtro actual.
+     * Lanza la búsqueda de fragmentos y palabras parecidas y muestra sus
+     * resultados si el usuario no ha cambiado la búsqueda entretanto.
+     */
+    private void searchApproximate(String query, int categoryId) {
+        CompletableFuture<List<SearchResult>> search =
+                noteService.searchApproximate(query, categoryId, SEARCH_LIMIT);
+        pendingSearch = search;
+
+        FxAsync.onSuccess(search, results -> {
+            if (search != pendingSearch) {
+                return;
+            }
+            pendingSearch = null;
+            showResults(null, results);
+        });
+    }
+
+    private void showResults(List<Note> titleMatches, List<SearchResult> results) {
+        snippets.clear();
+        for (SearchResult result : results) {
+            snippets.put(result.getNote().getId(), result.getSnippet());
+        }
+        pager.showAll(merge(titleMatches, results));
+    }
+
+    /**
+     * Une las coincidencias por título, que ya se están mostrando, con los
+     * resultados de la búsqueda de texto completo que no estaban entre ellas,
+     * sin superar el máximo de resultados.
+     *
+     * @param titleMatches Notas encontradas por título, o {@code null} si el
+     *                     índice de títulos no estaba disponible.
+     * @param results Resultados de la búsqueda de texto completo.
+     * @return Las notas que se muestran.
+     */
+    private static List<Note> merge(List<Note> titleMatches, List<SearchResult> results) {
+        Map<Integer, Note> merged = new LinkedHashMap<>();
+        if (titleMatches != null) {
+            for (Note note : titleMatches) {
+                merged.put(note.getId(), note);
+            }
+        }
+        for (SearchResult result : results) {
+            if (merged.size() == SEARCH_LIMIT) {
+                break;
+            }
+            merged.putIfAbsent(result.getNote().getId(), result.getNote());
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    /**
+     * Aplica a la lista un cambio confirmado sobre una nota. Una nota creada o
+     * modificada se muestra solo si pertenece a la categoría seleccionada; si
+     * hay una búsqueda activa, solo se actualizan los resultados que ya se
+     * están mostrando.
+     *
+     * @param event Cambio recibido del servicio de notas.
+     */
+    private void applyChange(NoteEvent event) {
+        if (event.getType() == NoteEvent.Type.DELETED) {
+            snippets.remove(event.getNoteId());
+            pager.remove(event.getNoteId());
+            return;
+        }
+
+        Note note = event.getNote();
+        int categoryId = filterBox.getValue().getId();
+        boolean visible = categoryId == 0
+                || (note.getCategory() != null && note.getCategory().getId() == categoryId);
+
+        pager.put(Note.summary(note.getId(), note.getTitle(), note.getCategory()), visible);
+    }
+
+    /**
+     * Abre la ventana de creación de una nueva nota. La nota guardada llega a
+     * la lista como un evento de alta.
      */
     @FXML
     private void onCreateNote() {
         openWindow("/views/note-form.fxml");
-        applyFilter();
     }
 
     /**
-     * Elimina la nota seleccionada en la lista, si existe.
-     * Tras eliminarla, se actualiza la lista aplicando el filtro actual.
+     * Elimina la nota seleccionada en la lista, si existe. La nota desaparece
+     * de la lista cuando llega el evento de baja.
      */
     @FXML
     private void onDeleteNote() {
         Note selected = notesList.getSelectionModel().getSelectedItem();
         if (selected != null) {
-            noteService.deleteNote(selected.getId());
-            applyFilter();
+            FxAsync.onSuccess(noteService.deleteNote(selected.getId()), ignored -> {});
+        }
+    }
+
+    /**
+     * Importa las notas de una carpeta elegida por el usuario.
+     */
+    @FXML
+    private void onImportFolder() {
+        DirectoryChooser chooser = new DirectoryChooser();
+        chooser.setTitle("Importar carpeta de notas");
+        startImport(chooser.showDialog(notesList.getScene().getWindow()));
+    }
+
+    /**
+     * Importa las notas de un archivo ZIP o JSONL elegido por el usuario.
+     */
+    @FXML
+    private void onImportFile() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Importar notas");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(
+                "Archivos de notas", "*.zip", "*.jsonl", "*.ndjson"));
+        startImport(chooser.showOpenDialog(notesList.getScene().getWindow()));
+    }
+
+    /**
+     * Lanza la importación en segundo plano, mostrando su avance en la barra
+     * inferior. Al terminar se recargan las categorías y la lista, y se
+     * muestra un resumen.
+     *
+     * @param source Carpeta o archivo elegido, o {@code null} si el usuario
+     *               canceló el diálogo.
+     */
+    private void startImport(File source) {
+        if (source == null) {
+            return;
+        }
+
+        importButton.setDisable(true);
+        importProgress.setProgress(ProgressBar.INDETERMINATE_PROGRESS);
+        importProgress.setVisible(true);
+        importProgress.setManaged(true);
+        importStatus.setText("Importando...");
+
+        NoteImporter.ProgressListener listener = (processed, total) -> Platform.runLater(() -> {
+            importProgress.setProgress(total == 0 ? 1 : (double) processed / total);
+            importStatus.setText(processed + " / " + total);
+        });
+
+        noteService.importNotes(source.toPath(), listener).whenComplete((result, error) ->
+                Platform.runLater(() -> {
+                    importButton.setDisable(false);
+                    importProgress.setVisible(false);
+                    importProgress.setManaged(false);
+                    importStatus.setText("");
+
+                    if (error != null) {
+                        FxAsync.showError(error);
+                    } else {
+                        showImportSummary(result);
+                    }
+
+                    loadCategories();
+                    applyFilter();
+                }));
+    }
+
+    /**
+     * Muestra el resumen de una importación terminada.
+     *
+     * @param result Resultado de la importación.
+     */
+    private void showImportSummary(NoteImporter.Result result) {
+        StringBuilder message = new StringBuilder()
+                .append(result.imported()).append(" notas importadas.");
+
+        if (result.resumedFrom() > 0) {
+            message.append("\nSe ha reanudado una importación anterior.");
         }
+        if (result.skipped() > 0) {
+            message.append("\n").append(result.skipped()).append(" entradas omitidas:");
+            result.errors().forEach(error -> message.append("\n  ").append(error));
+        }
+
+        Alert alert = new Alert(Alert.AlertType.INFORMATION, message.toString());
+        alert.setHeaderText("Importación terminada");
+        alert.show();
+    }
+
+    /**
+     * Exporta todas las notas a un archivo JSONL.
+     */
+    @FXML
+    private void onExportJsonLines() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Exportar notas");
+        chooser.setInitialFileName("notas.jsonl");
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("JSONL", "*.jsonl"),
+                new FileChooser.ExtensionFilter("JSONL comprimido", "*.jsonl.gz"));
+        startExport(chooser.showSaveDialog(notesList.getScene().getWindow()), NoteExporter.Format.JSONL);
+    }
+
+    /**
+     * Exporta todas las notas como archivos Markdown en una carpeta.
+     */
+    @FXML
+    private void onExportMarkdown() {
+        DirectoryChooser chooser = new DirectoryChooser();
+        chooser.setTitle("Exportar notas a una carpeta");
+        startExport(chooser.showDialog(notesList.getScene().getWindow()), NoteExporter.Format.MARKDOWN);
+    }
+
+    /**
+     * Exporta todas las notas a un único archivo de texto.
+     */
+    @FXML
+    private void onExportText() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Exportar notas");
+        chooser.setInitialFileName("notas.txt");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Texto", "*.txt"));
+        startExport(chooser.showSaveDialog(notesList.getScene().getWindow()), NoteExporter.Format.TXT);
+    }
+
+    /**
+     * Lanza la exportación en segundo plano y muestra cuántas notas se han
+     * exportado al terminar. Un nombre terminado en {@code .gz} se comprime.
+     *
+     * @param target Archivo o carpeta elegido, o {@code null} si el usuario
+     *               canceló el diálogo.
+     * @param format Formato de la exportación.
+     */
+    private void startExport(File target, NoteExporter.Format format) {
+        if (target == null) {
+            return;
+        }
+
+        boolean gzip = target.getName().endsWith(".gz");
+        exportButton.setDisable(true);
+        importStatus.setText("Exportando...");
+
+        noteService.exportNotes(target.toPath(), format, gzip).whenComplete((count, error) ->
+                Platform.runLater(() -> {
+                    exportButton.setDisable(false);
+                    importStatus.setText("");
+
+                    if (error != null) {
+                        FxAsync.showError(error);
+                    } else {
+                        Alert alert = new Alert(Alert.AlertType.INFORMATION,
+                                count + " notas exportadas a " + target);
+                        alert.setHeaderText("Exportación terminada");
+                        alert.show();
+                    }
+                }));
     }
 
     /**
@@ -125,28 +484,49 @@ public class MainController {
     }
 
     /**
-     * Abre la ventana de edición de una nota existente.
-     * Se pasa la nota seleccionada al controlador correspondiente.
+     * Abre la ventana de edición de una nota existente. La lista solo contiene
+     * resúmenes, así que antes se carga en segundo plano la nota completa, que
+     * después se pasa al controlador correspondiente. Las notas fragmentadas
+     * no se cargan enteras: basta con la lista de sus fragmentos, que el
+     * editor lee a medida que los muestra.
      *
      * @param note Nota que se desea editar.
-     * @throws RuntimeException si ocurre un error al cargar la vista de edición.
      */
     private void openEditWindow(Note note) {
+        FxAsync.onSuccess(noteService.getChunks(note.getId()), chunks -> {
+            if (!chunks.isEmpty()) {
+                showEditWindow(controller -> controller.setChunkedNote(note, chunks));
+                return;
+            }
+
+            FxAsync.onSuccess(noteService.getNoteById(note.getId()), fullNote -> {
+                if (fullNote == null) {
+                    pager.remove(note.getId()); // la nota ya no existe
+                } else {
+                    showEditWindow(controller -> controller.setNote(fullNote));
+                }
+            });
+        });
+    }
+
+    /**
+     * Muestra la ventana modal de edición.
+     *
+     * @param setup Acción que pasa la nota al controlador de la ventana.
+     * @throws RuntimeException si ocurre un error al cargar la vista de edición.
+     */
+    private void showEditWindow(Consumer<NoteEditController> setup) {
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/views/note-edit.fxml"));
             Stage stage = new Stage();
             stage.setScene(new Scene(loader.load()));
 
             // Pasar la nota al controlador
-            NoteEditController controller = loader.getController();
-            controller.setNote(note);
+            setup.accept(loader.getController());
 
             stage.initModality(Modality.APPLICATION_MODAL);
             stage.setTitle("Editar nota");
             stage.showAndWait();
-
-            applyFilter(); // refrescar lista después de editar
-
         } catch (Exception e) {
             e.printStackTrace();
             throw new RuntimeException("No se pudo abrir la ventana de edición.", e);
@@ -0,0 +1,131 @@
+package com.litenotes.controller;
+
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.TextArea;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Celda del editor de notas fragmentadas. Cada celda muestra un fragmento de
+ * la nota en su propio {@link TextArea}, con tantas filas como líneas tiene,
+ * de modo que la lista se lee como un único texto continuo.
+ *
+ * <p>La lista solo crea las celdas visibles, así que en memoria hay unos
+ * pocos {@link TextArea} sea cual sea el tamaño de la nota. Cuando una celda
+ * muestra un fragmento cuyo texto aún no se ha cargado, pide su carga a
+ * {@link NoteEditController} y queda de solo lectura hasta que llega. Los
+ * cambios del usuario se copian al fragmento en cuanto se escriben, por lo
+ * que no se pierden aunque la celda pase a mostrar otro.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+final class NoteChunkCell extends ListCell<NoteChunkCell.Chunk> {
+
+    /**
+     * Estado de un fragmento en el editor.
+     */
+    static final class Chunk {
+
+        /** Identificador del fragmento guardado. */
+        final int id;
+
+        /** Texto del fragmento, o {@code null} mientras no se ha cargado. */
+        String text;
+
+        /** Indica si ya se ha pedido el texto. */
+        boolean loading;
+
+        /** Indica si el usuario ha modificado el texto. */
+        boolean modified;
+
+        Chunk(int id) {
+            this.id = id;
+        }
+    }
+
+    private final IntConsumer onLoadRequest;
+    private final TextArea area = new TextArea();
+
+    /** Evita tomar por cambios del usuario los que hace la propia celda. */
+    private boolean updating;
+
+    /**
+     * Crea una celda que pide la carga de los fragmentos con la acción
+     * indicada.
+     *
+     * @param onLoadRequest Acción que recibe la posición de un fragmento sin
+     *                      texto que la celda necesita mostrar.
+     */
+    NoteChunkCell(IntConsumer onLoadRequest) {
+        this.onLoadRequest = onLoadRequest;
+
+        area.setWrapText(false);
+        area.textProperty().addListener((observable, previous, text) -> {
+            Chunk chunk = getItem();
+            if (!updating && chunk != null && chunk.text != null) {
+                chunk.text = text;
+                chunk.modified = true;
+                fitRows(text);
+            }
+        });
+
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+    }
+
+    /**
+     * Muestra el fragmento indicado, o pide su texto si aún no lo tiene.
+     *
+     * @param chunk Fragmento que se muestra en la celda.
+     * @param empty Indica si la celda está vacía.
+     */
+    @Override
+    protected void updateItem(Chunk chunk, boolean empty) {
+        super.updateItem(chunk, empty);
+
+        if (empty || chunk == null) {
+            setGraphic(null);
+            return;
+        }
+
+        updating = true;
+        try {
+            if (chunk.text == null) {
+                area.clear();
+                area.setPromptText("Cargando…");
+                area.setEditable(false);
+                area.setPrefRowCount(1);
+                onLoadRequest.accept(getIndex());
+            } else {
+                // Se evita reescribir el texto si no ha cambiado, para no
+                // mover el cursor de la celda que se está editando
+                if (!chunk.text.equals(area.getText())) {
+                    area.setText(chunk.text);
+                }
+                area.setEditable(true);
+                fitRows(chunk.text);
+            }
+        } finally {
+            updating = false;
+        }
+
+        setGraphic(area);
+    }
+
+    /**
+     * Ajusta la altura del área al número de líneas del texto, para que no
+     * tenga desplazamiento vertical propio.
+     */
+    private void fitRows(String text) {
+        int lines = 1;
+        for (int i = text.indexOf('\n'); i >= 0; i = text.indexOf('\n', i + 1)) {
+            lines++;
+        }
+
+        if (area.getPrefRowCount() != lines) {
+            area.setPrefRowCount(lines);
+        }
+    }
+}
@@ -2,23 +2,53 @@ package com.litenotes.controller;
 
 import com.litenotes.model.Category;
 import com.litenotes.model.Note;
-import com.litenotes.service.CategoryService;
-import com.litenotes.service.NoteService;
+import com.litenotes.model.NoteChunk;
+import com.litenotes.service.AsyncCategoryService;
+import com.litenotes.service.AsyncNoteService;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ComboBox;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
+import javafx.stage.WindowEvent;
+import javafx.util.Duration;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Controlador encargado de gestionar la ventana de edición de notas en la
  * aplicación LiteNotes. Permite modificar el título, contenido y categoría
  * de una nota existente, validando los datos antes de guardarlos.
  *
- * <p>Este controlador interactúa con {@link NoteService} para actualizar
- * la nota en la base de datos y con {@link CategoryService} para cargar
- * las categorías disponibles.</p>
+ * <p>Este controlador interactúa con {@link AsyncNoteService} para actualizar
+ * la nota en la base de datos y con {@link AsyncCategoryService} para cargar
+ * las categorías disponibles, siempre fuera del hilo de JavaFX.</p>
+ *
+ * <p>Las notas muy largas, guardadas por fragmentos, se abren con
+ * {@link #setChunkedNote(Note, List)}: en lugar del área de texto única se
+ * muestra una lista virtualizada con un área por fragmento
+ * ({@link NoteChunkCell}). Los fragmentos se cargan a medida que se
+ * muestran y al guardar solo se envían los modificados, de modo que abrir y
+ * guardar cuesta lo mismo sea cual sea el tamaño de la nota.</p>
+ *
+ * <p>Los cambios se guardan también automáticamente cuando se deja de
+ * escribir durante {@value #DEFAULT_AUTOSAVE_MS} ms (configurable con
+ * {@value #AUTOSAVE_PROPERTY}; {@code 0} lo desactiva), o cada
+ * {@value #AUTOSAVE_MAX_DELAYS} esperas si no se deja de escribir, y al
+ * cerrar la ventana. Cada guardado solo encola la escritura de lo que ha
+ * cambiado en la cola de escritura, de modo que nunca detiene la edición.
+ * En las notas fragmentadas, los fragmentos se guardan solo al pulsar
+ * guardar o al cerrar la ventana. Cancelar devuelve la nota a como estaba
+ * al abrirla. Si la nota se elimina mientras se edita, el primer guardado
+ * que falla lo avisa y la ventana deja de guardar.</p>
  *
  * @author Aníbal
  * @version 1.0
@@ -26,6 +56,20 @@ import javafx.stage.Stage;
  */
 public class NoteEditController {
 
+    /**
+     * Propiedad de sistema con la espera del guardado automático, en
+     * milisegundos; {@code 0} lo desactiva.
+     */
+    public static final String AUTOSAVE_PROPERTY = "litenotes.autosave.delayMs";
+
+    private static final long DEFAULT_AUTOSAVE_MS = 1000;
+
+    /** Esperas que puede aplazarse el guardado automático mientras se escribe. */
+    private static final int AUTOSAVE_MAX_DELAYS = 5;
+
+    /** Fragmentos siguientes al visible que se cargan por adelantado. */
+    private static final int PREFETCH_CHUNKS = 2;
+
     @FXML
     private TextField titleField;
 
@@ -35,10 +79,37 @@ public class NoteEditController {
     @FXML
     private ComboBox<Category> categoryBox;
 
+    @FXML
+    private ListView<NoteChunkCell.Chunk> chunkList;
+
     private Note note;
 
-    private final NoteService noteService = new NoteService();
-    private final CategoryService categoryService = new CategoryService();
+    /** Fragmentos de la nota, o {@code null} si se edita en {@link #contentArea}. */
+    private List<NoteChunkCell.Chunk> chunks;
+
+    private final AsyncNoteService noteService = new AsyncNoteService();
+    private final AsyncCategoryService categoryService = new AsyncCategoryService();
+
+    /** Evita guardar dos veces mientras la primera escritura está en curso. */
+    private boolean saving;
+
+    private final long autosaveMillis = Long.getLong(AUTOSAVE_PROPERTY, DEFAULT_AUTOSAVE_MS);
+    private final PauseTransition autosave = new PauseTransition(Duration.millis(autosaveMillis));
+
+    /** Momento del primer cambio sin guardar, o {@code 0} si no hay ninguno. */
+    private long pendingSince;
+
+    /** Valores de la nota al abrirla, para deshacer los guardados automáticos. */
+    private Note opened;
+
+    /** Indica si se ha guardado algún cambio automáticamente. */
+    private boolean autosaved;
+
+    /** Indica si ya se ha guardado o cancelado, y no queda nada que guardar al cerrar. */
+    private boolean finished;
+
+    /** Indica si se ha descubierto que la nota ya no existe. */
+    private boolean deleted;
 
     /**
      * Establece la nota que se va a editar y carga sus datos en los campos
@@ -52,15 +123,134 @@ public class NoteEditController {
         titleField.setText(note.getTitle());
         contentArea.setText(note.getContent());
         categoryBox.setValue(note.getCategory());
+        startAutosave();
+    }
+
+    /**
+     * Establece una nota fragmentada como la nota que se va a editar. Solo
+     * se necesita la lista de fragmentos: su texto se carga en segundo plano
+     * a medida que se muestra.
+     *
+     * @param note Resumen de la nota, con su título y su categoría.
+     * @param storedChunks Fragmentos de la nota, en orden, sin su texto.
+     */
+    public void setChunkedNote(Note note, List<NoteChunk> storedChunks) {
+        this.note = note;
+        this.chunks = storedChunks.stream().map(chunk -> new NoteChunkCell.Chunk(chunk.getId())).toList();
+
+        titleField.setText(note.getTitle());
+        categoryBox.setValue(note.getCategory());
+
+        contentArea.setVisible(false);
+        contentArea.setManaged(false);
+        chunkList.setVisible(true);
+        chunkList.setManaged(true);
+        chunkList.setCellFactory(list -> new NoteChunkCell(this::loadChunks));
+        chunkList.getItems().setAll(chunks);
+        startAutosave();
+    }
+
+    /**
+     * Empieza a vigilar los cambios de la ventana para guardarlos
+     * automáticamente, si el guardado automático está activado.
+     */
+    private void startAutosave() {
+        opened = note.copy();
+        if (autosaveMillis <= 0) {
+            return;
+        }
+
+        // Un receptor de invalidación no pide el texto en cada pulsación:
+        // en un área de texto grande, construirlo cuesta más que escribir
+        InvalidationListener edited = observable -> onEdited();
+        titleField.textProperty().addListener(edited);
+        contentArea.textProperty().addListener(edited);
+        categoryBox.valueProperty().addListener(edited);
+
+        autosave.setOnFinished(event -> autosaveNow());
+        titleField.getScene().getWindow().addEventHandler(WindowEvent.WINDOW_HIDDEN, event -> onHidden());
+    }
+
+    /**
+     * Aplaza el guardado automático hasta que se deje de escribir, salvo que
+     * lleve ya demasiado tiempo aplazado.
+     */
+    private void onEdited() {
+        long now = System.nanoTime();
+        if (pendingSince == 0) {
+            pendingSince = now;
+        }
+
+        if (now - pendingSince >= AUTOSAVE_MAX_DELAYS * autosaveMillis * 1_000_000) {
+            autosaveNow();
+        } else {
+            autosave.playFromStart();
+        }
+    }
+
+    /**
+     * Guarda automáticamente los cambios pendientes. Si los campos
+     * obligatorios no son válidos, espera al siguiente cambio.
+     */
+    private void autosaveNow() {
+        autosave.stop();
+        pendingSince = 0;
+
+        if (!finished && isValid()) {
+            CompletableFuture<Void> saved = submitChanges(false);
+            if (saved != null) {
+                autosaved = true;
+                reportErrors(saved);
+            }
+        }
+    }
+
+    /**
+     * Guarda lo que quede pendiente al cerrar la ventana, incluidos los
+     * fragmentos modificados.
+     */
+    private void onHidden() {
+        autosave.stop();
+        if (!finished && isValid()) {
+            finished = true;
+            CompletableFuture<Void> saved = submitChanges(true);
+            if (saved != null) {
+                reportErrors(saved);
+            }
+        }
     }
 
     /**
-     * Inicializa la ventana cargando todas las categorías disponibles
-     * en el ComboBox de selección.
+     * Carga el texto del fragmento indicado y de los
+     * {@value #PREFETCH_CHUNKS} siguientes, para que al desplazarse hacia
+     * abajo ya estén disponibles.
+     *
+     * @param index Posición del fragmento que necesita una celda.
+     */
+    private void loadChunks(int index) {
+        int end = Math.min(chunks.size(), index + 1 + PREFETCH_CHUNKS);
+
+        for (int i = Math.max(0, index); i < end; i++) {
+            NoteChunkCell.Chunk chunk = chunks.get(i);
+            if (chunk.loading) {
+                continue;
+            }
+
+            chunk.loading = true;
+            FxAsync.onSuccess(noteService.getChunkContent(chunk.id), text -> {
+                chunk.text = text != null ? text : "";
+                chunkList.refresh();
+            });
+        }
+    }
+
+    /**
+     * Inicializa la ventana cargando en segundo plano todas las categorías
+     * disponibles en el ComboBox de selección.
      */
     @FXML
     public void initialize() {
-        categoryBox.getItems().addAll(categoryService.getAllCategories());
+        FxAsync.onSuccess(categoryService.getAllCategories(), categoryBox.getItems()::addAll);
     }
 
     /**
@@ -71,11 +261,19 @@ public class NoteEditController {
      *   <li>Debe seleccionarse una categoría.</li>
      * </ul>
      *
-     * <p>Si los datos son válidos, la nota se actualiza mediante
-     * {@link NoteService#updateNote(Note)} y se cierra la ventana.</p>
+     * <p>Si los datos son válidos, la nota se actualiza en segundo plano
+     * mediante {@link AsyncNoteService#updateNote(Note)}, o mediante
+     * {@link AsyncNoteService#updateChunks(Note, List)} con solo los
+     * fragmentos modificados si la nota está fragmentada, y la ventana se
+     * cierra cuando los cambios se han guardado. Si no se ha modificado
+     * nada, la ventana se cierra sin escribir.</p>
      */
     @FXML
     private void onSave() {
+        if (saving) {
+            return;
+        }
+
         if (titleField.getText().isBlank()) {
             new Alert(Alert.AlertType.WARNING, "El título no puede estar vacío.").show();
             return;
@@ -86,22 +284,123 @@ public class NoteEditController {
             return;
         }
 
-        note.setTitle(titleField.getText());
-        note.setContent(contentArea.getText());
-        note.setCategory(categoryBox.getValue());
+        autosave.stop();
+        pendingSince = 0;
 
-        noteService.updateNote(note);
-        closeWindow();
+        CompletableFuture<Void> saved = submitChanges(true);
+        if (saved == null) {
+            finished = true;
+            closeWindow();
+            return;
+        }
+
+        saving = true;
+        saved.whenComplete((ignored, error) -> Platform.runLater(() -> {
+            saving = false;
+            if (error == null) {
+                finished = true;
+                closeWindow();
+            } else {
+                showSaveError(error);
+            }
+        }));
     }
 
     /**
      * Cancela la edición de la nota y cierra la ventana sin realizar cambios.
+     * Si ya se había guardado algún cambio automáticamente, se vuelven a
+     * escribir los valores que tenía la nota al abrirla.
      */
     @FXML
     private void onCancel() {
+        finished = true;
+        autosave.stop();
+
+        if (autosaved) {
+            // La copia no tiene valores guardados, así que se escribe entera
+            Note restored = new Note(opened.getId(), opened.getTitle(), opened.getContent(), opened.getCategory());
+            reportErrors(chunks == null
+                    ? noteService.updateNote(restored)
+                    : noteService.updateChunks(restored,
+                            chunks.stream().map(chunk -> NoteChunk.stored(chunk.id)).toList()));
+        }
+
         closeWindow();
     }
 
+    /**
+     * Copia los campos de la ventana a la nota y encola la escritura de lo
+     * que ha cambiado, sin esperar a que termine.
+     *
+     * @param withChunks Indica si se guardan también los fragmentos
+     *                   modificados de una nota fragmentada.
+     * @return Un futuro que se completa cuando los cambios se han guardado, o
+     *         {@code null} si no había nada que guardar.
+     */
+    private CompletableFuture<Void> submitChanges(boolean withChunks) {
+        note.setTitle(titleField.getText());
+        note.setCategory(categoryBox.getValue());
+
+        if (chunks == null) {
+            note.setContent(contentArea.getText());
+            return note.isModified() ? noteService.updateNote(note) : null;
+        }
+
+        boolean chunksModified = withChunks && chunks.stream().anyMatch(chunk -> chunk.modified);
+        if (!note.isModified() && !chunksModified) {
+            return null;
+        }
+
+        return noteService.updateChunks(note, chunks.stream()
+                .map(chunk -> chunksModified && chunk.modified
+                        ? new NoteChunk(chunk.id, chunk.text)
+                        : NoteChunk.stored(chunk.id))
+                .toList());
+    }
+
+    /**
+     * Indica si los campos obligatorios tienen valor, sin avisar al usuario.
+     */
+    private boolean isValid() {
+        return !titleField.getText().isBlank() && categoryBox.getValue() != null;
+    }
+
+    /**
+     * Muestra el error de un guardado que no se espera, si falla.
+     */
+    private void reportErrors(CompletableFuture<Void> saved) {
+        saved.whenComplete((ignored, error) -> {
+            if (error != null) {
+                Platform.runLater(() -> showSaveError(error));
+            }
+        });
+    }
+
+    /**
+     * Muestra el error de un guardado. Si la nota ya no existe, deja de
+     * guardarla y lo avisa una sola vez, aunque fallen varios guardados
+     * encolados.
+     */
+    private void showSaveError(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+
+        if (!(cause instanceof NoSuchElementException)) {
+            FxAsync.showError(error);
+            return;
+        }
+
+        finished = true;
+        autosave.stop();
+        if (!deleted) {
+            deleted = true;
+            new Alert(Alert.AlertType.WARNING,
+                    "La nota ya no existe: se ha eliminado mientras se editaba y los cambios no se han guardado.")
+                    .show();
+        }
+    }
+
     /**
      * Cierra la ventana actual obteniendo la referencia al {@link Stage}
      * asociado al campo de texto del título.
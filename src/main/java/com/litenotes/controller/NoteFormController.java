@@ -2,8 +2,9 @@ package com.litenotes.controller;
 
 import com.litenotes.model.Category;
 import com.litenotes.model.Note;
-import com.litenotes.service.CategoryService;
-import com.litenotes.service.NoteService;
+import com.litenotes.service.AsyncCategoryService;
+import com.litenotes.service.AsyncNoteService;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ComboBox;
@@ -16,9 +17,9 @@ import javafx.stage.Stage;
  * dentro de la aplicación LiteNotes. Permite introducir un título, contenido
  * y categoría, validando los datos antes de crear la nota.
  *
- * <p>Este controlador interactúa con {@link NoteService} para almacenar la nueva
- * nota en la base de datos y con {@link CategoryService} para cargar las
- * categorías disponibles.</p>
+ * <p>Este controlador interactúa con {@link AsyncNoteService} para almacenar la
+ * nueva nota en la base de datos y con {@link AsyncCategoryService} para cargar
+ * las categorías disponibles, siempre fuera del hilo de JavaFX.</p>
  *
  * @author Aníbal
  * @version 1.0
@@ -35,16 +36,19 @@ public class NoteFormController {
     @FXML
     private ComboBox<Category> categoryBox;
 
-    private final NoteService noteService = new NoteService();
-    private final CategoryService categoryService = new CategoryService();
+    private final AsyncNoteService noteService = new AsyncNoteService();
+    private final AsyncCategoryService categoryService = new AsyncCategoryService();
+
+    /** Evita guardar dos veces mientras la primera escritura está en curso. */
+    private boolean saving;
 
     /**
-     * Inicializa la ventana cargando todas las categorías disponibles
-     * en el ComboBox de selección.
+     * Inicializa la ventana cargando en segundo plano todas las categorías
+     * disponibles en el ComboBox de selección.
      */
     @FXML
     public void initialize() {
-        categoryBox.getItems().addAll(categoryService.getAllCategories());
+        FxAsync.onSuccess(categoryService.getAllCategories(), categoryBox.getItems()::addAll);
     }
 
     /**
@@ -56,11 +60,16 @@ public class NoteFormController {
      * </ul>
      *
      * <p>Si los datos son válidos, se crea una instancia de {@link Note},
-     * se asignan los valores introducidos y se almacena mediante
-     * {@link NoteService#createNote(Note)}. Finalmente, se cierra la ventana.</p>
+     * se asignan los valores introducidos y se almacena en segundo plano
+     * mediante {@link AsyncNoteService#createNote(Note)}. La ventana se cierra
+     * cuando la nota se ha guardado.</p>
      */
     @FXML
     private void onSave() {
+        if (saving) {
+            return;
+        }
+
         String title = titleField.getText();
         String content = contentArea.getText();
         Category category = categoryBox.getValue();
@@ -80,8 +89,15 @@ public class NoteFormController {
         note.setContent(content);
         note.setCategory(category);
 
-        noteService.createNote(note);
-        closeWindow();
+        saving = true;
+        noteService.createNote(note).whenComplete((ignored, error) -> Platform.runLater(() -> {
+            saving = false;
+            if (error == null) {
+                closeWindow();
+            } else {
+                FxAsync.showError(error);
+            }
+        }));
     }
 
     /**
@@ -0,0 +1,118 @@
+package com.litenotes.controller;
+
+import com.litenotes.model.Note;
+import com.litenotes.model.SearchResult;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextFlow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * Celda de la lista principal de notas. Muestra el título de la nota y, cuando
+ * la nota procede de una búsqueda, el fragmento de su contenido con los
+ * términos encontrados resaltados.
+ *
+ * <p>El fragmento se obtiene mediante una función proporcionada por
+ * {@link MainController}, que devuelve {@code null} si la nota no tiene
+ * fragmento asociado. Cada vez que la celda muestra una nota, avisa de su
+ * posición para que {@link PagedNoteList} pueda cargar la siguiente página.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public class NoteListCell extends ListCell<Note> {
+
+    private final Function<Note, String> snippetLookup;
+    private final IntConsumer onShown;
+
+    private final Label title = new Label();
+    private final TextFlow snippet = new TextFlow();
+    private final VBox box = new VBox(2, title, snippet);
+
+    /**
+     * Crea una celda que consulta los fragmentos con la función indicada.
+     *
+     * @param snippetLookup Función que devuelve el fragmento de una nota o
+     *                      {@code null} si no tiene.
+     * @param onShown Acción que recibe la posición de cada nota mostrada.
+     */
+    public NoteListCell(Function<Note, String> snippetLookup, IntConsumer onShown) {
+        this.snippetLookup = snippetLookup;
+        this.onShown = onShown;
+        title.getStyleClass().add("note-title");
+        snippet.getStyleClass().add("note-snippet");
+    }
+
+    /**
+     * Actualiza el contenido de la celda con la nota indicada.
+     *
+     * @param note Nota que se muestra en la celda.
+     * @param empty Indica si la celda está vacía.
+     */
+    @Override
+    protected void updateItem(Note note, boolean empty) {
+        super.updateItem(note, empty);
+
+        if (empty || note == null) {
+            setText(null);
+            setGraphic(null);
+            return;
+        }
+
+        onShown.accept(getIndex());
+
+        String text = snippetLookup.apply(note);
+        if (text == null || text.isEmpty()) {
+            setGraphic(null);
+            setText(note.getTitle());
+            return;
+        }
+
+        title.setText(note.getTitle());
+        snippet.getChildren().setAll(highlight(text));
+        setText(null);
+        setGraphic(box);
+    }
+
+    /**
+     * Divide el fragmento en nodos de texto, aplicando la clase de estilo
+     * {@code highlight} a los términos delimitados por las marcas de
+     * {@link SearchResult}.
+     */
+    private static Text[] highlight(String text) {
+        List<Text> parts = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean marked = false;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == SearchResult.HIGHLIGHT_START || c == SearchResult.HIGHLIGHT_END) {
+                addPart(parts, current, marked);
+                marked = c == SearchResult.HIGHLIGHT_START;
+            } else {
+                current.append(c);
+            }
+        }
+        addPart(parts, current, marked);
+
+        return parts.toArray(new Text[0]);
+    }
+
+    private static void addPart(List<Text> parts, StringBuilder current, boolean marked) {
+        if (current.length() == 0) {
+            return;
+        }
+
+        Text part = new Text(current.toString());
+        part.getStyleClass().add(marked ? "highlight" : "snippet-text");
+        parts.add(part);
+        current.setLength(0);
+    }
+}
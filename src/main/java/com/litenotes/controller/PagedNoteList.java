@@ -0,0 +1,243 @@
+package com.litenotes.controller;
+
+import com.litenotes.model.Note;
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Fuente de datos paginada para la lista principal de notas. Mantiene en la
+ * {@link ObservableList} de la vista solo las páginas que el usuario ha
+ * recorrido y solicita la siguiente cuando una celda cercana al final de la
+ * lista se hace visible.
+ *
+ * <p>Las páginas se piden por clave: cada una empieza después del
+ * identificador de la última nota cargada, por lo que el coste del arranque y
+ * de cada desplazamiento no depende del tamaño total de la tabla.</p>
+ *
+ * <p>Las páginas se cargan de forma asíncrona. Cada llamada a
+ * {@link #reset(PageLoader)} o {@link #showAll(List)} inicia una nueva
+ * generación: la carga pendiente de la generación anterior se cancela y, si
+ * aun así llega su resultado, se descarta.</p>
+ *
+ * <p>Los cambios sobre notas concretas se aplican en su sitio con
+ * {@link #put(Note, boolean)} y {@link #remove(int)}. Como la lista paginada
+ * está ordenada por identificador descendente, la posición de la nota se
+ * localiza por búsqueda binaria y el coste no depende de cuántas notas haya
+ * cargadas.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public class PagedNoteList {
+
+    /**
+     * Obtiene una página de notas a partir de la última nota cargada.
+     */
+    @FunctionalInterface
+    public interface PageLoader {
+
+        /**
+         * Carga una página en segundo plano.
+         *
+         * @param afterId Identificador de la última nota cargada, o {@code 0}.
+         * @param limit Número máximo de notas.
+         * @return Un futuro con las notas de la página.
+         */
+        CompletableFuture<List<Note>> load(int afterId, int limit);
+    }
+
+    private final ObservableList<Note> items;
+    private final int pageSize;
+
+    private PageLoader loader;
+    private boolean exhausted = true;
+    private boolean loading;
+    private int generation;
+    private CompletableFuture<List<Note>> pending;
+
+    /**
+     * Crea una fuente de datos que rellena la lista indicada.
+     *
+     * @param items Lista observable mostrada por el {@code ListView}.
+     * @param pageSize Número de notas que se cargan en cada página.
+     */
+    public PagedNoteList(ObservableList<Note> items, int pageSize) {
+        this.items = items;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Vacía la lista y carga la primera página con el cargador indicado, que
+     * se usará también para las páginas siguientes.
+     *
+     * @param loader Función que obtiene cada página.
+     */
+    public void reset(PageLoader loader) {
+        cancelPending();
+        this.loader = loader;
+        this.exhausted = false;
+        items.clear();
+        loadMore();
+    }
+
+    /**
+     * Muestra una lista fija de notas, como los resultados de una búsqueda,
+     * desactivando la carga de más páginas.
+     *
+     * @param notes Notas que se muestran.
+     */
+    public void showAll(List<Note> notes) {
+        cancelPending();
+        this.loader = null;
+        this.exhausted = true;
+        items.setAll(notes);
+    }
+
+    /**
+     * Aplica en su sitio el alta o la modificación de una nota. Si la nota ya
+     * está en la lista, se sustituye o, si ha dejado de cumplir el filtro, se
+     * quita. Si no está, solo se inserta en una lista paginada y cuando su
+     * posición cae dentro de las páginas ya cargadas; las demás llegarán con
+     * las páginas siguientes. Los resultados de una búsqueda no reciben notas
+     * nuevas.
+     *
+     * <p>Debe llamarse desde el hilo de JavaFX.</p>
+     *
+     * @param note Resumen de la nota con sus datos actuales.
+     * @param visible Indica si la nota cumple el filtro activo.
+     */
+    public void put(Note note, boolean visible) {
+        int index = indexOf(note.getId());
+
+        if (index >= 0) {
+            if (visible) {
+                items.set(index, note);
+            } else {
+                items.remove(index);
+            }
+        } else if (visible && loader != null && isLoaded(note.getId())) {
+            items.add(-(index + 1), note);
+        }
+    }
+
+    /**
+     * Quita de la lista la nota indicada, si se está mostrando. Debe llamarse
+     * desde el hilo de JavaFX.
+     *
+     * @param id Identificador de la nota.
+     */
+    public void remove(int id) {
+        int index = indexOf(id);
+        if (index >= 0) {
+            items.remove(index);
+        }
+    }
+
+    /**
+     * Notifica que la celda de la posición indicada se ha hecho visible. Si
+     * está en la última media página cargada, se pide la siguiente página.
+     *
+     * @param index Posición de la celda visible.
+     */
+    public void onCellShown(int index) {
+        if (index >= items.size() - pageSize / 2) {
+            loadMore();
+        }
+    }
+
+    /**
+     * Pide la siguiente página, salvo que ya haya una carga en curso o no
+     * queden más notas. Cuando llega, se añade al final de la lista en el
+     * hilo de JavaFX; una página incompleta da por terminada la carga.
+     */
+    public void loadMore() {
+        if (exhausted || loading || loader == null) {
+            return;
+        }
+
+        int afterId = items.isEmpty() ? 0 : items.get(items.size() - 1).getId();
+        int requested = generation;
+
+        loading = true;
+        pending = loader.load(afterId, pageSize);
+        pending.whenComplete((page, error) -> Platform.runLater(() -> {
+            if (requested != generation) {
+                return; // resultado de un filtro que ya no está activo
+            }
+
+            loading = false;
+            pending = null;
+
+            if (error != null) {
+                exhausted = true;
+                FxAsync.showError(error);
+                return;
+            }
+
+            items.addAll(page);
+            exhausted = page.size() < pageSize;
+        }));
+    }
+
+    /**
+     * Busca la posición de una nota. En la lista paginada se usa búsqueda
+     * binaria sobre el orden descendente por identificador; los resultados de
+     * una búsqueda, ordenados por relevancia, se recorren enteros.
+     *
+     * @return La posición de la nota o, si no está, {@code -(inserción + 1)}.
+     */
+    private int indexOf(int id) {
+        if (loader == null) {
+            for (int i = 0; i < items.size(); i++) {
+                if (items.get(i).getId() == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        int low = 0;
+        int high = items.size() - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = items.get(mid).getId();
+
+            if (midId == id) {
+                return mid;
+            } else if (midId > id) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        return -(low + 1);
+    }
+
+    /**
+     * Indica si una nota con el identificador dado estaría ya en las páginas
+     * cargadas: es más reciente que la última nota de la lista, o no quedan
+     * más páginas que pedir.
+     */
+    private boolean isLoaded(int id) {
+        return exhausted || (!items.isEmpty() && id > items.get(items.size() - 1).getId());
+    }
+
+    /**
+     * Inicia una nueva generación cancelando la carga en curso, si la hay.
+     */
+    private void cancelPending() {
+        generation++;
+        loading = false;
+
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+}
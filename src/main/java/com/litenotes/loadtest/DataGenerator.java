@@ -0,0 +1,307 @@
+package com.litenotes.loadtest;
+
+import com.litenotes.model.Category;
+import com.litenotes.model.Note;
+import com.litenotes.repository.CategoryRepository;
+import com.litenotes.repository.NoteRepository;
+import com.litenotes.service.NoteCache;
+import com.litenotes.service.TitleIndex;
+import com.litenotes.service.TrigramIndex;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
+
+/**
+ * Rellena una base de datos de LiteNotes con notas y categorías sintéticas,
+ * para reproducir a escala problemas que solo aparecen con muchos datos.
+ *
+ * <p>Las notas se parecen a las reales en lo que afecta al rendimiento:</p>
+ * <ul>
+ *   <li>El tamaño del contenido sigue una distribución log-normal alrededor
+ *       de una mediana, con una cola de notas largas; además, una fracción
+ *       configurable son notas enormes de varios megabytes.</li>
+ *   <li>Las notas se reparten entre las categorías según una ley de Zipf: con
+ *       sesgo {@code 0} todas reciben las mismas, y con sesgo {@code 1} la
+ *       primera recibe el doble que la segunda, el triple que la tercera,
+ *       etc.</li>
+ *   <li>Los títulos y contenidos se forman con palabras en castellano,
+ *       acentos incluidos, para que el índice de texto completo trabaje como
+ *       con notas reales.</li>
+ * </ul>
+ *
+ * <p>Con la misma semilla se generan siempre los mismos datos. Las notas se
+ * insertan en transacciones de hasta {@value #BATCH_NOTES} notas o
+ * {@value #BATCH_BYTES} caracteres, de modo que la memoria usada no depende
+ * del número total de notas.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public class DataGenerator {
+
+    /** Número máximo de notas por transacción. */
+    private static final int BATCH_NOTES = 1000;
+
+    /** Número máximo de caracteres de contenido por transacción. */
+    private static final long BATCH_BYTES = 32L * 1024 * 1024;
+
+    /** Tamaño máximo del contenido de una nota normal, en caracteres. */
+    private static final int MAX_REGULAR_SIZE = 1024 * 1024;
+
+    private static final String[] WORDS = {
+        "reunión", "proyecto", "lista", "compra", "idea", "viaje", "informe",
+        "presupuesto", "cliente", "tarea", "revisar", "enviar", "llamar",
+        "semana", "canción", "receta", "libro", "código", "error", "factura",
+        "mañana", "pendiente", "equipo", "entrega", "diseño", "prueba",
+        "objetivo", "resumen", "nota", "pregunta", "respuesta", "plan",
+        "cocina", "jardín", "médico", "cumpleaños", "película", "música",
+        "correo", "contraseña", "servidor", "base", "datos", "índice",
+        "rápido", "lento", "urgente", "importante", "después", "antes",
+        "también", "porque", "aunque", "según", "además", "quizá", "nunca",
+        "siempre", "todavía", "árbol", "ciudad", "montaña", "playa", "río"
+    };
+
+    /**
+     * Parámetros de la generación.
+     *
+     * @param notes Número de notas que se generan.
+     * @param categories Número de categorías entre las que se reparten.
+     * @param categorySkew Exponente de la ley de Zipf; {@code 0} para un
+     *                     reparto uniforme.
+     * @param medianContentSize Mediana del tamaño del contenido, en caracteres.
+     * @param contentSpread Desviación del logaritmo del tamaño; {@code 0} para
+     *                      que todas las notas midan la mediana.
+     * @param hugeFraction Fracción de notas enormes, entre {@code 0} y {@code 1}.
+     * @param hugeContentSize Tamaño medio de las notas enormes, en caracteres.
+     * @param seed Semilla del generador aleatorio.
+     */
+    public record Options(int notes, int categories, double categorySkew,
+                          int medianContentSize, double contentSpread,
+                          double hugeFraction, int hugeContentSize, long seed) {
+
+        /**
+         * Comprueba que los parámetros son válidos.
+         *
+         * @throws IllegalArgumentException Si algún parámetro no lo es.
+         */
+        public Options {
+            if (notes < 0 || categories < 1) {
+                throw new IllegalArgumentException("Se necesita al menos una categoría y un número de notas no negativo");
+            }
+            if (categorySkew < 0 || contentSpread < 0 || medianContentSize < 0 || hugeContentSize < 0) {
+                throw new IllegalArgumentException("Los tamaños y el sesgo no pueden ser negativos");
+            }
+            if (hugeFraction < 0 || hugeFraction > 1) {
+                throw new IllegalArgumentException("La fracción de notas enormes debe estar entre 0 y 1");
+            }
+        }
+
+        /**
+         * Devuelve los parámetros por defecto: 10.000 notas en 20 categorías
+         * con sesgo 1, contenidos de unos 2 KB y una nota de 4 MB de cada
+         * 10.000.
+         *
+         * @return Los parámetros por defecto.
+         */
+        public static Options defaults() {
+            return new Options(10_000, 20, 1.0, 2048, 1.0, 0.0001, 4 * 1024 * 1024, 42);
+        }
+    }
+
+    /**
+     * Resumen de una generación terminada.
+     *
+     * @param notes Número de notas insertadas.
+     * @param categories Número de categorías usadas.
+     * @param contentChars Suma de los tamaños de los contenidos, en caracteres.
+     * @param largestNote Tamaño del contenido más largo, en caracteres.
+     */
+    public record Summary(int notes, int categories, long contentChars, int largestNote) {}
+
+    private final NoteRepository noteRepository;
+    private final CategoryRepository categoryRepository;
+
+    /**
+     * Crea un generador que escribe en la base de datos configurada en
+     * {@link com.litenotes.repository.Database}.
+     */
+    public DataGenerator() {
+        this(new NoteRepository(), new CategoryRepository());
+    }
+
+    /**
+     * Crea un generador sobre los repositorios indicados.
+     *
+     * @param noteRepository Repositorio en el que se insertan las notas.
+     * @param categoryRepository Repositorio en el que se crean las categorías.
+     */
+    public DataGenerator(NoteRepository noteRepository, CategoryRepository categoryRepository) {
+        this.noteRepository = noteRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    /**
+     * Genera e inserta las notas. Las categorías se llaman "Categoría 1",
+     * "Categoría 2", etc., y se reutilizan si ya existen.
+     *
+     * @param options Parámetros de la generación.
+     * @param progress Recibe el número de notas insertadas tras cada
+     *                 transacción, o {@code null}.
+     * @return El resumen de lo generado.
+     * @throws SQLException Si falla alguna inserción; las transacciones ya
+     *         confirmadas se conservan.
+     */
+    public Summary generate(Options options, IntConsumer progress) throws SQLException {
+        SplittableRandom random = new SplittableRandom(options.seed());
+
+        Category[] categories = new Category[options.categories()];
+        for (int i = 0; i < categories.length; i++) {
+            categories[i] = categoryRepository.findOrCreate("Categoría " + (i + 1));
+        }
+        double[] cumulative = zipf(categories.length, options.categorySkew());
+
+        List<Note> batch = new ArrayList<>(BATCH_NOTES);
+        long batchChars = 0;
+        long totalChars = 0;
+        int largest = 0;
+        int inserted = 0;
+
+        try {
+            for (int i = 0; i < options.notes(); i++) {
+                int size = contentSize(random, options);
+                Category category = categories[pick(cumulative, random.nextDouble())];
+                batch.add(new Note(title(random), content(random, size), category));
+
+                batchChars += size;
+                totalChars += size;
+                largest = Math.max(largest, size);
+
+                if (batch.size() >= BATCH_NOTES || batchChars >= BATCH_BYTES) {
+                    inserted += flush(batch);
+                    batchChars = 0;
+                    if (progress != null) {
+                        progress.accept(inserted);
+                    }
+                }
+            }
+
+            inserted += flush(batch);
+            if (progress != null) {
+                progress.accept(inserted);
+            }
+        } finally {
+            NoteCache.shared().invalidate();
+            TitleIndex.shared().invalidate();
+            TrigramIndex.shared().invalidate();
+        }
+
+        return new Summary(inserted, categories.length, totalChars, largest);
+    }
+
+    private int flush(List<Note> batch) throws SQLException {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        noteRepository.applyBatch(batch, List.of(), List.of());
+        int count = batch.size();
+        batch.clear();
+        return count;
+    }
+
+    /**
+     * Calcula la distribución acumulada de una ley de Zipf con el exponente
+     * indicado sobre {@code n} elementos.
+     */
+    static double[] zipf(int n, double skew) {
+        double[] cumulative = new double[n];
+        double total = 0;
+
+        for (int k = 0; k < n; k++) {
+            total += 1 / Math.pow(k + 1, skew);
+            cumulative[k] = total;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= total;
+        }
+
+        return cumulative;
+    }
+
+    /**
+     * Elige el elemento cuya probabilidad acumulada cubre el valor indicado.
+     */
+    static int pick(double[] cumulative, double value) {
+        int index = Arrays.binarySearch(cumulative, value);
+        int position = index >= 0 ? index : -(index + 1);
+        return Math.min(position, cumulative.length - 1);
+    }
+
+    private static int contentSize(SplittableRandom random, Options options) {
+        if (options.hugeFraction() > 0 && random.nextDouble() < options.hugeFraction()) {
+            return (int) (options.hugeContentSize() * (0.5 + random.nextDouble()));
+        }
+
+        double size = options.medianContentSize() * Math.exp(options.contentSpread() * gaussian(random));
+        return (int) Math.min(MAX_REGULAR_SIZE, Math.round(size));
+    }
+
+    /**
+     * Normal estándar por el método de Box-Muller; {@link SplittableRandom} no
+     * la ofrece en Java 17.
+     */
+    private static double gaussian(SplittableRandom random) {
+        double u = 1 - random.nextDouble();
+        double v = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * v);
+    }
+
+    private static String title(SplittableRandom random) {
+        int words = 2 + random.nextInt(5);
+        StringBuilder title = new StringBuilder();
+
+        for (int i = 0; i < words; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            if (i == 0) {
+                title.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+            } else {
+                title.append(' ').append(word);
+            }
+        }
+
+        return title.toString();
+    }
+
+    /**
+     * Genera un texto de aproximadamente {@code size} caracteres, en líneas de
+     * unas doce palabras y párrafos de unas cinco líneas.
+     */
+    private static String content(SplittableRandom random, int size) {
+        StringBuilder content = new StringBuilder(size + 16);
+        int wordsInLine = 0;
+        int linesInParagraph = 0;
+
+        while (content.length() < size) {
+            content.append(WORDS[random.nextInt(WORDS.length)]);
+
+            if (++wordsInLine < 8 + random.nextInt(8)) {
+                content.append(' ');
+                continue;
+            }
+
+            wordsInLine = 0;
+            content.append(++linesInParagraph >= 5 ? ".\n\n" : ".\n");
+            if (linesInParagraph >= 5) {
+                linesInParagraph = 0;
+            }
+        }
+
+        content.setLength(size);
+        return content.toString();
+    }
+}
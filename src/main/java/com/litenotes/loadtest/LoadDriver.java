@@ -0,0 +1,306 @@
+package com.litenotes.loadtest;
+
+import com.litenotes.metrics.LatencyHistogram;
+import com.litenotes.model.Category;
+import com.litenotes.model.Note;
+import com.litenotes.repository.CategoryRegistry;
+import com.litenotes.service.NoteService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reproduce contra {@link NoteService} una mezcla de operaciones desde muchos
+ * hilos a la vez y mide el rendimiento y la latencia de cada tipo de
+ * operación. No necesita JavaFX, por lo que puede lanzarse en un servidor.
+ *
+ * <p>Cada hilo elige al azar la siguiente operación según los pesos de la
+ * mezcla y la ejecuta en cuanto termina la anterior, sin pausas. Las
+ * operaciones del periodo de calentamiento se ejecutan igual pero no se
+ * miden.</p>
+ *
+ * <p>Las operaciones se apoyan en los datos que ya hay en la base de datos:
+ * se listan y editan notas con identificadores entre {@code 1} y el mayor que
+ * existía al empezar, y se eliminan preferentemente las notas creadas
+ * durante la prueba. Conviene rellenar antes la base de datos con
+ * {@link DataGenerator}.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public class LoadDriver {
+
+    /** Número de notas que se piden en cada página. */
+    private static final int PAGE_SIZE = 100;
+
+    /**
+     * Tipo de operación de la mezcla.
+     */
+    public enum Operation {
+        /** Lee una página de todas las notas a partir de una posición al azar. */
+        LIST,
+        /** Lee una página de una categoría elegida al azar. */
+        FILTER,
+        /** Crea una nota. */
+        CREATE,
+        /** Abre una nota al azar y guarda una modificación. */
+        UPDATE,
+        /** Elimina una nota. */
+        DELETE
+    }
+
+    /**
+     * Parámetros de la prueba.
+     *
+     * @param threads Número de hilos que lanzan operaciones.
+     * @param warmup Duración del calentamiento, que no se mide.
+     * @param duration Duración de la medición.
+     * @param mix Peso relativo de cada operación; las que no aparecen no se
+     *            ejecutan.
+     */
+    public record Options(int threads, Duration warmup, Duration duration, Map<Operation, Integer> mix) {
+
+        /**
+         * Comprueba que los parámetros son válidos.
+         *
+         * @throws IllegalArgumentException Si algún parámetro no lo es.
+         */
+        public Options {
+            if (threads < 1) {
+                throw new IllegalArgumentException("Se necesita al menos un hilo");
+            }
+            if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+                throw new IllegalArgumentException("La mezcla debe tener al menos una operación con peso positivo");
+            }
+            mix = Map.copyOf(mix);
+        }
+
+        /**
+         * Devuelve la mezcla por defecto: una interfaz en la que se lee mucho
+         * más de lo que se escribe.
+         *
+         * @return Los pesos por defecto.
+         */
+        public static Map<Operation, Integer> defaultMix() {
+            return Map.of(Operation.LIST, 40, Operation.FILTER, 30, Operation.CREATE, 10,
+                    Operation.UPDATE, 15, Operation.DELETE, 5);
+        }
+    }
+
+    /**
+     * Resultado de un tipo de operación.
+     *
+     * @param operation Tipo de operación.
+     * @param count Número de operaciones medidas que terminaron bien.
+     * @param errors Número de operaciones medidas que fallaron.
+     * @param throughput Operaciones por segundo.
+     * @param p50 Mediana de la latencia, en nanosegundos.
+     * @param p99 Percentil 99 de la latencia, en nanosegundos.
+     * @param p999 Percentil 99,9 de la latencia, en nanosegundos.
+     * @param max Latencia máxima, en nanosegundos.
+     */
+    public record OperationStats(Operation operation, long count, long errors, double throughput,
+                                 long p50, long p99, long p999, long max) {}
+
+    /**
+     * Resultado de la prueba.
+     *
+     * @param elapsed Duración real de la medición.
+     * @param operations Resultado de cada tipo de operación ejecutado.
+     */
+    public record Report(Duration elapsed, List<OperationStats> operations) {
+
+        /**
+         * Devuelve el número total de operaciones por segundo.
+         *
+         * @return La suma del rendimiento de todas las operaciones.
+         */
+        public double throughput() {
+            return operations.stream().mapToDouble(OperationStats::throughput).sum();
+        }
+
+        /**
+         * Da formato de tabla al resultado, con las latencias en milisegundos.
+         *
+         * @return El texto de la tabla.
+         */
+        public String format() {
+            StringBuilder table = new StringBuilder(String.format(Locale.ROOT,
+                    "%-8s %10s %7s %10s %9s %9s %9s %9s%n",
+                    "op", "count", "errors", "ops/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+
+            for (OperationStats stats : operations) {
+                table.append(String.format(Locale.ROOT,
+                        "%-8s %10d %7d %10.1f %9.3f %9.3f %9.3f %9.3f%n",
+                        stats.operation().name().toLowerCase(Locale.ROOT), stats.count(), stats.errors(),
+                        stats.throughput(), millis(stats.p50()), millis(stats.p99()),
+                        millis(stats.p999()), millis(stats.max())));
+            }
+
+            table.append(String.format(Locale.ROOT, "%-8s %10s %7s %10.1f%n", "total", "", "", throughput()));
+            return table.toString();
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1e6;
+        }
+    }
+
+    private final NoteService service;
+
+    /** Notas creadas durante la prueba, candidatas a eliminarse. */
+    private final ConcurrentLinkedQueue<Integer> created = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Crea un conductor de carga sobre un {@link NoteService} nuevo.
+     */
+    public LoadDriver() {
+        this(new NoteService());
+    }
+
+    /**
+     * Crea un conductor de carga sobre el servicio indicado.
+     *
+     * @param service Servicio al que se lanzan las operaciones.
+     */
+    public LoadDriver(NoteService service) {
+        this.service = service;
+    }
+
+    /**
+     * Ejecuta la prueba y espera a que termine.
+     *
+     * @param options Parámetros de la prueba.
+     * @return El resultado de la medición.
+     * @throws IllegalStateException Si la base de datos no tiene categorías.
+     * @throws InterruptedException Si se interrumpe la espera.
+     */
+    public Report run(Options options) throws InterruptedException {
+        List<Category> categories = CategoryRegistry.refresh();
+        if (categories.isEmpty()) {
+            throw new IllegalStateException("La base de datos no tiene categorías; genera datos antes de la prueba");
+        }
+
+        List<Note> newest = service.getNotesPage(0, 1, 0);
+        int maxId = newest.isEmpty() ? 1 : newest.get(0).getId();
+
+        Operation[] operations = options.mix().entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toArray(Operation[]::new);
+        double[] cumulative = cumulative(operations, options.mix());
+
+        Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+        Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+        for (Operation operation : operations) {
+            latencies.put(operation, new LatencyHistogram());
+            errors.put(operation, new LongAdder());
+        }
+
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int i = 1; i <= options.threads(); i++) {
+            Thread thread = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long now;
+                while ((now = System.nanoTime()) < end) {
+                    Operation operation = operations[DataGenerator.pick(cumulative, random.nextDouble())];
+                    boolean ok = execute(operation, random, categories, maxId);
+
+                    if (now >= measureFrom) {
+                        if (ok) {
+                            latencies.get(operation).recordSince(now);
+                        } else {
+                            errors.get(operation).increment();
+                        }
+                    }
+                }
+            }, "litenotes-load-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+        }
+
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long elapsedNanos = Math.max(1, System.nanoTime() - measureFrom);
+        double seconds = elapsedNanos / 1e9;
+
+        List<OperationStats> stats = new ArrayList<>();
+        for (Operation operation : operations) {
+            LatencyHistogram histogram = latencies.get(operation);
+            stats.add(new OperationStats(operation, histogram.count(), errors.get(operation).sum(),
+                    histogram.count() / seconds, histogram.percentile(0.50), histogram.percentile(0.99),
+                    histogram.percentile(0.999), histogram.max()));
+        }
+
+        return new Report(Duration.ofNanos(elapsedNanos), stats);
+    }
+
+    /**
+     * Ejecuta una operación y devuelve si terminó bien. Los errores se cuentan
+     * pero no detienen la prueba.
+     */
+    private boolean execute(Operation operation, ThreadLocalRandom random,
+                            List<Category> categories, int maxId) {
+        try {
+            switch (operation) {
+                case LIST -> service.getNotesPage(1 + random.nextInt(maxId), PAGE_SIZE, 0);
+                case FILTER -> {
+                    Category category = categories.get(random.nextInt(categories.size()));
+                    service.getNotesPage(0, PAGE_SIZE, category.getId());
+                }
+                case CREATE -> {
+                    Note note = new Note("Nota de carga " + random.nextInt(1_000_000),
+                            "Contenido generado durante la prueba de carga.",
+                            categories.get(random.nextInt(categories.size())));
+                    service.createNote(note);
+                    created.add(note.getId());
+                }
+                case UPDATE -> {
+                    Note note = service.getNoteById(1 + random.nextInt(maxId));
+                    if (note != null) {
+                        note.setTitle("Nota editada " + random.nextInt(1_000_000));
+                        service.updateNote(note);
+                    }
+                }
+                case DELETE -> {
+                    Integer id = created.poll();
+                    service.deleteNote(id != null ? id : 1 + random.nextInt(maxId));
+                }
+            }
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static double[] cumulative(Operation[] operations, Map<Operation, Integer> mix) {
+        double[] cumulative = new double[operations.length];
+        double total = 0;
+
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < operations.length; i++) {
+            cumulative[i] /= total;
+        }
+
+        return cumulative;
+    }
+}
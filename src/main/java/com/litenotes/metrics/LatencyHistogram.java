@@ -0,0 +1,176 @@
+package com.litenotes.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias en nanosegundos, pensado para registrar millones de
+ * mediciones desde varios hilos con un coste fijo y pequeño por medición.
+ *
+ * <p>Los valores se agrupan en cubos logarítmico-lineales: cada potencia de
+ * dos se divide en {@value #SUB_BUCKETS} cubos del mismo ancho, de modo que el
+ * error relativo de cualquier percentil no supera el 3,2 % sea cual sea la
+ * magnitud, desde microsegundos hasta minutos. La memoria ocupada es fija
+ * (unos 15 KiB), independiente del número de mediciones.</p>
+ *
+ * <p>Todos los métodos son seguros para su uso desde varios hilos. Las
+ * lecturas no bloquean a los que registran, por lo que un percentil calculado
+ * mientras se registran valores puede no incluir los más recientes.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public final class LatencyHistogram {
+
+    /** Bits con los que se divide cada potencia de dos. */
+    private static final int SUB_BUCKET_BITS = 5;
+
+    /** Número de cubos por cada potencia de dos. */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** Los valores menores que este tienen un cubo exacto cada uno. */
+    private static final long LINEAR_LIMIT = SUB_BUCKETS;
+
+    /** Número total de cubos, suficiente para cualquier {@code long} positivo. */
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Crea un histograma vacío.
+     */
+    public LatencyHistogram() {}
+
+    /**
+     * Registra una medición.
+     *
+     * @param nanos Duración en nanosegundos; los valores negativos cuentan
+     *              como cero.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        total.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Registra el tiempo transcurrido desde un instante obtenido con
+     * {@link System#nanoTime()}.
+     *
+     * @param startNanos Instante de inicio.
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Devuelve el número de mediciones registradas.
+     *
+     * @return El número de mediciones.
+     */
+    public long count() {
+        return total.sum();
+    }
+
+    /**
+     * Devuelve la media de las mediciones.
+     *
+     * @return La media en nanosegundos, o {@code 0} si no hay mediciones.
+     */
+    public double mean() {
+        long count = total.sum();
+        return count == 0 ? 0 : (double) sum.sum() / count;
+    }
+
+    /**
+     * Devuelve la mayor medición registrada.
+     *
+     * @return El máximo en nanosegundos.
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Devuelve el valor por debajo del cual queda la fracción indicada de las
+     * mediciones.
+     *
+     * @param fraction Fracción entre {@code 0} y {@code 1}; por ejemplo,
+     *                 {@code 0.99} para el percentil 99.
+     * @return El percentil en nanosegundos, o {@code 0} si no hay mediciones.
+     * @throws IllegalArgumentException Si la fracción no está entre 0 y 1.
+     */
+    public long percentile(double fraction) {
+        if (fraction < 0 || fraction > 1) {
+            throw new IllegalArgumentException("La fracción debe estar entre 0 y 1: " + fraction);
+        }
+
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Vacía el histograma. Las mediciones que se registren mientras tanto
+     * pueden conservarse en parte.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        total.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    /**
+     * Calcula el cubo de un valor no negativo.
+     */
+    static int bucketOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Devuelve el mayor valor que cae en el cubo indicado.
+     */
+    static long upperBoundOf(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+
+        int shift = bucket / SUB_BUCKETS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        long lower = (SUB_BUCKETS + sub) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
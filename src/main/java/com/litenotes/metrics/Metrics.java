@@ -0,0 +1,237 @@
+package com.litenotes.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Registro de las métricas de latencia de las llamadas a repositorios y
+ * servicios, para poder averiguar qué llamada es la responsable cuando la
+ * aplicación va lenta.
+ *
+ * <p>Cada operación tiene su {@link OperationMetrics}, que se publica por JMX
+ * como {@code com.litenotes:type=Operation,name=Clase.método}; el control
+ * general se publica como {@code com.litenotes:type=Metrics} y permite
+ * activar las mediciones sin reiniciar la aplicación. Otros componentes
+ * pueden publicar sus propios MXBean con {@link #register(String, Object)}.</p>
+ *
+ * <p>Las mediciones están desactivadas por defecto y se activan con la
+ * propiedad de sistema {@value #ENABLED_PROPERTY}{@code =true}, por JMX o con
+ * {@link #setEnabled(boolean)}. La propiedad {@value #LOG_INTERVAL_PROPERTY}
+ * indica cada cuántos segundos se escribe el informe en la salida de error;
+ * si se indica, las mediciones se activan también.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public final class Metrics {
+
+    /** Propiedad de sistema que activa las mediciones desde el arranque. */
+    public static final String ENABLED_PROPERTY = "litenotes.metrics";
+
+    /** Propiedad de sistema con el intervalo del informe periódico, en segundos. */
+    public static final String LOG_INTERVAL_PROPERTY = "litenotes.metrics.logInterval";
+
+    private static final String DOMAIN = "com.litenotes";
+
+    private static final Map<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+    private static final List<Supplier<String>> sections = new CopyOnWriteArrayList<>();
+
+    private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+    private static ScheduledExecutorService logger;
+
+    static {
+        register("type=Metrics", new Control());
+
+        long interval = Long.getLong(LOG_INTERVAL_PROPERTY, 0);
+        if (interval > 0) {
+            enabled = true;
+            startLogging(Duration.ofSeconds(interval));
+        }
+    }
+
+    private Metrics() {}
+
+    /**
+     * Indica si se están midiendo las llamadas.
+     *
+     * @return {@code true} si las mediciones están activadas.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Activa o desactiva las mediciones. Lo ya medido se conserva.
+     *
+     * @param value {@code true} para activarlas.
+     */
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    /**
+     * Devuelve las métricas de una operación, creándolas y publicándolas por
+     * JMX la primera vez. Se suele guardar el resultado en un campo estático.
+     *
+     * @param name Nombre de la operación, de la forma {@code Clase.método}.
+     * @return Las métricas de la operación.
+     */
+    public static OperationMetrics operation(String name) {
+        OperationMetrics metrics = operations.get(name);
+        if (metrics != null) {
+            return metrics;
+        }
+
+        return operations.computeIfAbsent(name, key -> {
+            OperationMetrics created = new OperationMetrics(key);
+            register("type=Operation,name=" + ObjectName.quote(key), created);
+            return created;
+        });
+    }
+
+    /**
+     * Añade una sección al informe, por ejemplo con los contadores de una
+     * caché.
+     *
+     * @param section Función que devuelve el texto de la sección, o
+     *                {@code null} para omitirla.
+     */
+    public static void addReportSection(Supplier<String> section) {
+        sections.add(section);
+    }
+
+    /**
+     * Pone a cero las métricas de todas las operaciones.
+     */
+    public static void reset() {
+        operations.values().forEach(OperationMetrics::reset);
+    }
+
+    /**
+     * Da formato de tabla a las métricas de las operaciones con alguna
+     * llamada o error, con las latencias en microsegundos, seguidas de las
+     * secciones añadidas.
+     *
+     * @return El texto del informe.
+     */
+    public static String report() {
+        List<OperationMetrics> active = new ArrayList<>();
+        for (OperationMetrics metrics : operations.values()) {
+            if (metrics.getCount() > 0 || metrics.getErrors() > 0) {
+                active.add(metrics);
+            }
+        }
+        active.sort(Comparator.comparing(OperationMetrics::getName));
+
+        StringBuilder report = new StringBuilder(String.format(Locale.ROOT,
+                "%-36s %10s %7s %10s %10s %10s %10s %10s %10s%n",
+                "operation", "count", "errors", "rows", "mean us", "p50 us", "p99 us", "p999 us", "max us"));
+
+        for (OperationMetrics metrics : active) {
+            report.append(String.format(Locale.ROOT,
+                    "%-36s %10d %7d %10d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    metrics.getName(), metrics.getCount(), metrics.getErrors(), metrics.getRows(),
+                    1000 * metrics.getMeanMillis(), 1000 * metrics.getP50Millis(), 1000 * metrics.getP99Millis(),
+                    1000 * metrics.getP999Millis(), 1000 * metrics.getMaxMillis()));
+        }
+
+        for (Supplier<String> section : sections) {
+            String text = section.get();
+            if (text != null) {
+                report.append(text).append(System.lineSeparator());
+            }
+        }
+
+        return report.toString();
+    }
+
+    /**
+     * Escribe el informe en la salida de error cada cierto tiempo, en un hilo
+     * en segundo plano. Si ya se estaba escribiendo, se cambia el intervalo.
+     *
+     * @param interval Tiempo entre informes.
+     */
+    public static synchronized void startLogging(Duration interval) {
+        stopLogging();
+
+        logger = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "litenotes-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = Math.max(1, interval.toMillis());
+        logger.scheduleAtFixedRate(() -> System.err.print(report()), millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Deja de escribir el informe periódico.
+     */
+    public static synchronized void stopLogging() {
+        if (logger != null) {
+            logger.shutdownNow();
+            logger = null;
+        }
+    }
+
+    /**
+     * Publica un MXBean en el servidor de plataforma con el dominio
+     * {@code com.litenotes}. Si no se puede, se avisa y se continúa: las
+     * métricas siguen disponibles en {@link #report()}.
+     *
+     * @param properties Propiedades del nombre, como {@code type=NoteCache}.
+     * @param mbean Objeto que implementa una interfaz {@code ...MXBean}.
+     */
+    public static void register(String properties, Object mbean) {
+        try {
+            ObjectName name = new ObjectName(DOMAIN + ":" + properties);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(mbean, name);
+        } catch (JMException | RuntimeException e) {
+            System.err.println("No se pudo publicar " + properties + " por JMX: " + e);
+        }
+    }
+
+    /**
+     * Implementación de {@link MetricsMXBean} sobre los métodos estáticos.
+     */
+    private static final class Control implements MetricsMXBean {
+
+        @Override
+        public boolean isEnabled() {
+            return Metrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled) {
+            Metrics.setEnabled(enabled);
+        }
+
+        @Override
+        public String getReport() {
+            return report();
+        }
+
+        @Override
+        public void reset() {
+            Metrics.reset();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.litenotes.metrics;
+
+/**
+ * Vista JMX del control de las métricas: permite activarlas o desactivarlas
+ * en caliente, ponerlas a cero y obtener un informe de todas las operaciones.
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public interface MetricsMXBean {
+
+    /**
+     * @return {@code true} si se están midiendo las llamadas.
+     */
+    boolean isEnabled();
+
+    /**
+     * @param enabled {@code true} para empezar a medir las llamadas,
+     *                {@code false} para dejar de hacerlo.
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * @return El informe de {@link Metrics#report()}.
+     */
+    String getReport();
+
+    /**
+     * Pone a cero las métricas de todas las operaciones.
+     */
+    void reset();
+}
@@ -0,0 +1,125 @@
+package com.litenotes.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas de una operación concreta, como {@code NoteRepository.getPage}:
+ * número de llamadas, errores, filas e histograma de latencias.
+ *
+ * <p>Se obtienen con {@link Metrics#operation(String)} y se usan así:</p>
+ * <pre>
+ * long start = GET_PAGE.start();
+ * ...
+ * GET_PAGE.succeeded(start, list.size());   // o GET_PAGE.failed()
+ * </pre>
+ *
+ * <p>Con las métricas desactivadas, {@link #start()} no consulta el reloj y
+ * {@link #succeeded(long, long)} no hace nada, de modo que el coste se reduce
+ * a leer un campo {@code volatile}. Los errores se cuentan siempre, porque
+ * son raros y son lo primero que se quiere saber.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public final class OperationMetrics implements OperationMetricsMXBean {
+
+    /** Valor de {@link #start()} cuando las métricas están desactivadas. */
+    private static final long NOT_MEASURED = Long.MIN_VALUE;
+
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Devuelve el nombre de la operación.
+     *
+     * @return El nombre, de la forma {@code Clase.método}.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Marca el inicio de una llamada.
+     *
+     * @return El instante de inicio, que se pasa a {@link #succeeded} si la llamada termina bien.
+     */
+    public long start() {
+        return Metrics.isEnabled() ? System.nanoTime() : NOT_MEASURED;
+    }
+
+    /**
+     * Registra una llamada que terminó bien.
+     *
+     * @param start Valor devuelto por {@link #start()}.
+     * @param rowCount Filas devueltas o modificadas.
+     */
+    public void succeeded(long start, long rowCount) {
+        if (start == NOT_MEASURED) {
+            return;
+        }
+        latency.recordSince(start);
+        rows.add(rowCount);
+    }
+
+    /**
+     * Registra una llamada que falló. Su latencia no se incluye en el
+     * histograma, para no mezclar los fallos rápidos con las llamadas reales.
+     */
+    public void failed() {
+        errors.increment();
+    }
+
+    @Override
+    public long getCount() {
+        return latency.count();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getRows() {
+        return rows.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return latency.mean() / 1e6;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return latency.percentile(0.50) / 1e6;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return latency.percentile(0.99) / 1e6;
+    }
+
+    @Override
+    public double getP999Millis() {
+        return latency.percentile(0.999) / 1e6;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latency.max() / 1e6;
+    }
+
+    @Override
+    public void reset() {
+        latency.reset();
+        rows.reset();
+        errors.reset();
+    }
+}
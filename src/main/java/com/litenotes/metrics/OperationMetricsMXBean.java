@@ -0,0 +1,57 @@
+package com.litenotes.metrics;
+
+/**
+ * Vista JMX de las métricas de una operación. Los tiempos se expresan en
+ * milisegundos para que se lean directamente en JConsole o VisualVM.
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public interface OperationMetricsMXBean {
+
+    /**
+     * @return Número de llamadas medidas que terminaron bien.
+     */
+    long getCount();
+
+    /**
+     * @return Número de llamadas que fallaron, se midieran o no.
+     */
+    long getErrors();
+
+    /**
+     * @return Número total de filas devueltas o modificadas.
+     */
+    long getRows();
+
+    /**
+     * @return Latencia media, en milisegundos.
+     */
+    double getMeanMillis();
+
+    /**
+     * @return Mediana de la latencia, en milisegundos.
+     */
+    double getP50Millis();
+
+    /**
+     * @return Percentil 99 de la latencia, en milisegundos.
+     */
+    double getP99Millis();
+
+    /**
+     * @return Percentil 99,9 de la latencia, en milisegundos.
+     */
+    double getP999Millis();
+
+    /**
+     * @return Latencia máxima, en milisegundos.
+     */
+    double getMaxMillis();
+
+    /**
+     * Pone a cero las métricas de la operación.
+     */
+    void reset();
+}
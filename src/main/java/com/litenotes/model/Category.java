@@ -9,6 +9,10 @@ package com.litenotes.model;
  * controladores y servicios para asignar categorías a las notas y para
  * mostrar las opciones disponibles en la interfaz.</p>
  *
+ * <p>Dos categorías son iguales si tienen el mismo identificador. Las que
+ * devuelven los repositorios son instancias compartidas del
+ * {@code CategoryRegistry}, por lo que no deben modificarse.</p>
+ *
  * @author Aníbal
  * @version 1.0
  * @since 2026
@@ -64,6 +68,28 @@ public class Category {
      */
     public void setName(String name) { this.name = name; }
 
+    /**
+     * Compara esta categoría con otro objeto. Dos categorías son iguales si
+     * tienen el mismo identificador.
+     *
+     * @param o Objeto que se desea comparar.
+     * @return {@code true} si es una categoría con el mismo identificador.
+     */
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Category other && id == other.id);
+    }
+
+    /**
+     * Devuelve el código hash de la categoría, derivado de su identificador.
+     *
+     * @return El código hash.
+     */
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(id);
+    }
+
     /**
      * Devuelve el nombre de la categoría como representación en texto.
      * Esto permite que la categoría se muestre correctamente en elementos
@@ -1,5 +1,7 @@
 package com.litenotes.model;
 
+import java.util.Objects;
+
 /**
  * Representa una nota dentro de la aplicación LiteNotes. Cada nota contiene
  * un identificador único, un título, un contenido y una categoría asociada.
@@ -11,6 +13,18 @@ package com.litenotes.model;
  * <p>Las notas pueden clasificarse mediante instancias de {@link Category},
  * lo que permite filtrarlas y organizarlas dentro de la aplicación.</p>
  *
+ * <p>Los listados trabajan con resúmenes creados con
+ * {@link #summary(int, String, Category)}, que no incluyen el contenido para
+ * no cargar en memoria el texto de cada nota. El contenido se obtiene aparte
+ * cuando la nota se abre.</p>
+ *
+ * <p>Cada nota recuerda los valores con los que está guardada en la base de
+ * datos, de modo que al modificarla solo se escriben los campos que han
+ * cambiado (véase {@link #isModified()}). Las notas leídas de la base de
+ * datos y los resúmenes parten sin cambios; las creadas con los
+ * constructores no tienen valores guardados y se consideran modificadas por
+ * completo.</p>
+ *
  * @author Aníbal
  * @version 1.0
  * @since 2026
@@ -21,6 +35,16 @@ public class Note {
     private String title;
     private String content;
     private Category category;
+    private boolean contentLoaded = true;
+
+    /**
+     * Valores guardados, o {@code null} si no se conocen. Se sustituye entero
+     * para que pueda actualizarse desde el hilo que confirma la escritura.
+     */
+    private volatile Saved saved;
+
+    /** Valores de una nota tal como están guardados en la base de datos. */
+    private record Saved(String title, String content, boolean contentLoaded, int categoryId) {}
 
     /**
      * Crea una instancia vacía de {@code Note}. Este constructor se utiliza
@@ -59,6 +83,35 @@ public class Note {
         this.category = category;
     }
 
+    /**
+     * Crea el resumen de una nota existente: identificador, título y
+     * categoría, sin contenido.
+     *
+     * @param id Identificador único de la nota.
+     * @param title Título descriptivo de la nota.
+     * @param category Categoría a la que pertenece la nota.
+     * @return Una nota cuyo contenido no está cargado.
+     */
+    public static Note summary(int id, String title, Category category) {
+        Note note = new Note(id, title, null, category);
+        note.contentLoaded = false;
+        note.markSaved();
+        return note;
+    }
+
+    /**
+     * Crea una copia de la nota que conserva sus valores guardados, de modo
+     * que la copia tiene los mismos cambios pendientes que el original.
+     *
+     * @return Una nota nueva con los mismos datos.
+     */
+    public Note copy() {
+        Note copy = new Note(id, title, content, category);
+        copy.contentLoaded = contentLoaded;
+        copy.saved = saved;
+        return copy;
+    }
+
     /**
      * Devuelve el identificador único de la nota.
      *
@@ -98,7 +151,8 @@ public class Note {
     /**
      * Devuelve el contenido de la nota.
      *
-     * @return El contenido actual de la nota.
+     * @return El contenido actual de la nota, o {@code null} si la nota es un
+     *         resumen sin contenido cargado.
      */
     public String getContent() {
         return content;
@@ -111,6 +165,78 @@ public class Note {
      */
     public void setContent(String content) {
         this.content = content;
+        this.contentLoaded = true;
+    }
+
+    /**
+     * Indica si el contenido de la nota está cargado. Es {@code false} en los
+     * resúmenes devueltos por los listados hasta que se asigna un contenido.
+     *
+     * @return {@code true} si {@link #getContent()} refleja el contenido real.
+     */
+    public boolean isContentLoaded() {
+        return contentLoaded;
+    }
+
+    /**
+     * Toma los valores actuales de la nota como los guardados en la base de
+     * datos, de modo que deja de tener cambios pendientes.
+     */
+    public void markSaved() {
+        markSaved(this);
+    }
+
+    /**
+     * Toma como guardados los valores de otra nota, normalmente la copia que
+     * se escribió en la base de datos. Los valores actuales no cambian, así
+     * que los cambios hechos después de tomar la copia siguen pendientes.
+     *
+     * @param written Nota con los valores que se guardaron.
+     */
+    public void markSaved(Note written) {
+        saved = new Saved(written.title, written.content, written.contentLoaded, categoryIdOf(written.category));
+    }
+
+    /**
+     * Indica si el título ha cambiado desde que se guardó la nota.
+     *
+     * @return {@code true} si hay que escribir el título.
+     */
+    public boolean isTitleModified() {
+        Saved current = saved;
+        return current == null || !Objects.equals(title, current.title());
+    }
+
+    /**
+     * Indica si el contenido ha cambiado desde que se guardó la nota. Un
+     * contenido sin cargar nunca se considera modificado.
+     *
+     * @return {@code true} si hay que escribir el contenido.
+     */
+    public boolean isContentModified() {
+        Saved current = saved;
+        return contentLoaded
+                && (current == null || !current.contentLoaded() || !Objects.equals(content, current.content()));
+    }
+
+    /**
+     * Indica si la categoría ha cambiado desde que se guardó la nota. Las
+     * categorías se comparan por su identificador.
+     *
+     * @return {@code true} si hay que escribir la categoría.
+     */
+    public boolean isCategoryModified() {
+        Saved current = saved;
+        return current == null || categoryIdOf(category) != current.categoryId();
+    }
+
+    /**
+     * Indica si algún campo ha cambiado desde que se guardó la nota.
+     *
+     * @return {@code false} si guardar la nota no cambiaría nada.
+     */
+    public boolean isModified() {
+        return isTitleModified() || isContentModified() || isCategoryModified();
     }
 
     /**
@@ -141,4 +267,8 @@ public class Note {
     public String toString() {
         return title;
     }
+
+    private static int categoryIdOf(Category category) {
+        return category != null ? category.getId() : 0;
+    }
 }
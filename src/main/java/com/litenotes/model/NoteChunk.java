@@ -0,0 +1,72 @@
+package com.litenotes.model;
+
+/**
+ * Representa un fragmento del contenido de una nota muy larga. Las notas que
+ * superan cierto tamaño se guardan como una secuencia ordenada de fragmentos,
+ * de modo que el editor puede cargarlas poco a poco y guardar solo las partes
+ * que han cambiado.
+ *
+ * <p>Un fragmento leído de la base de datos solo lleva su identificador; su
+ * texto se pide aparte cuando hace falta. Al guardar, la lista de fragmentos
+ * describe el contenido completo en orden: los fragmentos sin texto se
+ * conservan tal como están, los que llevan texto se reescriben y los que no
+ * tienen identificador se añaden.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public final class NoteChunk {
+
+    private final int id;
+    private final String content;
+
+    /**
+     * Crea un fragmento.
+     *
+     * @param id Identificador del fragmento, o {@code 0} si es nuevo.
+     * @param content Texto del fragmento, o {@code null} si no se ha cargado
+     *                o no ha cambiado.
+     */
+    public NoteChunk(int id, String content) {
+        this.id = id;
+        this.content = content;
+    }
+
+    /**
+     * Crea la referencia a un fragmento guardado, sin su texto.
+     *
+     * @param id Identificador del fragmento.
+     * @return Un fragmento que se conserva sin cambios al guardar.
+     */
+    public static NoteChunk stored(int id) {
+        return new NoteChunk(id, null);
+    }
+
+    /**
+     * Devuelve el identificador del fragmento.
+     *
+     * @return El identificador, o {@code 0} si el fragmento es nuevo.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Devuelve el texto del fragmento.
+     *
+     * @return El texto, o {@code null} si no se ha cargado o no ha cambiado.
+     */
+    public String getContent() {
+        return content;
+    }
+
+    /**
+     * Indica si el fragmento lleva texto que debe escribirse al guardar.
+     *
+     * @return {@code true} si es nuevo o ha cambiado.
+     */
+    public boolean isModified() {
+        return content != null;
+    }
+}
@@ -0,0 +1,102 @@
+package com.litenotes.model;
+
+/**
+ * Cambio confirmado sobre una nota: un alta, una modificación o una baja.
+ * Los publica {@code NoteService} una vez que la escritura se ha guardado en
+ * disco, para que las vistas actualicen solo la nota afectada en lugar de
+ * volver a cargar la lista completa.
+ *
+ * <p>En las altas y modificaciones, {@link #getNote()} contiene los datos tal
+ * como se guardaron, con su contenido. En las bajas solo se conoce el
+ * identificador. La nota del evento es compartida por todos los receptores y
+ * no debe modificarse.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public final class NoteEvent {
+
+    /**
+     * Tipo de cambio.
+     */
+    public enum Type {
+        /** Se ha creado una nota. */
+        CREATED,
+        /** Se ha modificado una nota existente. */
+        UPDATED,
+        /** Se ha eliminado una nota. */
+        DELETED
+    }
+
+    private final Type type;
+    private final int noteId;
+    private final Note note;
+
+    private NoteEvent(Type type, int noteId, Note note) {
+        this.type = type;
+        this.noteId = noteId;
+        this.note = note;
+    }
+
+    /**
+     * Crea el evento de alta de una nota.
+     *
+     * @param note Nota creada, ya con su identificador.
+     * @return El evento.
+     */
+    public static NoteEvent created(Note note) {
+        return new NoteEvent(Type.CREATED, note.getId(), note);
+    }
+
+    /**
+     * Crea el evento de modificación de una nota.
+     *
+     * @param note Nota con los valores guardados.
+     * @return El evento.
+     */
+    public static NoteEvent updated(Note note) {
+        return new NoteEvent(Type.UPDATED, note.getId(), note);
+    }
+
+    /**
+     * Crea el evento de baja de una nota.
+     *
+     * @param id Identificador de la nota eliminada.
+     * @return El evento.
+     */
+    public static NoteEvent deleted(int id) {
+        return new NoteEvent(Type.DELETED, id, null);
+    }
+
+    /**
+     * Devuelve el tipo de cambio.
+     *
+     * @return El tipo del evento.
+     */
+    public Type getType() { return type; }
+
+    /**
+     * Devuelve el identificador de la nota afectada.
+     *
+     * @return El identificador de la nota.
+     */
+    public int getNoteId() { return noteId; }
+
+    /**
+     * Devuelve la nota afectada.
+     *
+     * @return La nota guardada, o {@code null} en las bajas.
+     */
+    public Note getNote() { return note; }
+
+    /**
+     * Devuelve una representación en texto del evento, útil para depurar.
+     *
+     * @return El tipo y el identificador de la nota.
+     */
+    @Override
+    public String toString() {
+        return type + " #" + noteId;
+    }
+}
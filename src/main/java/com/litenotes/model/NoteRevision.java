@@ -0,0 +1,87 @@
+package com.litenotes.model;
+
+/**
+ * Representa una versión anterior de una nota, tal como quedó guardada antes
+ * de que una modificación cambiara su título o su contenido.
+ *
+ * <p>Las revisiones de una nota se numeran desde {@code 1}, de la más antigua
+ * a la más reciente. Al listar el historial solo se leen el título y la fecha;
+ * el contenido se reconstruye aparte cuando se pide una revisión concreta.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public final class NoteRevision {
+
+    private final int noteId;
+    private final int number;
+    private final String title;
+    private final long savedAt;
+    private final String content;
+
+    /**
+     * Crea una revisión.
+     *
+     * @param noteId Identificador de la nota.
+     * @param number Número de la revisión dentro de la nota.
+     * @param title Título de la nota en esa revisión.
+     * @param savedAt Instante en que se guardó esa versión, en milisegundos
+     *                desde 1970, o {@code 0} si no se conoce.
+     * @param content Contenido de la nota en esa revisión, o {@code null} si
+     *                no se ha cargado.
+     */
+    public NoteRevision(int noteId, int number, String title, long savedAt, String content) {
+        this.noteId = noteId;
+        this.number = number;
+        this.title = title;
+        this.savedAt = savedAt;
+        this.content = content;
+    }
+
+    /**
+     * Devuelve el identificador de la nota.
+     *
+     * @return El identificador de la nota.
+     */
+    public int getNoteId() {
+        return noteId;
+    }
+
+    /**
+     * Devuelve el número de la revisión dentro de la nota.
+     *
+     * @return El número, desde {@code 1} para la más antigua.
+     */
+    public int getNumber() {
+        return number;
+    }
+
+    /**
+     * Devuelve el título de la nota en esta revisión.
+     *
+     * @return El título.
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Devuelve el instante en que se guardó esta versión.
+     *
+     * @return Milisegundos desde 1970, o {@code 0} si no se conoce, como en
+     *         las notas anteriores a las fechas de modificación.
+     */
+    public long getSavedAt() {
+        return savedAt;
+    }
+
+    /**
+     * Devuelve el contenido de la nota en esta revisión.
+     *
+     * @return El contenido, o {@code null} si no se ha cargado.
+     */
+    public String getContent() {
+        return content;
+    }
+}
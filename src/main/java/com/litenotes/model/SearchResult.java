@@ -0,0 +1,78 @@
+package com.litenotes.model;
+
+/**
+ * Representa un resultado de la búsqueda de texto completo de LiteNotes.
+ * Contiene la nota encontrada, un fragmento de su contenido con los términos
+ * buscados resaltados y la puntuación de relevancia BM25 calculada por SQLite.
+ *
+ * <p>Los términos resaltados del fragmento quedan delimitados por los
+ * caracteres {@link #HIGHLIGHT_START} y {@link #HIGHLIGHT_END}, que la interfaz
+ * utiliza para mostrarlos con un estilo distinto.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public class SearchResult {
+
+    /** Marca el inicio de un término resaltado dentro del fragmento. */
+    public static final char HIGHLIGHT_START = '\u0002';
+
+    /** Marca el final de un término resaltado dentro del fragmento. */
+    public static final char HIGHLIGHT_END = '\u0003';
+
+    private final Note note;
+    private final String snippet;
+    private final double rank;
+
+    /**
+     * Crea un nuevo resultado de búsqueda.
+     *
+     * @param note Nota encontrada.
+     * @param snippet Fragmento del contenido con los términos resaltados.
+     * @param rank Puntuación BM25; cuanto menor, más relevante.
+     */
+    public SearchResult(Note note, String snippet, double rank) {
+        this.note = note;
+        this.snippet = snippet;
+        this.rank = rank;
+    }
+
+    /**
+     * Devuelve la nota encontrada.
+     *
+     * @return La nota asociada al resultado.
+     */
+    public Note getNote() {
+        return note;
+    }
+
+    /**
+     * Devuelve el fragmento del contenido con los términos resaltados.
+     *
+     * @return El fragmento, o una cadena vacía si la nota no tiene contenido.
+     */
+    public String getSnippet() {
+        return snippet;
+    }
+
+    /**
+     * Devuelve la puntuación de relevancia BM25 del resultado. SQLite devuelve
+     * valores negativos en los que un número menor indica mayor relevancia.
+     *
+     * @return La puntuación del resultado.
+     */
+    public double getRank() {
+        return rank;
+    }
+
+    /**
+     * Devuelve el título de la nota encontrada.
+     *
+     * @return El título de la nota.
+     */
+    @Override
+    public String toString() {
+        return note.getTitle();
+    }
+}
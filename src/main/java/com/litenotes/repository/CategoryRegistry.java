@@ -0,0 +1,117 @@
+package com.litenotes.repository;
+
+import com.litenotes.model.Category;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro compartido de categorías. Garantiza que en todo el proceso haya una
+ * sola instancia de {@link Category} por identificador, de modo que miles de
+ * notas de la misma categoría comparten el objeto y su nombre en lugar de
+ * crear una copia por fila.
+ *
+ * <p>La lista completa de categorías se carga de la base de datos la primera
+ * vez que se pide y se conserva en memoria; las ventanas que la necesitan ya
+ * no repiten la consulta. Las categorías nuevas se añaden al registro en el
+ * momento en que se crean, y {@link #refresh()} vuelve a leer la lista si la
+ * base de datos se modifica desde fuera.</p>
+ *
+ * <p>Todos los métodos son seguros para su uso desde varios hilos. Al cambiar
+ * de archivo con {@link Database#configure(String)} el registro se vacía.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public final class CategoryRegistry {
+
+    private static final Comparator<Category> BY_NAME =
+            Comparator.comparing(Category::getName, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private static final Map<Integer, Category> byId = new ConcurrentHashMap<>();
+
+    /** Lista ordenada por nombre; {@code null} mientras no se ha cargado. */
+    private static volatile List<Category> all;
+
+    private CategoryRegistry() {}
+
+    /**
+     * Devuelve la instancia compartida de la categoría con el identificador
+     * indicado, creándola si aún no existe.
+     *
+     * @param id Identificador de la categoría.
+     * @param name Nombre de la categoría, usado solo si hay que crearla.
+     * @return La instancia compartida.
+     */
+    public static Category canonical(int id, String name) {
+        Category category = byId.get(id);
+        if (category != null) {
+            return category;
+        }
+        return byId.computeIfAbsent(id, key -> new Category(key, name));
+    }
+
+    /**
+     * Devuelve todas las categorías ordenadas por nombre, cargándolas de la
+     * base de datos solo la primera vez.
+     *
+     * @return Una lista inmodificable con las categorías.
+     */
+    public static List<Category> getAll() {
+        List<Category> current = all;
+        return current != null ? current : refresh();
+    }
+
+    /**
+     * Indica si la lista de categorías ya está en memoria, de forma que
+     * {@link #getAll()} no consultará la base de datos.
+     *
+     * @return {@code true} si la lista está cargada.
+     */
+    public static boolean isLoaded() {
+        return all != null;
+    }
+
+    /**
+     * Vuelve a leer las categorías de la base de datos. Las instancias de las
+     * categorías que ya existían se conservan.
+     *
+     * @return La lista actualizada.
+     */
+    public static synchronized List<Category> refresh() {
+        List<Category> loaded = new CategoryRepository().getAll();
+        all = List.copyOf(loaded);
+        return all;
+    }
+
+    /**
+     * Añade al registro una categoría recién creada en la base de datos.
+     *
+     * @param category Categoría nueva.
+     * @return La instancia compartida de la categoría.
+     */
+    static synchronized Category register(Category category) {
+        Category canonical = canonical(category.getId(), category.getName());
+
+        List<Category> current = all;
+        if (current != null && !current.contains(canonical)) {
+            List<Category> updated = new ArrayList<>(current);
+            updated.add(canonical);
+            updated.sort(BY_NAME);
+            all = List.copyOf(updated);
+        }
+        return canonical;
+    }
+
+    /**
+     * Vacía el registro.
+     */
+    static synchronized void clear() {
+        byId.clear();
+        all = null;
+    }
+}
@@ -1,8 +1,12 @@
 package com.litenotes.repository;
 
+import com.litenotes.metrics.Metrics;
+import com.litenotes.metrics.OperationMetrics;
 import com.litenotes.model.Category;
 
-import java.sql.*;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -16,7 +20,8 @@ import java.util.List;
  * necesaria para la interfaz y la lógica de negocio.</p>
  *
  * <p>Las conexiones se gestionan mediante la clase {@code Database}, que
- * proporciona el acceso centralizado a la base de datos.</p>
+ * proporciona el acceso centralizado a la base de datos. Cada método registra
+ * su latencia, sus filas y sus errores en {@link Metrics}.</p>
  *
  * @author Aníbal
  * @version 1.0
@@ -24,35 +29,76 @@ import java.util.List;
  */
 public class CategoryRepository {
 
+    private static final OperationMetrics GET_ALL = Metrics.operation("CategoryRepository.getAll");
+    private static final OperationMetrics FIND_OR_CREATE = Metrics.operation("CategoryRepository.findOrCreate");
+
     /**
      * Obtiene todas las categorías almacenadas en la base de datos, ordenadas
      * alfabéticamente por nombre.
      *
      * <p>Este método ejecuta una consulta SQL sobre la tabla {@code categories}
-     * y convierte cada fila del resultado en una instancia de {@link Category}.</p>
+     * y convierte cada fila del resultado en la instancia compartida de
+     * {@link CategoryRegistry}. Para obtener la lista sin consultar la base de
+     * datos cada vez, se usa {@link CategoryRegistry#getAll()}.</p>
      *
      * @return Una lista con todas las categorías existentes. Si ocurre un error
      *         durante la consulta, se devuelve una lista vacía.
      */
     public List<Category> getAll() {
+        long start = GET_ALL.start();
         List<Category> list = new ArrayList<>();
         String sql = "SELECT * FROM categories ORDER BY name";
 
-        try (Connection conn = Database.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (PooledConnection conn = Database.getReadConnection();
+             ResultSet rs = conn.prepare(sql).executeQuery()) {
 
             while (rs.next()) {
-                list.add(new Category(
+                list.add(CategoryRegistry.canonical(
                         rs.getInt("id"),
                         rs.getString("name")
                 ));
             }
 
         } catch (SQLException e) {
+            GET_ALL.failed();
             e.printStackTrace();
+            return list;
         }
 
+        GET_ALL.succeeded(start, list.size());
         return list;
     }
+
+    /**
+     * Busca una categoría por su nombre exacto y, si no existe, la crea. Se
+     * ejecuta en la conexión de escritura para que dos llamadas simultáneas
+     * con el mismo nombre no creen duplicados. La categoría se añade al
+     * {@link CategoryRegistry}.
+     *
+     * @param name Nombre de la categoría.
+     * @return La categoría existente o la recién creada.
+     * @throws SQLException Si ocurre un error al consultar o insertar.
+     */
+    public Category findOrCreate(String name) throws SQLException {
+        long start = FIND_OR_CREATE.start();
+
+        try (PooledConnection conn = Database.getWriteConnection()) {
+            PreparedStatement insert = conn.prepare(
+                    "INSERT OR IGNORE INTO categories (name) VALUES (?)");
+            insert.setString(1, name);
+            insert.executeUpdate();
+
+            PreparedStatement select = conn.prepare("SELECT id FROM categories WHERE name = ?");
+            select.setString(1, name);
+            try (ResultSet rs = select.executeQuery()) {
+                rs.next();
+                Category category = CategoryRegistry.register(new Category(rs.getInt("id"), name));
+                FIND_OR_CREATE.succeeded(start, 1);
+                return category;
+            }
+        } catch (SQLException e) {
+            FIND_OR_CREATE.failed();
+            throw e;
+        }
+    }
 }
@@ -0,0 +1,149 @@
+package com.litenotes.repository;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool de tamaño fijo de conexiones SQLite utilizado internamente por
+ * {@link Database}. Las conexiones se abren de forma perezosa hasta alcanzar el
+ * tamaño máximo y después se reutilizan indefinidamente; si todas están en uso,
+ * quien solicita una conexión espera a que otra sea devuelta.
+ *
+ * <p>Una conexión que se devuelve cerrada se descarta y su hueco queda libre
+ * para abrir otra nueva en la siguiente petición.</p>
+ *
+ * <p>Quien espera una conexión vuelve a comprobar cada poco si el pool se ha
+ * cerrado o ha quedado un hueco libre, así que el cierre no lo deja bloqueado
+ * para siempre.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+final class ConnectionPool {
+
+    /**
+     * Abre una conexión física nueva, ya configurada con los PRAGMA del pool.
+     */
+    @FunctionalInterface
+    interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    /** Tiempo máximo de cada espera antes de volver a comprobar el pool. */
+    private static final long WAIT_MILLIS = 100;
+
+    private final String name;
+    private final int size;
+    private final ConnectionFactory factory;
+    private final BlockingQueue<PooledConnection> idle = new LinkedBlockingQueue<>();
+
+    private int created;
+    private volatile boolean closed;
+
+    /**
+     * Crea un pool vacío.
+     *
+     * @param name Nombre descriptivo usado en los mensajes de error.
+     * @param size Número máximo de conexiones simultáneas.
+     * @param factory Función que abre cada conexión física.
+     */
+    ConnectionPool(String name, int size, ConnectionFactory factory) {
+        this.name = name;
+        this.size = size;
+        this.factory = factory;
+    }
+
+    /**
+     * Obtiene una conexión libre, abriendo una nueva si aún no se ha alcanzado
+     * el tamaño máximo o esperando a que otra sea devuelta en caso contrario.
+     *
+     * @return Una conexión en exclusiva hasta que se cierre.
+     * @throws SQLException Si el pool está cerrado, no se puede abrir la
+     *         conexión o el hilo es interrumpido mientras espera.
+     */
+    PooledConnection acquire() throws SQLException {
+        while (true) {
+            if (closed) {
+                throw closedError();
+            }
+
+            PooledConnection conn = idle.poll();
+            if (conn == null) {
+                synchronized (this) {
+                    if (created < size) {
+                        PooledConnection fresh = new PooledConnection(factory.open(), this);
+                        created++;
+                        return fresh;
+                    }
+                }
+
+                try {
+                    conn = idle.poll(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrumpido esperando una conexión de '" + name + "'", e);
+                }
+                if (conn == null) {
+                    continue;
+                }
+            }
+
+            if (closed) {
+                discard(conn);
+                throw closedError();
+            }
+            return conn;
+        }
+    }
+
+    /**
+     * Devuelve una conexión al pool. Si el pool ya se ha cerrado o la conexión
+     * no es válida, se cierra físicamente.
+     *
+     * @param conn Conexión que se devuelve.
+     */
+    void release(PooledConnection conn) {
+        if (closed || !conn.isValid()) {
+            discard(conn);
+            return;
+        }
+
+        idle.offer(conn);
+        // close() puede haber vaciado la cola entre la comprobación y offer()
+        if (closed) {
+            discardIdle();
+        }
+    }
+
+    /**
+     * Cierra las conexiones libres y marca el pool como cerrado. Las conexiones
+     * prestadas en ese momento se cierran cuando se devuelven, y quien espera
+     * una conexión recibe un error en cuanto vuelve a comprobar el pool.
+     */
+    void close() {
+        closed = true;
+        discardIdle();
+    }
+
+    private void discardIdle() {
+        PooledConnection conn;
+        while ((conn = idle.poll()) != null) {
+            discard(conn);
+        }
+    }
+
+    private void discard(PooledConnection conn) {
+        conn.closePhysically();
+        synchronized (this) {
+            created--;
+        }
+    }
+
+    private SQLException closedError() {
+        return new SQLException("El pool de conexiones '" + name + "' está cerrado");
+    }
+}
@@ -0,0 +1,49 @@
+package com.litenotes.repository;
+
+/**
+ * Algoritmo de compresión del contenido de las notas. Cada códec tiene un
+ * número de formato propio, que se guarda junto a cada nota comprimida en la
+ * columna {@code content_format} para saber cómo leerla.
+ *
+ * <p>El formato {@code 0} está reservado para el texto sin comprimir. Un
+ * número de formato ya usado en alguna base de datos no debe reasignarse a
+ * otro códec, o sus notas dejarían de poder leerse.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ * @see ContentCompression#register(ContentCodec)
+ */
+public interface ContentCodec {
+
+    /**
+     * Devuelve el número de formato que identifica a este códec.
+     *
+     * @return Un número positivo, único entre los códecs registrados.
+     */
+    int format();
+
+    /**
+     * Devuelve el nombre con el que se elige el códec en la configuración.
+     *
+     * @return El nombre, por ejemplo {@code deflate}.
+     */
+    String name();
+
+    /**
+     * Comprime el texto de una nota.
+     *
+     * @param data Texto en UTF-8.
+     * @return Los datos comprimidos.
+     */
+    byte[] encode(byte[] data);
+
+    /**
+     * Descomprime lo que produjo {@link #encode(byte[])}.
+     *
+     * @param data Datos comprimidos.
+     * @return El texto en UTF-8.
+     * @throws IllegalArgumentException Si los datos están dañados.
+     */
+    byte[] decode(byte[] data);
+}
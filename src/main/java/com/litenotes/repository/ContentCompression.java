@@ -0,0 +1,256 @@
+package com.litenotes.repository;
+
+import com.litenotes.metrics.Metrics;
+import org.sqlite.Function;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+
+/**
+ * Compresión transparente del contenido de las notas largas.
+ *
+ * <p>Al guardar una nota cuyo contenido supera el umbral
+ * ({@value #THRESHOLD_PROPERTY}, 4096 caracteres por defecto), el texto se
+ * comprime con el códec configurado ({@value #CODEC_PROPERTY}, {@code deflate}
+ * por defecto, o {@code none} para no comprimir) y se guarda como BLOB en la
+ * misma columna {@code content}, con el número de formato del códec en
+ * {@code content_format}. Si la compresión no ahorra espacio, el texto se
+ * guarda tal cual.</p>
+ *
+ * <p>Las notas guardadas antes de existir la compresión tienen el formato
+ * {@code 0} y se siguen leyendo igual; se comprimen la próxima vez que se
+ * modifican, o todas de una vez con {@link NoteRepository#compressPending(int)}.
+ * Se puede cambiar de códec o de umbral en cualquier momento: cada nota se lee
+ * con el códec con el que se escribió.</p>
+ *
+ * <p>SQLite también necesita leer el texto, para el índice de búsqueda y sus
+ * fragmentos. Para ello cada conexión registra la función
+ * {@code note_text(content, content_format)}, que usan la vista
+ * {@code notes_text} y los disparadores del índice.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public final class ContentCompression {
+
+    /** Propiedad de sistema con el nombre del códec, o {@code none}. */
+    public static final String CODEC_PROPERTY = "litenotes.compression.codec";
+
+    /** Propiedad de sistema con el tamaño mínimo que se comprime, en caracteres. */
+    public static final String THRESHOLD_PROPERTY = "litenotes.compression.threshold";
+
+    /** Formato del texto sin comprimir. */
+    static final int PLAIN = 0;
+
+    private static final int DEFAULT_THRESHOLD = 4096;
+
+    private static final Map<Integer, ContentCodec> byFormat = new ConcurrentHashMap<>();
+    private static final Map<String, ContentCodec> byName = new ConcurrentHashMap<>();
+
+    private static final LongAdder compressedNotes = new LongAdder();
+    private static final LongAdder originalBytes = new LongAdder();
+    private static final LongAdder storedBytes = new LongAdder();
+
+    /** Códec con el que se escribe, o {@code null} para no comprimir. */
+    private static volatile ContentCodec codec;
+    private static volatile int threshold;
+
+    static {
+        register(new DeflateCodec(Deflater.BEST_SPEED));
+        configure(System.getProperty(CODEC_PROPERTY, "deflate"),
+                Integer.getInteger(THRESHOLD_PROPERTY, DEFAULT_THRESHOLD));
+
+        Metrics.addReportSection(() -> {
+            long notes = compressedNotes.sum();
+            return notes == 0 ? null : String.format(Locale.ROOT,
+                    "Compresión: %d notas, %d KB en %d KB (%.1f %%)", notes,
+                    originalBytes.sum() / 1024, storedBytes.sum() / 1024,
+                    100.0 * storedBytes.sum() / Math.max(1, originalBytes.sum()));
+        });
+    }
+
+    /**
+     * Contenido comprimido y el formato con que se comprimió.
+     */
+    record Compressed(byte[] data, int format) {}
+
+    private ContentCompression() {}
+
+    /**
+     * Añade un códec, que podrá elegirse por su nombre y con el que se podrán
+     * leer las notas de su formato.
+     *
+     * @param added Códec que se desea añadir.
+     * @throws IllegalArgumentException Si su formato no es positivo o ya lo
+     *         usa otro códec.
+     */
+    public static void register(ContentCodec added) {
+        if (added.format() <= PLAIN) {
+            throw new IllegalArgumentException("El formato de un códec debe ser positivo: " + added.format());
+        }
+
+        ContentCodec previous = byFormat.putIfAbsent(added.format(), added);
+        if (previous != null && previous != added) {
+            throw new IllegalArgumentException("El formato " + added.format() + " ya lo usa " + previous.name());
+        }
+        byName.put(added.name().toLowerCase(Locale.ROOT), added);
+    }
+
+    /**
+     * Elige el códec y el umbral con que se guardan las notas a partir de
+     * ahora.
+     *
+     * @param codecName Nombre de un códec registrado, o {@code none} para no
+     *                  comprimir.
+     * @param minChars Tamaño mínimo del contenido que se comprime.
+     * @throws IllegalArgumentException Si el códec no existe.
+     */
+    public static void configure(String codecName, int minChars) {
+        String name = codecName.strip().toLowerCase(Locale.ROOT);
+        ContentCodec selected = null;
+
+        if (!name.equals("none")) {
+            selected = byName.get(name);
+            if (selected == null) {
+                throw new IllegalArgumentException("Códec de compresión desconocido: " + codecName);
+            }
+        }
+
+        codec = selected;
+        threshold = Math.max(0, minChars);
+    }
+
+    /**
+     * Asigna el contenido de una nota y su formato a dos parámetros de una
+     * sentencia, comprimiéndolo si corresponde.
+     *
+     * @param pstmt Sentencia de inserción o modificación.
+     * @param contentIndex Posición del parámetro del contenido.
+     * @param formatIndex Posición del parámetro del formato.
+     * @param content Contenido de la nota; puede ser {@code null}.
+     * @throws SQLException Si no se pueden asignar los parámetros.
+     */
+    static void bind(PreparedStatement pstmt, int contentIndex, int formatIndex, String content)
+            throws SQLException {
+        Compressed compressed = compress(content);
+
+        if (compressed != null) {
+            pstmt.setBytes(contentIndex, compressed.data());
+            pstmt.setInt(formatIndex, compressed.format());
+            return;
+        }
+
+        if (content == null) {
+            pstmt.setNull(contentIndex, Types.VARCHAR);
+        } else {
+            pstmt.setString(contentIndex, content);
+        }
+        pstmt.setInt(formatIndex, PLAIN);
+    }
+
+    /**
+     * Lee el contenido de la fila actual, descomprimiéndolo si hace falta.
+     *
+     * @param rs Resultado con las columnas {@code content} y
+     *           {@code content_format}.
+     * @return El texto de la nota, o {@code null} si no tiene.
+     * @throws SQLException Si no se puede leer o descomprimir.
+     */
+    static String read(ResultSet rs) throws SQLException {
+        int format = rs.getInt("content_format");
+        if (format == PLAIN) {
+            return rs.getString("content");
+        }
+
+        byte[] data = rs.getBytes("content");
+        return data == null ? null : decode(data, format);
+    }
+
+    /**
+     * Comprime un contenido si supera el umbral y la compresión ahorra
+     * espacio.
+     *
+     * @param content Contenido de la nota; puede ser {@code null}.
+     * @return El contenido comprimido, o {@code null} si debe guardarse como
+     *         texto.
+     */
+    static Compressed compress(String content) {
+        ContentCodec selected = codec;
+        if (content == null || selected == null || content.length() < threshold) {
+            return null;
+        }
+
+        byte[] text = content.getBytes(StandardCharsets.UTF_8);
+        byte[] data = selected.encode(text);
+        if (data.length >= text.length) {
+            return null;
+        }
+
+        compressedNotes.increment();
+        originalBytes.add(text.length);
+        storedBytes.add(data.length);
+        return new Compressed(data, selected.format());
+    }
+
+    /**
+     * Devuelve el tamaño mínimo que se comprime, o {@code -1} si la compresión
+     * está desactivada.
+     *
+     * @return El umbral en caracteres.
+     */
+    static int threshold() {
+        return codec == null ? -1 : threshold;
+    }
+
+    /**
+     * Registra en la conexión la función SQL
+     * {@code note_text(content, content_format)}, que devuelve el texto de una
+     * nota cualquiera que sea su formato.
+     *
+     * @param conn Conexión recién abierta.
+     * @throws SQLException Si no se puede registrar.
+     */
+    static void registerFunction(Connection conn) throws SQLException {
+        Function.create(conn, "note_text", new Function() {
+            @Override
+            protected void xFunc() throws SQLException {
+                int format = value_int(1);
+
+                if (value_type(0) == 5) { // SQLITE_NULL
+                    result();
+                } else if (format == PLAIN) {
+                    result(value_text(0));
+                } else {
+                    try {
+                        result(decode(value_blob(0), format));
+                    } catch (SQLException e) {
+                        error(e.getMessage());
+                    }
+                }
+            }
+        }, 2, Function.FLAG_DETERMINISTIC);
+    }
+
+    private static String decode(byte[] data, int format) throws SQLException {
+        ContentCodec reader = byFormat.get(format);
+        if (reader == null) {
+            throw new SQLException("Formato de contenido desconocido: " + format);
+        }
+
+        try {
+            return new String(reader.decode(data), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new SQLException(e.getMessage(), e);
+        }
+    }
+}
@@ -1,20 +1,28 @@
 package com.litenotes.repository;
 
+import org.sqlite.SQLiteConfig;
+
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 /**
  * Clase encargada de gestionar la conexión con la base de datos SQLite utilizada
- * por la aplicación LiteNotes. Proporciona un método centralizado para obtener
+ * por la aplicación LiteNotes. Proporciona un punto centralizado para obtener
  * conexiones válidas mediante JDBC.
  *
- * <p>La base de datos utilizada es un archivo local llamado {@code litenotes.db},
- * ubicado en el directorio raíz de la aplicación. Esta clase es utilizada por
- * los repositorios para ejecutar consultas SQL.</p>
+ * <p>Las conexiones son de larga duración y se reparten en dos pools: una única
+ * conexión de escritura, que serializa todas las modificaciones, y varias
+ * conexiones de solo lectura que pueden consultar en paralelo gracias al modo
+ * WAL de SQLite. Cada conexión conserva en caché sus sentencias preparadas
+ * (véase {@link PooledConnection}).</p>
  *
- * <p>El uso de un método estático permite un acceso sencillo y uniforme a la
- * conexión desde cualquier parte del proyecto.</p>
+ * <p>Por defecto se utiliza el archivo {@code litenotes.db} del directorio de
+ * trabajo. La ruta puede cambiarse con la propiedad de sistema
+ * {@value #PATH_PROPERTY} o llamando a {@link #configure(String)} antes del
+ * primer acceso; el número de conexiones de lectura se controla con
+ * {@value #READERS_PROPERTY}.</p>
  *
  * @author Aníbal
  * @version 1.0
@@ -22,21 +30,249 @@ import java.sql.SQLException;
  */
 public class Database {
 
-    /** URL de conexión JDBC para acceder a la base de datos SQLite. */
-    private static final String URL = "jdbc:sqlite:litenotes.db";
+    /** Propiedad de sistema con la ruta del archivo de base de datos. */
+    public static final String PATH_PROPERTY = "litenotes.db.path";
+
+    /** Propiedad de sistema con el número de conexiones de solo lectura. */
+    public static final String READERS_PROPERTY = "litenotes.db.readers";
+
+    /**
+     * Propiedad de sistema con una latencia artificial, en milisegundos, que se
+     * añade cada vez que se presta una conexión. Solo sirve para comprobar que
+     * la interfaz sigue respondiendo con una base de datos lenta.
+     */
+    public static final String DEBUG_LATENCY_PROPERTY = "litenotes.db.debugLatencyMs";
+
+    /** Ruta utilizada si no se configura ninguna otra. */
+    private static final String DEFAULT_PATH = "litenotes.db";
+
+    /** Tamaño de la caché de páginas por conexión, en KiB (valor negativo). */
+    private static final int CACHE_SIZE_KIB = -16000;
+
+    /** Tamaño máximo de la región mapeada en memoria por conexión, en bytes. */
+    private static final long MMAP_SIZE = 256L * 1024 * 1024;
+
+    /** Milisegundos que se espera a que se libere un bloqueo antes de fallar. */
+    private static final int BUSY_TIMEOUT_MS = 5000;
+
+    private static final long DEBUG_LATENCY_MS = Long.getLong(DEBUG_LATENCY_PROPERTY, 0);
+
+    private static String path = System.getProperty(PATH_PROPERTY, DEFAULT_PATH);
+
+    private static ConnectionPool writer;
+    private static ConnectionPool readers;
+
+    private Database() {}
+
+    /**
+     * Cambia la ruta del archivo de base de datos. Si ya había conexiones
+     * abiertas, se cierran y las siguientes se abrirán sobre el nuevo archivo.
+     *
+     * @param dbPath Ruta del archivo SQLite.
+     */
+    public static synchronized void configure(String dbPath) {
+        close();
+        CategoryRegistry.clear();
+        path = dbPath;
+    }
+
+    /**
+     * Devuelve la ruta del archivo de base de datos configurado.
+     *
+     * @return La ruta actual.
+     */
+    public static synchronized String getPath() {
+        return path;
+    }
+
+    /**
+     * Devuelve la URL JDBC correspondiente a la ruta configurada.
+     *
+     * @return La URL de conexión.
+     */
+    public static synchronized String getUrl() {
+        return "jdbc:sqlite:" + path;
+    }
+
+    /**
+     * Abre las conexiones y pone el esquema al día, si no se había hecho ya.
+     * Llamarlo al arrancar hace que las migraciones pendientes se apliquen
+     * antes de mostrar la interfaz, en lugar de en la primera consulta.
+     *
+     * @throws SQLException Si no se puede abrir el archivo o falla una
+     *         migración.
+     * @see Migrations
+     */
+    public static synchronized void initialize() throws SQLException {
+        ensureOpen();
+    }
 
     /**
-     * Obtiene una conexión activa a la base de datos SQLite.
+     * Obtiene una conexión nueva e independiente del pool, configurada con los
+     * mismos PRAGMA que las conexiones agrupadas. Quien la solicita es
+     * responsable de cerrarla.
      *
-     * <p>Este método utiliza {@link DriverManager#getConnection(String)} para
-     * establecer la conexión. Si ocurre un error, se lanza una excepción
-     * {@link SQLException} que debe ser gestionada por el repositorio que
-     * realiza la operación.</p>
+     * <p>Los repositorios deben usar {@link #getReadConnection()} y
+     * {@link #getWriteConnection()}; este método se conserva para
+     * herramientas que necesitan una conexión propia.</p>
      *
      * @return Una conexión JDBC válida a la base de datos.
      * @throws SQLException Si no es posible establecer la conexión.
      */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL);
+        return open(false);
+    }
+
+    /**
+     * Presta una conexión de solo lectura. Varias pueden usarse a la vez.
+     *
+     * @return Una conexión que se devuelve al pool al cerrarla.
+     * @throws SQLException Si no es posible obtener la conexión.
+     */
+    public static PooledConnection getReadConnection() throws SQLException {
+        simulateLatency();
+        return readerPool().acquire();
+    }
+
+    /**
+     * Presta la única conexión de escritura. Mientras un hilo la tiene, el
+     * resto de escritores espera.
+     *
+     * @return La conexión de escritura, que se devuelve al pool al cerrarla.
+     * @throws SQLException Si no es posible obtener la conexión.
+     */
+    public static PooledConnection getWriteConnection() throws SQLException {
+        simulateLatency();
+        return writerPool().acquire();
+    }
+
+    /**
+     * Devuelve el número máximo de conexiones de lectura simultáneas.
+     *
+     * @return El tamaño del pool de lectura.
+     */
+    public static int getReaderCount() {
+        return Integer.getInteger(READERS_PROPERTY,
+                Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())));
+    }
+
+    /**
+     * Reescribe el archivo de la base de datos para devolver al sistema el
+     * espacio libre, por ejemplo después de comprimir las notas. Ocupa la
+     * conexión de escritura mientras dura y necesita espacio en disco para
+     * una copia temporal del archivo.
+     *
+     * @throws SQLException Si no se puede completar.
+     */
+    public static void vacuum() throws SQLException {
+        try (PooledConnection conn = getWriteConnection();
+             Statement stmt = conn.getConnection().createStatement()) {
+            stmt.execute("VACUUM");
+        }
+    }
+
+    /**
+     * Cierra todas las conexiones agrupadas. Un acceso posterior vuelve a
+     * abrirlas.
+     */
+    public static synchronized void close() {
+        if (writer != null) {
+            writer.close();
+            readers.close();
+            writer = null;
+            readers = null;
+        }
+    }
+
+    private static synchronized ConnectionPool writerPool() throws SQLException {
+        ensureOpen();
+        return writer;
+    }
+
+    private static synchronized ConnectionPool readerPool() throws SQLException {
+        ensureOpen();
+        return readers;
+    }
+
+    /**
+     * Crea los pools de escritura y lectura en el primer uso. La primera
+     * conexión de escritura se abre de inmediato para que el modo WAL quede
+     * activado y el esquema migrado a la última versión ({@link Migrations})
+     * antes de que se abra cualquier lector. Si el plan de alguna consulta
+     * frecuente no usa su índice, se avisa por la salida de error
+     * ({@link QueryPlans}).
+     */
+    private static void ensureOpen() throws SQLException {
+        if (writer != null) {
+            return;
+        }
+
+        ConnectionPool newWriter = new ConnectionPool("escritura", 1, () -> open(false));
+        try (PooledConnection conn = newWriter.acquire()) {
+            Migrations.apply(conn.getConnection());
+            QueryPlans.verify(conn.getConnection()).forEach(System.err::println);
+        } catch (SQLException e) {
+            newWriter.close();
+            throw e;
+        }
+
+        writer = newWriter;
+        readers = new ConnectionPool("lectura", getReaderCount(), () -> open(true));
+    }
+
+    /**
+     * Aplica la latencia artificial configurada con
+     * {@value #DEBUG_LATENCY_PROPERTY}, si la hay.
+     */
+    private static void simulateLatency() throws SQLException {
+        if (DEBUG_LATENCY_MS <= 0) {
+            return;
+        }
+
+        try {
+            Thread.sleep(DEBUG_LATENCY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido durante la latencia simulada", e);
+        }
+    }
+
+    /**
+     * Abre una conexión física aplicando los PRAGMA de rendimiento: diario WAL,
+     * caché de páginas ampliada y lectura mediante {@code mmap}. La conexión
+     * de escritura usa sincronización {@code FULL}, de modo que una
+     * transacción confirmada ya está en disco; su coste se reparte entre todas
+     * las operaciones que {@code NoteWriteQueue} agrupa en cada transacción.
+     * Todas las conexiones registran la función {@code note_text} de
+     * {@link ContentCompression}, que necesita el índice de búsqueda.
+     *
+     * @param readOnly Si es {@code true}, la conexión rechaza cualquier escritura.
+     * @return La conexión configurada.
+     * @throws SQLException Si no es posible abrirla.
+     */
+    private static Connection open(boolean readOnly) throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        config.setSynchronous(readOnly
+                ? SQLiteConfig.SynchronousMode.NORMAL
+                : SQLiteConfig.SynchronousMode.FULL);
+        config.setCacheSize(CACHE_SIZE_KIB);
+        config.setBusyTimeout(BUSY_TIMEOUT_MS);
+        config.setTempStore(SQLiteConfig.TempStore.MEMORY);
+
+        Connection conn = DriverManager.getConnection(getUrl(), config.toProperties());
+
+        try (Statement stmt = conn.createStatement()) {
+            ContentCompression.registerFunction(conn);
+            stmt.execute("PRAGMA mmap_size = " + MMAP_SIZE);
+            if (readOnly) {
+                stmt.execute("PRAGMA query_only = 1");
+            }
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+
+        return conn;
     }
 }
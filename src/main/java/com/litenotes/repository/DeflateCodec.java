@@ -0,0 +1,95 @@
+package com.litenotes.repository;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Códec Deflate de la JDK, el formato {@value #FORMAT}. Los datos se guardan
+ * sin cabecera zlib, precedidos por su tamaño original en cuatro bytes, de
+ * modo que al descomprimir se reserva exactamente la memoria necesaria.
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public final class DeflateCodec implements ContentCodec {
+
+    /** Número de formato de este códec. */
+    public static final int FORMAT = 1;
+
+    private final int level;
+
+    /**
+     * Crea un códec con el nivel de compresión indicado.
+     *
+     * @param level Nivel entre {@link Deflater#BEST_SPEED} y
+     *              {@link Deflater#BEST_COMPRESSION}.
+     */
+    public DeflateCodec(int level) {
+        this.level = level;
+    }
+
+    @Override
+    public int format() {
+        return FORMAT;
+    }
+
+    @Override
+    public String name() {
+        return "deflate";
+    }
+
+    @Override
+    public byte[] encode(byte[] data) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+
+            // Deflate puede agrandar un poco los datos incompresibles
+            byte[] out = new byte[Integer.BYTES + data.length + data.length / 1000 + 64];
+            ByteBuffer.wrap(out).putInt(data.length);
+
+            int length = Integer.BYTES;
+            while (!deflater.finished()) {
+                if (length == out.length) {
+                    out = Arrays.copyOf(out, out.length * 2);
+                }
+                length += deflater.deflate(out, length, out.length - length);
+            }
+            return Arrays.copyOf(out, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public byte[] decode(byte[] data) {
+        if (data.length < Integer.BYTES) {
+            throw new IllegalArgumentException("Contenido comprimido incompleto");
+        }
+
+        Inflater inflater = new Inflater(true);
+        try {
+            byte[] out = new byte[ByteBuffer.wrap(data).getInt()];
+            inflater.setInput(data, Integer.BYTES, data.length - Integer.BYTES);
+
+            int length = 0;
+            while (length < out.length) {
+                int read = inflater.inflate(out, length, out.length - length);
+                if (read == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IllegalArgumentException("Contenido comprimido incompleto");
+                }
+                length += read;
+            }
+            return out;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Contenido comprimido dañado", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.litenotes.repository;
+
+import com.litenotes.metrics.Metrics;
+import com.litenotes.metrics.OperationMetrics;
+import com.litenotes.model.Note;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Repositorio utilizado por las importaciones masivas de notas. Inserta las
+ * notas por bloques, cada uno en su propia transacción, y guarda en esa misma
+ * transacción hasta qué posición del origen se ha importado.
+ *
+ * <p>Las notas de cada bloque se insertan con una sola sentencia por lotes;
+ * solo las que alcanzan el umbral de fragmentación ({@link NoteChunks}) se
+ * insertan una a una, porque sus fragmentos necesitan el identificador
+ * generado.</p>
+ *
+ * <p>Como el bloque y su punto de control se confirman juntos, una importación
+ * interrumpida puede continuar exactamente donde lo dejó, sin perder ni
+ * duplicar notas. El punto de control se elimina al confirmar el último
+ * bloque.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public class ImportRepository {
+
+    private static final OperationMetrics SAVE_CHUNK = Metrics.operation("ImportRepository.saveChunk");
+
+    private static final String SAVE_CHECKPOINT_SQL = """
+            INSERT INTO import_checkpoints (source, fingerprint, position)
+            VALUES (?, ?, ?)
+            ON CONFLICT (source) DO UPDATE
+            SET fingerprint = excluded.fingerprint, position = excluded.position
+            """;
+
+    private static final String DELETE_CHECKPOINT_SQL =
+            "DELETE FROM import_checkpoints WHERE source = ?";
+
+    /**
+     * Punto de control de una importación interrumpida.
+     *
+     * @param fingerprint Huella del origen cuando se guardó el punto de control.
+     * @param position Número de entradas del origen ya procesadas.
+     */
+    public record Checkpoint(String fingerprint, int position) {}
+
+    /**
+     * Obtiene el punto de control de un origen.
+     *
+     * @param source Identificador del origen, normalmente su ruta absoluta.
+     * @return El punto de control, o {@code null} si no hay ninguna
+     *         importación pendiente de ese origen.
+     * @throws SQLException Si ocurre un error al consultar.
+     */
+    public Checkpoint getCheckpoint(String source) throws SQLException {
+        String sql = "SELECT fingerprint, position FROM import_checkpoints WHERE source = ?";
+
+        try (PooledConnection conn = Database.getReadConnection()) {
+            PreparedStatement pstmt = conn.prepare(sql);
+            pstmt.setString(1, source);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next()
+                        ? new Checkpoint(rs.getString("fingerprint"), rs.getInt("position"))
+                        : null;
+            }
+        }
+    }
+
+    /**
+     * Inserta un bloque de notas y actualiza el punto de control en una única
+     * transacción de la conexión de escritura.
+     *
+     * @param source Identificador del origen.
+     * @param fingerprint Huella actual del origen.
+     * @param position Número de entradas del origen procesadas tras el bloque.
+     * @param notes Notas del bloque; todas deben tener categoría.
+     * @param last Indica si es el último bloque, en cuyo caso se elimina el
+     *             punto de control en lugar de actualizarlo.
+     * @throws SQLException Si falla alguna sentencia; en ese caso no se
+     *                      confirma nada del bloque.
+     */
+    public void saveChunk(String source, String fingerprint, int position,
+                          List<Note> notes, boolean last) throws SQLException {
+        long start = SAVE_CHUNK.start();
+
+        try (PooledConnection conn = Database.getWriteConnection()) {
+            conn.getConnection().setAutoCommit(false);
+
+            insertNotes(conn, notes);
+
+            if (last) {
+                PreparedStatement delete = conn.prepare(DELETE_CHECKPOINT_SQL);
+                delete.setString(1, source);
+                delete.executeUpdate();
+            } else {
+                PreparedStatement save = conn.prepare(SAVE_CHECKPOINT_SQL);
+                save.setString(1, source);
+                save.setString(2, fingerprint);
+                save.setInt(3, position);
+                save.executeUpdate();
+            }
+
+            conn.getConnection().commit();
+        } catch (SQLException e) {
+            SAVE_CHUNK.failed();
+            throw e;
+        }
+
+        SAVE_CHUNK.succeeded(start, notes.size());
+    }
+
+    /**
+     * Inserta las notas en orden, agrupando en lotes las que no se
+     * fragmentan. Las notas insertadas en lote no reciben su identificador.
+     */
+    private static void insertNotes(PooledConnection conn, List<Note> notes) throws SQLException {
+        int threshold = NoteChunks.threshold();
+        PreparedStatement insert = conn.prepare(NoteRepository.INSERT_SQL);
+        int pending = 0;
+
+        for (Note note : notes) {
+            String content = note.getContent();
+            if (threshold > 0 && content != null && content.length() >= threshold) {
+                if (pending > 0) {
+                    insert.executeBatch();
+                    pending = 0;
+                }
+                NoteRepository.insertRow(conn, note);
+                continue;
+            }
+
+            insert.setString(1, note.getTitle());
+            NoteChunks.bind(insert, 2, 3, 4, content);
+            insert.setInt(5, note.getCategory().getId());
+            insert.addBatch();
+            pending++;
+        }
+
+        if (pending > 0) {
+            insert.executeBatch();
+        }
+    }
+
+    /**
+     * Elimina el punto de control de un origen, de modo que la siguiente
+     * importación empiece desde el principio.
+     *
+     * @param source Identificador del origen.
+     * @throws SQLException Si ocurre un error al eliminar.
+     */
+    public void clearCheckpoint(String source) throws SQLException {
+        try (PooledConnection conn = Database.getWriteConnection()) {
+            PreparedStatement pstmt = conn.prepare(DELETE_CHECKPOINT_SQL);
+            pstmt.setString(1, source);
+            pstmt.executeUpdate();
+        }
+    }
+}
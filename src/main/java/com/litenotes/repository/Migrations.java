@@ -0,0 +1,464 @@
+package com.litenotes.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Crea y actualiza el esquema de la base de datos de LiteNotes. Se ejecuta
+ * sobre la conexión de escritura cuando {@link Database} abre sus conexiones.
+ *
+ * <p>El esquema se describe como una lista ordenada de migraciones, cada una
+ * con su número de versión. La versión aplicada se guarda en la cabecera del
+ * archivo ({@code PRAGMA user_version}); al abrirlo se ejecutan, en orden,
+ * las migraciones posteriores a esa versión. Cada migración se aplica en su
+ * propia transacción junto con el cambio de versión, de modo que una
+ * interrupción deja el archivo en la versión anterior y la migración se
+ * repite completa en el siguiente arranque.</p>
+ *
+ * <p>Un archivo vacío recorre todas las migraciones. Las bases de datos
+ * creadas antes de que existieran las versiones tienen la versión {@code 0} y
+ * ya contienen algunas tablas, por eso las primeras migraciones usan
+ * sentencias idempotentes.</p>
+ *
+ * <p>Las migraciones ya publicadas no deben modificarse: cualquier cambio del
+ * esquema se añade como una migración nueva al final de la lista.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+final class Migrations {
+
+    /**
+     * Expresión SQL con el instante actual en milisegundos desde 1970, el
+     * formato de las columnas {@code created_at} y {@code updated_at}.
+     */
+    static final String NOW_MILLIS = "CAST(unixepoch('subsec') * 1000 AS INTEGER)";
+
+    /**
+     * Cambio del esquema que se aplica dentro de una transacción.
+     */
+    @FunctionalInterface
+    private interface Step {
+        void apply(Connection conn, Statement stmt) throws SQLException;
+    }
+
+    private record Migration(int version, String description, Step step) {}
+
+    private static final List<Migration> MIGRATIONS = List.of(
+        new Migration(1, "tablas de notas y categorías", sql(
+            """
+            CREATE TABLE IF NOT EXISTS categories (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                name TEXT NOT NULL UNIQUE
+            )
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS notes (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                title TEXT NOT NULL,
+                content TEXT,
+                category_id INTEGER REFERENCES categories(id)
+            )
+            """
+        )),
+
+        new Migration(2, "índice de texto completo", Migrations::createFullTextIndex),
+
+        new Migration(3, "puntos de control de las importaciones", sql(
+            """
+            CREATE TABLE IF NOT EXISTS import_checkpoints (
+                source TEXT PRIMARY KEY,
+                fingerprint TEXT NOT NULL,
+                position INTEGER NOT NULL
+            )
+            """
+        )),
+
+        // Sirve el filtro por categoría y su orden sin recorrer la tabla ni
+        // ordenar: cada página es un rango contiguo del índice.
+        new Migration(4, "índice de notas por categoría", sql(
+            "CREATE INDEX IF NOT EXISTS idx_notes_category_id ON notes (category_id, id DESC)"
+        )),
+
+        // Las notas anteriores a esta versión conservan NULL: no se sabe
+        // cuándo se crearon y reescribir todas las filas sería muy costoso.
+        new Migration(5, "fechas de creación y modificación", sql(
+            "ALTER TABLE notes ADD COLUMN created_at INTEGER",
+            "ALTER TABLE notes ADD COLUMN updated_at INTEGER"
+        )),
+
+        // Las notas existentes quedan en formato 0 (texto) y se comprimen al
+        // modificarlas; el índice de búsqueda pasa a leer el texto a través
+        // de note_text() y se reconstruye una vez.
+        new Migration(6, "contenido comprimido", Migrations::compressContent),
+
+        // Las notas que ya superaban el umbral de NoteChunks se fragmentan
+        // aquí, una a una; el resto no cambia.
+        new Migration(7, "contenido por fragmentos", Migrations::chunkContent),
+
+        // El historial empieza vacío: las notas existentes se copian en él
+        // la primera vez que se modifican
+        new Migration(8, "historial de revisiones", sql(
+            """
+            CREATE TABLE note_revisions (
+                id INTEGER PRIMARY KEY,
+                note_id INTEGER NOT NULL REFERENCES notes(id),
+                seq INTEGER NOT NULL,
+                kind INTEGER NOT NULL DEFAULT 0,
+                title TEXT NOT NULL,
+                content,
+                content_format INTEGER NOT NULL DEFAULT 0,
+                saved_at INTEGER
+            )
+            """,
+            "CREATE UNIQUE INDEX idx_note_revisions_note ON note_revisions (note_id, seq)",
+            // Solo las copias pendientes de compactar, que son pocas
+            "CREATE INDEX idx_note_revisions_pending ON note_revisions (note_id, seq) WHERE kind = 0",
+            """
+            CREATE TRIGGER notes_revisions_delete AFTER DELETE ON notes BEGIN
+                DELETE FROM note_revisions WHERE note_id = old.id;
+            END
+            """
+        ))
+    );
+
+    /**
+     * Índice FTS5 de contenido externo: no duplica el texto de las notas, solo
+     * guarda los términos. Se eliminan los acentos para que "canción" y
+     * "cancion" coincidan, y se precalculan prefijos de 2 y 3 caracteres para
+     * acelerar las búsquedas mientras se escribe.
+     */
+    private static final String FTS_TABLE = """
+        CREATE VIRTUAL TABLE notes_fts USING fts5(
+            title, content,
+            content='notes', content_rowid='id',
+            tokenize='unicode61 remove_diacritics 2',
+            prefix='2 3'
+        )
+        """;
+
+    private static final String[] FTS_TRIGGERS = {
+        """
+        CREATE TRIGGER IF NOT EXISTS notes_fts_insert AFTER INSERT ON notes BEGIN
+            INSERT INTO notes_fts (rowid, title, content)
+            VALUES (new.id, new.title, new.content);
+        END
+        """,
+        """
+        CREATE TRIGGER IF NOT EXISTS notes_fts_delete AFTER DELETE ON notes BEGIN
+            INSERT INTO notes_fts (notes_fts, rowid, title, content)
+            VALUES ('delete', old.id, old.title, old.content);
+        END
+        """,
+        """
+        CREATE TRIGGER IF NOT EXISTS notes_fts_update AFTER UPDATE OF title, content ON notes BEGIN
+            INSERT INTO notes_fts (notes_fts, rowid, title, content)
+            VALUES ('delete', old.id, old.title, old.content);
+            INSERT INTO notes_fts (rowid, title, content)
+            VALUES (new.id, new.title, new.content);
+        END
+        """
+    };
+
+    /**
+     * Texto de cada nota cualquiera que sea su formato, para el índice de
+     * búsqueda. Necesita la función {@code note_text} que registra
+     * {@link ContentCompression} en cada conexión.
+     */
+    private static final String TEXT_VIEW = """
+        CREATE VIEW notes_text AS
+        SELECT id, title, note_text(content, content_format) AS content
+        FROM notes
+        """;
+
+    /** Índice FTS5 de {@link #FTS_TABLE}, sobre la vista de texto. */
+    private static final String FTS_TEXT_TABLE = """
+        CREATE VIRTUAL TABLE notes_fts USING fts5(
+            title, content,
+            content='notes_text', content_rowid='id',
+            tokenize='unicode61 remove_diacritics 2',
+            prefix='2 3'
+        )
+        """;
+
+    private static final String[] FTS_TEXT_TRIGGERS = {
+        """
+        CREATE TRIGGER notes_fts_insert AFTER INSERT ON notes BEGIN
+            INSERT INTO notes_fts (rowid, title, content)
+            VALUES (new.id, new.title, note_text(new.content, new.content_format));
+        END
+        """,
+        """
+        CREATE TRIGGER notes_fts_delete AFTER DELETE ON notes BEGIN
+            INSERT INTO notes_fts (notes_fts, rowid, title, content)
+            VALUES ('delete', old.id, old.title, note_text(old.content, old.content_format));
+        END
+        """,
+        """
+        CREATE TRIGGER notes_fts_update AFTER UPDATE OF title, content ON notes BEGIN
+            INSERT INTO notes_fts (notes_fts, rowid, title, content)
+            VALUES ('delete', old.id, old.title, note_text(old.content, old.content_format));
+            INSERT INTO notes_fts (rowid, title, content)
+            VALUES (new.id, new.title, note_text(new.content, new.content_format));
+        END
+        """
+    };
+
+    private static final String[] CHUNK_SCHEMA = {
+        "ALTER TABLE notes ADD COLUMN chunk_count INTEGER NOT NULL DEFAULT 0",
+        """
+        CREATE TABLE note_chunks (
+            id INTEGER PRIMARY KEY,
+            note_id INTEGER NOT NULL REFERENCES notes(id),
+            seq INTEGER NOT NULL,
+            content,
+            content_format INTEGER NOT NULL DEFAULT 0
+        )
+        """,
+        "CREATE INDEX idx_note_chunks_note ON note_chunks (note_id, seq)",
+        """
+        CREATE VIEW note_chunks_text AS
+        SELECT id, note_text(content, content_format) AS content
+        FROM note_chunks
+        """,
+        """
+        CREATE VIRTUAL TABLE note_chunks_fts USING fts5(
+            content,
+            content='note_chunks_text', content_rowid='id',
+            tokenize='unicode61 remove_diacritics 2',
+            prefix='2 3'
+        )
+        """,
+        """
+        CREATE TRIGGER note_chunks_fts_insert AFTER INSERT ON note_chunks BEGIN
+            INSERT INTO note_chunks_fts (rowid, content)
+            VALUES (new.id, note_text(new.content, new.content_format));
+        END
+        """,
+        """
+        CREATE TRIGGER note_chunks_fts_delete AFTER DELETE ON note_chunks BEGIN
+            INSERT INTO note_chunks_fts (note_chunks_fts, rowid, content)
+            VALUES ('delete', old.id, note_text(old.content, old.content_format));
+        END
+        """,
+        """
+        CREATE TRIGGER note_chunks_fts_update AFTER UPDATE OF content ON note_chunks BEGIN
+            INSERT INTO note_chunks_fts (note_chunks_fts, rowid, content)
+            VALUES ('delete', old.id, note_text(old.content, old.content_format));
+            INSERT INTO note_chunks_fts (rowid, content)
+            VALUES (new.id, note_text(new.content, new.content_format));
+        END
+        """,
+        // Los fragmentos desaparecen con su nota o cuando la nota vuelve a
+        // guardar el contenido en su fila
+        """
+        CREATE TRIGGER notes_chunks_delete AFTER DELETE ON notes WHEN old.chunk_count > 0 BEGIN
+            DELETE FROM note_chunks WHERE note_id = old.id;
+        END
+        """,
+        """
+        CREATE TRIGGER notes_chunks_inline AFTER UPDATE OF chunk_count ON notes
+        WHEN new.chunk_count = 0 AND old.chunk_count > 0 BEGIN
+            DELETE FROM note_chunks WHERE note_id = old.id;
+        END
+        """
+    };
+
+    private Migrations() {}
+
+    /**
+     * Devuelve la versión del esquema que crea la última migración.
+     *
+     * @return La versión más reciente.
+     */
+    static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version();
+    }
+
+    /**
+     * Aplica, en orden, las migraciones posteriores a la versión del archivo.
+     *
+     * @param conn Conexión de escritura, en modo de confirmación automática.
+     * @return El número de migraciones aplicadas.
+     * @throws SQLException Si una migración falla, en cuyo caso el archivo
+     *         queda en la última versión aplicada con éxito, o si el archivo
+     *         tiene una versión posterior a la que conoce esta aplicación.
+     */
+    static int apply(Connection conn) throws SQLException {
+        int current = currentVersion(conn);
+
+        if (current > latestVersion()) {
+            throw new SQLException("La base de datos usa la versión " + current
+                    + " del esquema, posterior a la " + latestVersion()
+                    + " que admite esta versión de LiteNotes");
+        }
+
+        int applied = 0;
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version() > current) {
+                applyOne(conn, migration);
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Lee la versión del esquema guardada en el archivo.
+     *
+     * @param conn Conexión a la base de datos.
+     * @return La versión, o {@code 0} si nunca se ha migrado.
+     * @throws SQLException Si no se puede leer.
+     */
+    static int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void applyOne(Connection conn, Migration migration) throws SQLException {
+        conn.setAutoCommit(false);
+
+        try (Statement stmt = conn.createStatement()) {
+            migration.step().apply(conn, stmt);
+            stmt.execute("PRAGMA user_version = " + migration.version());
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Falló la migración " + migration.version()
+                    + " (" + migration.description() + "): " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Crea el índice de búsqueda y sus disparadores. Si el índice se crea sobre
+     * una base de datos con notas previas, se reconstruye a partir de la
+     * tabla {@code notes}.
+     */
+    private static void createFullTextIndex(Connection conn, Statement stmt) throws SQLException {
+        if (!tableExists(conn, "notes_fts")) {
+            stmt.execute(FTS_TABLE);
+            stmt.execute("INSERT INTO notes_fts (notes_fts) VALUES ('rebuild')");
+        }
+
+        for (String sql : FTS_TRIGGERS) {
+            stmt.execute(sql);
+        }
+    }
+
+    /**
+     * Añade el formato del contenido y rehace el índice de búsqueda sobre la
+     * vista {@code notes_text}, para que pueda leer las notas comprimidas.
+     */
+    private static void compressContent(Connection conn, Statement stmt) throws SQLException {
+        stmt.execute("ALTER TABLE notes ADD COLUMN content_format INTEGER NOT NULL DEFAULT 0");
+        stmt.execute(TEXT_VIEW);
+
+        stmt.execute("DROP TRIGGER IF EXISTS notes_fts_insert");
+        stmt.execute("DROP TRIGGER IF EXISTS notes_fts_delete");
+        stmt.execute("DROP TRIGGER IF EXISTS notes_fts_update");
+        stmt.execute("DROP TABLE IF EXISTS notes_fts");
+
+        stmt.execute(FTS_TEXT_TABLE);
+        stmt.execute("INSERT INTO notes_fts (notes_fts) VALUES ('rebuild')");
+        for (String sql : FTS_TEXT_TRIGGERS) {
+            stmt.execute(sql);
+        }
+    }
+
+    /**
+     * Crea la tabla de fragmentos, su índice de búsqueda y sus disparadores,
+     * y fragmenta las notas cuyo contenido ya alcanza el umbral de
+     * {@link NoteChunks}.
+     */
+    private static void chunkContent(Connection conn, Statement stmt) throws SQLException {
+        for (String sql : CHUNK_SCHEMA) {
+            stmt.execute(sql);
+        }
+
+        int threshold = NoteChunks.threshold();
+        if (threshold < 0) {
+            return;
+        }
+
+        // Primero los identificadores: no se modifica la tabla mientras se
+        // recorre. Solo se descomprime el contenido comprimido; el texto se
+        // mide sin copiarlo.
+        List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement select = conn.prepareStatement("""
+                SELECT id FROM notes
+                WHERE CASE content_format
+                          WHEN 0 THEN length(content)
+                          ELSE length(note_text(content, content_format))
+                      END >= ?
+                """)) {
+            select.setInt(1, threshold);
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+
+        try (PreparedStatement read = conn.prepareStatement(
+                     "SELECT content, content_format FROM notes WHERE id = ?");
+             PreparedStatement update = conn.prepareStatement(
+                     "UPDATE notes SET content = NULL, content_format = 0, chunk_count = ? WHERE id = ?");
+             PreparedStatement insert = conn.prepareStatement(
+                     "INSERT INTO note_chunks (note_id, seq, content, content_format) VALUES (?, ?, ?, ?)")) {
+
+            for (int id : ids) {
+                read.setInt(1, id);
+                String content;
+                try (ResultSet rs = read.executeQuery()) {
+                    rs.next();
+                    content = ContentCompression.read(rs);
+                }
+
+                List<String> chunks = NoteChunks.pieces(content);
+                update.setInt(1, chunks.size());
+                update.setInt(2, id);
+                update.executeUpdate();
+
+                for (int seq = 0; seq < chunks.size(); seq++) {
+                    insert.setInt(1, id);
+                    insert.setInt(2, seq);
+                    ContentCompression.bind(insert, 3, 4, chunks.get(seq));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+    }
+
+    /**
+     * Crea un paso que ejecuta las sentencias indicadas en orden.
+     */
+    private static Step sql(String... statements) {
+        return (conn, stmt) -> {
+            for (String sql : statements) {
+                stmt.execute(sql);
+            }
+        };
+    }
+
+    private static boolean tableExists(Connection conn, String name) throws SQLException {
+        String sql = "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, name);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+}
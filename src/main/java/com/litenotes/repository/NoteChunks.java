@@ -0,0 +1,377 @@
+package com.litenotes.repository;
+
+import com.litenotes.model.NoteChunk;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Almacenamiento por fragmentos del contenido de las notas muy largas.
+ *
+ * <p>Cuando el contenido de una nota alcanza el umbral
+ * ({@value #THRESHOLD_PROPERTY}, 131072 caracteres por defecto; {@code 0}
+ * para no fragmentar nunca), no se guarda en {@code notes.content} sino en la
+ * tabla {@code note_chunks}, partido en fragmentos de unos
+ * {@value #CHUNK_SIZE} caracteres que terminan, siempre que se puede, en un
+ * salto de línea. La columna {@code notes.chunk_count} indica cuántos tiene
+ * cada nota, o {@code 0} si su contenido está en la propia fila. Cada
+ * fragmento se comprime por separado con {@link ContentCompression}.</p>
+ *
+ * <p>Así abrir una nota enorme cuesta lo mismo que abrir una pequeña: se lee
+ * la lista de fragmentos y después solo los que se muestran. Al guardar se
+ * reescriben únicamente los fragmentos modificados; los demás como mucho
+ * cambian de posición. Un fragmento que crece por encima del doble del tamaño
+ * objetivo se parte, uno que se queda vacío se elimina y dos modificados
+ * contiguos que caben en uno se unen, de modo que el tamaño de los fragmentos
+ * se mantiene acotado con cualquier secuencia de ediciones.</p>
+ *
+ * <p>El índice de búsqueda de las notas contiene solo el título de las notas
+ * fragmentadas; el texto de sus fragmentos se indexa en
+ * {@code note_chunks_fts}, que {@link NoteRepository#search} consulta junto
+ * con el de las notas.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public final class NoteChunks {
+
+    /** Propiedad de sistema con el tamaño a partir del cual se fragmenta, en caracteres. */
+    public static final String THRESHOLD_PROPERTY = "litenotes.chunks.threshold";
+
+    /** Tamaño objetivo de cada fragmento, en caracteres. */
+    public static final int CHUNK_SIZE = 16 * 1024;
+
+    private static final int DEFAULT_THRESHOLD = 128 * 1024;
+
+    /** Un fragmento modificado que supera este tamaño se parte al guardarlo. */
+    private static final int MAX_CHUNK_SIZE = 2 * CHUNK_SIZE;
+
+    /** Fragmentos de una nota, en orden. */
+    static final String LIST_SQL =
+            "SELECT id, seq FROM note_chunks WHERE note_id = ? ORDER BY seq";
+
+    private static final String READ_ALL_SQL =
+            "SELECT content, content_format FROM note_chunks WHERE note_id = ? ORDER BY seq";
+
+    private static final String READ_ONE_SQL =
+            "SELECT content, content_format FROM note_chunks WHERE id = ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO note_chunks (note_id, seq, content, content_format) VALUES (?, ?, ?, ?)";
+
+    private static final String REWRITE_SQL =
+            "UPDATE note_chunks SET seq = ?, content = ?, content_format = ? WHERE id = ?";
+
+    private static final String MOVE_SQL = "UPDATE note_chunks SET seq = ? WHERE id = ?";
+
+    private static final String DELETE_SQL = "DELETE FROM note_chunks WHERE id = ?";
+
+    private static final String DELETE_ALL_SQL = "DELETE FROM note_chunks WHERE note_id = ?";
+
+    private static final int threshold = Integer.getInteger(THRESHOLD_PROPERTY, DEFAULT_THRESHOLD);
+
+    private NoteChunks() {}
+
+    /**
+     * Devuelve el tamaño a partir del cual el contenido se fragmenta.
+     *
+     * @return El umbral en caracteres, o {@code -1} si la fragmentación está
+     *         desactivada.
+     */
+    static int threshold() {
+        return threshold > 0 ? threshold : -1;
+    }
+
+    /**
+     * Parte el contenido de una nota si alcanza el umbral.
+     *
+     * @param content Contenido de la nota; puede ser {@code null}.
+     * @return Los fragmentos en orden, o {@code null} si el contenido debe
+     *         guardarse en la propia fila.
+     */
+    static List<String> split(String content) {
+        if (content == null || threshold <= 0 || content.length() < threshold) {
+            return null;
+        }
+        return pieces(content);
+    }
+
+    /**
+     * Asigna el contenido de una nota, su formato y su número de fragmentos a
+     * tres parámetros de una sentencia. Si el contenido se fragmenta, la
+     * columna del contenido queda a {@code NULL} y los fragmentos se devuelven
+     * para escribirlos con {@link #replace} una vez conocido el identificador.
+     *
+     * @return Los fragmentos, o {@code null} si el contenido va en la fila.
+     */
+    static List<String> bind(PreparedStatement pstmt, int contentIndex, int formatIndex,
+                             int countIndex, String content) throws SQLException {
+        List<String> chunks = split(content);
+
+        if (chunks == null) {
+            ContentCompression.bind(pstmt, contentIndex, formatIndex, content);
+            pstmt.setInt(countIndex, 0);
+        } else {
+            pstmt.setNull(contentIndex, Types.VARCHAR);
+            pstmt.setInt(formatIndex, ContentCompression.PLAIN);
+            pstmt.setInt(countIndex, chunks.size());
+        }
+
+        return chunks;
+    }
+
+    /**
+     * Sustituye todos los fragmentos de una nota por los indicados.
+     */
+    static void replace(PooledConnection conn, int noteId, List<String> chunks) throws SQLException {
+        PreparedStatement delete = conn.prepare(DELETE_ALL_SQL);
+        delete.setInt(1, noteId);
+        delete.executeUpdate();
+
+        PreparedStatement insert = conn.prepare(INSERT_SQL);
+        for (int seq = 0; seq < chunks.size(); seq++) {
+            bindInsert(insert, noteId, seq, chunks.get(seq));
+            insert.addBatch();
+        }
+        insert.executeBatch();
+    }
+
+    /**
+     * Lee y une todos los fragmentos de una nota.
+     */
+    static String readAll(PooledConnection conn, int noteId) throws SQLException {
+        PreparedStatement pstmt = conn.prepare(READ_ALL_SQL);
+        pstmt.setInt(1, noteId);
+
+        StringBuilder content = new StringBuilder();
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                String text = ContentCompression.read(rs);
+                if (text != null) {
+                    content.append(text);
+                }
+            }
+        }
+        return content.toString();
+    }
+
+    /**
+     * Lee la lista ordenada de fragmentos de una nota, sin su texto.
+     */
+    static List<NoteChunk> list(PooledConnection conn, int noteId) throws SQLException {
+        PreparedStatement pstmt = conn.prepare(LIST_SQL);
+        pstmt.setInt(1, noteId);
+
+        List<NoteChunk> chunks = new ArrayList<>();
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                chunks.add(NoteChunk.stored(rs.getInt("id")));
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * Lee el texto de un fragmento.
+     *
+     * @return El texto, o {@code null} si el fragmento no existe.
+     */
+    static String read(PooledConnection conn, int chunkId) throws SQLException {
+        PreparedStatement pstmt = conn.prepare(READ_ONE_SQL);
+        pstmt.setInt(1, chunkId);
+
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? nonNull(ContentCompression.read(rs)) : null;
+        }
+    }
+
+    /**
+     * Indica si una edición por fragmentos cambia el contenido de la nota:
+     * si trae fragmentos nuevos o modificados, o si cambia el orden o el
+     * número de los guardados. Debe llamarse antes de {@link #save}.
+     *
+     * @param conn Conexión de escritura.
+     * @param noteId Identificador de la nota.
+     * @param chunks Contenido completo de la nota, en orden.
+     * @return {@code false} si el contenido queda igual.
+     * @throws SQLException Si falla la consulta.
+     */
+    static boolean changesContent(PooledConnection conn, int noteId, List<NoteChunk> chunks) throws SQLException {
+        if (chunks.stream().anyMatch(NoteChunk::isModified)) {
+            return true;
+        }
+
+        PreparedStatement list = conn.prepare(LIST_SQL);
+        list.setInt(1, noteId);
+        int index = 0;
+        try (ResultSet rs = list.executeQuery()) {
+            while (rs.next()) {
+                if (index == chunks.size() || chunks.get(index++).getId() != rs.getInt("id")) {
+                    return true;
+                }
+            }
+        }
+        return index != chunks.size();
+    }
+
+    /**
+     * Aplica una edición por fragmentos: escribe los fragmentos nuevos y los
+     * modificados, renumera los que han cambiado de posición y elimina los
+     * que ya no aparecen en la lista. Debe ejecutarse dentro de una
+     * transacción.
+     *
+     * @param conn Conexión de escritura.
+     * @param noteId Identificador de la nota.
+     * @param chunks Contenido completo de la nota, en orden.
+     * @return El número de fragmentos que quedan.
+     * @throws SQLException Si algún fragmento no pertenece a la nota o falla
+     *         alguna sentencia.
+     */
+    static int save(PooledConnection conn, int noteId, List<NoteChunk> chunks) throws SQLException {
+        Map<Integer, Integer> stored = new HashMap<>();
+        PreparedStatement list = conn.prepare(LIST_SQL);
+        list.setInt(1, noteId);
+        try (ResultSet rs = list.executeQuery()) {
+            while (rs.next()) {
+                stored.put(rs.getInt("id"), rs.getInt("seq"));
+            }
+        }
+
+        Set<Integer> seen = new HashSet<>();
+        for (NoteChunk chunk : chunks) {
+            if (chunk.getId() != 0 && (!stored.containsKey(chunk.getId()) || !seen.add(chunk.getId()))) {
+                throw new SQLException("El fragmento " + chunk.getId()
+                        + " no pertenece a la nota " + noteId + " o está repetido");
+            }
+        }
+
+        List<NoteChunk> normalized = normalize(chunks);
+
+        PreparedStatement insert = conn.prepare(INSERT_SQL);
+        PreparedStatement rewrite = conn.prepare(REWRITE_SQL);
+        PreparedStatement move = conn.prepare(MOVE_SQL);
+
+        for (int seq = 0; seq < normalized.size(); seq++) {
+            NoteChunk chunk = normalized.get(seq);
+
+            if (chunk.getId() == 0) {
+                bindInsert(insert, noteId, seq, chunk.getContent());
+                insert.executeUpdate();
+            } else if (chunk.isModified()) {
+                rewrite.setInt(1, seq);
+                ContentCompression.bind(rewrite, 2, 3, chunk.getContent());
+                rewrite.setInt(4, chunk.getId());
+                rewrite.executeUpdate();
+                stored.remove(chunk.getId());
+            } else {
+                if (stored.remove(chunk.getId()) != seq) {
+                    move.setInt(1, seq);
+                    move.setInt(2, chunk.getId());
+                    move.executeUpdate();
+                }
+            }
+        }
+
+        if (!stored.isEmpty()) {
+            PreparedStatement delete = conn.prepare(DELETE_SQL);
+            for (int id : stored.keySet()) {
+                delete.setInt(1, id);
+                delete.addBatch();
+            }
+            delete.executeBatch();
+        }
+
+        return normalized.size();
+    }
+
+    /**
+     * Ajusta el tamaño de los fragmentos modificados: elimina los vacíos,
+     * une los contiguos que caben en uno y parte los que han crecido
+     * demasiado. Los fragmentos sin cambios no se tocan. Los identificadores
+     * que desaparecen se eliminan después, al no figurar en la lista.
+     */
+    private static List<NoteChunk> normalize(List<NoteChunk> chunks) {
+        List<NoteChunk> result = new ArrayList<>(chunks.size());
+
+        for (NoteChunk chunk : chunks) {
+            if (!chunk.isModified()) {
+                result.add(chunk);
+                continue;
+            }
+
+            String text = chunk.getContent();
+            int id = chunk.getId();
+            if (text.isEmpty()) {
+                continue;
+            }
+
+            NoteChunk last = result.isEmpty() ? null : result.get(result.size() - 1);
+            if (last != null && last.isModified()
+                    && last.getContent().length() + text.length() <= CHUNK_SIZE) {
+                text = last.getContent() + text;
+                id = last.getId() != 0 ? last.getId() : id;
+                result.remove(result.size() - 1);
+            }
+
+            if (text.length() <= MAX_CHUNK_SIZE) {
+                result.add(new NoteChunk(id, text));
+                continue;
+            }
+
+            List<String> pieces = pieces(text);
+            result.add(new NoteChunk(id, pieces.get(0)));
+            for (int i = 1; i < pieces.size(); i++) {
+                result.add(new NoteChunk(0, pieces.get(i)));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Parte un texto en trozos de como mucho {@value #CHUNK_SIZE} caracteres,
+     * cortando después del último salto de línea de la segunda mitad de cada
+     * trozo si lo hay y sin separar nunca un par suplente.
+     */
+    static List<String> pieces(String text) {
+        List<String> pieces = new ArrayList<>(text.length() / CHUNK_SIZE + 1);
+        int start = 0;
+
+        while (text.length() - start > CHUNK_SIZE) {
+            int end = start + CHUNK_SIZE;
+            int newline = text.lastIndexOf('\n', end - 1);
+
+            if (newline >= start + CHUNK_SIZE / 2) {
+                end = newline + 1;
+            } else if (Character.isHighSurrogate(text.charAt(end - 1))) {
+                end--;
+            }
+
+            pieces.add(text.substring(start, end));
+            start = end;
+        }
+
+        pieces.add(text.substring(start));
+        return pieces;
+    }
+
+    private static void bindInsert(PreparedStatement pstmt, int noteId, int seq, String content)
+            throws SQLException {
+        pstmt.setInt(1, noteId);
+        pstmt.setInt(2, seq);
+        ContentCompression.bind(pstmt, 3, 4, content);
+    }
+
+    private static String nonNull(String text) {
+        return text != null ? text : "";
+    }
+}
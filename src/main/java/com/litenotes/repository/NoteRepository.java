@@ -1,11 +1,25 @@
 package com.litenotes.repository;
 
+import com.litenotes.metrics.Metrics;
+import com.litenotes.metrics.OperationMetrics;
 import com.litenotes.model.Category;
 import com.litenotes.model.Note;
+import com.litenotes.model.NoteChunk;
+import com.litenotes.model.SearchResult;
 
-import java.sql.*;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
 
 /**
  * Repositorio encargado de gestionar el acceso a los datos de las notas
@@ -17,7 +31,24 @@ import java.util.List;
  * que se muestran en la interfaz de usuario.</p>
  *
  * <p>Las conexiones se gestionan mediante la clase {@link Database}, que
- * centraliza el acceso a la base de datos.</p>
+ * centraliza el acceso a la base de datos. Las consultas de lectura usan el
+ * pool de lectores y las modificaciones la conexión de escritura; en ambos
+ * casos las sentencias preparadas se reutilizan entre llamadas.</p>
+ *
+ * <p>Cada método registra su latencia, sus filas y sus errores en
+ * {@link Metrics}.</p>
+ *
+ * <p>El contenido de las notas largas se guarda comprimido; la compresión y
+ * la descompresión las hace {@link ContentCompression} al escribir y al leer,
+ * de forma transparente para quien usa el repositorio. El de las notas muy
+ * largas se guarda además por fragmentos ({@link NoteChunks}), que el editor
+ * puede leer y guardar por separado.</p>
+ *
+ * <p>Las modificaciones escriben solo los campos que han cambiado según
+ * {@link Note#isModified()}, y no tocan la base de datos si no ha cambiado
+ * ninguno. Si cambian el título o el contenido, la versión anterior se copia
+ * antes en el historial de {@link RevisionRepository}, en la misma
+ * transacción.</p>
  *
  * @author Aníbal
  * @version 1.0
@@ -25,52 +56,219 @@ import java.util.List;
  */
 public class NoteRepository {
 
+    private static final OperationMetrics GET_ALL = Metrics.operation("NoteRepository.getAll");
+    private static final OperationMetrics GET_BY_CATEGORY = Metrics.operation("NoteRepository.getByCategory");
+    private static final OperationMetrics GET_BY_ID = Metrics.operation("NoteRepository.getById");
+    private static final OperationMetrics COUNT = Metrics.operation("NoteRepository.count");
+    private static final OperationMetrics STREAM = Metrics.operation("NoteRepository.stream");
+    private static final OperationMetrics GET_PAGE = Metrics.operation("NoteRepository.getPage");
+    private static final OperationMetrics GET_CATEGORY_PAGE = Metrics.operation("NoteRepository.getCategoryPage");
+    private static final OperationMetrics SEARCH = Metrics.operation("NoteRepository.search");
+    private static final OperationMetrics INSERT = Metrics.operation("NoteRepository.insert");
+    private static final OperationMetrics UPDATE = Metrics.operation("NoteRepository.update");
+    private static final OperationMetrics DELETE = Metrics.operation("NoteRepository.delete");
+    private static final OperationMetrics APPLY_BATCH = Metrics.operation("NoteRepository.applyBatch");
+
+    private static final OperationMetrics COMPRESS_PENDING = Metrics.operation("NoteRepository.compressPending");
+
+    private static final OperationMetrics GET_CHUNKS = Metrics.operation("NoteRepository.getChunks");
+    private static final OperationMetrics GET_CHUNK = Metrics.operation("NoteRepository.getChunk");
+    private static final OperationMetrics SAVE_CHUNKS = Metrics.operation("NoteRepository.saveChunks");
+
+    static final String INSERT_SQL =
+            "INSERT INTO notes (title, content, content_format, chunk_count, category_id, created_at, updated_at)"
+            + " VALUES (?, ?, ?, ?, ?, " + Migrations.NOW_MILLIS + ", " + Migrations.NOW_MILLIS + ")";
+
+    /** Campos que puede escribir una modificación, como bits combinables. */
+    private static final int TITLE = 1, CONTENT = 2, CATEGORY = 4;
+
+    /** Sentencia de modificación para cada combinación de campos. */
+    private static final String[] UPDATE_SQL = new String[(TITLE | CONTENT | CATEGORY) + 1];
+
+    static {
+        for (int columns = 1; columns < UPDATE_SQL.length; columns++) {
+            StringBuilder sql = new StringBuilder("UPDATE notes SET ");
+            if ((columns & TITLE) != 0) {
+                sql.append("title = ?, ");
+            }
+            if ((columns & CONTENT) != 0) {
+                sql.append("content = ?, content_format = ?, chunk_count = ?, ");
+            }
+            if ((columns & CATEGORY) != 0) {
+                sql.append("category_id = ?, ");
+            }
+            UPDATE_SQL[columns] = sql.append("updated_at = ").append(Migrations.NOW_MILLIS)
+                    .append(" WHERE id = ?").toString();
+        }
+    }
+
+    /** Cabecera de una nota fragmentada, tras guardar sus fragmentos. */
+    private static final String UPDATE_CHUNKED_SQL =
+            "UPDATE notes SET title = ?, category_id = ?, chunk_count = ?, updated_at = "
+            + Migrations.NOW_MILLIS + " WHERE id = ? AND chunk_count > 0";
+
+    private static final String LAST_ID_SQL = "SELECT last_insert_rowid()";
+
+    /** Notas guardadas como texto que superan un tamaño, a partir de un identificador. */
+    private static final String PENDING_SQL =
+            "SELECT id, content FROM notes WHERE id > ? AND content_format = 0 AND length(content) >= ?"
+            + " ORDER BY id LIMIT ?";
+
+    /** Reescribe el contenido sin cambiar la fecha de modificación. */
+    private static final String REWRITE_SQL =
+            "UPDATE notes SET content = ?, content_format = ? WHERE id = ?";
+
+    /** Número de notas que se comprimen en cada transacción. */
+    private static final int COMPRESS_BATCH = 200;
+
+    /** Número de filas que se leen de cada vez al recorrer todas las notas. */
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private static final String DELETE_SQL = "DELETE FROM notes WHERE id = ?";
+
+    private static final String EXISTS_SQL = "SELECT 1 FROM notes WHERE id = ?";
+
+    /** Nota completa, con las columnas de su contenido. */
+    private static final String GET_BY_ID_SQL = """
+        SELECT n.id, n.title, n.content, n.content_format, n.chunk_count, n.category_id,
+               c.name AS category_name
+        FROM notes n
+        LEFT JOIN categories c ON n.category_id = c.id
+        WHERE n.id = ?
+    """;
+
+    /** Notas de una categoría, de la más reciente a la más antigua. */
+    static final String CATEGORY_SQL = """
+        SELECT n.id, n.title, n.category_id,
+               c.name AS category_name
+        FROM notes n
+        LEFT JOIN categories c ON n.category_id = c.id
+        WHERE n.category_id = ?
+        ORDER BY n.id DESC
+    """;
+
+    /** Página de todas las notas a partir de un identificador. */
+    static final String PAGE_SQL = """
+        SELECT n.id, n.title, n.category_id,
+               c.name AS category_name
+        FROM notes n
+        LEFT JOIN categories c ON n.category_id = c.id
+        WHERE n.id < ?
+        ORDER BY n.id DESC
+        LIMIT ?
+    """;
+
+    /** Página de las notas de una categoría a partir de un identificador. */
+    static final String CATEGORY_PAGE_SQL = """
+        SELECT n.id, n.title, n.category_id,
+               c.name AS category_name
+        FROM notes n
+        LEFT JOIN categories c ON n.category_id = c.id
+        WHERE n.category_id = ? AND n.id < ?
+        ORDER BY n.id DESC
+        LIMIT ?
+    """;
+
+    private static final String SEARCH_SQL = """
+        SELECT n.id, n.title, n.category_id,
+               c.name AS category_name,
+               snippet(notes_fts, 1, char(2), char(3), '…', 16) AS snippet,
+               bm25(notes_fts, 10.0, 1.0) AS rank
+        FROM notes_fts
+        JOIN notes n ON n.id = notes_fts.rowid
+        LEFT JOIN categories c ON n.category_id = c.id
+        WHERE notes_fts MATCH ?
+        ORDER BY rank
+        LIMIT ?
+    """;
+
+    private static final String SEARCH_BY_CATEGORY_SQL = """
+        SELECT n.id, n.title, n.category_id,
+               c.name AS category_name,
+               snippet(notes_fts, 1, char(2), char(3), '…', 16) AS snippet,
+               bm25(notes_fts, 10.0, 1.0) AS rank
+        FROM notes_fts
+        JOIN notes n ON n.id = notes_fts.rowid
+        LEFT JOIN categories c ON n.category_id = c.id
+        WHERE notes_fts MATCH ? AND n.category_id = ?
+        ORDER BY rank
+        LIMIT ?
+    """;
+
+    /**
+     * Notas fragmentadas con algún fragmento que coincide, cada una con su
+     * mejor fragmento. Solo recorre el índice de los fragmentos, que contiene
+     * únicamente las notas muy largas.
+     */
+    private static final String CHUNK_SEARCH_SQL = """
+        SELECT ch.note_id, note_chunks_fts.rowid AS chunk_id,
+               bm25(note_chunks_fts) AS rank
+        FROM note_chunks_fts
+        JOIN note_chunks ch ON ch.id = note_chunks_fts.rowid
+        WHERE note_chunks_fts MATCH ?
+        ORDER BY rank
+    """;
+
+    private static final String CHUNK_SEARCH_BY_CATEGORY_SQL = """
+        SELECT ch.note_id, note_chunks_fts.rowid AS chunk_id,
+               bm25(note_chunks_fts) AS rank
+        FROM note_chunks_fts
+        JOIN note_chunks ch ON ch.id = note_chunks_fts.rowid
+        JOIN notes n ON n.id = ch.note_id
+        WHERE note_chunks_fts MATCH ? AND n.category_id = ?
+        ORDER BY rank
+    """;
+
+    private static final String CHUNK_SNIPPET_SQL = """
+        SELECT n.id, n.title, n.category_id,
+               c.name AS category_name,
+               snippet(note_chunks_fts, 0, char(2), char(3), '…', 16) AS snippet
+        FROM note_chunks_fts
+        JOIN note_chunks ch ON ch.id = note_chunks_fts.rowid
+        JOIN notes n ON n.id = ch.note_id
+        LEFT JOIN categories c ON n.category_id = c.id
+        WHERE note_chunks_fts MATCH ? AND note_chunks_fts.rowid = ?
+    """;
+
     /**
      * Obtiene todas las notas almacenadas en la base de datos, incluyendo
      * la información de su categoría asociada. Las notas se devuelven
      * ordenadas de forma descendente por su identificador.
      *
      * <p>Este método realiza una unión entre las tablas {@code notes} y
-     * {@code categories} para construir objetos {@link Note} completos.</p>
+     * {@code categories}. Como todas las consultas de listado, devuelve
+     * resúmenes sin contenido (véase {@link Note#isContentLoaded()}); el
+     * contenido completo se obtiene con {@link #getById(int)}.</p>
      *
      * @return Una lista con todas las notas existentes. Si ocurre un error,
      *         se devuelve una lista vacía.
      */
     public List<Note> getAll() {
+        long start = GET_ALL.start();
         List<Note> list = new ArrayList<>();
 
         String sql = """
-            SELECT n.id, n.title, n.content, n.category_id,
+            SELECT n.id, n.title, n.category_id,
                    c.name AS category_name
             FROM notes n
             LEFT JOIN categories c ON n.category_id = c.id
             ORDER BY n.id DESC
         """;
 
-        try (Connection conn = Database.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (PooledConnection conn = Database.getReadConnection();
+             ResultSet rs = conn.prepare(sql).executeQuery()) {
 
             while (rs.next()) {
-                Note note = new Note();
-                note.setId(rs.getInt("id"));
-                note.setTitle(rs.getString("title"));
-                note.setContent(rs.getString("content"));
-
-                Category category = new Category(
-                        rs.getInt("category_id"),
-                        rs.getString("category_name")
-                );
-
-                note.setCategory(category);
-
-                list.add(note);
+                list.add(mapSummary(rs));
             }
 
         } catch (SQLException e) {
+            GET_ALL.failed();
             e.printStackTrace();
+            return list;
         }
 
+        GET_ALL.succeeded(start, list.size());
         return list;
     }
 
@@ -86,68 +284,349 @@ public class NoteRepository {
      *         Si ocurre un error, se devuelve una lista vacía.
      */
     public List<Note> getByCategory(int categoryId) {
+        long start = GET_BY_CATEGORY.start();
         List<Note> list = new ArrayList<>();
 
+        try (PooledConnection conn = Database.getReadConnection()) {
+            PreparedStatement pstmt = conn.prepare(CATEGORY_SQL);
+            pstmt.setInt(1, categoryId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapSummary(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            GET_BY_CATEGORY.failed();
+            e.printStackTrace();
+            return list;
+        }
+
+        GET_BY_CATEGORY.succeeded(start, list.size());
+        return list;
+    }
+
+    /**
+     * Obtiene una nota completa, incluido su contenido, a partir de su
+     * identificador. El contenido de las notas fragmentadas se reúne a
+     * partir de sus fragmentos; el editor las lee por partes con
+     * {@link #getChunks(int)} y {@link #getChunk(int)}.
+     *
+     * @param id Identificador de la nota.
+     * @return La nota, o {@code null} si no existe o si ocurre un error.
+     */
+    public Note getById(int id) {
+        long start = GET_BY_ID.start();
+        Note note = null;
+
+        try (PooledConnection conn = Database.getReadConnection()) {
+            PreparedStatement pstmt = conn.prepare(GET_BY_ID_SQL);
+            pstmt.setInt(1, id);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    note = mapFull(conn, rs);
+                }
+            }
+
+        } catch (SQLException e) {
+            GET_BY_ID.failed();
+            e.printStackTrace();
+            return null;
+        }
+
+        GET_BY_ID.succeeded(start, note != null ? 1 : 0);
+        return note;
+    }
+
+    /**
+     * Cuenta las notas almacenadas.
+     *
+     * @return El número de notas, o {@code -1} si ocurre un error.
+     */
+    public int count() {
+        long start = COUNT.start();
+
+        try (PooledConnection conn = Database.getReadConnection();
+             ResultSet rs = conn.prepare("SELECT COUNT(*) FROM notes").executeQuery()) {
+            int count = rs.next() ? rs.getInt(1) : 0;
+            COUNT.succeeded(start, 1);
+            return count;
+        } catch (SQLException e) {
+            COUNT.failed();
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * Recorre todas las notas completas, con su contenido, en orden
+     * ascendente de identificador, entregándolas una a una a la acción
+     * indicada.
+     *
+     * <p>Las filas se leen con un cursor de solo avance en bloques de
+     * {@value #STREAM_FETCH_SIZE}, por lo que la memoria necesaria no depende
+     * del número de notas. La consulta se ejecuta sobre una instantánea: las
+     * modificaciones que se confirmen durante el recorrido no se ven. La
+     * conexión de lectura queda ocupada hasta que termina el recorrido.</p>
+     *
+     * @param action Acción que recibe cada nota. Si lanza una excepción, el
+     *               recorrido se detiene y la excepción se propaga.
+     * @throws SQLException Si ocurre un error al consultar.
+     */
+    public void stream(Consumer<Note> action) throws SQLException {
         String sql = """
-            SELECT n.id, n.title, n.content, n.category_id,
+            SELECT n.id, n.title, n.content, n.content_format, n.chunk_count, n.category_id,
                    c.name AS category_name
             FROM notes n
             LEFT JOIN categories c ON n.category_id = c.id
-            WHERE n.category_id = ?
-            ORDER BY n.id DESC
+            ORDER BY n.id
         """;
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        long start = STREAM.start();
+        long rows = 0;
 
-            pstmt.setInt(1, categoryId);
-            ResultSet rs = pstmt.executeQuery();
+        try (PooledConnection conn = Database.getReadConnection()) {
+            PreparedStatement pstmt = conn.prepare(sql);
+            pstmt.setFetchSize(STREAM_FETCH_SIZE);
 
-            while (rs.next()) {
-                Note note = new Note();
-                note.setId(rs.getInt("id"));
-                note.setTitle(rs.getString("title"));
-                note.setContent(rs.getString("content"));
-
-                Category category = new Category(
-                        rs.getInt("category_id"),
-                        rs.getString("category_name")
-                );
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Note note = mapFull(conn, rs);
+                    action.accept(note);
+                    rows++;
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            STREAM.failed();
+            throw e;
+        }
+
+        STREAM.succeeded(start, rows);
+    }
+
+    /**
+     * Obtiene una página de notas ordenadas de forma descendente por su
+     * identificador, empezando justo después de la nota indicada.
+     *
+     * <p>La paginación se hace por clave ({@code WHERE n.id < ?}) en lugar de
+     * con {@code OFFSET}, de modo que el coste de cada página no depende de
+     * cuántas se hayan leído antes.</p>
+     *
+     * @param afterId Identificador de la última nota de la página anterior, o
+     *                {@code 0} para obtener la primera página.
+     * @param limit Número máximo de notas de la página.
+     * @return Las notas de la página. Si ocurre un error, se devuelve una
+     *         lista vacía.
+     */
+    public List<Note> getPage(int afterId, int limit) {
+        long start = GET_PAGE.start();
+        List<Note> list = new ArrayList<>();
 
-                note.setCategory(category);
+        try (PooledConnection conn = Database.getReadConnection()) {
+            PreparedStatement pstmt = conn.prepare(PAGE_SQL);
+            pstmt.setLong(1, pageStart(afterId));
+            pstmt.setInt(2, limit);
 
-                list.add(note);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapSummary(rs));
+                }
             }
 
         } catch (SQLException e) {
+            GET_PAGE.failed();
+            e.printStackTrace();
+            return list;
+        }
+
+        GET_PAGE.succeeded(start, list.size());
+        return list;
+    }
+
+    /**
+     * Obtiene una página de notas de una categoría, ordenadas de forma
+     * descendente por su identificador y empezando justo después de la nota
+     * indicada.
+     *
+     * @param afterId Identificador de la última nota de la página anterior, o
+     *                {@code 0} para obtener la primera página.
+     * @param limit Número máximo de notas de la página.
+     * @param categoryId Identificador de la categoría por la que se filtra.
+     * @return Las notas de la página. Si ocurre un error, se devuelve una
+     *         lista vacía.
+     * @see #getPage(int, int)
+     */
+    public List<Note> getPage(int afterId, int limit, int categoryId) {
+        long start = GET_CATEGORY_PAGE.start();
+        List<Note> list = new ArrayList<>();
+
+        try (PooledConnection conn = Database.getReadConnection()) {
+            PreparedStatement pstmt = conn.prepare(CATEGORY_PAGE_SQL);
+            pstmt.setInt(1, categoryId);
+            pstmt.setLong(2, pageStart(afterId));
+            pstmt.setInt(3, limit);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapSummary(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            GET_CATEGORY_PAGE.failed();
+            e.printStackTrace();
+            return list;
+        }
+
+        GET_CATEGORY_PAGE.succeeded(start, list.size());
+        return list;
+    }
+
+    /**
+     * Busca notas mediante el índice de texto completo {@code notes_fts}.
+     *
+     * <p>Los resultados se ordenan por relevancia BM25, dando más peso a las
+     * coincidencias en el título que en el contenido, e incluyen un fragmento
+     * del contenido con los términos encontrados resaltados.</p>
+     *
+     * <p>El texto de las notas fragmentadas se busca en el índice de sus
+     * fragmentos ({@link NoteChunks}), cada uno por separado: una nota
+     * fragmentada solo aparece si todos los términos están en su título o en
+     * un mismo fragmento.</p>
+     *
+     * @param matchExpression Expresión de búsqueda con la sintaxis de FTS5.
+     * @param categoryId Identificador de la categoría por la que filtrar, o
+     *                   {@code 0} para buscar en todas.
+     * @param limit Número máximo de resultados.
+     * @return Los resultados ordenados de más a menos relevante. Si ocurre un
+     *         error, se devuelve una lista vacía.
+     */
+    public List<SearchResult> search(String matchExpression, int categoryId, int limit) {
+        long start = SEARCH.start();
+        Map<Integer, SearchResult> best = new LinkedHashMap<>();
+
+        try (PooledConnection conn = Database.getReadConnection()) {
+            collectMatches(conn, categoryId == 0 ? SEARCH_SQL : SEARCH_BY_CATEGORY_SQL,
+                    matchExpression, categoryId, limit, best);
+            collectChunkMatches(conn, matchExpression, categoryId, limit, best);
+
+        } catch (SQLException e) {
+            SEARCH.failed();
             e.printStackTrace();
+            return new ArrayList<>();
         }
 
+        List<SearchResult> list = new ArrayList<>(best.values());
+        list.sort(Comparator.comparingDouble(SearchResult::getRank));
+        if (list.size() > limit) {
+            list.subList(limit, list.size()).clear();
+        }
+
+        SEARCH.succeeded(start, list.size());
         return list;
     }
 
+    /**
+     * Ejecuta una de las consultas de búsqueda y añade sus resultados,
+     * conservando para cada nota el más relevante.
+     */
+    private void collectMatches(PooledConnection conn, String sql, String matchExpression,
+                                int categoryId, int limit, Map<Integer, SearchResult> best)
+            throws SQLException {
+        PreparedStatement pstmt = conn.prepare(sql);
+
+        int index = 1;
+        pstmt.setString(index++, matchExpression);
+        if (categoryId != 0) {
+            pstmt.setInt(index++, categoryId);
+        }
+        pstmt.setInt(index, limit);
+
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                String snippet = rs.getString("snippet");
+                SearchResult result = new SearchResult(
+                        mapSummary(rs),
+                        snippet != null ? snippet : "",
+                        rs.getDouble("rank")
+                );
+                best.merge(result.getNote().getId(), result,
+                        (previous, added) -> added.getRank() < previous.getRank() ? added : previous);
+            }
+        }
+    }
+
+    /**
+     * Busca en los fragmentos de las notas fragmentadas y añade, para cada
+     * nota, su fragmento más relevante.
+     *
+     * <p>FTS5 no permite agrupar por nota con {@code bm25()} dentro de un
+     * agregado, así que primero se ordenan todas las coincidencias por
+     * relevancia y se queda la primera de cada nota; el fragmento de texto
+     * resaltado se calcula después solo para las notas que entran en el
+     * resultado, que es la parte costosa.</p>
+     */
+    private void collectChunkMatches(PooledConnection conn, String matchExpression, int categoryId,
+                                     int limit, Map<Integer, SearchResult> best) throws SQLException {
+        PreparedStatement pstmt = conn.prepare(categoryId == 0 ? CHUNK_SEARCH_SQL : CHUNK_SEARCH_BY_CATEGORY_SQL);
+        pstmt.setString(1, matchExpression);
+        if (categoryId != 0) {
+            pstmt.setInt(2, categoryId);
+        }
+
+        Map<Integer, ChunkMatch> matches = new LinkedHashMap<>();
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next() && matches.size() < limit) {
+                matches.putIfAbsent(rs.getInt("note_id"), new ChunkMatch(rs.getInt("chunk_id"), rs.getDouble("rank")));
+            }
+        }
+
+        PreparedStatement snippets = conn.prepare(CHUNK_SNIPPET_SQL);
+        for (Map.Entry<Integer, ChunkMatch> match : matches.entrySet()) {
+            double rank = match.getValue().rank();
+            SearchResult previous = best.get(match.getKey());
+            if (previous != null && previous.getRank() <= rank) {
+                continue;
+            }
+
+            snippets.setString(1, matchExpression);
+            snippets.setInt(2, match.getValue().chunkId());
+            try (ResultSet rs = snippets.executeQuery()) {
+                if (rs.next()) {
+                    String snippet = rs.getString("snippet");
+                    best.put(match.getKey(), new SearchResult(mapSummary(rs), snippet != null ? snippet : "", rank));
+                }
+            }
+        }
+    }
+
+    /** Fragmento más relevante de una nota y su relevancia. */
+    private record ChunkMatch(int chunkId, double rank) {}
+
     /**
      * Inserta una nueva nota en la base de datos.
      *
      * <p>Este método almacena el título, contenido y categoría de la nota
      * en la tabla {@code notes}. El identificador se genera automáticamente
-     * por la base de datos.</p>
+     * por la base de datos y se asigna a la nota.</p>
      *
      * @param note La nota que se desea insertar.
      */
     public void insert(Note note) {
-        String sql = "INSERT INTO notes (title, content, category_id) VALUES (?, ?, ?)";
+        long start = INSERT.start();
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, note.getTitle());
-            pstmt.setString(2, note.getContent());
-            pstmt.setInt(3, note.getCategory().getId());
-
-            pstmt.executeUpdate();
+        try (PooledConnection conn = Database.getWriteConnection()) {
+            conn.getConnection().setAutoCommit(false);
+            insertRow(conn, note);
+            conn.getConnection().commit();
+            conn.getConnection().setAutoCommit(true);
+            note.markSaved();
+            INSERT.succeeded(start, 1);
 
         } catch (SQLException e) {
+            INSERT.failed();
             e.printStackTrace();
         }
     }
@@ -156,24 +635,31 @@ public class NoteRepository {
      * Actualiza una nota existente en la base de datos.
      *
      * <p>Este método modifica el título, contenido y categoría de la nota
-     * cuyo identificador coincida con el proporcionado.</p>
+     * cuyo identificador coincida con el proporcionado, aunque solo escribe
+     * los que han cambiado; si no ha cambiado ninguno, no hace nada. Al
+     * terminar, la nota queda sin cambios pendientes.</p>
      *
      * @param note La nota con los nuevos valores que se desean guardar.
      */
     public void update(Note note) {
-        String sql = "UPDATE notes SET title = ?, content = ?, category_id = ? WHERE id = ?";
+        long start = UPDATE.start();
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, note.getTitle());
-            pstmt.setString(2, note.getContent());
-            pstmt.setInt(3, note.getCategory().getId());
-            pstmt.setInt(4, note.getId());
+        int columns = modifiedColumns(note);
+        if (columns == 0) {
+            UPDATE.succeeded(start, 0);
+            return;
+        }
 
-            pstmt.executeUpdate();
+        try (PooledConnection conn = Database.getWriteConnection()) {
+            conn.getConnection().setAutoCommit(false);
+            int rows = updateRows(conn, columns, List.of(note))[0];
+            conn.getConnection().commit();
+            conn.getConnection().setAutoCommit(true);
+            note.markSaved();
+            UPDATE.succeeded(start, rows);
 
         } catch (SQLException e) {
+            UPDATE.failed();
             e.printStackTrace();
         }
     }
@@ -184,16 +670,489 @@ public class NoteRepository {
      * @param id Identificador de la nota que se desea eliminar.
      */
     public void delete(int id) {
-        String sql = "DELETE FROM notes WHERE id = ?";
+        long start = DELETE.start();
 
-        try (Connection conn = Database.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (PooledConnection conn = Database.getWriteConnection()) {
+            PreparedStatement pstmt = conn.prepare(DELETE_SQL);
+            pstmt.setInt(1, id);
+            DELETE.succeeded(start, pstmt.executeUpdate());
 
+        } catch (SQLException e) {
+            DELETE.failed();
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Actualiza una nota solo si su versión guardada cumple una condición.
+     * La nota se lee y se escribe en la misma transacción de la conexión de
+     * escritura, así que ninguna otra escritura puede colarse entre la
+     * comprobación y la modificación.
+     *
+     * <p>Como {@link #applyBatch}, no oculta los errores. Si se aplica, la
+     * nota queda sin cambios pendientes.</p>
+     *
+     * @param note La nota con los nuevos valores; solo se escriben los
+     *             campos que han cambiado.
+     * @param precondition Condición que debe cumplir la nota guardada, leída
+     *                     completa.
+     * @return {@code false} si la nota ya no existe o no cumple la
+     *         condición; en ese caso no se escribe nada.
+     * @throws SQLException Si falla alguna sentencia.
+     */
+    public boolean updateIf(Note note, Predicate<Note> precondition) throws SQLException {
+        long start = UPDATE.start();
+
+        try (PooledConnection conn = Database.getWriteConnection()) {
+            conn.getConnection().setAutoCommit(false);
+
+            // Al cerrar la conexión se deshace la transacción
+            if (!storedMatches(conn, note.getId(), precondition)) {
+                UPDATE.succeeded(start, 0);
+                return false;
+            }
+
+            int columns = modifiedColumns(note);
+            int rows = columns != 0 ? updateRows(conn, columns, List.of(note))[0] : 0;
+
+            conn.getConnection().commit();
+            conn.getConnection().setAutoCommit(true);
+            note.markSaved();
+            UPDATE.succeeded(start, rows);
+            return true;
+        } catch (SQLException e) {
+            UPDATE.failed();
+            throw e;
+        }
+    }
+
+    /**
+     * Elimina una nota solo si su versión guardada cumple una condición,
+     * comprobándolo en la misma transacción que la baja, como
+     * {@link #updateIf(Note, Predicate)}.
+     *
+     * @param id Identificador de la nota que se desea eliminar.
+     * @param precondition Condición que debe cumplir la nota guardada, leída
+     *                     completa.
+     * @return {@code false} si la nota ya no existe o no cumple la
+     *         condición; en ese caso no se elimina.
+     * @throws SQLException Si falla alguna sentencia.
+     */
+    public boolean deleteIf(int id, Predicate<Note> precondition) throws SQLException {
+        long start = DELETE.start();
+
+        try (PooledConnection conn = Database.getWriteConnection()) {
+            conn.getConnection().setAutoCommit(false);
+
+            if (!storedMatches(conn, id, precondition)) {
+                DELETE.succeeded(start, 0);
+                return false;
+            }
+
+            PreparedStatement pstmt = conn.prepare(DELETE_SQL);
             pstmt.setInt(1, id);
-            pstmt.executeUpdate();
+            int rows = pstmt.executeUpdate();
+
+            conn.getConnection().commit();
+            conn.getConnection().setAutoCommit(true);
+            DELETE.succeeded(start, rows);
+            return true;
+        } catch (SQLException e) {
+            DELETE.failed();
+            throw e;
+        }
+    }
+
+    /**
+     * Lee una nota completa con la conexión indicada y comprueba si cumple
+     * una condición.
+     */
+    private boolean storedMatches(PooledConnection conn, int id, Predicate<Note> precondition) throws SQLException {
+        PreparedStatement pstmt = conn.prepare(GET_BY_ID_SQL);
+        pstmt.setInt(1, id);
+
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() && precondition.test(mapFull(conn, rs));
+        }
+    }
+
+    /**
+     * Aplica un lote de modificaciones en una única transacción, de modo que
+     * todas comparten la misma sincronización con el disco.
+     *
+     * <p>A diferencia del resto de métodos, los errores no se ocultan: si
+     * alguna sentencia falla se deshace la transacción completa y se lanza la
+     * excepción, para que quien agrupó las modificaciones pueda avisar a cada
+     * solicitante. A las notas insertadas se les asigna el identificador
+     * generado.</p>
+     *
+     * <p>Las modificaciones se agrupan según los campos que cambian, con una
+     * sentencia por grupo; de las notas sin cambios solo se comprueba que
+     * existan. Una vez confirmada la transacción, las notas insertadas y las
+     * modificadas que existían quedan sin cambios pendientes.</p>
+     *
+     * @param inserts Notas nuevas que se desean insertar.
+     * @param updates Notas existentes que se desean actualizar.
+     * @param deletes Identificadores de las notas que se desean eliminar.
+     * @return El número de filas modificadas por cada nota de
+     *         {@code updates}, en el orden en que se recorren; {@code 0} si la
+     *         nota ya no existe y {@code 1} si existe pero no tenía cambios.
+     * @throws SQLException Si alguna operación falla; en ese caso no se aplica
+     *         ninguna.
+     */
+    public int[] applyBatch(List<Note> inserts, Collection<Note> updates,
+                            Collection<Integer> deletes) throws SQLException {
+        long start = APPLY_BATCH.start();
+
+        int[] counts = new int[updates.size()];
+
+        try (PooledConnection conn = Database.getWriteConnection()) {
+            conn.getConnection().setAutoCommit(false);
+
+            for (Note note : inserts) {
+                insertRow(conn, note);
+            }
+
+            List<Note> pending = new ArrayList<>(updates);
+            Map<Integer, List<Integer>> byColumns = new TreeMap<>();
+            for (int i = 0; i < pending.size(); i++) {
+                int columns = modifiedColumns(pending.get(i));
+                if (columns != 0) {
+                    byColumns.computeIfAbsent(columns, key -> new ArrayList<>()).add(i);
+                } else {
+                    counts[i] = exists(conn, pending.get(i).getId()) ? 1 : 0;
+                }
+            }
+            for (Map.Entry<Integer, List<Integer>> group : byColumns.entrySet()) {
+                List<Integer> indexes = group.getValue();
+                int[] rows = updateRows(conn, group.getKey(), indexes.stream().map(pending::get).toList());
+                for (int i = 0; i < rows.length; i++) {
+                    counts[indexes.get(i)] = rows[i];
+                }
+            }
+
+            if (!deletes.isEmpty()) {
+                PreparedStatement pstmt = conn.prepare(DELETE_SQL);
+                for (int id : deletes) {
+                    pstmt.setInt(1, id);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
 
+            conn.getConnection().commit();
         } catch (SQLException e) {
+            APPLY_BATCH.failed();
+            throw e;
+        }
+
+        inserts.forEach(Note::markSaved);
+        int index = 0;
+        for (Note note : updates) {
+            if (counts[index++] > 0) {
+                note.markSaved();
+            }
+        }
+        APPLY_BATCH.succeeded(start, inserts.size() + updates.size() + deletes.size());
+        return counts;
+    }
+
+    /**
+     * Comprueba si existe una nota con la conexión indicada.
+     */
+    private static boolean exists(PooledConnection conn, int id) throws SQLException {
+        PreparedStatement pstmt = conn.prepare(EXISTS_SQL);
+        pstmt.setInt(1, id);
+
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return rs.next();
+        }
+    }
+
+    /**
+     * Comprime las notas guardadas como texto que superan el umbral de
+     * {@link ContentCompression}, como las escritas antes de que existiera la
+     * compresión. Las notas se recorren por orden de identificador en
+     * transacciones de {@value #COMPRESS_BATCH}, de modo que la operación
+     * puede interrumpirse y repetirse sin perder lo hecho. La fecha de
+     * modificación no cambia.
+     *
+     * @param progress Recibe el número de notas comprimidas tras cada
+     *                 transacción, o {@code null}.
+     * @return El número de notas comprimidas; {@code 0} si la compresión está
+     *         desactivada.
+     * @throws SQLException Si falla alguna lectura o escritura.
+     */
+    public int compressPending(IntConsumer progress) throws SQLException {
+        int threshold = ContentCompression.threshold();
+        if (threshold < 0) {
+            return 0;
+        }
+
+        long start = COMPRESS_PENDING.start();
+        int compressed = 0;
+        int afterId = 0;
+        int examined;
+
+        try {
+            do {
+                examined = 0;
+
+                // Se suelta la conexión entre transacciones para no bloquear
+                // al resto de escrituras durante toda la operación
+                try (PooledConnection conn = Database.getWriteConnection()) {
+                    conn.getConnection().setAutoCommit(false);
+
+                    PreparedStatement select = conn.prepare(PENDING_SQL);
+                    select.setInt(1, afterId);
+                    select.setInt(2, threshold);
+                    select.setInt(3, COMPRESS_BATCH);
+
+                    PreparedStatement rewrite = conn.prepare(REWRITE_SQL);
+                    try (ResultSet rs = select.executeQuery()) {
+                        while (rs.next()) {
+                            examined++;
+                            afterId = rs.getInt("id");
+
+                            ContentCompression.Compressed content =
+                                    ContentCompression.compress(rs.getString("content"));
+                            if (content != null) {
+                                rewrite.setBytes(1, content.data());
+                                rewrite.setInt(2, content.format());
+                                rewrite.setInt(3, afterId);
+                                rewrite.addBatch();
+                                compressed++;
+                            }
+                        }
+                    }
+                    rewrite.executeBatch();
+
+                    conn.getConnection().commit();
+                    conn.getConnection().setAutoCommit(true);
+                }
+
+                if (progress != null) {
+                    progress.accept(compressed);
+                }
+            } while (examined == COMPRESS_BATCH);
+        } catch (SQLException e) {
+            COMPRESS_PENDING.failed();
+            throw e;
+        }
+
+        COMPRESS_PENDING.succeeded(start, compressed);
+        return compressed;
+    }
+
+    /**
+     * Obtiene la lista ordenada de fragmentos de una nota, sin su texto.
+     *
+     * @param noteId Identificador de la nota.
+     * @return Los fragmentos, o una lista vacía si la nota no está
+     *         fragmentada, no existe o si ocurre un error.
+     */
+    public List<NoteChunk> getChunks(int noteId) {
+        long start = GET_CHUNKS.start();
+        List<NoteChunk> chunks;
+
+        try (PooledConnection conn = Database.getReadConnection()) {
+            chunks = NoteChunks.list(conn, noteId);
+        } catch (SQLException e) {
+            GET_CHUNKS.failed();
+            e.printStackTrace();
+            return List.of();
+        }
+
+        GET_CHUNKS.succeeded(start, chunks.size());
+        return chunks;
+    }
+
+    /**
+     * Obtiene el texto de un fragmento.
+     *
+     * @param chunkId Identificador del fragmento.
+     * @return El texto, o {@code null} si el fragmento no existe o si ocurre
+     *         un error.
+     */
+    public String getChunk(int chunkId) {
+        long start = GET_CHUNK.start();
+        String content;
+
+        try (PooledConnection conn = Database.getReadConnection()) {
+            content = NoteChunks.read(conn, chunkId);
+        } catch (SQLException e) {
+            GET_CHUNK.failed();
             e.printStackTrace();
+            return null;
         }
+
+        GET_CHUNK.succeeded(start, content != null ? 1 : 0);
+        return content;
+    }
+
+    /**
+     * Guarda una nota fragmentada escribiendo solo los fragmentos nuevos o
+     * modificados, junto con su título y su categoría, en una única
+     * transacción. Si cambian el título o el contenido, copia antes la
+     * versión anterior en el historial.
+     *
+     * <p>Como {@link #applyBatch}, no oculta los errores: si falla, no se
+     * aplica nada y se lanza la excepción.</p>
+     *
+     * @param note Nota con el título y la categoría que se guardan; su
+     *             contenido se ignora.
+     * @param chunks Fragmentos que forman el contenido completo, en orden.
+     * @throws SQLException Si la nota no existe o no está fragmentada, si
+     *         algún fragmento no le pertenece o si falla alguna sentencia.
+     */
+    public void saveChunks(Note note, List<NoteChunk> chunks) throws SQLException {
+        long start = SAVE_CHUNKS.start();
+
+        try (PooledConnection conn = Database.getWriteConnection()) {
+            conn.getConnection().setAutoCommit(false);
+
+            // Un cambio de categoría solo no deja revisión
+            if (note.isTitleModified() || NoteChunks.changesContent(conn, note.getId(), chunks)) {
+                RevisionRepository.capture(conn, List.of(note));
+            }
+            int count = NoteChunks.save(conn, note.getId(), chunks);
+
+            PreparedStatement pstmt = conn.prepare(UPDATE_CHUNKED_SQL);
+            pstmt.setString(1, note.getTitle());
+            pstmt.setInt(2, note.getCategory().getId());
+            pstmt.setInt(3, count);
+            pstmt.setInt(4, note.getId());
+            if (pstmt.executeUpdate() == 0) {
+                throw new SQLException("La nota " + note.getId() + " no existe o no está fragmentada");
+            }
+
+            conn.getConnection().commit();
+            conn.getConnection().setAutoCommit(true);
+        } catch (SQLException e) {
+            SAVE_CHUNKS.failed();
+            throw e;
+        }
+
+        SAVE_CHUNKS.succeeded(start, chunks.stream().filter(NoteChunk::isModified).count());
+    }
+
+    /**
+     * Inserta una nota, con sus fragmentos si los necesita, y le asigna el
+     * identificador generado. Debe ejecutarse dentro de una transacción.
+     *
+     * @param conn Conexión de escritura.
+     * @param note Nota que se inserta; debe tener categoría.
+     * @throws SQLException Si falla alguna sentencia.
+     */
+    static void insertRow(PooledConnection conn, Note note) throws SQLException {
+        PreparedStatement pstmt = conn.prepare(INSERT_SQL);
+        pstmt.setString(1, note.getTitle());
+        List<String> chunks = NoteChunks.bind(pstmt, 2, 3, 4, note.getContent());
+        pstmt.setInt(5, note.getCategory().getId());
+        pstmt.executeUpdate();
+
+        try (ResultSet rs = conn.prepare(LAST_ID_SQL).executeQuery()) {
+            rs.next();
+            note.setId(rs.getInt(1));
+        }
+
+        if (chunks != null) {
+            NoteChunks.replace(conn, note.getId(), chunks);
+        }
+    }
+
+    /**
+     * Devuelve los campos de la nota que hay que escribir.
+     */
+    private static int modifiedColumns(Note note) {
+        return (note.isTitleModified() ? TITLE : 0)
+                | (note.isContentModified() ? CONTENT : 0)
+                | (note.isCategoryModified() ? CATEGORY : 0);
+    }
+
+    /**
+     * Escribe en un lote los campos indicados de varias notas, con sus
+     * fragmentos si el contenido los necesita. Si cambian el título o el
+     * contenido, copia antes la versión anterior en el historial. Debe
+     * ejecutarse dentro de una transacción.
+     *
+     * @return El número de filas modificadas por cada nota, en el mismo
+     *         orden; {@code 0} si la nota ya no existe.
+     */
+    private static int[] updateRows(PooledConnection conn, int columns, List<Note> notes) throws SQLException {
+        if ((columns & (TITLE | CONTENT)) != 0) {
+            RevisionRepository.capture(conn, notes);
+        }
+
+        PreparedStatement pstmt = conn.prepare(UPDATE_SQL[columns]);
+        List<List<String>> chunks = new ArrayList<>(notes.size());
+
+        for (Note note : notes) {
+            int index = 1;
+            List<String> noteChunks = null;
+            if ((columns & TITLE) != 0) {
+                pstmt.setString(index++, note.getTitle());
+            }
+            if ((columns & CONTENT) != 0) {
+                noteChunks = NoteChunks.bind(pstmt, index, index + 1, index + 2, note.getContent());
+                index += 3;
+            }
+            if ((columns & CATEGORY) != 0) {
+                pstmt.setInt(index++, note.getCategory().getId());
+            }
+            pstmt.setInt(index, note.getId());
+            chunks.add(noteChunks);
+            pstmt.addBatch();
+        }
+        int[] rows = pstmt.executeBatch();
+
+        // Los fragmentos se escriben una vez actualizada la fila, y solo si
+        // la nota existe, para no dejarlos huérfanos
+        for (int i = 0; i < rows.length; i++) {
+            if (chunks.get(i) != null && rows[i] > 0) {
+                NoteChunks.replace(conn, notes.get(i).getId(), chunks.get(i));
+            }
+        }
+        return rows;
+    }
+
+
+    /**
+     * Traduce el identificador de la última nota leída al límite superior
+     * exclusivo de la siguiente página.
+     */
+    private static long pageStart(int afterId) {
+        return afterId > 0 ? afterId : Long.MAX_VALUE;
+    }
+
+    /**
+     * Construye una {@link Note} completa a partir de una fila con las
+     * columnas del contenido, leyendo sus fragmentos si los tiene.
+     */
+    private Note mapFull(PooledConnection conn, ResultSet rs) throws SQLException {
+        Note note = mapSummary(rs);
+        note.setContent(rs.getInt("chunk_count") > 0
+                ? NoteChunks.readAll(conn, note.getId())
+                : ContentCompression.read(rs));
+        note.markSaved();
+        return note;
+    }
+
+    /**
+     * Construye el resumen de una {@link Note} (identificador, título y
+     * {@link Category}, sin contenido) a partir de la fila actual de un
+     * {@link ResultSet}.
+     *
+     * @param rs Resultado posicionado en la fila que se desea convertir.
+     * @return La nota resumida correspondiente a la fila.
+     * @throws SQLException Si alguna columna no puede leerse.
+     */
+    private Note mapSummary(ResultSet rs) throws SQLException {
+        Category category = CategoryRegistry.canonical(
+                rs.getInt("category_id"),
+                rs.getString("category_name")
+        );
+
+        return Note.summary(rs.getInt("id"), rs.getString("title"), category);
     }
 }
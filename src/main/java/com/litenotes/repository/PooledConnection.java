@@ -0,0 +1,144 @@
+package com.litenotes.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Conexión SQLite de larga duración prestada por el pool de {@link Database}.
+ * Envuelve una {@link Connection} JDBC y mantiene una caché de sentencias
+ * preparadas indexada por el texto SQL, de modo que cada consulta se compila
+ * una sola vez por conexión.
+ *
+ * <p>Se utiliza con {@code try-with-resources}: al cerrarla no se cierra la
+ * conexión física, sino que se devuelve al pool del que procede. Las
+ * sentencias obtenidas con {@link #prepare(String)} pertenecen a la caché y no
+ * deben cerrarse; los {@link java.sql.ResultSet} sí.</p>
+ *
+ * <p>Si el {@link SlowQueryLog} está activo, las sentencias se devuelven
+ * envueltas para medir sus ejecuciones; la caché guarda siempre las
+ * originales.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public final class PooledConnection implements AutoCloseable {
+
+    /** Número máximo de sentencias preparadas que se conservan por conexión. */
+    private static final int STATEMENT_CACHE_SIZE = 64;
+
+    private final Connection connection;
+    private final ConnectionPool owner;
+    private final Map<String, PreparedStatement> statements;
+
+    /**
+     * Crea una conexión agrupada asociada al pool que la gestiona.
+     *
+     * @param connection Conexión física ya configurada.
+     * @param owner Pool al que se devuelve la conexión al cerrarla.
+     */
+    PooledConnection(Connection connection, ConnectionPool owner) {
+        this.connection = connection;
+        this.owner = owner;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > STATEMENT_CACHE_SIZE) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Devuelve una sentencia preparada para el SQL indicado, reutilizando la
+     * que ya exista en la caché de esta conexión. Los parámetros de una
+     * sentencia reutilizada se limpian antes de devolverla.
+     *
+     * @param sql Sentencia SQL con parámetros posicionales.
+     * @return La sentencia preparada lista para asignar parámetros.
+     * @throws SQLException Si la sentencia no puede compilarse.
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement pstmt = statements.get(sql);
+
+        if (pstmt == null || pstmt.isClosed()) {
+            pstmt = connection.prepareStatement(sql);
+            statements.put(sql, pstmt);
+        } else {
+            pstmt.clearParameters();
+        }
+
+        return SlowQueryLog.isEnabled() ? SlowQueryLog.wrap(pstmt, sql) : pstmt;
+    }
+
+    /**
+     * Devuelve la conexión JDBC subyacente para operaciones que no encajan en
+     * la caché de sentencias, como transacciones o sentencias DDL.
+     *
+     * @return La conexión física.
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Devuelve la conexión al pool. Si quedó una transacción abierta se
+     * deshace para que el siguiente usuario reciba la conexión en modo
+     * {@code autocommit}.
+     */
+    @Override
+    public void close() {
+        try {
+            if (!connection.isClosed() && !connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        owner.release(this);
+    }
+
+    /**
+     * Indica si la conexión física sigue abierta.
+     *
+     * @return {@code true} si la conexión puede seguir utilizándose.
+     */
+    boolean isValid() {
+        try {
+            return !connection.isClosed();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Cierra todas las sentencias en caché y la conexión física. Solo lo
+     * utiliza el pool al apagarse o al descartar una conexión inválida.
+     */
+    void closePhysically() {
+        statements.values().forEach(PooledConnection::closeQuietly);
+        statements.clear();
+
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement pstmt) {
+        try {
+            pstmt.close();
+        } catch (SQLException ignored) {
+            // La sentencia se descarta igualmente.
+        }
+    }
+}
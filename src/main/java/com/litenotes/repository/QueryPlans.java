@@ -0,0 +1,92 @@
+package com.litenotes.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Comprueba con {@code EXPLAIN QUERY PLAN} que las consultas más frecuentes de
+ * {@link NoteRepository} usan los índices que crean las {@link Migrations}.
+ *
+ * <p>Un plan inesperado no impide arrancar: la consulta sigue dando el
+ * resultado correcto, solo que más despacio. Por eso {@link Database} se
+ * limita a avisar por la salida de error, con el plan obtenido, para que el
+ * problema se detecte antes de notarlo con una base de datos grande.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+final class QueryPlans {
+
+    /**
+     * Consulta vigilada y el fragmento que debe aparecer en su plan.
+     */
+    private record Expectation(String name, String sql, String expected) {}
+
+    private static final List<Expectation> EXPECTATIONS = List.of(
+        new Expectation("página de notas", NoteRepository.PAGE_SQL,
+                "USING INTEGER PRIMARY KEY"),
+        new Expectation("página de una categoría", NoteRepository.CATEGORY_PAGE_SQL,
+                "idx_notes_category_id"),
+        new Expectation("notas de una categoría", NoteRepository.CATEGORY_SQL,
+                "idx_notes_category_id"),
+        new Expectation("fragmentos de una nota", NoteChunks.LIST_SQL,
+                "idx_note_chunks_note")
+    );
+
+    /** Aparece en el plan cuando SQLite tiene que ordenar el resultado aparte. */
+    private static final String TEMP_SORT = "USE TEMP B-TREE";
+
+    private QueryPlans() {}
+
+    /**
+     * Obtiene el plan de ejecución de una consulta sin ejecutarla. Los
+     * parámetros no hace falta asignarlos.
+     *
+     * @param conn Conexión a la base de datos.
+     * @param sql Consulta que se desea analizar.
+     * @return Una línea por cada paso del plan.
+     * @throws SQLException Si la consulta no se puede preparar.
+     */
+    static List<String> explain(Connection conn, String sql) throws SQLException {
+        List<String> plan = new ArrayList<>();
+
+        try (PreparedStatement pstmt = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                plan.add(rs.getString("detail"));
+            }
+        }
+
+        return plan;
+    }
+
+    /**
+     * Analiza las consultas vigiladas y describe las que no usan el índice
+     * esperado o necesitan ordenar el resultado aparte.
+     *
+     * @param conn Conexión a la base de datos.
+     * @return Un aviso por cada consulta con un plan inesperado; una lista
+     *         vacía si todas son correctas.
+     * @throws SQLException Si alguna consulta no se puede preparar.
+     */
+    static List<String> verify(Connection conn) throws SQLException {
+        List<String> warnings = new ArrayList<>();
+
+        for (Expectation expectation : EXPECTATIONS) {
+            List<String> plan = explain(conn, expectation.sql());
+            String joined = String.join("; ", plan);
+
+            if (!joined.contains(expectation.expected()) || joined.contains(TEMP_SORT)) {
+                warnings.add("La consulta \"" + expectation.name() + "\" no usa "
+                        + expectation.expected() + " como se esperaba. Plan: " + joined);
+            }
+        }
+
+        return warnings;
+    }
+}
@@ -0,0 +1,239 @@
+package com.litenotes.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Diferencias entre dos versiones del texto de una nota, en el formato que
+ * guarda {@link RevisionRepository}.
+ *
+ * <p>Una diferencia describe la versión nueva como una secuencia de
+ * operaciones sobre la anterior: copiar un tramo de la versión anterior o
+ * insertar un texto nuevo. Para encontrar los tramos comunes se calcula un
+ * resumen de cada bloque de {@value #BLOCK} caracteres de la versión anterior
+ * y se recorre la nueva con un resumen deslizante; cada coincidencia se
+ * extiende hacia ambos lados carácter a carácter. Así se detectan también los
+ * párrafos movidos, y el coste es lineal en la longitud de los textos.</p>
+ *
+ * <p>El formato empieza por la longitud del resultado, seguida de las
+ * operaciones. Cada operación empieza por un número de longitud variable
+ * cuyo bit bajo indica el tipo: en una copia, el resto es la longitud del
+ * tramo y le sigue su posición en la versión anterior; en una inserción, el
+ * resto es la longitud en bytes del texto, que le sigue en UTF-8.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+final class RevisionDelta {
+
+    /** Longitud mínima de un tramo copiado, en caracteres. */
+    static final int BLOCK = 16;
+
+    private static final int MULTIPLIER = 31;
+
+    private RevisionDelta() {}
+
+    /**
+     * Calcula la diferencia que convierte un texto en otro.
+     *
+     * @param base Versión anterior.
+     * @param target Versión nueva.
+     * @return La diferencia codificada.
+     */
+    static byte[] diff(String base, String target) {
+        Output out = new Output(Math.min(target.length(), 256));
+        out.writeVarint(target.length());
+
+        int[] table = index(base);
+        int mask = table.length - 1;
+        int power = 1;
+        for (int i = 1; i < BLOCK; i++) {
+            power *= MULTIPLIER;
+        }
+
+        int literal = 0;
+        int i = 0;
+        int hash = target.length() >= BLOCK ? hash(target, 0) : 0;
+
+        while (i + BLOCK <= target.length()) {
+            int candidate = table.length == 0 ? 0 : table[slot(hash, mask)] - 1;
+
+            if (candidate >= 0 && base.regionMatches(candidate, target, i, BLOCK)) {
+                int start = i;
+                int from = candidate;
+                while (start > literal && from > 0 && target.charAt(start - 1) == base.charAt(from - 1)) {
+                    start--;
+                    from--;
+                }
+
+                int end = i + BLOCK;
+                int to = candidate + BLOCK;
+                while (end < target.length() && to < base.length() && target.charAt(end) == base.charAt(to)) {
+                    end++;
+                    to++;
+                }
+
+                // Los tramos no parten un carácter de dos unidades UTF-16,
+                // para que las inserciones sean texto UTF-8 válido
+                if (Character.isLowSurrogate(target.charAt(start))) {
+                    start++;
+                    from++;
+                }
+                if (end < target.length() && Character.isLowSurrogate(target.charAt(end))) {
+                    end--;
+                }
+
+                if (end - start >= BLOCK) {
+                    out.writeInsert(target, literal, start);
+                    out.writeVarint((end - start) << 1);
+                    out.writeVarint(from);
+
+                    literal = end;
+                    i = end;
+                    if (i + BLOCK <= target.length()) {
+                        hash = hash(target, i);
+                    }
+                    continue;
+                }
+            }
+
+            if (i + BLOCK < target.length()) {
+                hash = (hash - target.charAt(i) * power) * MULTIPLIER + target.charAt(i + BLOCK);
+            }
+            i++;
+        }
+
+        out.writeInsert(target, literal, target.length());
+        return out.toByteArray();
+    }
+
+    /**
+     * Reconstruye la versión nueva a partir de la anterior y la diferencia.
+     *
+     * @param base Versión anterior.
+     * @param delta Diferencia calculada con {@link #diff(String, String)}.
+     * @return La versión nueva.
+     * @throws SQLException Si la diferencia está dañada o no corresponde a
+     *         esa versión.
+     */
+    static String apply(String base, byte[] delta) throws SQLException {
+        try {
+            int[] position = {0};
+            int length = readVarint(delta, position);
+            StringBuilder text = new StringBuilder(length);
+
+            while (position[0] < delta.length) {
+                int operation = readVarint(delta, position);
+                if ((operation & 1) == 0) {
+                    int from = readVarint(delta, position);
+                    text.append(base, from, from + (operation >>> 1));
+                } else {
+                    int bytes = operation >>> 1;
+                    text.append(new String(delta, position[0], bytes, StandardCharsets.UTF_8));
+                    position[0] += bytes;
+                }
+            }
+
+            if (text.length() != length) {
+                throw new SQLException("La revisión no corresponde a la versión anterior");
+            }
+            return text.toString();
+        } catch (IndexOutOfBoundsException e) {
+            throw new SQLException("La revisión está dañada", e);
+        }
+    }
+
+    /**
+     * Guarda la posición de cada bloque completo de la versión anterior según
+     * su resumen. Si dos bloques coinciden en la misma casilla se conserva el
+     * primero; una coincidencia perdida solo hace la diferencia algo mayor.
+     *
+     * @return Las posiciones más uno, o {@code 0} en las casillas vacías.
+     */
+    private static int[] index(String base) {
+        int blocks = base.length() / BLOCK;
+        if (blocks == 0) {
+            return new int[0];
+        }
+
+        int[] table = new int[Integer.highestOneBit(2 * blocks - 1) << 1];
+        int mask = table.length - 1;
+        for (int block = 0; block < blocks; block++) {
+            int slot = slot(hash(base, block * BLOCK), mask);
+            if (table[slot] == 0) {
+                table[slot] = block * BLOCK + 1;
+            }
+        }
+        return table;
+    }
+
+    private static int hash(String text, int from) {
+        int hash = 0;
+        for (int i = from; i < from + BLOCK; i++) {
+            hash = hash * MULTIPLIER + text.charAt(i);
+        }
+        return hash;
+    }
+
+    private static int slot(int hash, int mask) {
+        return (hash * 0x9E3779B9 >>> 8) & mask;
+    }
+
+    private static int readVarint(byte[] data, int[] position) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[position[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    /**
+     * Búfer de bytes que crece según hace falta.
+     */
+    private static final class Output {
+
+        private byte[] data;
+        private int size;
+
+        Output(int capacity) {
+            data = new byte[Math.max(16, capacity)];
+        }
+
+        void writeVarint(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                data[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[size++] = (byte) value;
+        }
+
+        void writeInsert(String text, int from, int to) {
+            if (from == to) {
+                return;
+            }
+
+            byte[] bytes = text.substring(from, to).getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length << 1 | 1);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, data, size, bytes.length);
+            size += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(data, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > data.length) {
+                data = Arrays.copyOf(data, Math.max(size + extra, 2 * data.length));
+            }
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.litenotes.repository;
+
+import com.litenotes.metrics.Metrics;
+import com.litenotes.metrics.OperationMetrics;
+import com.litenotes.model.Note;
+import com.litenotes.model.NoteRevision;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Repositorio del historial de revisiones de las notas, guardado en la tabla
+ * {@code note_revisions}.
+ *
+ * <p>Cada vez que una modificación cambia el título o el contenido de una
+ * nota, {@link NoteRepository} copia la versión anterior en el historial con
+ * una sola sentencia, dentro de la misma transacción y sin leerla desde Java,
+ * de modo que guardar apenas tarda más. La copia queda pendiente: es
+ * completa, y sirve tal cual para reconstruir la revisión.</p>
+ *
+ * <p>{@link #compactPending(int)}, que se ejecuta en segundo plano, sustituye
+ * cada copia pendiente por sus diferencias con la revisión anterior
+ * ({@link RevisionDelta}). Una de cada {@value #DEFAULT_SNAPSHOT_INTERVAL}
+ * revisiones de una nota (propiedad {@value #SNAPSHOT_INTERVAL_PROPERTY}) se
+ * conserva completa, comprimida con {@link ContentCompression}, igual que las
+ * que apenas se parecen a la anterior. Así cualquier revisión se reconstruye
+ * partiendo de la última copia completa anterior y aplicando como mucho
+ * {@value #DEFAULT_SNAPSHOT_INTERVAL} menos una diferencias.</p>
+ *
+ * <p>Las revisiones se borran con su nota. El historial se desactiva con la
+ * propiedad de sistema {@value #ENABLED_PROPERTY}{@code =false}.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public class RevisionRepository {
+
+    /** Propiedad de sistema que activa o desactiva el historial. */
+    public static final String ENABLED_PROPERTY = "litenotes.revisions.enabled";
+
+    /**
+     * Propiedad de sistema con cada cuántas revisiones de una nota se guarda
+     * una completa.
+     */
+    public static final String SNAPSHOT_INTERVAL_PROPERTY = "litenotes.revisions.snapshotInterval";
+
+    private static final int DEFAULT_SNAPSHOT_INTERVAL = 16;
+
+    /** Copia completa que aún no se ha compactado. */
+    private static final int PENDING = 0;
+
+    /** Copia completa, posiblemente comprimida. */
+    private static final int SNAPSHOT = 1;
+
+    /** Diferencias con la revisión anterior de la misma nota. */
+    private static final int DELTA = 2;
+
+    private static final OperationMetrics LIST = Metrics.operation("RevisionRepository.list");
+    private static final OperationMetrics GET = Metrics.operation("RevisionRepository.get");
+    private static final OperationMetrics COMPACT_PENDING = Metrics.operation("RevisionRepository.compactPending");
+
+    /**
+     * Copia la versión guardada de una nota como su siguiente revisión. El
+     * contenido de las notas fragmentadas se une en un solo texto.
+     */
+    private static final String CAPTURE_SQL = """
+        INSERT INTO note_revisions (note_id, seq, kind, title, content, content_format, saved_at)
+        SELECT n.id,
+               1 + coalesce((SELECT max(r.seq) FROM note_revisions r WHERE r.note_id = n.id), 0),
+               0, n.title,
+               CASE WHEN n.chunk_count = 0 THEN n.content
+                    ELSE (SELECT group_concat(note_text(c.content, c.content_format), '' ORDER BY c.seq)
+                          FROM note_chunks c WHERE c.note_id = n.id)
+               END,
+               CASE WHEN n.chunk_count = 0 THEN n.content_format ELSE 0 END,
+               coalesce(n.updated_at, n.created_at)
+        FROM notes n
+        WHERE n.id = ?
+        """;
+
+    private static final String LIST_SQL =
+            "SELECT seq, title, saved_at FROM note_revisions WHERE note_id = ? ORDER BY seq DESC";
+
+    /** Revisiones desde la última completa hasta la pedida, en orden. */
+    private static final String CHAIN_SQL = """
+        SELECT seq, kind, title, content, content_format, saved_at
+        FROM note_revisions
+        WHERE note_id = ?1 AND seq <= ?2
+          AND seq >= (SELECT coalesce(max(seq), 0) FROM note_revisions
+                      WHERE note_id = ?1 AND seq <= ?2 AND kind <> 2)
+        ORDER BY seq
+        """;
+
+    private static final String PENDING_SQL = """
+        SELECT note_id, seq, content, content_format FROM note_revisions
+        WHERE kind = 0
+        ORDER BY note_id, seq
+        LIMIT ?
+        """;
+
+    private static final String COMPACT_SQL =
+            "UPDATE note_revisions SET kind = ?, content = ?, content_format = ?"
+            + " WHERE note_id = ? AND seq = ? AND kind = 0";
+
+    private static final boolean enabled =
+            Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"));
+
+    private static final int snapshotInterval =
+            Math.max(1, Integer.getInteger(SNAPSHOT_INTERVAL_PROPERTY, DEFAULT_SNAPSHOT_INTERVAL));
+
+    /**
+     * Copia en el historial la versión guardada de las notas indicadas, antes
+     * de modificarlas. Debe ejecutarse dentro de la transacción que las
+     * modifica; no hace nada si el historial está desactivado.
+     *
+     * @param conn Conexión de escritura.
+     * @param notes Notas que se van a modificar.
+     * @throws SQLException Si falla la sentencia.
+     */
+    static void capture(PooledConnection conn, List<Note> notes) throws SQLException {
+        if (!enabled) {
+            return;
+        }
+
+        PreparedStatement pstmt = conn.prepare(CAPTURE_SQL);
+        for (Note note : notes) {
+            pstmt.setInt(1, note.getId());
+            pstmt.addBatch();
+        }
+        pstmt.executeBatch();
+    }
+
+    /**
+     * Devuelve las revisiones de una nota, sin su contenido.
+     *
+     * @param noteId Identificador de la nota.
+     * @return Las revisiones de la más reciente a la más antigua; una lista
+     *         vacía si no tiene o si ocurre un error.
+     */
+    public List<NoteRevision> list(int noteId) {
+        long start = LIST.start();
+        List<NoteRevision> revisions = new ArrayList<>();
+
+        try (PooledConnection conn = Database.getReadConnection()) {
+            PreparedStatement pstmt = conn.prepare(LIST_SQL);
+            pstmt.setInt(1, noteId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    revisions.add(new NoteRevision(noteId, rs.getInt("seq"), rs.getString("title"),
+                            rs.getLong("saved_at"), null));
+                }
+            }
+
+        } catch (SQLException e) {
+            LIST.failed();
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+
+        LIST.succeeded(start, revisions.size());
+        return revisions;
+    }
+
+    /**
+     * Reconstruye una revisión de una nota con su contenido.
+     *
+     * @param noteId Identificador de la nota.
+     * @param number Número de la revisión.
+     * @return La revisión, o {@code null} si no existe o si ocurre un error.
+     */
+    public NoteRevision get(int noteId, int number) {
+        long start = GET.start();
+        NoteRevision revision;
+
+        try (PooledConnection conn = Database.getReadConnection()) {
+            Version version = rebuild(conn, noteId, number);
+            revision = version == null ? null
+                    : new NoteRevision(noteId, number, version.title, version.savedAt, version.content);
+
+        } catch (SQLException e) {
+            GET.failed();
+            e.printStackTrace();
+            return null;
+        }
+
+        GET.succeeded(start, revision != null ? 1 : 0);
+        return revision;
+    }
+
+    /**
+     * Compacta las copias pendientes más antiguas: cada una se guarda como
+     * diferencias con la revisión anterior de su nota o, cuando toca o no
+     * compensa, como copia completa comprimida.
+     *
+     * <p>Las revisiones se leen y se comparan con una conexión de lectura; la
+     * de escritura solo se ocupa para guardar el resultado, en una
+     * transacción breve, de modo que las escrituras de notas no esperan a la
+     * compactación. Una revisión cuya nota se ha borrado entretanto se
+     * omite.</p>
+     *
+     * @param limit Número máximo de revisiones que se compactan.
+     * @return El número de revisiones examinadas; si es menor que el límite,
+     *         no quedan más pendientes.
+     * @throws SQLException Si falla alguna lectura o escritura.
+     */
+    public int compactPending(int limit) throws SQLException {
+        long start = COMPACT_PENDING.start();
+        List<Object[]> compacted = new ArrayList<>();
+
+        try {
+            try (PooledConnection conn = Database.getReadConnection()) {
+                PreparedStatement select = conn.prepare(PENDING_SQL);
+                select.setInt(1, limit);
+
+                // La revisión anterior suele ser la última compactada
+                Version previous = null;
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        int noteId = rs.getInt("note_id");
+                        int seq = rs.getInt("seq");
+                        String content = nonNull(ContentCompression.read(rs));
+
+                        if (previous == null || previous.noteId != noteId || previous.seq != seq - 1) {
+                            previous = seq > 1 ? rebuild(conn, noteId, seq - 1) : null;
+                        }
+
+                        Version version = compact(previous, noteId, seq, content, compacted);
+                        previous = version;
+                    }
+                }
+            }
+
+            if (!compacted.isEmpty()) {
+                try (PooledConnection conn = Database.getWriteConnection()) {
+                    conn.getConnection().setAutoCommit(false);
+
+                    PreparedStatement update = conn.prepare(COMPACT_SQL);
+                    for (Object[] row : compacted) {
+                        for (int i = 0; i < row.length; i++) {
+                            if (row[i] == null) {
+                                update.setNull(i + 1, Types.VARCHAR);
+                            } else {
+                                update.setObject(i + 1, row[i]);
+                            }
+                        }
+                        update.addBatch();
+                    }
+                    update.executeBatch();
+
+                    conn.getConnection().commit();
+                    conn.getConnection().setAutoCommit(true);
+                }
+            }
+        } catch (SQLException e) {
+            COMPACT_PENDING.failed();
+            throw e;
+        }
+
+        COMPACT_PENDING.succeeded(start, compacted.size());
+        return compacted.size();
+    }
+
+    /**
+     * Decide cómo se guarda una revisión pendiente y añade la fila que la
+     * reescribe: diferencias con la anterior si la cadena no supera el
+     * intervalo y ocupan menos de la mitad, o una copia completa.
+     *
+     * @return La revisión, con la longitud de su cadena de diferencias.
+     */
+    private static Version compact(Version previous, int noteId, int seq, String content,
+                                   List<Object[]> compacted) {
+        if (previous != null && previous.chain + 1 < snapshotInterval) {
+            byte[] delta = RevisionDelta.diff(previous.content, content);
+            if (2 * delta.length < content.getBytes(StandardCharsets.UTF_8).length) {
+                compacted.add(new Object[] {DELTA, delta, ContentCompression.PLAIN, noteId, seq});
+                return new Version(noteId, seq, null, 0, content, previous.chain + 1);
+            }
+        }
+
+        ContentCompression.Compressed compressed = ContentCompression.compress(content);
+        compacted.add(compressed == null
+                ? new Object[] {SNAPSHOT, content, ContentCompression.PLAIN, noteId, seq}
+                : new Object[] {SNAPSHOT, compressed.data(), compressed.format(), noteId, seq});
+        return new Version(noteId, seq, null, 0, content, 0);
+    }
+
+    /**
+     * Reconstruye una revisión desde la última copia completa anterior.
+     *
+     * @return La revisión, o {@code null} si no existe.
+     * @throws SQLException Si falta la copia completa o alguna diferencia
+     *         está dañada.
+     */
+    private static Version rebuild(PooledConnection conn, int noteId, int number) throws SQLException {
+        PreparedStatement pstmt = conn.prepare(CHAIN_SQL);
+        pstmt.setInt(1, noteId);
+        pstmt.setInt(2, number);
+
+        Version version = null;
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                int seq = rs.getInt("seq");
+                String content;
+                int chain;
+
+                if (rs.getInt("kind") == DELTA) {
+                    if (version == null) {
+                        throw new SQLException("Falta la copia completa de la revisión "
+                                + seq + " de la nota " + noteId);
+                    }
+                    content = RevisionDelta.apply(version.content, rs.getBytes("content"));
+                    chain = version.chain + 1;
+                } else {
+                    content = nonNull(ContentCompression.read(rs));
+                    chain = 0;
+                }
+
+                version = new Version(noteId, seq, rs.getString("title"), rs.getLong("saved_at"),
+                        content, chain);
+            }
+        }
+
+        return version != null && version.seq == number ? version : null;
+    }
+
+    private static String nonNull(String text) {
+        return text == null ? "" : text;
+    }
+
+    /**
+     * Revisión reconstruida y número de diferencias aplicadas para obtenerla.
+     */
+    private record Version(int noteId, int seq, String title, long savedAt, String content, int chain) {}
+}
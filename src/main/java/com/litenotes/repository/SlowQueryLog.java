@@ -0,0 +1,340 @@
+package com.litenotes.repository;
+
+import com.litenotes.metrics.Metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registro de consultas lentas. Cuando está activo, cada sentencia que
+ * supera el umbral se escribe en la salida de error con sus parámetros, las
+ * filas leídas o modificadas, el tiempo empleado y el resultado de
+ * {@code EXPLAIN QUERY PLAN}, de modo que los índices que faltan y los
+ * recorridos completos de tabla se detectan en la base de datos real de un
+ * usuario sin necesidad de un perfilador.
+ *
+ * <p>Las sentencias se vigilan desde {@link PooledConnection#prepare(String)},
+ * que las envuelve en un intermediario que anota los parámetros y mide la
+ * ejecución. En las consultas, el tiempo cuenta desde que se ejecutan hasta
+ * que se cierra su {@link ResultSet}, porque SQLite calcula las filas a
+ * medida que se leen; incluye, por tanto, lo que haga quien las lee.</p>
+ *
+ * <p>Para que un bucle no inunde la salida, cada texto SQL se escribe como
+ * mucho una vez por intervalo ({@value #INTERVAL_PROPERTY}, 60 segundos por
+ * defecto); el siguiente aviso indica cuántas veces más fue lenta y cuánto
+ * tardó la peor.</p>
+ *
+ * <p>El registro está desactivado por defecto: sin umbral, las sentencias no
+ * se envuelven y no cuesta nada. Se activa con la propiedad de sistema
+ * {@value #THRESHOLD_PROPERTY}, en milisegundos, o con
+ * {@link #setThreshold(Duration)}.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public final class SlowQueryLog {
+
+    /** Propiedad de sistema con el umbral, en milisegundos. */
+    public static final String THRESHOLD_PROPERTY = "litenotes.slowQuery.thresholdMs";
+
+    /** Propiedad de sistema con el intervalo mínimo entre avisos de una misma sentencia, en segundos. */
+    public static final String INTERVAL_PROPERTY = "litenotes.slowQuery.intervalSeconds";
+
+    /** Número máximo de caracteres que se muestran de un parámetro de texto. */
+    private static final int MAX_PARAMETER_LENGTH = 80;
+
+    /** Umbral en nanosegundos; {@code 0} si el registro está desactivado. */
+    private static volatile long thresholdNanos =
+            Duration.ofMillis(Long.getLong(THRESHOLD_PROPERTY, 0)).toNanos();
+
+    private static final long intervalNanos =
+            Duration.ofSeconds(Long.getLong(INTERVAL_PROPERTY, 60)).toNanos();
+
+    private static final Map<String, Suppressed> suppressed = new ConcurrentHashMap<>();
+    private static final LongAdder slow = new LongAdder();
+
+    static {
+        Metrics.addReportSection(() -> {
+            long count = slow.sum();
+            return count == 0 ? null : "Consultas lentas: " + count;
+        });
+    }
+
+    /**
+     * Avisos omitidos de una sentencia desde el último que se escribió.
+     */
+    private static final class Suppressed {
+        long lastLogged;
+        int count;
+        long worstNanos;
+    }
+
+    private SlowQueryLog() {}
+
+    /**
+     * Indica si se están vigilando las sentencias.
+     *
+     * @return {@code true} si hay un umbral configurado.
+     */
+    public static boolean isEnabled() {
+        return thresholdNanos > 0;
+    }
+
+    /**
+     * Cambia el umbral a partir del cual una sentencia se considera lenta. Se
+     * aplica a las sentencias que se preparen a partir de ese momento.
+     *
+     * @param threshold Nuevo umbral, o {@code null} o cero para desactivar el
+     *                  registro.
+     */
+    public static void setThreshold(Duration threshold) {
+        thresholdNanos = threshold == null || threshold.isNegative() ? 0 : threshold.toNanos();
+    }
+
+    /**
+     * Devuelve el número de sentencias que han superado el umbral, se
+     * escribieran o no.
+     *
+     * @return El número de sentencias lentas.
+     */
+    public static long slowCount() {
+        return slow.sum();
+    }
+
+    /**
+     * Envuelve una sentencia preparada para medir sus ejecuciones.
+     *
+     * @param statement Sentencia de la caché de la conexión.
+     * @param sql Texto de la sentencia.
+     * @return La sentencia envuelta.
+     */
+    static PreparedStatement wrap(PreparedStatement statement, String sql) {
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[] {PreparedStatement.class},
+                new StatementHandler(statement, sql));
+    }
+
+    /**
+     * Comprueba si una ejecución ha sido lenta y, en ese caso, la escribe si
+     * no se ha escrito otra de la misma sentencia en el último intervalo.
+     */
+    private static void finished(PreparedStatement statement, String sql, List<Object> parameters,
+                                 int batchSize, long rows, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        long threshold = thresholdNanos;
+        if (threshold == 0 || elapsed < threshold) {
+            return;
+        }
+
+        slow.increment();
+
+        int omitted;
+        long worst;
+        Suppressed entry = suppressed.computeIfAbsent(sql, key -> new Suppressed());
+        synchronized (entry) {
+            long now = System.nanoTime();
+            if (entry.lastLogged != 0 && now - entry.lastLogged < intervalNanos) {
+                entry.count++;
+                entry.worstNanos = Math.max(entry.worstNanos, elapsed);
+                return;
+            }
+            omitted = entry.count;
+            worst = entry.worstNanos;
+            entry.lastLogged = now;
+            entry.count = 0;
+            entry.worstNanos = 0;
+        }
+
+        System.err.print(format(statement, sql, parameters, batchSize, rows, elapsed, omitted, worst));
+    }
+
+    private static String format(PreparedStatement statement, String sql, List<Object> parameters,
+                                 int batchSize, long rows, long elapsed, int omitted, long worst) {
+        StringBuilder entry = new StringBuilder(String.format(Locale.ROOT,
+                "Consulta lenta (%.1f ms, %d filas): %s%n",
+                elapsed / 1e6, rows, sql.strip().replaceAll("\\s+", " ")));
+
+        entry.append("  Parámetros: ").append(describe(parameters));
+        if (batchSize > 0) {
+            entry.append(" (último de un lote de ").append(batchSize).append(')');
+        }
+        entry.append(System.lineSeparator());
+
+        entry.append("  Plan: ").append(plan(statement, sql)).append(System.lineSeparator());
+
+        if (omitted > 0) {
+            entry.append(String.format(Locale.ROOT,
+                    "  Además, %d veces más desde el aviso anterior; la peor, %.1f ms%n",
+                    omitted, worst / 1e6));
+        }
+
+        return entry.toString();
+    }
+
+    /**
+     * Obtiene el plan de la sentencia en su misma conexión, o la causa por la
+     * que no se pudo obtener.
+     */
+    private static String plan(PreparedStatement statement, String sql) {
+        try {
+            Connection conn = statement.getConnection();
+            return String.join("; ", QueryPlans.explain(conn, sql));
+        } catch (SQLException e) {
+            return "no disponible (" + e.getMessage() + ")";
+        }
+    }
+
+    private static String describe(List<Object> parameters) {
+        List<String> values = new ArrayList<>(parameters.size());
+
+        for (Object value : parameters) {
+            if (value instanceof String text && text.length() > MAX_PARAMETER_LENGTH) {
+                values.add("'" + text.substring(0, MAX_PARAMETER_LENGTH) + "…' ("
+                        + text.length() + " caracteres)");
+            } else if (value instanceof String text) {
+                values.add("'" + text + "'");
+            } else {
+                values.add(String.valueOf(value));
+            }
+        }
+
+        return values.toString();
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Intermediario de una sentencia: anota los parámetros y mide las
+     * ejecuciones.
+     */
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final PreparedStatement statement;
+        private final String sql;
+        private final List<Object> parameters = new ArrayList<>();
+        private int batchSize;
+
+        StatementHandler(PreparedStatement statement, String sql) {
+            this.statement = statement;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                while (parameters.size() < index) {
+                    parameters.add(null);
+                }
+                parameters.set(index - 1, name.equals("setNull") ? null : args[1]);
+                return SlowQueryLog.invoke(statement, method, args);
+            }
+
+            switch (name) {
+                case "clearParameters" -> parameters.clear();
+                case "addBatch" -> batchSize++;
+                case "executeQuery" -> {
+                    if (args == null) {
+                        long start = System.nanoTime();
+                        ResultSet rs = (ResultSet) SlowQueryLog.invoke(statement, method, null);
+                        return Proxy.newProxyInstance(
+                                ResultSet.class.getClassLoader(),
+                                new Class<?>[] {ResultSet.class},
+                                new ResultSetHandler(rs, this, List.copyOf(parameters), start));
+                    }
+                }
+                case "executeUpdate" -> {
+                    if (args == null) {
+                        long start = System.nanoTime();
+                        int rows = (Integer) SlowQueryLog.invoke(statement, method, null);
+                        finished(statement, sql, parameters, 0, rows, start);
+                        return rows;
+                    }
+                }
+                case "executeBatch" -> {
+                    long start = System.nanoTime();
+                    int[] counts = (int[]) SlowQueryLog.invoke(statement, method, args);
+                    long rows = 0;
+                    for (int count : counts) {
+                        rows += Math.max(0, count);
+                    }
+                    finished(statement, sql, parameters, batchSize, rows, start);
+                    batchSize = 0;
+                    return counts;
+                }
+                default -> {
+                    // El resto de métodos se delegan sin más.
+                }
+            }
+
+            return SlowQueryLog.invoke(statement, method, args);
+        }
+    }
+
+    /**
+     * Intermediario del resultado de una consulta: cuenta las filas y da la
+     * consulta por terminada al cerrarlo.
+     */
+    private static final class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet rs;
+        private final StatementHandler owner;
+        private final List<Object> parameters;
+        private final long start;
+        private long rows;
+        private boolean closed;
+
+        ResultSetHandler(ResultSet rs, StatementHandler owner, List<Object> parameters, long start) {
+            this.rs = rs;
+            this.owner = owner;
+            this.parameters = parameters;
+            this.start = start;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next" -> {
+                    boolean hasRow = (Boolean) SlowQueryLog.invoke(rs, method, args);
+                    if (hasRow) {
+                        rows++;
+                    }
+                    return hasRow;
+                }
+                case "close" -> {
+                    Object result = SlowQueryLog.invoke(rs, method, args);
+                    if (!closed) {
+                        closed = true;
+                        finished(owner.statement, owner.sql, parameters, 0, rows, start);
+                    }
+                    return result;
+                }
+                default -> {
+                    return SlowQueryLog.invoke(rs, method, args);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,594 @@
+package com.litenotes.server;
+
+import com.litenotes.model.Category;
+import com.litenotes.model.Note;
+import com.litenotes.model.SearchResult;
+import com.litenotes.service.CategoryService;
+import com.litenotes.service.Json;
+import com.litenotes.service.NoteService;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Predicate;
+
+/**
+ * API JSON de LiteNotes, independiente del transporte: traduce cada petición
+ * a llamadas a {@link NoteService} y {@link CategoryService} y devuelve la
+ * respuesta ya serializada. {@link NoteServer} la publica por HTTP.
+ *
+ * <p>Rutas:</p>
+ * <pre>
+ * GET    /api/notes?after=id&amp;limit=n&amp;category=id   página de resúmenes
+ * POST   /api/notes                              crea una nota
+ * GET    /api/notes/{id}                         nota completa
+ * PUT    /api/notes/{id}                         modifica los campos enviados
+ * DELETE /api/notes/{id}                         elimina una nota
+ * GET    /api/search?q=texto&amp;category=id&amp;limit=n  búsqueda de texto completo
+ * GET    /api/categories                         categorías
+ * POST   /api/batch                              varias peticiones a la vez
+ * </pre>
+ *
+ * <p>Los listados se paginan por clave: cada página devuelve en
+ * {@code next} la ruta de la siguiente, que empieza tras el último
+ * identificador leído, de modo que pedir la página mil cuesta lo mismo que
+ * pedir la primera.</p>
+ *
+ * <p>Las escrituras se encolan en la cola de escritura compartida sin
+ * esperar; en un lote ({@code /api/batch}) se envían todas antes de esperar a
+ * ninguna, de modo que se confirman juntas en una transacción. Un lote
+ * respeta el orden: una lectura, o una escritura sobre una ruta ya escrita
+ * en el mismo lote, espera a que se confirmen las escrituras anteriores.</p>
+ *
+ * <p>Las respuestas de lectura llevan una etiqueta ({@link #etag(String)})
+ * calculada a partir de su contenido; {@code PUT} y {@code DELETE} aceptan
+ * la etiqueta de la nota en {@code If-Match} para no pisar cambios ajenos.
+ * La etiqueta se comprueba al recibir la petición y de nuevo en el hilo
+ * escritor, en la misma transacción que la escritura, de modo que dos
+ * escrituras condicionales simultáneas no pueden aplicarse ambas.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public final class NoteApi {
+
+    /** Tamaño de página por defecto de los listados. */
+    static final int DEFAULT_LIMIT = 50;
+
+    /** Tamaño de página máximo de los listados. */
+    static final int MAX_LIMIT = 500;
+
+    /** Número máximo de peticiones de un lote. */
+    static final int MAX_BATCH = 1000;
+
+    /**
+     * Petición a la API.
+     *
+     * @param method Método HTTP en mayúsculas.
+     * @param path Ruta, sin la parte de consulta.
+     * @param query Parámetros de la consulta.
+     * @param body Cuerpo JSON ya analizado, o {@code null} si no tiene.
+     * @param ifMatch Valor de la cabecera {@code If-Match}, o {@code null}.
+     */
+    public record Request(String method, String path, Map<String, String> query,
+                          Map<String, Object> body, String ifMatch) {}
+
+    /**
+     * Respuesta de la API.
+     *
+     * @param status Código de estado HTTP.
+     * @param body Cuerpo JSON, o {@code null} si no tiene.
+     * @param location Ruta del recurso creado, o {@code null}.
+     */
+    public record Response(int status, String body, String location) {
+
+        /**
+         * Devuelve la etiqueta de la respuesta, si es una lectura correcta.
+         *
+         * @param method Método de la petición.
+         * @return La etiqueta, o {@code null} si no corresponde.
+         */
+        public String etag(String method) {
+            return status == 200 && method.equals("GET") && body != null ? NoteApi.etag(body) : null;
+        }
+    }
+
+    private final NoteService notes;
+    private final CategoryService categories;
+
+    /**
+     * Crea la API sobre los servicios indicados.
+     *
+     * @param notes Servicio de notas.
+     * @param categories Servicio de categorías.
+     */
+    public NoteApi(NoteService notes, CategoryService categories) {
+        this.notes = notes;
+        this.categories = categories;
+    }
+
+    /**
+     * Atiende una petición. Las lecturas se resuelven antes de volver; las
+     * escrituras devuelven un futuro que se completa al confirmarse.
+     *
+     * @param request Petición que se desea atender.
+     * @return Un futuro con la respuesta; nunca se completa con error, los
+     *         errores se traducen a su código de estado.
+     */
+    public CompletableFuture<Response> handle(Request request) {
+        try {
+            return route(request).exceptionally(NoteApi::failure);
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(failure(e));
+        }
+    }
+
+    /**
+     * Calcula la etiqueta de una respuesta: un resumen de su contenido, que
+     * cambia si cambia cualquier byte.
+     *
+     * @param body Cuerpo de la respuesta.
+     * @return La etiqueta entre comillas, lista para la cabecera
+     *         {@code ETag}.
+     */
+    public static String etag(String body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body.getBytes(StandardCharsets.UTF_8));
+            return '"' + HexFormat.of().formatHex(digest, 0, 16) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private CompletableFuture<Response> route(Request request) {
+        String[] segments = request.path().replaceAll("^/+|/+$", "").split("/+");
+        if (segments.length < 2 || !segments[0].equals("api")) {
+            return done(error(404, "Ruta desconocida: " + request.path()));
+        }
+
+        String method = request.method();
+        switch (segments[1]) {
+            case "notes" -> {
+                if (segments.length == 2) {
+                    return switch (method) {
+                        case "GET" -> done(page(request.query()));
+                        case "POST" -> create(request.body());
+                        default -> done(notAllowed(method));
+                    };
+                }
+                if (segments.length == 3) {
+                    int id = parseId(segments[2]);
+                    return switch (method) {
+                        case "GET" -> done(get(id));
+                        case "PUT" -> update(id, request.body(), request.ifMatch());
+                        case "DELETE" -> delete(id, request.ifMatch());
+                        default -> done(notAllowed(method));
+                    };
+                }
+            }
+            case "search" -> {
+                if (segments.length == 2) {
+                    return done(method.equals("GET") ? search(request.query()) : notAllowed(method));
+                }
+            }
+            case "categories" -> {
+                if (segments.length == 2) {
+                    return done(method.equals("GET") ? categories() : notAllowed(method));
+                }
+            }
+            case "batch" -> {
+                if (segments.length == 2) {
+                    return method.equals("POST") ? batch(request.body()) : done(notAllowed(method));
+                }
+            }
+            default -> {
+                // Se responde 404 debajo
+            }
+        }
+
+        return done(error(404, "Ruta desconocida: " + request.path()));
+    }
+
+    private Response page(Map<String, String> query) {
+        int after = intParam(query, "after", 0);
+        int limit = intParam(query, "limit", DEFAULT_LIMIT);
+        int category = intParam(query, "category", 0);
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit debe estar entre 1 y " + MAX_LIMIT);
+        }
+
+        List<Note> page = notes.getNotesPage(after, limit, category);
+
+        StringBuilder json = new StringBuilder("{\"notes\":[");
+        for (int i = 0; i < page.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendNote(json, page.get(i));
+        }
+        json.append("],\"next\":");
+
+        if (page.size() == limit) {
+            String next = "/api/notes?after=" + page.get(page.size() - 1).getId() + "&limit=" + limit
+                    + (category != 0 ? "&category=" + category : "");
+            Json.writeString(json, next);
+        } else {
+            json.append("null");
+        }
+
+        return ok(json.append('}').toString());
+    }
+
+    private Response get(int id) {
+        Note note = notes.getNoteById(id);
+        return note != null ? ok(noteJson(note)) : error(404, "No existe la nota " + id);
+    }
+
+    private CompletableFuture<Response> create(Map<String, Object> body) {
+        requireBody(body);
+        Note note = new Note(requiredString(body, "title"), optionalString(body, "content", ""),
+                category(requiredInt(body, "categoryId")));
+
+        return notes.submitCreate(note).thenApply(saved ->
+                new Response(201, noteJson(saved), "/api/notes/" + saved.getId()));
+    }
+
+    /**
+     * Modifica solo los campos presentes en el cuerpo; gracias al
+     * seguimiento de cambios de {@link Note}, solo se escriben los que
+     * cambian de valor.
+     */
+    private CompletableFuture<Response> update(int id, Map<String, Object> body, String ifMatch) {
+        requireBody(body);
+        Note note = notes.getNoteById(id);
+        if (note == null) {
+            return done(error(404, "No existe la nota " + id));
+        }
+        if (ifMatch != null && !matches(ifMatch, etag(noteJson(note)))) {
+            return done(error(412, "La nota " + id + " ha cambiado"));
+        }
+
+        if (body.containsKey("title")) {
+            note.setTitle(requiredString(body, "title"));
+        }
+        if (body.containsKey("content")) {
+            note.setContent(requiredString(body, "content"));
+        }
+        if (body.containsKey("categoryId")) {
+            note.setCategory(category(requiredInt(body, "categoryId")));
+        }
+
+        return notes.submitUpdate(note, precondition(ifMatch)).thenApply(saved -> ok(noteJson(saved)));
+    }
+
+    private CompletableFuture<Response> delete(int id, String ifMatch) {
+        if (ifMatch != null) {
+            Note note = notes.getNoteById(id);
+            if (note == null) {
+                return done(error(404, "No existe la nota " + id));
+            }
+            if (!matches(ifMatch, etag(noteJson(note)))) {
+                return done(error(412, "La nota " + id + " ha cambiado"));
+            }
+        }
+
+        return notes.submitDelete(id, precondition(ifMatch)).thenApply(ignored -> new Response(204, null, null));
+    }
+
+    /**
+     * Convierte una cabecera {@code If-Match} en la condición que el hilo
+     * escritor comprueba sobre la nota guardada.
+     */
+    private static Predicate<Note> precondition(String ifMatch) {
+        return ifMatch == null ? null : stored -> matches(ifMatch, etag(noteJson(stored)));
+    }
+
+    private Response search(Map<String, String> query) {
+        String text = query.get("q");
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Falta el parámetro q");
+        }
+        int limit = intParam(query, "limit", DEFAULT_LIMIT);
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit debe estar entre 1 y " + MAX_LIMIT);
+        }
+
+        List<SearchResult> results = notes.search(text, intParam(query, "category", 0), limit);
+
+        StringBuilder json = new StringBuilder("{\"results\":[");
+        for (int i = 0; i < results.size(); i++) {
+            SearchResult result = results.get(i);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append('{');
+            appendNoteFields(json, result.getNote());
+            json.append(",\"snippet\":");
+            Json.writeString(json, result.getSnippet());
+            json.append(",\"rank\":").append(String.format(Locale.ROOT, "%.4f", result.getRank())).append('}');
+        }
+
+        return ok(json.append("]}").toString());
+    }
+
+    private Response categories() {
+        StringBuilder json = new StringBuilder("{\"categories\":[");
+        List<Category> all = categories.getAllCategories();
+
+        for (int i = 0; i < all.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(all.get(i).getId()).append(",\"name\":");
+            Json.writeString(json, all.get(i).getName());
+            json.append('}');
+        }
+
+        return ok(json.append("]}").toString());
+    }
+
+    /**
+     * Atiende un lote de peticiones. Cada una se envía sin esperar a las
+     * escrituras anteriores, salvo que necesite ver su resultado.
+     */
+    private CompletableFuture<Response> batch(Map<String, Object> body) {
+        requireBody(body);
+        if (!(body.get("requests") instanceof List<?> items)) {
+            throw new IllegalArgumentException("El lote debe tener un campo requests con una lista");
+        }
+        if (items.size() > MAX_BATCH) {
+            throw new IllegalArgumentException("Un lote admite como máximo " + MAX_BATCH + " peticiones");
+        }
+
+        List<Request> requests = new ArrayList<>(items.size());
+        for (Object item : items) {
+            requests.add(subRequest(item));
+        }
+
+        List<CompletableFuture<Response>> responses = new ArrayList<>(requests.size());
+        List<CompletableFuture<Response>> pending = new ArrayList<>();
+        Set<String> written = new HashSet<>();
+
+        for (Request request : requests) {
+            boolean read = request.method().equals("GET");
+            if (!pending.isEmpty() && (read || written.contains(request.path()))) {
+                CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+                pending.clear();
+                written.clear();
+            }
+
+            CompletableFuture<Response> response = handle(request);
+            responses.add(response);
+            if (!read) {
+                pending.add(response);
+                written.add(request.path());
+            }
+        }
+
+        return CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).thenApply(ignored -> {
+            StringBuilder json = new StringBuilder("{\"responses\":[");
+            for (int i = 0; i < responses.size(); i++) {
+                Response response = responses.get(i).join();
+                if (i > 0) {
+                    json.append(',');
+                }
+                json.append("{\"status\":").append(response.status());
+                String etag = response.etag(requests.get(i).method());
+                if (etag != null) {
+                    json.append(",\"etag\":");
+                    Json.writeString(json, etag);
+                }
+                if (response.location() != null) {
+                    json.append(",\"location\":");
+                    Json.writeString(json, response.location());
+                }
+                json.append(",\"body\":").append(response.body() != null ? response.body() : "null").append('}');
+            }
+            return ok(json.append("]}").toString());
+        });
+    }
+
+    private static Request subRequest(Object item) {
+        if (!(item instanceof Map<?, ?> fields)) {
+            throw new IllegalArgumentException("Cada petición del lote debe ser un objeto");
+        }
+        if (!(fields.get("method") instanceof String method) || !(fields.get("path") instanceof String target)) {
+            throw new IllegalArgumentException("Cada petición del lote necesita method y path");
+        }
+
+        Object body = fields.get("body");
+        if (body != null && !(body instanceof Map)) {
+            throw new IllegalArgumentException("El cuerpo de una petición del lote debe ser un objeto");
+        }
+        Object ifMatch = fields.get("ifMatch");
+
+        int question = target.indexOf('?');
+        String path = question < 0 ? target : target.substring(0, question);
+        if (path.replaceAll("/+$", "").equals("/api/batch")) {
+            throw new IllegalArgumentException("Un lote no puede contener otro lote");
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> bodyFields = (Map<String, Object>) body;
+        return new Request(method.toUpperCase(Locale.ROOT), path,
+                question < 0 ? Map.of() : parseQuery(target.substring(question + 1)),
+                bodyFields, ifMatch instanceof String value ? value : null);
+    }
+
+    /**
+     * Analiza la parte de consulta de una ruta, ya sin el signo {@code ?}.
+     *
+     * @param query Texto de la consulta, o {@code null}.
+     * @return Los parámetros; si uno se repite, vale el último.
+     */
+    static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new LinkedHashMap<>();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            params.put(decode(name), decode(value));
+        }
+        return params;
+    }
+
+    private static String decode(String text) {
+        return URLDecoder.decode(text, StandardCharsets.UTF_8);
+    }
+
+    private Category category(int id) {
+        for (Category category : categories.getAllCategories()) {
+            if (category.getId() == id) {
+                return category;
+            }
+        }
+        throw new IllegalArgumentException("No existe la categoría " + id);
+    }
+
+    private static String noteJson(Note note) {
+        StringBuilder json = new StringBuilder();
+        appendNote(json, note);
+        return json.toString();
+    }
+
+    /**
+     * Escribe una nota como objeto JSON; el contenido solo aparece si está
+     * cargado.
+     */
+    private static void appendNote(StringBuilder json, Note note) {
+        json.append('{');
+        appendNoteFields(json, note);
+        json.append('}');
+    }
+
+    private static void appendNoteFields(StringBuilder json, Note note) {
+        json.append("\"id\":").append(note.getId()).append(",\"title\":");
+        Json.writeString(json, note.getTitle());
+
+        Category category = note.getCategory();
+        json.append(",\"categoryId\":").append(category != null ? category.getId() : 0).append(",\"category\":");
+        Json.writeString(json, category != null ? category.getName() : null);
+
+        if (note.isContentLoaded()) {
+            json.append(",\"content\":");
+            Json.writeString(json, note.getContent());
+        }
+    }
+
+    /**
+     * Comprueba una cabecera {@code If-Match}, que puede llevar varias
+     * etiquetas separadas por comas o {@code *}.
+     */
+    static boolean matches(String header, String etag) {
+        for (String candidate : header.split(",")) {
+            String value = candidate.strip();
+            if (value.equals("*") || value.equals(etag) || value.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int parseId(String segment) {
+        try {
+            return Integer.parseInt(segment);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Identificador no válido: " + segment);
+        }
+    }
+
+    private static int intParam(Map<String, String> query, String name, int defaultValue) {
+        String value = query.get(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El parámetro " + name + " debe ser un número entero");
+        }
+    }
+
+    private static void requireBody(Map<String, Object> body) {
+        if (body == null) {
+            throw new IllegalArgumentException("La petición necesita un cuerpo JSON");
+        }
+    }
+
+    private static String requiredString(Map<String, Object> body, String field) {
+        if (!(body.get(field) instanceof String value)) {
+            throw new IllegalArgumentException("El campo " + field + " debe ser texto");
+        }
+        return value;
+    }
+
+    private static String optionalString(Map<String, Object> body, String field, String defaultValue) {
+        return body.get(field) == null ? defaultValue : requiredString(body, field);
+    }
+
+    private static int requiredInt(Map<String, Object> body, String field) {
+        if (!(body.get(field) instanceof Double value) || value != Math.rint(value)) {
+            throw new IllegalArgumentException("El campo " + field + " debe ser un número entero");
+        }
+        return value.intValue();
+    }
+
+    private static Response ok(String body) {
+        return new Response(200, body, null);
+    }
+
+    private static Response notAllowed(String method) {
+        return error(405, "Método no permitido: " + method);
+    }
+
+    static Response error(int status, String message) {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        Json.writeString(json, message);
+        return new Response(status, json.append('}').toString(), null);
+    }
+
+    /**
+     * Traduce un error a su respuesta: los de validación, los de una nota
+     * eliminada mientras se escribía y los de una condición incumplida son
+     * errores del cliente; el resto, del servidor.
+     */
+    private static Response failure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+
+        if (cause instanceof IllegalArgumentException) {
+            return error(400, cause.getMessage());
+        }
+        if (cause instanceof NoSuchElementException) {
+            return error(404, cause.getMessage());
+        }
+        if (cause instanceof ConcurrentModificationException) {
+            return error(412, cause.getMessage());
+        }
+        cause.printStackTrace();
+        return error(500, cause.getMessage() != null ? cause.getMessage() : cause.toString());
+    }
+
+    private static CompletableFuture<Response> done(Response response) {
+        return CompletableFuture.completedFuture(response);
+    }
+}
@@ -0,0 +1,208 @@
+package com.litenotes.server;
+
+import com.litenotes.metrics.Metrics;
+import com.litenotes.metrics.OperationMetrics;
+import com.litenotes.service.CategoryService;
+import com.litenotes.service.Json;
+import com.litenotes.service.NoteService;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor HTTP que publica la {@link NoteApi} para que otras herramientas
+ * lean y escriban las mismas notas sin la interfaz gráfica. Usa el servidor
+ * HTTP incluido en el JDK, sin dependencias externas.
+ *
+ * <p>Cada petición se atiende en un hilo virtual si la JVM los ofrece (Java
+ * 21 o posterior) y, si no, en un conjunto fijo de hilos (propiedad
+ * {@value #THREADS_PROPERTY}). Las conexiones se mantienen abiertas
+ * entre peticiones sin ocupar un hilo mientras esperan.</p>
+ *
+ * <p>Las lecturas correctas llevan una cabecera {@code ETag}; si la petición
+ * trae en {@code If-None-Match} la misma etiqueta, se responde {@code 304}
+ * sin cuerpo.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public final class NoteServer {
+
+    /**
+     * Propiedad de sistema con el número de hilos que atienden peticiones
+     * cuando no hay hilos virtuales.
+     */
+    public static final String THREADS_PROPERTY = "litenotes.server.threads";
+
+    private static final OperationMetrics REQUEST = Metrics.operation("NoteServer.request");
+
+    private static final String JSON_TYPE = "application/json; charset=utf-8";
+
+    private final NoteApi api;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Crea un servidor sobre los servicios compartidos, sin arrancarlo.
+     *
+     * @param address Dirección y puerto en los que escucha; el puerto
+     *                {@code 0} elige uno libre.
+     * @throws IOException Si no se puede abrir el puerto.
+     */
+    public NoteServer(InetSocketAddress address) throws IOException {
+        this(new NoteApi(new NoteService(), new CategoryService()), address);
+    }
+
+    /**
+     * Crea un servidor para la API indicada, sin arrancarlo.
+     *
+     * @param api API que se publica.
+     * @param address Dirección y puerto en los que escucha.
+     * @throws IOException Si no se puede abrir el puerto.
+     */
+    public NoteServer(NoteApi api, InetSocketAddress address) throws IOException {
+        this.api = api;
+        this.server = HttpServer.create(address, 0);
+        this.executor = newExecutor();
+
+        server.createContext("/api/", this::handle);
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Empieza a aceptar peticiones.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Deja de aceptar peticiones, espera un momento a que terminen las que
+     * están en curso y libera el puerto.
+     */
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Devuelve la dirección en la que escucha el servidor.
+     *
+     * @return La dirección, con el puerto real si se pidió el {@code 0}.
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = REQUEST.start();
+
+        try {
+            String method = exchange.getRequestMethod().toUpperCase(Locale.ROOT);
+            Headers headers = exchange.getRequestHeaders();
+
+            NoteApi.Response response;
+            try {
+                NoteApi.Request request = new NoteApi.Request(method,
+                        exchange.getRequestURI().getPath(),
+                        NoteApi.parseQuery(exchange.getRequestURI().getRawQuery()),
+                        readBody(exchange),
+                        headers.getFirst("If-Match"));
+                response = api.handle(request).join();
+            } catch (IllegalArgumentException e) {
+                response = NoteApi.error(400, e.getMessage());
+            }
+
+            String etag = response.etag(method);
+            Headers responseHeaders = exchange.getResponseHeaders();
+            if (etag != null) {
+                responseHeaders.set("ETag", etag);
+                responseHeaders.set("Cache-Control", "no-cache");
+
+                String ifNoneMatch = headers.getFirst("If-None-Match");
+                if (ifNoneMatch != null && NoteApi.matches(ifNoneMatch, etag)) {
+                    exchange.sendResponseHeaders(304, -1);
+                    REQUEST.succeeded(start, 0);
+                    return;
+                }
+            }
+            if (response.location() != null) {
+                responseHeaders.set("Location", response.location());
+            }
+
+            send(exchange, response.status(), response.body());
+            if (response.status() >= 500) {
+                REQUEST.failed();
+            } else {
+                REQUEST.succeeded(start, 1);
+            }
+        } catch (IOException | RuntimeException e) {
+            REQUEST.failed();
+            throw e;
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Lee y analiza el cuerpo de la petición.
+     *
+     * @return Los campos del objeto JSON, o {@code null} si no hay cuerpo.
+     * @throws IllegalArgumentException Si el cuerpo no es un objeto JSON.
+     */
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        byte[] bytes = exchange.getRequestBody().readAllBytes();
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        return text.isBlank() ? null : Json.parseObject(text);
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON_TYPE);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Crea el ejecutor de las peticiones: un hilo virtual por petición si la
+     * JVM los ofrece, o un conjunto fijo de hilos en Java 17.
+     */
+    private static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            int threads = Integer.getInteger(THREADS_PROPERTY, 4 * Runtime.getRuntime().availableProcessors());
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newFixedThreadPool(threads, task -> {
+                Thread thread = new Thread(task, "litenotes-http-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
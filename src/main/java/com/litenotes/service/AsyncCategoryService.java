@@ -0,0 +1,58 @@
+package com.litenotes.service;
+
+import com.litenotes.model.Category;
+import com.litenotes.repository.CategoryRegistry;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Versión asíncrona de {@link CategoryService}. Cada operación se ejecuta en
+ * el {@link ServiceExecutor} y devuelve un {@link CompletableFuture} que se
+ * completa en un hilo de fondo; los controladores deben volver al hilo de
+ * JavaFX antes de tocar la interfaz. Si las categorías ya están en el
+ * {@link CategoryRegistry}, el futuro se devuelve completado sin pasar por el
+ * ejecutor.
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public class AsyncCategoryService {
+
+    private final CategoryService service;
+    private final Executor executor;
+
+    /**
+     * Crea el servicio sobre un {@link CategoryService} nuevo y el ejecutor
+     * compartido.
+     */
+    public AsyncCategoryService() {
+        this(new CategoryService(), ServiceExecutor.get());
+    }
+
+    /**
+     * Crea el servicio sobre el servicio síncrono y el ejecutor indicados.
+     *
+     * @param service Servicio al que se delegan las operaciones.
+     * @param executor Ejecutor en el que se realizan.
+     */
+    public AsyncCategoryService(CategoryService service, Executor executor) {
+        this.service = service;
+        this.executor = executor;
+    }
+
+    /**
+     * Obtiene todas las categorías disponibles.
+     *
+     * @return Un futuro con la lista de categorías.
+     * @see CategoryService#getAllCategories()
+     */
+    public CompletableFuture<List<Category>> getAllCategories() {
+        if (CategoryRegistry.isLoaded()) {
+            return CompletableFuture.completedFuture(service.getAllCategories());
+        }
+        return CompletableFuture.supplyAsync(service::getAllCategories, executor);
+    }
+}
@@ -0,0 +1,253 @@
+package com.litenotes.service;
+
+import com.litenotes.model.Note;
+import com.litenotes.model.NoteChunk;
+import com.litenotes.model.NoteEvent;
+import com.litenotes.model.SearchResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Versión asíncrona de {@link NoteService}. Cada operación se ejecuta en el
+ * {@link ServiceExecutor} y devuelve un {@link CompletableFuture}, de modo que
+ * una consulta lenta o una base de datos bloqueada no congelan la ventana.
+ *
+ * <p>Los futuros se completan en un hilo de fondo; los controladores deben
+ * volver al hilo de JavaFX (por ejemplo con {@code Platform::runLater}) antes
+ * de modificar la interfaz. Los errores de validación de {@link NoteService}
+ * se propagan como fallo del futuro. Las escrituras no ocupan el ejecutor: se
+ * entregan directamente a la {@link NoteWriteQueue}.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public class AsyncNoteService {
+
+    private final NoteService service;
+    private final Executor executor;
+
+    /**
+     * Crea el servicio sobre un {@link NoteService} nuevo y el ejecutor
+     * compartido.
+     */
+    public AsyncNoteService() {
+        this(new NoteService(), ServiceExecutor.get());
+    }
+
+    /**
+     * Crea el servicio sobre el servicio síncrono y el ejecutor indicados.
+     *
+     * @param service Servicio al que se delegan las operaciones.
+     * @param executor Ejecutor en el que se realizan.
+     */
+    public AsyncNoteService(NoteService service, Executor executor) {
+        this.service = service;
+        this.executor = executor;
+    }
+
+    /**
+     * Registra un receptor de los cambios confirmados sobre las notas.
+     *
+     * @param listener Receptor que se desea añadir; se invoca en un hilo de
+     *                 fondo.
+     * @return Una acción que da de baja el receptor.
+     * @see NoteService#addChangeListener(Consumer)
+     */
+    public Runnable addChangeListener(Consumer<NoteEvent> listener) {
+        return service.addChangeListener(listener);
+    }
+
+    /**
+     * Obtiene una página de notas.
+     *
+     * @param afterId Identificador de la última nota de la página anterior, o
+     *                {@code 0} para la primera página.
+     * @param limit Número máximo de notas de la página.
+     * @param categoryId Categoría por la que filtrar, o {@code 0} para todas.
+     * @return Un futuro con las notas de la página.
+     * @see NoteService#getNotesPage(int, int, int)
+     */
+    public CompletableFuture<List<Note>> getNotesPage(int afterId, int limit, int categoryId) {
+        return CompletableFuture.supplyAsync(
+                () -> service.getNotesPage(afterId, limit, categoryId), executor);
+    }
+
+    /**
+     * Obtiene una nota completa, con su contenido.
+     *
+     * @param id Identificador de la nota.
+     * @return Un futuro con la nota, o con {@code null} si ya no existe.
+     * @see NoteService#getNoteById(int)
+     */
+    public CompletableFuture<Note> getNoteById(int id) {
+        return CompletableFuture.supplyAsync(() -> service.getNoteById(id), executor);
+    }
+
+    /**
+     * Obtiene la lista de fragmentos de una nota, sin su texto.
+     *
+     * @param noteId Identificador de la nota.
+     * @return Un futuro con los fragmentos, vacío si la nota no está
+     *         fragmentada.
+     * @see NoteService#getChunks(int)
+     */
+    public CompletableFuture<List<NoteChunk>> getChunks(int noteId) {
+        return CompletableFuture.supplyAsync(() -> service.getChunks(noteId), executor);
+    }
+
+    /**
+     * Obtiene el texto de un fragmento.
+     *
+     * @param chunkId Identificador del fragmento.
+     * @return Un futuro con el texto, o con {@code null} si ya no existe.
+     * @see NoteService#getChunkContent(int)
+     */
+    public CompletableFuture<String> getChunkContent(int chunkId) {
+        return CompletableFuture.supplyAsync(() -> service.getChunkContent(chunkId), executor);
+    }
+
+    /**
+     * Busca notas por texto completo.
+     *
+     * @param query Texto introducido por el usuario.
+     * @param categoryId Categoría por la que filtrar, o {@code 0} para todas.
+     * @param limit Número máximo de resultados.
+     * @return Un futuro con los resultados ordenados por relevancia.
+     * @see NoteService#search(String, int, int)
+     */
+    public CompletableFuture<List<SearchResult>> search(String query, int categoryId, int limit) {
+        return CompletableFuture.supplyAsync(
+                () -> service.search(query, categoryId, limit), executor);
+    }
+
+    /**
+     * Busca notas por fragmentos de texto o por palabras parecidas.
+     *
+     * @param query Texto introducido por el usuario.
+     * @param categoryId Categoría por la que filtrar, o {@code 0} para todas.
+     * @param limit Número máximo de resultados.
+     * @return Un futuro con los resultados.
+     * @see NoteService#searchApproximate(String, int, int)
+     */
+    public CompletableFuture<List<SearchResult>> searchApproximate(String query, int categoryId, int limit) {
+        return CompletableFuture.supplyAsync(
+                () -> service.searchApproximate(query, categoryId, limit), executor);
+    }
+
+    /**
+     * Crea una búsqueda por prefijos sobre los títulos. A diferencia del
+     * resto de operaciones, sus consultas se resuelven en memoria en unos
+     * microsegundos y se hacen en el hilo que las pide.
+     *
+     * @return Una búsqueda nueva.
+     * @see NoteService#newTitleSearch()
+     */
+    public TitleIndex.Search newTitleSearch() {
+        return service.newTitleSearch();
+    }
+
+    /**
+     * Crea una nueva nota.
+     *
+     * @param note La nota que se desea crear.
+     * @return Un futuro que se completa cuando la nota se ha guardado.
+     * @see NoteService#createNote(Note)
+     */
+    public CompletableFuture<Void> createNote(Note note) {
+        return submit(() -> service.submitCreate(note).thenAccept(ignored -> {}));
+    }
+
+    /**
+     * Actualiza una nota existente.
+     *
+     * @param note La nota con los nuevos valores.
+     * @return Un futuro que se completa cuando la nota se ha guardado.
+     * @see NoteService#updateNote(Note)
+     */
+    public CompletableFuture<Void> updateNote(Note note) {
+        return submit(() -> service.submitUpdate(note).thenAccept(ignored -> {}));
+    }
+
+    /**
+     * Actualiza una nota fragmentada escribiendo solo los fragmentos
+     * modificados.
+     *
+     * @param note Nota con el título y la categoría nuevos.
+     * @param chunks Fragmentos que forman el contenido completo, en orden.
+     * @return Un futuro que se completa cuando la nota se ha guardado.
+     * @see NoteService#updateChunks(Note, List)
+     */
+    public CompletableFuture<Void> updateChunks(Note note, List<NoteChunk> chunks) {
+        return submit(() -> service.submitUpdateChunks(note, chunks).thenAccept(ignored -> {}));
+    }
+
+    /**
+     * Elimina una nota.
+     *
+     * @param id Identificador de la nota que se desea eliminar.
+     * @return Un futuro que se completa cuando la nota se ha eliminado.
+     * @see NoteService#deleteNote(int)
+     */
+    public CompletableFuture<Void> deleteNote(int id) {
+        return submit(() -> service.submitDelete(id));
+    }
+
+    /**
+     * Importa de forma masiva las notas de una carpeta, un ZIP o un JSONL.
+     *
+     * @param source Origen de la importación.
+     * @param listener Receptor del avance; se invoca en un hilo de fondo.
+     * @return Un futuro con el resultado de la importación.
+     * @see NoteImporter#importFrom(Path, NoteImporter.ProgressListener)
+     */
+    public CompletableFuture<NoteImporter.Result> importNotes(
+            Path source, NoteImporter.ProgressListener listener) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return new NoteImporter().importFrom(source, listener);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Exporta todas las notas al destino indicado.
+     *
+     * @param target Archivo o carpeta de destino.
+     * @param format Formato de la exportación.
+     * @param gzip Indica si el archivo se comprime con gzip.
+     * @return Un futuro con el número de notas exportadas.
+     * @see NoteExporter#export(Path, NoteExporter.Format, boolean)
+     */
+    public CompletableFuture<Long> exportNotes(Path target, NoteExporter.Format format, boolean gzip) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return new NoteExporter().export(target, format, gzip);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Encola una escritura en la {@link NoteWriteQueue} sin ocupar un hilo del
+     * ejecutor mientras se confirma. Los errores de validación se devuelven
+     * como fallo del futuro, igual que los de la base de datos.
+     */
+    private static CompletableFuture<Void> submit(Supplier<CompletableFuture<Void>> write) {
+        try {
+            return write.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
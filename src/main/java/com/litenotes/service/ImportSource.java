@@ -0,0 +1,368 @@
+package com.litenotes.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Origen de una importación masiva de notas. Recorre sus entradas siempre en
+ * el mismo orden, de modo que una posición guardada en un punto de control
+ * identifica las mismas entradas al reanudar.
+ *
+ * <p>La lectura de entradas es secuencial y barata: solo obtiene nombres o
+ * líneas. El trabajo costoso (leer el archivo, decodificarlo y extraer título
+ * y categoría) se hace en {@link Entry#parse()}, que {@link NoteImporter}
+ * ejecuta en paralelo.</p>
+ *
+ * <p>Se admiten tres formatos:</p>
+ * <ul>
+ *     <li>Una carpeta con archivos {@code .md}, {@code .markdown} o
+ *     {@code .txt}. La subcarpeta de primer nivel se usa como categoría.</li>
+ *     <li>Un archivo ZIP con la misma estructura.</li>
+ *     <li>Un archivo JSONL con un objeto por línea y los campos
+ *     {@code title}, {@code content} y {@code category}.</li>
+ * </ul>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+abstract class ImportSource implements Closeable {
+
+    /**
+     * Nota obtenida de una entrada del origen.
+     *
+     * @param title Título de la nota.
+     * @param content Contenido de la nota.
+     * @param category Nombre de la categoría, o {@code null} si la entrada no
+     *                 indica ninguna.
+     */
+    record ParsedNote(String title, String content, String category) {}
+
+    /**
+     * Entrada del origen pendiente de analizar.
+     *
+     * @param name Nombre de la entrada, usado en los mensajes de error.
+     * @param parser Función que lee y analiza la entrada.
+     */
+    record Entry(String name, Parser parser) {
+
+        /**
+         * Lee y analiza la entrada.
+         *
+         * @return La nota, o {@code null} si la entrada no contiene ninguna.
+         * @throws IOException Si no se puede leer.
+         */
+        ParsedNote parse() throws IOException {
+            return parser.parse();
+        }
+    }
+
+    /**
+     * Lectura y análisis diferidos de una entrada.
+     */
+    @FunctionalInterface
+    interface Parser {
+        ParsedNote parse() throws IOException;
+    }
+
+    /**
+     * Abre el origen indicado, eligiendo el formato por su tipo y extensión.
+     *
+     * @param path Carpeta, archivo ZIP o archivo JSONL.
+     * @return El origen abierto; debe cerrarse al terminar.
+     * @throws IOException Si no se puede leer.
+     * @throws IllegalArgumentException Si el formato no está admitido.
+     */
+    static ImportSource open(Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            return new DirectorySource(path);
+        }
+
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".zip")) {
+            return new ZipSource(path);
+        }
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+            return new JsonLinesSource(path);
+        }
+
+        throw new IllegalArgumentException(
+                "Formato de importación no admitido: se esperaba una carpeta, un ZIP o un JSONL");
+    }
+
+    /**
+     * Devuelve una huella del origen que cambia si se modifica su contenido.
+     * Permite detectar que un punto de control ya no corresponde al origen.
+     *
+     * @return La huella del origen.
+     */
+    abstract String fingerprint();
+
+    /**
+     * Devuelve el número total de entradas del origen.
+     *
+     * @return El número de entradas.
+     */
+    abstract int size();
+
+    /**
+     * Lee las siguientes entradas del origen.
+     *
+     * @param max Número máximo de entradas.
+     * @return Las entradas leídas; una lista vacía indica que no quedan más.
+     * @throws IOException Si no se puede leer.
+     */
+    abstract List<Entry> read(int max) throws IOException;
+
+    /**
+     * Descarta las siguientes entradas sin analizarlas.
+     *
+     * @param count Número de entradas que se descartan.
+     * @throws IOException Si no se puede leer.
+     */
+    abstract void skip(int count) throws IOException;
+
+    /**
+     * Analiza un archivo de texto o Markdown. En Markdown, si la primera línea
+     * con texto es un encabezado {@code # }, se usa como título; en otro caso
+     * el título es el nombre del archivo sin extensión.
+     *
+     * @param relativePath Ruta del archivo dentro del origen, separada por
+     *                     {@code /}.
+     * @param bytes Contenido del archivo en UTF-8.
+     */
+    static ParsedNote parseTextFile(String relativePath, byte[] bytes) {
+        String[] segments = relativePath.split("/");
+        String fileName = segments[segments.length - 1];
+        String baseName = fileName.substring(0, fileName.lastIndexOf('.'));
+        String category = segments.length > 1 ? segments[0] : null;
+
+        String text = new String(bytes, StandardCharsets.UTF_8).replace("\r\n", "\n");
+        if (!text.isEmpty() && text.charAt(0) == '\uFEFF') {
+            text = text.substring(1);
+        }
+
+        String title = baseName;
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".md") || lower.endsWith(".markdown")) {
+            String body = text.stripLeading();
+            if (body.startsWith("# ")) {
+                int end = body.indexOf('\n');
+                String heading = (end < 0 ? body : body.substring(0, end)).substring(2).strip();
+                if (!heading.isEmpty()) {
+                    title = heading;
+                    text = end < 0 ? "" : body.substring(end + 1).stripLeading();
+                }
+            }
+        }
+
+        return new ParsedNote(title, text, category);
+    }
+
+    /**
+     * Indica si una ruta relativa corresponde a una nota importable: un
+     * archivo de texto o Markdown que no esté oculto.
+     */
+    static boolean isImportable(String relativePath) {
+        for (String segment : relativePath.split("/")) {
+            if (segment.startsWith(".") || segment.equals("__MACOSX")) {
+                return false;
+            }
+        }
+
+        String lower = relativePath.toLowerCase(Locale.ROOT);
+        return lower.endsWith(".md") || lower.endsWith(".markdown") || lower.endsWith(".txt");
+    }
+
+    /**
+     * Origen formado por una lista fija de entradas, conocida al abrirlo.
+     */
+    private abstract static class ListedSource extends ImportSource {
+
+        private final List<String> names;
+        private int next;
+
+        ListedSource(List<String> names) {
+            this.names = names;
+        }
+
+        @Override
+        int size() {
+            return names.size();
+        }
+
+        @Override
+        List<Entry> read(int max) {
+            List<Entry> entries = new ArrayList<>();
+            while (entries.size() < max && next < names.size()) {
+                String name = names.get(next++);
+                entries.add(new Entry(name, () -> parseTextFile(name, readBytes(name))));
+            }
+            return entries;
+        }
+
+        @Override
+        void skip(int count) {
+            next = Math.min(names.size(), next + count);
+        }
+
+        List<String> names() {
+            return names;
+        }
+
+        abstract byte[] readBytes(String name) throws IOException;
+    }
+
+    private static final class DirectorySource extends ListedSource {
+
+        private final Path root;
+
+        DirectorySource(Path root) throws IOException {
+            super(list(root));
+            this.root = root;
+        }
+
+        private static List<String> list(Path root) throws IOException {
+            try (Stream<Path> files = Files.walk(root)) {
+                return files
+                        .filter(Files::isRegularFile)
+                        .map(file -> root.relativize(file).toString().replace('\\', '/'))
+                        .filter(ImportSource::isImportable)
+                        .sorted()
+                        .toList();
+            }
+        }
+
+        @Override
+        String fingerprint() {
+            return "dir:" + names().size() + ":" + Integer.toHexString(names().hashCode());
+        }
+
+        @Override
+        byte[] readBytes(String name) throws IOException {
+            return Files.readAllBytes(root.resolve(name));
+        }
+
+        @Override
+        public void close() {}
+    }
+
+    private static final class ZipSource extends ListedSource {
+
+        private final ZipFile zip;
+        private final String fingerprint;
+
+        ZipSource(Path path) throws IOException {
+            this(new ZipFile(path.toFile(), StandardCharsets.UTF_8), path);
+        }
+
+        private ZipSource(ZipFile zip, Path path) throws IOException {
+            super(list(zip));
+            this.zip = zip;
+            this.fingerprint = "zip:" + Files.size(path) + ":" + Files.getLastModifiedTime(path).toMillis();
+        }
+
+        private static List<String> list(ZipFile zip) {
+            return Collections.list(zip.entries()).stream()
+                    .filter(entry -> !entry.isDirectory())
+                    .map(ZipEntry::getName)
+                    .filter(ImportSource::isImportable)
+                    .sorted()
+                    .toList();
+        }
+
+        @Override
+        String fingerprint() {
+            return fingerprint;
+        }
+
+        @Override
+        byte[] readBytes(String name) throws IOException {
+            try (InputStream in = zip.getInputStream(zip.getEntry(name))) {
+                return in.readAllBytes();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            zip.close();
+        }
+    }
+
+    private static final class JsonLinesSource extends ImportSource {
+
+        private final BufferedReader reader;
+        private final int lines;
+        private final String fingerprint;
+        private int lineNumber;
+
+        JsonLinesSource(Path path) throws IOException {
+            try (Stream<String> all = Files.lines(path, StandardCharsets.UTF_8)) {
+                this.lines = (int) all.count();
+            }
+            this.fingerprint = "jsonl:" + Files.size(path) + ":" + Files.getLastModifiedTime(path).toMillis();
+            this.reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        String fingerprint() {
+            return fingerprint;
+        }
+
+        @Override
+        int size() {
+            return lines;
+        }
+
+        @Override
+        List<Entry> read(int max) throws IOException {
+            List<Entry> entries = new ArrayList<>();
+            String line;
+            while (entries.size() < max && (line = reader.readLine()) != null) {
+                String text = line;
+                entries.add(new Entry("línea " + ++lineNumber, () -> parseLine(text)));
+            }
+            return entries;
+        }
+
+        @Override
+        void skip(int count) throws IOException {
+            for (int i = 0; i < count && reader.readLine() != null; i++) {
+                lineNumber++;
+            }
+        }
+
+        private static ParsedNote parseLine(String line) {
+            if (line.isBlank()) {
+                return null;
+            }
+
+            Map<String, Object> object = Json.parseObject(line);
+            if (!(object.get("title") instanceof String title) || title.isBlank()) {
+                throw new IllegalArgumentException("falta el título");
+            }
+
+            String content = object.get("content") instanceof String text ? text : "";
+            String category = object.get("category") instanceof String name ? name : null;
+            return new ParsedNote(title.strip(), content, category);
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
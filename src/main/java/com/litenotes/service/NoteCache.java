@@ -0,0 +1,488 @@
+package com.litenotes.service;
+
+import com.litenotes.metrics.Metrics;
+import com.litenotes.model.Note;
+import com.litenotes.repository.NoteRepository;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché en memoria de las notas, compartida por todos los {@link NoteService}.
+ * Permite servir los listados y los cambios de filtro sin consultar SQLite,
+ * ya que todas las modificaciones pasan por el servicio y se reflejan aquí.
+ *
+ * <p>Guarda dos estructuras independientes:</p>
+ * <ul>
+ *     <li>El índice de resúmenes (identificador, título y categoría) de todas
+ *     las notas, ordenado por identificador, con un índice secundario por
+ *     categoría. Se carga completo en segundo plano la primera vez que se pide
+ *     un listado, y solo si la tabla no supera {@value #MAX_NOTES_PROPERTY}
+ *     notas; mientras tanto, los listados se consultan en la base de datos.
+ *     Es un {@link NoteSnapshot} inmutable publicado en una referencia
+ *     atómica: los listados no toman ningún bloqueo, y cada escritura
+ *     confirmada publica una versión nueva construida a partir de la
+ *     anterior.</li>
+ *     <li>Las notas completas abiertas recientemente, con su contenido, hasta
+ *     un máximo de memoria ({@value #MAX_BODY_BYTES_PROPERTY}). Al superarlo se
+ *     descartan las menos usadas. Como cada lectura cambia el orden de uso,
+ *     esta parte sí se protege con un bloqueo.</li>
+ * </ul>
+ *
+ * <p>Las notas leídas de la base de datos se guardan con
+ * {@link #put(Note, long)}, indicando la marca que devolvió
+ * {@link #version(int)} antes de la lectura. Si entre tanto se confirmó una
+ * escritura de esa nota, la lectura puede ser anterior a ella y se descarta,
+ * para no sustituir la versión más reciente.</p>
+ *
+ * <p>Las notas se guardan como copias y se devuelven como copias, por lo que
+ * quien las reciba puede modificarlas sin alterar la caché. Los aciertos y
+ * fallos se cuentan en {@link #stats()}. La caché se desactiva con la
+ * propiedad de sistema {@value #ENABLED_PROPERTY}{@code =false}; en ese caso
+ * todas las consultas son fallos.</p>
+ *
+ * <p>Los contadores de la caché compartida se publican por JMX como
+ * {@link NoteCacheMXBean} y se añaden al informe de {@link Metrics}.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public final class NoteCache {
+
+    /** Propiedad de sistema que activa o desactiva la caché. */
+    public static final String ENABLED_PROPERTY = "litenotes.cache.enabled";
+
+    /** Propiedad de sistema con el número máximo de notas del índice. */
+    public static final String MAX_NOTES_PROPERTY = "litenotes.cache.maxNotes";
+
+    /** Propiedad de sistema con la memoria máxima de los contenidos, en bytes. */
+    public static final String MAX_BODY_BYTES_PROPERTY = "litenotes.cache.maxBodyBytes";
+
+    private static final int DEFAULT_MAX_NOTES = 200_000;
+    private static final long DEFAULT_MAX_BODY_BYTES = 32L * 1024 * 1024;
+
+    /** Número de contadores de escrituras; las notas se reparten por su identificador. */
+    private static final int WRITE_STRIPES = 1024;
+
+    private static NoteCache shared;
+
+    /**
+     * Contadores de uso de la caché.
+     *
+     * @param hits Consultas servidas desde memoria.
+     * @param misses Consultas que tuvieron que ir a la base de datos.
+     * @param indexedNotes Notas del índice de resúmenes, o {@code -1} si no
+     *                     está cargado.
+     * @param cachedBodies Notas completas guardadas.
+     * @param bodyBytes Memoria aproximada de los contenidos guardados.
+     */
+    public record Stats(long hits, long misses, int indexedNotes, int cachedBodies, long bodyBytes) {}
+
+    private final NoteRepository repository;
+    private final boolean enabled;
+    private final int maxNotes;
+    private final long maxBodyBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicBoolean loading = new AtomicBoolean();
+
+    /** Versión vigente del índice de resúmenes. */
+    private final AtomicReference<NoteSnapshot> snapshot =
+            new AtomicReference<>(NoteSnapshot.unloaded(0, false));
+
+    /** Contenidos recientes, protegidos por su propio monitor. */
+    private final LinkedHashMap<Integer, Note> bodies = new LinkedHashMap<>(16, 0.75f, true);
+    private long bodyBytes;
+
+    /**
+     * Escrituras confirmadas por grupo de notas, más las invalidaciones
+     * completas. Solo crecen, así que su suma cambia con cada escritura.
+     * Protegidos por el monitor de {@code bodies}.
+     */
+    private final long[] writes = new long[WRITE_STRIPES];
+    private long invalidations;
+
+    /**
+     * Notas eliminadas. Los identificadores no se reutilizan, así que un
+     * guardado que llegue después de la baja nunca devuelve la nota a la
+     * caché. Protegido por el monitor de {@code bodies}.
+     */
+    private final Set<Integer> deletedIds = new HashSet<>();
+
+    /**
+     * Crea una caché sobre el repositorio indicado.
+     *
+     * @param repository Repositorio del que se carga el índice.
+     * @param enabled Indica si la caché está activa.
+     * @param maxNotes Número máximo de notas del índice de resúmenes.
+     * @param maxBodyBytes Memoria máxima de los contenidos guardados.
+     */
+    public NoteCache(NoteRepository repository, boolean enabled, int maxNotes, long maxBodyBytes) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.maxNotes = maxNotes;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    /**
+     * Devuelve la caché compartida por toda la aplicación, creándola en el
+     * primer uso con la configuración de las propiedades de sistema.
+     *
+     * @return La caché compartida.
+     */
+    public static synchronized NoteCache shared() {
+        if (shared == null) {
+            shared = new NoteCache(
+                    new NoteRepository(),
+                    Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true")),
+                    Integer.getInteger(MAX_NOTES_PROPERTY, DEFAULT_MAX_NOTES),
+                    Long.getLong(MAX_BODY_BYTES_PROPERTY, DEFAULT_MAX_BODY_BYTES));
+            publish(shared);
+        }
+        return shared;
+    }
+
+    /**
+     * Publica los contadores de la caché por JMX y en el informe de
+     * {@link Metrics}.
+     */
+    private static void publish(NoteCache cache) {
+        Metrics.register("type=NoteCache", new NoteCacheMXBean() {
+            @Override
+            public long getHits() {
+                return cache.hits.sum();
+            }
+
+            @Override
+            public long getMisses() {
+                return cache.misses.sum();
+            }
+
+            @Override
+            public double getHitRatio() {
+                return hitRatio(cache.stats());
+            }
+
+            @Override
+            public int getIndexedNotes() {
+                return cache.stats().indexedNotes();
+            }
+
+            @Override
+            public long getIndexVersion() {
+                return cache.snapshot.get().version();
+            }
+
+            @Override
+            public int getCachedBodies() {
+                return cache.stats().cachedBodies();
+            }
+
+            @Override
+            public long getBodyBytes() {
+                return cache.stats().bodyBytes();
+            }
+
+            @Override
+            public void invalidate() {
+                cache.invalidate();
+            }
+        });
+
+        Metrics.addReportSection(() -> {
+            Stats stats = cache.stats();
+            return String.format(Locale.ROOT,
+                    "NoteCache: %d aciertos, %d fallos (%.1f %%), %d notas indexadas, %d contenidos (%d KB)",
+                    stats.hits(), stats.misses(), 100 * hitRatio(stats), stats.indexedNotes(),
+                    stats.cachedBodies(), stats.bodyBytes() / 1024);
+        });
+    }
+
+    private static double hitRatio(Stats stats) {
+        long total = stats.hits() + stats.misses();
+        return total == 0 ? 0 : (double) stats.hits() / total;
+    }
+
+    /**
+     * Devuelve la versión vigente del índice de resúmenes, para quien
+     * necesite hacer varias lecturas coherentes entre sí, como recorrer
+     * todas las páginas de un listado. Si aún no está cargado, lanza su
+     * carga en segundo plano.
+     *
+     * @return La versión vigente, o {@code null} si no está cargada.
+     */
+    public NoteSnapshot snapshot() {
+        if (!enabled) {
+            return null;
+        }
+
+        NoteSnapshot current = snapshot.get();
+        if (!current.isLoaded()) {
+            if (!current.isTooLarge() && loading.compareAndSet(false, true)) {
+                ServiceExecutor.get().execute(this::load);
+            }
+            return null;
+        }
+        return current;
+    }
+
+    /**
+     * Obtiene una página de resúmenes desde el índice.
+     *
+     * @param afterId Identificador de la última nota de la página anterior, o
+     *                {@code 0} para la primera página.
+     * @param limit Número máximo de notas.
+     * @param categoryId Categoría por la que filtrar, o {@code 0} para todas.
+     * @return La página, o {@code null} si el índice no está cargado.
+     */
+    public List<Note> page(int afterId, int limit, int categoryId) {
+        NoteSnapshot current = snapshot();
+        if (current == null) {
+            return miss();
+        }
+
+        hits.increment();
+        return current.page(afterId, limit, categoryId);
+    }
+
+    /**
+     * Obtiene todos los resúmenes desde el índice, del más reciente al más
+     * antiguo.
+     *
+     * @param categoryId Categoría por la que filtrar, o {@code 0} para todas.
+     * @return Las notas, o {@code null} si el índice no está cargado.
+     */
+    public List<Note> all(int categoryId) {
+        NoteSnapshot current = snapshot();
+        if (current == null) {
+            return miss();
+        }
+
+        hits.increment();
+        return current.all(categoryId);
+    }
+
+    /**
+     * Obtiene una nota completa, con su contenido.
+     *
+     * @param id Identificador de la nota.
+     * @return Una copia de la nota, o {@code null} si no está en la caché.
+     */
+    public Note get(int id) {
+        if (!enabled) {
+            return miss();
+        }
+
+        // El orden de acceso del LinkedHashMap cambia al leer
+        synchronized (bodies) {
+            Note note = bodies.get(id);
+            if (note == null) {
+                return miss();
+            }
+
+            hits.increment();
+            return copyOf(note);
+        }
+    }
+
+    /**
+     * Devuelve la marca de escrituras de una nota. Se toma antes de leerla de
+     * la base de datos y se pasa a {@link #put(Note, long)}.
+     *
+     * @param id Identificador de la nota.
+     * @return Una marca que cambia con cada escritura confirmada de la nota.
+     */
+    public long version(int id) {
+        synchronized (bodies) {
+            return stamp(id);
+        }
+    }
+
+    /**
+     * Guarda una nota completa leída de la base de datos, salvo que desde
+     * que se tomó la marca se haya confirmado una escritura de la nota o se
+     * haya vaciado la caché.
+     *
+     * @param note Nota con su contenido.
+     * @param version Marca devuelta por {@link #version(int)} antes de leer
+     *                la nota.
+     */
+    public void put(Note note, long version) {
+        if (!enabled || note == null || !note.isContentLoaded()) {
+            return;
+        }
+
+        Note copy = copyOf(note);
+        synchronized (bodies) {
+            if (stamp(note.getId()) == version) {
+                putBody(copy);
+            }
+        }
+    }
+
+    /**
+     * Refleja en la caché una nota creada o modificada, una vez confirmada en
+     * la base de datos. Si la nota ya se eliminó, no se vuelve a añadir.
+     *
+     * @param note Nota guardada, con su identificador y contenido. Si es un
+     *             resumen, como tras guardar una nota por fragmentos, se
+     *             actualiza el índice y se descarta el contenido anterior.
+     */
+    public void saved(Note note) {
+        if (!enabled) {
+            return;
+        }
+
+        Note copy = note.isContentLoaded() ? copyOf(note) : null;
+        synchronized (bodies) {
+            if (deletedIds.contains(note.getId())) {
+                return;
+            }
+
+            snapshot.updateAndGet(current -> current.with(note, maxNotes));
+            written(note.getId());
+            if (copy != null) {
+                putBody(copy);
+            } else {
+                removeBody(note.getId());
+            }
+        }
+    }
+
+    /**
+     * Refleja en la caché la baja de una nota, una vez confirmada.
+     *
+     * @param id Identificador de la nota eliminada.
+     */
+    public void deleted(int id) {
+        if (!enabled) {
+            return;
+        }
+
+        synchronized (bodies) {
+            deletedIds.add(id);
+            snapshot.updateAndGet(current -> current.without(id));
+            written(id);
+            removeBody(id);
+        }
+    }
+
+    /**
+     * Vacía la caché. Se usa cuando la base de datos se modifica sin pasar
+     * por {@link NoteService}, como en una importación masiva.
+     */
+    public void invalidate() {
+        snapshot.updateAndGet(current -> NoteSnapshot.unloaded(current.version() + 1, false));
+        synchronized (bodies) {
+            bodies.clear();
+            bodyBytes = 0;
+            invalidations++;
+        }
+    }
+
+    /**
+     * Devuelve los contadores de uso de la caché.
+     *
+     * @return Los contadores actuales.
+     */
+    public Stats stats() {
+        int indexedNotes = snapshot.get().size();
+        synchronized (bodies) {
+            return new Stats(hits.sum(), misses.sum(), indexedNotes, bodies.size(), bodyBytes);
+        }
+    }
+
+    /**
+     * Carga el índice completo de resúmenes. Si durante la consulta se
+     * confirma algún cambio, la versión vigente ya no es la de partida y el
+     * resultado, que podría no incluirlo, se descarta; la siguiente consulta
+     * volverá a intentarlo.
+     */
+    private void load() {
+        try {
+            NoteSnapshot start = snapshot.get();
+            if (start.isLoaded()) {
+                return;
+            }
+
+            int count = repository.count();
+            if (count < 0) {
+                return;
+            }
+            if (count > maxNotes) {
+                snapshot.compareAndSet(start, NoteSnapshot.unloaded(start.version(), true));
+                return;
+            }
+
+            snapshot.compareAndSet(start, NoteSnapshot.of(start.version(), repository.getAll()));
+        } finally {
+            loading.set(false);
+        }
+    }
+
+    private void putBody(Note note) {
+        long size = sizeOf(note);
+        if (size > maxBodyBytes) {
+            // No cabe, pero tampoco puede quedar la versión anterior
+            removeBody(note.getId());
+            return;
+        }
+
+        Note previous = bodies.put(note.getId(), note);
+        if (previous != null) {
+            bodyBytes -= sizeOf(previous);
+        }
+        bodyBytes += size;
+
+        var eldest = bodies.entrySet().iterator();
+        while (bodyBytes > maxBodyBytes && eldest.hasNext()) {
+            bodyBytes -= sizeOf(eldest.next().getValue());
+            eldest.remove();
+        }
+    }
+
+    private long stamp(int id) {
+        return invalidations + writes[id & (WRITE_STRIPES - 1)];
+    }
+
+    private void written(int id) {
+        writes[id & (WRITE_STRIPES - 1)]++;
+    }
+
+    private void removeBody(int id) {
+        Note previous = bodies.remove(id);
+        if (previous != null) {
+            bodyBytes -= sizeOf(previous);
+        }
+    }
+
+    private <T> T miss() {
+        misses.increment();
+        return null;
+    }
+
+    /** Tamaño aproximado en memoria del texto de una nota (UTF-16). */
+    private static long sizeOf(Note note) {
+        long chars = note.getTitle().length()
+                + (note.getContent() == null ? 0 : note.getContent().length());
+        return 2 * chars;
+    }
+
+    /**
+     * Copia una nota tal como está guardada en la base de datos, que es lo
+     * único que contiene la caché: la copia no tiene cambios pendientes.
+     */
+    private static Note copyOf(Note note) {
+        Note copy = note.copy();
+        copy.markSaved();
+        return copy;
+    }
+}
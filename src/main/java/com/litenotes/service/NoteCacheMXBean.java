@@ -0,0 +1,52 @@
+package com.litenotes.service;
+
+/**
+ * Vista JMX de los contadores de la {@link NoteCache} compartida, publicada
+ * como {@code com.litenotes:type=NoteCache}.
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public interface NoteCacheMXBean {
+
+    /**
+     * @return Consultas servidas desde memoria.
+     */
+    long getHits();
+
+    /**
+     * @return Consultas que tuvieron que ir a la base de datos.
+     */
+    long getMisses();
+
+    /**
+     * @return Fracción de consultas servidas desde memoria, entre 0 y 1.
+     */
+    double getHitRatio();
+
+    /**
+     * @return Notas del índice de resúmenes, o {@code -1} si no está cargado.
+     */
+    int getIndexedNotes();
+
+    /**
+     * @return Versión del índice de resúmenes, que aumenta con cada escritura.
+     */
+    long getIndexVersion();
+
+    /**
+     * @return Notas completas guardadas.
+     */
+    int getCachedBodies();
+
+    /**
+     * @return Memoria aproximada de los contenidos guardados, en bytes.
+     */
+    long getBodyBytes();
+
+    /**
+     * Vacía la caché; se vuelve a cargar en el siguiente listado.
+     */
+    void invalidate();
+}
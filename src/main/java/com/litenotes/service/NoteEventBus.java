@@ -0,0 +1,68 @@
+package com.litenotes.service;
+
+import com.litenotes.model.NoteEvent;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Canal por el que {@link NoteService} publica los {@link NoteEvent} de las
+ * escrituras confirmadas. Es compartido por toda la aplicación, de modo que
+ * una vista recibe también los cambios hechos desde otras ventanas.
+ *
+ * <p>Los eventos se entregan en el hilo escritor, en el mismo orden en que se
+ * confirmaron las escrituras. Los receptores deben ser rápidos y, si tocan la
+ * interfaz, pasar al hilo de JavaFX. Si un receptor lanza una excepción, se
+ * registra y el resto sigue recibiendo el evento.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public final class NoteEventBus {
+
+    private static final NoteEventBus shared = new NoteEventBus();
+
+    private final List<Consumer<NoteEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Crea un canal sin receptores.
+     */
+    public NoteEventBus() {}
+
+    /**
+     * Devuelve el canal compartido por toda la aplicación.
+     *
+     * @return El canal compartido.
+     */
+    public static NoteEventBus shared() {
+        return shared;
+    }
+
+    /**
+     * Registra un receptor de eventos.
+     *
+     * @param listener Receptor que se desea añadir.
+     * @return Una acción que, al ejecutarse, da de baja el receptor.
+     */
+    public Runnable subscribe(Consumer<NoteEvent> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    /**
+     * Entrega un evento a todos los receptores registrados.
+     *
+     * @param event Evento que se desea publicar.
+     */
+    public void publish(NoteEvent event) {
+        for (Consumer<NoteEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
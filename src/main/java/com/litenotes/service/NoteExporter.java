@@ -0,0 +1,331 @@
+package com.litenotes.service;
+
+import com.litenotes.model.Note;
+import com.litenotes.repository.NoteRepository;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Exporta todas las notas, con su contenido, a un archivo JSONL, a un archivo
+ * de texto o a una carpeta de archivos Markdown.
+ *
+ * <p>Las notas se leen con {@link NoteRepository#stream} y se escriben a
+ * medida que llegan a través de un {@link FileChannel} con búfer, por lo que
+ * la memoria necesaria es la misma para cien notas que para un millón. Los
+ * formatos JSONL y TXT pueden comprimirse con gzip; la exportación Markdown
+ * puede escribirse en un archivo ZIP en lugar de una carpeta. El ZIP es la
+ * única excepción a la memoria constante: su índice central, que se escribe
+ * al final, guarda una entrada por nota. Tanto el JSONL
+ * como la carpeta o el ZIP de Markdown pueden volver a importarse con
+ * {@link NoteImporter}.</p>
+ *
+ * <p>Los archivos se escriben primero con la extensión {@code .part} y se
+ * renombran al terminar, de modo que una exportación fallida no deja un
+ * archivo a medias con el nombre final.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public class NoteExporter {
+
+    /**
+     * Formatos de exportación admitidos.
+     */
+    public enum Format {
+        /** Un objeto JSON por línea con id, título, contenido y categoría. */
+        JSONL,
+        /** Un archivo {@code .md} por nota, en una subcarpeta por categoría. */
+        MARKDOWN,
+        /** Un único archivo de texto con todas las notas seguidas. */
+        TXT
+    }
+
+    /** Tamaño del búfer de escritura, en bytes. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** Longitud máxima del título dentro de un nombre de archivo. */
+    private static final int MAX_FILE_NAME = 80;
+
+    /** Caracteres no válidos en nombres de archivo en Windows, macOS o Linux. */
+    private static final Pattern UNSAFE_CHARS = Pattern.compile("[\\\\/:*?\"<>|\\p{Cntrl}]");
+
+    private final NoteRepository repository;
+
+    /**
+     * Crea un exportador sobre un {@link NoteRepository} nuevo.
+     */
+    public NoteExporter() {
+        this(new NoteRepository());
+    }
+
+    /**
+     * Crea un exportador sobre el repositorio indicado.
+     *
+     * @param repository Repositorio del que se leen las notas.
+     */
+    public NoteExporter(NoteRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Deduce el formato a partir del nombre del destino: {@code .jsonl} y
+     * {@code .txt} (con o sin {@code .gz}) eligen su formato; cualquier otro,
+     * incluida una carpeta o un {@code .zip}, se exporta como Markdown.
+     *
+     * @param target Destino de la exportación.
+     * @return El formato correspondiente.
+     */
+    public static Format formatFor(Path target) {
+        String name = target.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".gz")) {
+            name = name.substring(0, name.length() - 3);
+        }
+
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+            return Format.JSONL;
+        }
+        if (name.endsWith(".txt")) {
+            return Format.TXT;
+        }
+        return Format.MARKDOWN;
+    }
+
+    /**
+     * Exporta todas las notas al destino indicado.
+     *
+     * @param target Archivo de destino o, en formato Markdown, carpeta o
+     *               archivo {@code .zip}.
+     * @param format Formato de la exportación.
+     * @param gzip Indica si el archivo se comprime con gzip. Solo se admite en
+     *             los formatos JSONL y TXT.
+     * @return El número de notas exportadas.
+     * @throws IOException Si no se puede escribir el destino.
+     * @throws IllegalArgumentException Si se pide gzip en formato Markdown.
+     * @throws IllegalStateException Si falla la lectura de la base de datos.
+     */
+    public long export(Path target, Format format, boolean gzip) throws IOException {
+        if (gzip && format == Format.MARKDOWN) {
+            throw new IllegalArgumentException(
+                    "La compresión gzip solo se aplica a JSONL y TXT; usa un destino .zip para Markdown");
+        }
+
+        if (format == Format.MARKDOWN && !target.getFileName().toString()
+                .toLowerCase(Locale.ROOT).endsWith(".zip")) {
+            return exportFolder(target);
+        }
+
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        long count = -1;
+
+        try (OutputStream out = open(partial, gzip)) {
+            count = switch (format) {
+                case JSONL -> exportJsonLines(out);
+                case TXT -> exportText(out);
+                case MARKDOWN -> exportZip(out);
+            };
+        } finally {
+            if (count < 0) {
+                Files.deleteIfExists(partial);
+            }
+        }
+
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+        return count;
+    }
+
+    private long exportJsonLines(OutputStream out) throws IOException {
+        Writer writer = writer(out);
+        long count = forEach(note -> {
+            writer.write("{\"id\":");
+            writer.write(Integer.toString(note.getId()));
+            writer.write(",\"title\":");
+            Json.writeString(writer, note.getTitle());
+            writer.write(",\"content\":");
+            Json.writeString(writer, note.getContent());
+            writer.write(",\"category\":");
+            Json.writeString(writer, note.getCategory().getName());
+            writer.write("}\n");
+        });
+        writer.flush();
+        return count;
+    }
+
+    private long exportText(OutputStream out) throws IOException {
+        Writer writer = writer(out);
+        long count = forEach(note -> {
+            writer.write(note.getTitle());
+            writer.write('\n');
+            writer.write("=".repeat(note.getTitle().length()));
+            writer.write('\n');
+            if (note.getCategory().getName() != null) {
+                writer.write("Categoría: " + note.getCategory().getName() + "\n");
+            }
+            writer.write('\n');
+            writeContent(writer, note);
+            writer.write('\n');
+        });
+        writer.flush();
+        return count;
+    }
+
+    private long exportZip(OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        Writer writer = writer(zip);
+        Folders folders = new Folders();
+
+        long count = forEach(note -> {
+            zip.putNextEntry(new ZipEntry(folders.relativePath(note)));
+            writeMarkdown(writer, note);
+            writer.flush();
+            zip.closeEntry();
+        });
+        zip.finish();
+        return count;
+    }
+
+    private long exportFolder(Path target) throws IOException {
+        Files.createDirectories(target);
+        Folders folders = new Folders();
+
+        return forEach(note -> {
+            Path file = target.resolve(folders.relativePath(note));
+            Files.createDirectories(file.getParent());
+
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writeMarkdown(writer, note);
+            }
+        });
+    }
+
+    /**
+     * Recorre las notas convirtiendo los errores de escritura de la acción en
+     * {@link IOException} y los de la base de datos en
+     * {@link IllegalStateException}.
+     */
+    private long forEach(NoteWriter action) throws IOException {
+        long[] count = {0};
+
+        try {
+            repository.stream(note -> {
+                try {
+                    action.write(note);
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudieron leer las notas de la base de datos", e);
+        }
+
+        return count[0];
+    }
+
+    @FunctionalInterface
+    private interface NoteWriter {
+        void write(Note note) throws IOException;
+    }
+
+    private static void writeMarkdown(Writer writer, Note note) throws IOException {
+        writer.write("# ");
+        writer.write(note.getTitle());
+        writer.write("\n\n");
+        writeContent(writer, note);
+    }
+
+    private static void writeContent(Writer writer, Note note) throws IOException {
+        String content = note.getContent();
+        if (content != null && !content.isEmpty()) {
+            writer.write(content);
+            if (!content.endsWith("\n")) {
+                writer.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Asigna a cada categoría el nombre de su carpeta. Como dos categorías
+     * pueden quedar iguales al limpiar sus nombres, o diferenciarse solo en
+     * mayúsculas, se añade un sufijo a la segunda. Solo guarda una entrada por
+     * categoría, no por nota.
+     */
+    private static final class Folders {
+
+        private final Map<String, String> byCategory = new HashMap<>();
+        private final Set<String> used = new HashSet<>();
+
+        /**
+         * Devuelve la ruta relativa del archivo Markdown de una nota: la
+         * carpeta de su categoría y un nombre formado por el título y el
+         * identificador, que lo hace único dentro de la carpeta.
+         */
+        String relativePath(Note note) {
+            String name = safeName(note.getTitle()) + " (" + note.getId() + ").md";
+            String category = note.getCategory().getName();
+            return category == null ? name : folder(category) + "/" + name;
+        }
+
+        private String folder(String category) {
+            return byCategory.computeIfAbsent(category, key -> {
+                String base = safeName(key);
+                String folder = base;
+                for (int i = 2; !used.add(folder.toLowerCase(Locale.ROOT)); i++) {
+                    folder = base + "-" + i;
+                }
+                return folder;
+            });
+        }
+    }
+
+    /**
+     * Sustituye los caracteres que no son válidos en un nombre de archivo en
+     * los sistemas habituales y limita su longitud.
+     */
+    private static String safeName(String text) {
+        String name = UNSAFE_CHARS.matcher(text).replaceAll("_").strip();
+        if (name.length() > MAX_FILE_NAME) {
+            name = name.substring(0, MAX_FILE_NAME).strip();
+        }
+        while (name.endsWith(".")) {
+            name = name.substring(0, name.length() - 1);
+        }
+        return name.isEmpty() || name.startsWith(".") ? "_" + name : name;
+    }
+
+    private static OutputStream open(Path file, boolean gzip) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+        return gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+    }
+
+    private static Writer writer(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+}
@@ -0,0 +1,257 @@
+package com.litenotes.service;
+
+import com.litenotes.model.Category;
+import com.litenotes.model.Note;
+import com.litenotes.repository.CategoryRepository;
+import com.litenotes.repository.ImportRepository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Importa de forma masiva notas desde una carpeta, un archivo ZIP o un archivo
+ * JSONL (véase {@link ImportSource} para el formato de cada uno).
+ *
+ * <p>El origen se procesa por bloques. Las entradas de cada bloque se analizan
+ * en paralelo en un {@link ForkJoinPool} mientras se escribe el bloque
+ * anterior, y cada bloque se inserta en una única transacción con
+ * {@code addBatch}. Las categorías que no existen se crean al vuelo; las
+ * entradas sin categoría se asignan a {@value #DEFAULT_CATEGORY}.</p>
+ *
+ * <p>Cada bloque guarda un punto de control en su misma transacción. Si la
+ * importación se interrumpe, volver a importar el mismo origen continúa
+ * después del último bloque confirmado. Las entradas que no se pueden
+ * analizar se omiten y se informa de ellas en el {@link Result}.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public class NoteImporter {
+
+    /** Número de entradas que se insertan en cada transacción. */
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    /** Categoría de las notas cuyo origen no indica ninguna. */
+    public static final String DEFAULT_CATEGORY = "Importadas";
+
+    /** Número máximo de errores que se conservan en el resultado. */
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    /**
+     * Recibe el avance de una importación. Se invoca en el hilo que importa,
+     * una vez al empezar y otra tras confirmar cada bloque.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+
+        /**
+         * Notifica el avance.
+         *
+         * @param processed Entradas del origen ya procesadas, incluidas las
+         *                  de una importación anterior que se reanuda.
+         * @param total Número total de entradas del origen.
+         */
+        void onProgress(int processed, int total);
+    }
+
+    /**
+     * Resultado de una importación.
+     *
+     * @param imported Número de notas insertadas.
+     * @param skipped Número de entradas omitidas por errores.
+     * @param resumedFrom Posición desde la que se reanudó, o {@code 0}.
+     * @param errors Descripción de los primeros errores encontrados.
+     */
+    public record Result(int imported, int skipped, int resumedFrom, List<String> errors) {}
+
+    /** Resultado del análisis de una entrada: una nota o un error. */
+    private record Parsed(ImportSource.ParsedNote note, String error) {}
+
+    private final ImportRepository importRepository;
+    private final CategoryRepository categoryRepository;
+    private final int chunkSize;
+
+    /**
+     * Crea un importador con los repositorios y el tamaño de bloque por
+     * defecto.
+     */
+    public NoteImporter() {
+        this(new ImportRepository(), new CategoryRepository(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Crea un importador con los repositorios y el tamaño de bloque indicados.
+     *
+     * @param importRepository Repositorio en el que se escriben los bloques.
+     * @param categoryRepository Repositorio con el que se resuelven las
+     *                           categorías.
+     * @param chunkSize Número de entradas por transacción.
+     */
+    public NoteImporter(ImportRepository importRepository,
+                        CategoryRepository categoryRepository, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser positivo");
+        }
+
+        this.importRepository = importRepository;
+        this.categoryRepository = categoryRepository;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Importa las notas del origen indicado, reanudando la importación
+     * anterior si quedó interrumpida.
+     *
+     * @param source Carpeta, archivo ZIP o archivo JSONL.
+     * @param listener Receptor del avance.
+     * @return El resultado de la importación.
+     * @throws IOException Si no se puede leer el origen.
+     * @throws IllegalArgumentException Si el formato no está admitido.
+     * @throws IllegalStateException Si el origen ha cambiado desde la
+     *                               importación interrumpida o si falla la
+     *                               base de datos.
+     */
+    public Result importFrom(Path source, ProgressListener listener) throws IOException {
+        String key = sourceKey(source);
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+        try (ImportSource input = ImportSource.open(source)) {
+            int total = input.size();
+            String fingerprint = input.fingerprint();
+            int position = resumePosition(key, fingerprint);
+            int resumedFrom = position;
+
+            input.skip(position);
+            listener.onProgress(position, total);
+
+            Map<String, Category> categories = new HashMap<>();
+            for (Category category : categoryRepository.getAll()) {
+                categories.put(category.getName(), category);
+            }
+
+            int imported = 0;
+            int skipped = 0;
+            List<String> errors = new ArrayList<>();
+
+            // Se analiza el bloque siguiente mientras se escribe el actual
+            Future<List<Parsed>> next = parse(pool, input.read(chunkSize));
+
+            while (true) {
+                List<Parsed> chunk = await(next);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+
+                List<ImportSource.Entry> following = input.read(chunkSize);
+                next = parse(pool, following);
+
+                List<Note> notes = new ArrayList<>(chunk.size());
+                for (Parsed parsed : chunk) {
+                    if (parsed.error() != null) {
+                        skipped++;
+                        if (errors.size() < MAX_REPORTED_ERRORS) {
+                            errors.add(parsed.error());
+                        }
+                    } else if (parsed.note() != null) {
+                        notes.add(toNote(parsed.note(), categories));
+                    }
+                }
+
+                position += chunk.size();
+                importRepository.saveChunk(key, fingerprint, position, notes, following.isEmpty());
+                imported += notes.size();
+                listener.onProgress(position, total);
+            }
+
+            return new Result(imported, skipped, resumedFrom, List.copyOf(errors));
+
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudo guardar la importación en la base de datos", e);
+        } finally {
+            pool.shutdownNow();
+            // Las notas importadas no pasan por NoteService
+            NoteCache.shared().invalidate();
+            TitleIndex.shared().invalidate();
+            TrigramIndex.shared().invalidate();
+        }
+    }
+
+    /**
+     * Descarta el punto de control de un origen, de modo que la siguiente
+     * importación empiece desde el principio.
+     *
+     * @param source Origen cuya importación interrumpida se descarta.
+     */
+    public void restart(Path source) {
+        try {
+            importRepository.clearCheckpoint(sourceKey(source));
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudo descartar la importación anterior", e);
+        }
+    }
+
+    private int resumePosition(String key, String fingerprint) throws SQLException {
+        ImportRepository.Checkpoint checkpoint = importRepository.getCheckpoint(key);
+        if (checkpoint == null) {
+            return 0;
+        }
+
+        if (!checkpoint.fingerprint().equals(fingerprint)) {
+            throw new IllegalStateException(
+                    "El origen ha cambiado desde la importación interrumpida; "
+                    + "reinicia la importación para empezar desde el principio");
+        }
+        return checkpoint.position();
+    }
+
+    private Note toNote(ImportSource.ParsedNote parsed, Map<String, Category> categories)
+            throws SQLException {
+        String name = parsed.category() == null || parsed.category().isBlank()
+                ? DEFAULT_CATEGORY
+                : parsed.category().strip();
+
+        Category category = categories.get(name);
+        if (category == null) {
+            category = categoryRepository.findOrCreate(name);
+            categories.put(name, category);
+        }
+
+        return new Note(parsed.title(), parsed.content(), category);
+    }
+
+    private static Future<List<Parsed>> parse(ForkJoinPool pool, List<ImportSource.Entry> entries) {
+        return pool.submit(() -> entries.parallelStream().map(NoteImporter::parse).toList());
+    }
+
+    private static Parsed parse(ImportSource.Entry entry) {
+        try {
+            return new Parsed(entry.parse(), null);
+        } catch (IOException | RuntimeException e) {
+            return new Parsed(null, entry.name() + ": " + e.getMessage());
+        }
+    }
+
+    private static List<Parsed> await(Future<List<Parsed>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("La importación se ha interrumpido", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("No se pudo analizar el origen", e.getCause());
+        }
+    }
+
+    private static String sourceKey(Path source) {
+        return source.toAbsolutePath().normalize().toString();
+    }
+}
@@ -1,9 +1,22 @@
 package com.litenotes.service;
 
+import com.litenotes.metrics.Metrics;
+import com.litenotes.metrics.OperationMetrics;
 import com.litenotes.model.Note;
+import com.litenotes.model.NoteChunk;
+import com.litenotes.model.NoteEvent;
+import com.litenotes.model.NoteRevision;
+import com.litenotes.model.SearchResult;
 import com.litenotes.repository.NoteRepository;
+import com.litenotes.repository.RevisionRepository;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Servicio encargado de gestionar la lógica relacionada con las notas dentro
@@ -18,13 +31,60 @@ import java.util.List;
  * <p>Forma parte de la capa de negocio, manteniendo separada la lógica de
  * presentación y la lógica de persistencia.</p>
  *
+ * <p>Las altas, modificaciones y bajas se envían a la {@link NoteWriteQueue}
+ * compartida, que las agrupa en transacciones. Los métodos
+ * {@code createNote}, {@code updateNote} y {@code deleteNote} esperan a que la
+ * operación se confirme en disco; las variantes {@code submit*} devuelven el
+ * futuro para quien quiera lanzar muchas operaciones sin esperar a cada una.</p>
+ *
+ * <p>Las lecturas se sirven, cuando es posible, desde la {@link NoteCache}
+ * compartida, que se actualiza cada vez que una escritura se confirma. Lo
+ * mismo ocurre con el {@link TitleIndex} compartido, que filtra por título
+ * mientras el usuario escribe, y con el {@link TrigramIndex}, que encuentra
+ * fragmentos y palabras mal escritas.</p>
+ *
+ * <p>Las modificaciones que cambian el título o el contenido guardan la
+ * versión anterior en el historial de revisiones, que el
+ * {@link RevisionCompactor} compacta después en segundo plano.</p>
+ *
+ * <p>Cada escritura confirmada se publica además como un {@link NoteEvent} en
+ * el {@link NoteEventBus} compartido, de modo que las vistas pueden aplicar
+ * el cambio sin volver a consultar la lista. Solo se publican las escrituras
+ * que cambiaron alguna fila: una modificación de una nota que ya no existe
+ * falla y no genera ningún evento.</p>
+ *
+ * <p>Las lecturas y las escrituras síncronas registran su latencia en
+ * {@link Metrics}, incluida la espera en la cola de escritura; comparadas con
+ * las del repositorio, muestran cuánto tiempo se va en la caché o en la
+ * cola.</p>
+ *
  * @author Aníbal
  * @version 1.0
  * @since 2026
  */
 public class NoteService {
 
+    private static final OperationMetrics CREATE = Metrics.operation("NoteService.createNote");
+    private static final OperationMetrics UPDATE = Metrics.operation("NoteService.updateNote");
+    private static final OperationMetrics DELETE = Metrics.operation("NoteService.deleteNote");
+    private static final OperationMetrics GET_ALL = Metrics.operation("NoteService.getAllNotes");
+    private static final OperationMetrics GET_BY_CATEGORY = Metrics.operation("NoteService.getNotesByCategory");
+    private static final OperationMetrics GET_BY_ID = Metrics.operation("NoteService.getNoteById");
+    private static final OperationMetrics GET_PAGE = Metrics.operation("NoteService.getNotesPage");
+    private static final OperationMetrics SEARCH = Metrics.operation("NoteService.search");
+    private static final OperationMetrics SEARCH_APPROXIMATE = Metrics.operation("NoteService.searchApproximate");
+    private static final OperationMetrics UPDATE_CHUNKS = Metrics.operation("NoteService.updateChunks");
+    private static final OperationMetrics GET_REVISIONS = Metrics.operation("NoteService.getRevisions");
+    private static final OperationMetrics GET_REVISION = Metrics.operation("NoteService.getRevision");
+
     private final NoteRepository repository;
+    private final RevisionRepository revisions;
+    private final NoteWriteQueue writeQueue;
+    private final NoteCache cache;
+    private final TitleIndex titles;
+    private final TrigramIndex trigrams;
+    private final RevisionCompactor compactor;
+    private final NoteEventBus events;
 
     /**
      * Crea una nueva instancia del servicio e inicializa el repositorio
@@ -32,6 +92,25 @@ public class NoteService {
      */
     public NoteService() {
         this.repository = new NoteRepository();
+        this.revisions = new RevisionRepository();
+        this.writeQueue = NoteWriteQueue.shared();
+        this.cache = NoteCache.shared();
+        this.titles = TitleIndex.shared();
+        this.trigrams = TrigramIndex.shared();
+        this.compactor = RevisionCompactor.shared();
+        this.events = NoteEventBus.shared();
+    }
+
+    /**
+     * Registra un receptor de los cambios confirmados sobre las notas. Los
+     * eventos llegan en el hilo escritor, después de actualizar la caché.
+     *
+     * @param listener Receptor que se desea añadir.
+     * @return Una acción que da de baja el receptor.
+     * @see NoteEventBus#subscribe(Consumer)
+     */
+    public Runnable addChangeListener(Consumer<NoteEvent> listener) {
+        return events.subscribe(listener);
     }
 
     /**
@@ -43,50 +122,321 @@ public class NoteService {
      *   <li>La categoría no sea nula.</li>
      * </ul>
      *
-     * <p>Si los datos son válidos, la nota se envía al repositorio para ser
-     * almacenada en la base de datos.</p>
+     * <p>Si los datos son válidos, la nota se envía a la cola de escritura y
+     * el método espera a que se haya guardado; la nota recibe entonces el
+     * identificador generado.</p>
      *
      * @param note La nota que se desea crear.
      * @throws IllegalArgumentException Si el título está vacío o la categoría es nula.
+     * @throws IllegalStateException Si la base de datos rechaza la escritura.
      */
     public void createNote(Note note) {
-        if (note.getTitle() == null || note.getTitle().isBlank()) {
-            throw new IllegalArgumentException("El título no puede estar vacío");
-        }
+        long start = CREATE.start();
+        await(CREATE, submitCreate(note));
+        CREATE.succeeded(start, 1);
+    }
 
-        if (note.getCategory() == null) {
-            throw new IllegalArgumentException("La categoría no puede ser nula");
-        }
+    /**
+     * Valida una nota nueva y la encola para guardarla sin esperar.
+     *
+     * @param note La nota que se desea crear.
+     * @return Un futuro que se completa con la nota, ya con su identificador,
+     *         cuando se ha confirmado en disco.
+     * @throws IllegalArgumentException Si el título está vacío o la categoría es nula.
+     * @see #createNote(Note)
+     */
+    public CompletableFuture<Note> submitCreate(Note note) {
+        validate(note);
 
-        repository.insert(note);
+        Note written = copyOf(note);
+        return writeQueue.insert(note).thenApply(saved -> {
+            written.setId(saved.getId());
+            cache.saved(written);
+            titles.saved(written);
+            trigrams.saved(written);
+            events.publish(NoteEvent.created(written));
+            return saved;
+        });
     }
 
     /**
      * Obtiene todas las notas almacenadas en la base de datos.
      *
-     * @return Una lista con todas las notas existentes.
+     * @return Una lista con el resumen, sin contenido, de todas las notas.
      */
     public List<Note> getAllNotes() {
-        return repository.getAll();
+        long start = GET_ALL.start();
+        List<Note> cached = cache.all(0);
+        List<Note> notes = cached != null ? cached : repository.getAll();
+        GET_ALL.succeeded(start, notes.size());
+        return notes;
     }
 
     /**
      * Obtiene todas las notas pertenecientes a una categoría específica.
      *
      * @param categoryId Identificador de la categoría por la que se desea filtrar.
-     * @return Una lista de notas pertenecientes a la categoría indicada.
+     * @return Una lista con el resumen, sin contenido, de las notas de la
+     *         categoría indicada.
      */
     public List<Note> getNotesByCategory(int categoryId) {
-        return repository.getByCategory(categoryId);
+        long start = GET_BY_CATEGORY.start();
+        List<Note> cached = cache.all(categoryId);
+        List<Note> notes = cached != null ? cached : repository.getByCategory(categoryId);
+        GET_BY_CATEGORY.succeeded(start, notes.size());
+        return notes;
+    }
+
+    /**
+     * Obtiene una nota completa, con su contenido, para abrirla o editarla.
+     *
+     * @param id Identificador de la nota.
+     * @return La nota, o {@code null} si ya no existe.
+     */
+    public Note getNoteById(int id) {
+        long start = GET_BY_ID.start();
+        Note note = cache.get(id);
+
+        if (note == null) {
+            long version = cache.version(id);
+            note = repository.getById(id);
+            cache.put(note, version);
+        }
+
+        GET_BY_ID.succeeded(start, note != null ? 1 : 0);
+        return note;
+    }
+
+    /**
+     * Obtiene el historial de una nota: sus versiones anteriores, sin el
+     * contenido.
+     *
+     * @param noteId Identificador de la nota.
+     * @return Las revisiones de la más reciente a la más antigua.
+     */
+    public List<NoteRevision> getRevisions(int noteId) {
+        long start = GET_REVISIONS.start();
+        List<NoteRevision> list = revisions.list(noteId);
+        GET_REVISIONS.succeeded(start, list.size());
+        return list;
     }
 
     /**
-     * Elimina una nota de la base de datos según su identificador.
+     * Obtiene una versión anterior de una nota con su contenido, para
+     * consultarla o recuperarla.
+     *
+     * @param noteId Identificador de la nota.
+     * @param number Número de la revisión, tal como aparece en
+     *               {@link #getRevisions(int)}.
+     * @return La revisión, o {@code null} si no existe.
+     */
+    public NoteRevision getRevision(int noteId, int number) {
+        long start = GET_REVISION.start();
+        NoteRevision revision = revisions.get(noteId, number);
+        GET_REVISION.succeeded(start, revision != null ? 1 : 0);
+        return revision;
+    }
+
+    /**
+     * Obtiene una página de notas ordenadas de la más reciente a la más
+     * antigua.
+     *
+     * @param afterId Identificador de la última nota de la página anterior, o
+     *                {@code 0} para la primera página.
+     * @param limit Número máximo de notas de la página.
+     * @param categoryId Categoría por la que filtrar, o {@code 0} para todas.
+     * @return El resumen, sin contenido, de las notas de la página; una lista
+     *         con menos de {@code limit} elementos indica que no quedan más.
+     * @throws IllegalArgumentException Si el tamaño de página no es positivo.
+     */
+    public List<Note> getNotesPage(int afterId, int limit, int categoryId) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser positivo");
+        }
+
+        long start = GET_PAGE.start();
+        List<Note> page = cache.page(afterId, limit, categoryId);
+
+        if (page == null) {
+            page = categoryId == 0
+                    ? repository.getPage(afterId, limit)
+                    : repository.getPage(afterId, limit, categoryId);
+        }
+
+        GET_PAGE.succeeded(start, page.size());
+        return page;
+    }
+
+    /**
+     * Busca notas cuyo título o contenido contenga los términos indicados, en
+     * todas las categorías.
+     *
+     * @param query Texto introducido por el usuario.
+     * @param limit Número máximo de resultados.
+     * @return Los resultados ordenados por relevancia.
+     * @see #search(String, int, int)
+     */
+    public List<SearchResult> search(String query, int limit) {
+        return search(query, 0, limit);
+    }
+
+    /**
+     * Busca notas cuyo título o contenido contenga los términos indicados.
+     *
+     * <p>El texto del usuario se divide en palabras y cada una se busca de
+     * forma literal, sin interpretar la sintaxis de FTS5; la última palabra se
+     * trata como prefijo para que la búsqueda funcione mientras se escribe.
+     * Se devuelven las notas que contienen todas las palabras, ordenadas por
+     * relevancia BM25.</p>
+     *
+     * @param query Texto introducido por el usuario.
+     * @param categoryId Categoría por la que filtrar, o {@code 0} para todas.
+     * @param limit Número máximo de resultados.
+     * @return Los resultados ordenados por relevancia, o una lista vacía si la
+     *         consulta no contiene ninguna palabra.
+     * @throws IllegalArgumentException Si el límite no es positivo.
+     */
+    public List<SearchResult> search(String query, int categoryId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("El límite de resultados debe ser positivo");
+        }
+
+        String expression = toMatchExpression(query);
+        if (expression == null) {
+            return List.of();
+        }
+
+        long start = SEARCH.start();
+        List<SearchResult> results = repository.search(expression, categoryId, limit);
+        SEARCH.succeeded(start, results.size());
+        return results;
+    }
+
+    /**
+     * Busca notas que contengan el texto indicado aunque sea en mitad de una
+     * palabra, o que tengan palabras parecidas si el usuario lo ha escrito
+     * con errores. Sirve de respaldo cuando {@link #search(String, int, int)}
+     * no encuentra nada.
+     *
+     * <p>Primero aparecen las notas que contienen el texto literalmente, sin
+     * distinguir mayúsculas ni tildes, de la más reciente a la más antigua; a
+     * continuación, las que más se le parecen.</p>
+     *
+     * @param query Texto introducido por el usuario.
+     * @param categoryId Categoría por la que filtrar, o {@code 0} para todas.
+     * @param limit Número máximo de resultados.
+     * @return Los resultados, o una lista vacía si el índice de trigramas no
+     *         está disponible.
+     * @throws IllegalArgumentException Si el límite no es positivo.
+     * @see TrigramIndex
+     */
+    public List<SearchResult> searchApproximate(String query, int categoryId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("El límite de resultados debe ser positivo");
+        }
+
+        long start = SEARCH_APPROXIMATE.start();
+        List<SearchResult> results = trigrams.substring(query, categoryId, limit);
+        if (results.size() < limit) {
+            Set<Integer> found = new HashSet<>();
+            results.forEach(result -> found.add(result.getNote().getId()));
+
+            for (SearchResult result : trigrams.similar(query, categoryId, limit)) {
+                if (results.size() < limit && found.add(result.getNote().getId())) {
+                    results.add(result);
+                }
+            }
+        }
+        SEARCH_APPROXIMATE.succeeded(start, results.size());
+        return results;
+    }
+
+    /**
+     * Crea una búsqueda por prefijos sobre los títulos, en memoria, para
+     * filtrar la lista en cada pulsación mientras el usuario escribe.
+     *
+     * @return Una búsqueda nueva; cada campo de búsqueda debe usar la suya.
+     * @see TitleIndex.Search#find(String, int, int)
+     */
+    public TitleIndex.Search newTitleSearch() {
+        return titles.newSearch();
+    }
+
+    /**
+     * Convierte el texto del usuario en una expresión FTS5 segura: cada palabra
+     * se escribe entre comillas dobles y la última se marca como prefijo.
+     *
+     * @param query Texto introducido por el usuario.
+     * @return La expresión de búsqueda, o {@code null} si no hay palabras.
+     */
+    private static String toMatchExpression(String query) {
+        if (query == null) {
+            return null;
+        }
+
+        String[] words = query.strip().split("[^\\p{L}\\p{N}]+");
+        StringBuilder expression = new StringBuilder();
+
+        for (String word : words) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (expression.length() > 0) {
+                expression.append(' ');
+            }
+            expression.append('"').append(word).append('"');
+        }
+
+        if (expression.length() == 0) {
+            return null;
+        }
+
+        return expression.append('*').toString();
+    }
+
+    /**
+     * Elimina una nota de la base de datos según su identificador y espera a
+     * que la baja se haya confirmado.
      *
      * @param id Identificador de la nota que se desea eliminar.
+     * @throws IllegalStateException Si la base de datos rechaza la escritura.
      */
     public void deleteNote(int id) {
-        repository.delete(id);
+        long start = DELETE.start();
+        await(DELETE, submitDelete(id));
+        DELETE.succeeded(start, 1);
+    }
+
+    /**
+     * Encola la baja de una nota sin esperar.
+     *
+     * @param id Identificador de la nota que se desea eliminar.
+     * @return Un futuro que se completa cuando la baja se ha confirmado.
+     * @see #deleteNote(int)
+     */
+    public CompletableFuture<Void> submitDelete(int id) {
+        return submitDelete(id, null);
+    }
+
+    /**
+     * Encola la baja condicional de una nota sin esperar. La condición se
+     * comprueba sobre la nota guardada en la misma transacción que la baja.
+     *
+     * @param id Identificador de la nota que se desea eliminar.
+     * @param precondition Condición que debe cumplir la nota guardada, o
+     *                     {@code null} para no comprobar nada.
+     * @return Un futuro que se completa cuando la baja se ha confirmado, o
+     *         con una {@link java.util.ConcurrentModificationException} si la
+     *         nota ya no existe o no cumple la condición.
+     * @see NoteWriteQueue#delete(int, Predicate)
+     */
+    public CompletableFuture<Void> submitDelete(int id, Predicate<Note> precondition) {
+        return writeQueue.delete(id, precondition).thenRun(() -> {
+            cache.deleted(id);
+            titles.deleted(id);
+            trigrams.deleted(id);
+            events.publish(NoteEvent.deleted(id));
+        });
     }
 
     /**
@@ -96,12 +446,165 @@ public class NoteService {
      * <ul>
      *   <li>El título no sea nulo ni esté vacío.</li>
      *   <li>La categoría no sea nula.</li>
+     *   <li>El contenido esté cargado, para no sobrescribirlo con el de un
+     *       resumen.</li>
      * </ul>
      *
+     * <p>Solo se escriben los campos que han cambiado desde que se leyó o se
+     * guardó la nota; si no ha cambiado ninguno, no se accede a la base de
+     * datos.</p>
+     *
      * @param note La nota con los nuevos valores que se desean guardar.
-     * @throws IllegalArgumentException Si el título está vacío o la categoría es nula.
+     * @throws IllegalArgumentException Si el título está vacío, la categoría
+     *         es nula o la nota es un resumen sin contenido.
+     * @throws IllegalStateException Si la base de datos rechaza la escritura.
      */
     public void updateNote(Note note) {
+        long start = UPDATE.start();
+        await(UPDATE, submitUpdate(note));
+        UPDATE.succeeded(start, 1);
+    }
+
+    /**
+     * Valida una nota existente y encola su modificación sin esperar. Si se
+     * encolan varias modificaciones de la misma nota antes de que se escriban,
+     * de la misma instancia solo se aplica la última; las de copias distintas
+     * se combinan campo a campo. La caché, los índices y los eventos reciben
+     * la fila tal como quedó escrita.
+     *
+     * @param note La nota con los nuevos valores que se desean guardar.
+     * @return Un futuro que se completa con la nota cuando se ha confirmado,
+     *         o ya completado si la nota no tiene cambios.
+     * @throws IllegalArgumentException Si el título está vacío, la categoría
+     *         es nula o la nota es un resumen sin contenido.
+     * @see #updateNote(Note)
+     */
+    public CompletableFuture<Note> submitUpdate(Note note) {
+        return submitUpdate(note, null);
+    }
+
+    /**
+     * Valida una nota existente y encola su modificación condicional sin
+     * esperar. La condición se comprueba sobre la nota guardada en la misma
+     * transacción que la escritura, aunque la nota no tenga cambios.
+     *
+     * @param note La nota con los nuevos valores que se desean guardar.
+     * @param precondition Condición que debe cumplir la nota guardada, o
+     *                     {@code null} para no comprobar nada.
+     * @return Un futuro como el de {@link #submitUpdate(Note)}, o completado
+     *         con una {@link java.util.ConcurrentModificationException} si la
+     *         nota ya no existe o no cumple la condición.
+     * @throws IllegalArgumentException Si el título está vacío, la categoría
+     *         es nula o la nota es un resumen sin contenido.
+     * @see NoteWriteQueue#update(Note, Predicate)
+     */
+    public CompletableFuture<Note> submitUpdate(Note note, Predicate<Note> precondition) {
+        validate(note);
+
+        if (!note.isContentLoaded()) {
+            throw new IllegalArgumentException("La nota no tiene su contenido cargado");
+        }
+
+        if (!note.isModified() && precondition == null) {
+            return CompletableFuture.completedFuture(note);
+        }
+
+        boolean modified = note.isModified();
+        return writeQueue.update(note, precondition).thenApply(written -> {
+            // Una modificación condicional sin cambios solo comprueba la
+            // condición: no hay nada que reflejar ni que avisar
+            if (modified) {
+                cache.saved(written);
+                titles.saved(written);
+                trigrams.saved(written);
+                compactor.updated();
+                events.publish(NoteEvent.updated(written));
+            }
+            return note;
+        });
+    }
+
+    /**
+     * Obtiene la lista ordenada de fragmentos de una nota fragmentada, sin su
+     * texto. El editor la usa para abrir las notas muy largas sin leer todo
+     * su contenido.
+     *
+     * @param noteId Identificador de la nota.
+     * @return Los fragmentos, o una lista vacía si la nota no está
+     *         fragmentada o no existe.
+     */
+    public List<NoteChunk> getChunks(int noteId) {
+        return repository.getChunks(noteId);
+    }
+
+    /**
+     * Obtiene el texto de un fragmento.
+     *
+     * @param chunkId Identificador del fragmento.
+     * @return El texto, o {@code null} si el fragmento ya no existe.
+     */
+    public String getChunkContent(int chunkId) {
+        return repository.getChunk(chunkId);
+    }
+
+    /**
+     * Guarda una nota fragmentada después de validar su título y su
+     * categoría, escribiendo solo los fragmentos modificados, y espera a que
+     * se confirme.
+     *
+     * @param note Nota con el título y la categoría nuevos; su contenido se
+     *             ignora.
+     * @param chunks Fragmentos que forman el contenido completo, en orden.
+     * @throws IllegalArgumentException Si el título está vacío o la categoría
+     *         es nula.
+     * @throws IllegalStateException Si la base de datos rechaza la escritura,
+     *         por ejemplo porque la nota ya no está fragmentada.
+     */
+    public void updateChunks(Note note, List<NoteChunk> chunks) {
+        long start = UPDATE_CHUNKS.start();
+        await(UPDATE_CHUNKS, submitUpdateChunks(note, chunks));
+        UPDATE_CHUNKS.succeeded(start, 1);
+    }
+
+    /**
+     * Valida una nota fragmentada y encola su modificación sin esperar.
+     *
+     * @param note Nota con el título y la categoría nuevos.
+     * @param chunks Fragmentos que forman el contenido completo, en orden.
+     * @return Un futuro que se completa con la nota cuando se ha confirmado.
+     * @throws IllegalArgumentException Si el título está vacío o la categoría
+     *         es nula.
+     * @see #updateChunks(Note, List)
+     */
+    public CompletableFuture<Note> submitUpdateChunks(Note note, List<NoteChunk> chunks) {
+        validate(note);
+
+        // El contenido completo no está en memoria: la caché y los eventos
+        // reciben el resumen
+        Note written = Note.summary(note.getId(), note.getTitle(), note.getCategory());
+        return writeQueue.updateChunks(note, chunks).thenApply(saved -> {
+            cache.saved(written);
+            titles.saved(written);
+            trigrams.saved(written);
+            compactor.updated();
+            events.publish(NoteEvent.updated(written));
+            return saved;
+        });
+    }
+
+    /**
+     * Copia los datos de una nota tal como se envían a la cola, para reflejar
+     * en la caché y en los eventos lo que se escribió aunque el llamante la
+     * modifique después.
+     */
+    private static Note copyOf(Note note) {
+        return new Note(note.getId(), note.getTitle(), note.getContent(), note.getCategory());
+    }
+
+    /**
+     * Comprueba las reglas comunes a altas y modificaciones.
+     */
+    private static void validate(Note note) {
         if (note.getTitle() == null || note.getTitle().isBlank()) {
             throw new IllegalArgumentException("El título no puede estar vacío");
         }
@@ -109,7 +612,22 @@ public class NoteService {
         if (note.getCategory() == null) {
             throw new IllegalArgumentException("La categoría no puede ser nula");
         }
+    }
 
-        repository.update(note);
+    /**
+     * Espera a que una escritura encolada termine y traduce su error a una
+     * excepción no comprobada, que se cuenta como error de la operación.
+     */
+    private static <T> T await(OperationMetrics operation, CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            operation.failed();
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("No se pudo guardar en la base de datos", cause);
+        }
     }
 }
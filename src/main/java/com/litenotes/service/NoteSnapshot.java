@@ -0,0 +1,425 @@
+package com.litenotes.service;
+
+import com.litenotes.model.Note;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Versión inmutable del índice de resúmenes de la {@link NoteCache}: el
+ * título y la categoría de todas las notas, ordenados por identificador, con
+ * un índice secundario por categoría.
+ *
+ * <p>Una instancia no cambia nunca después de creada. La caché publica la
+ * versión vigente en una referencia atómica; los lectores la toman y la
+ * recorren sin bloqueos, y cada escritura confirmada crea la versión
+ * siguiente con {@link #with(Note, int)} o {@link #without(int)}.</p>
+ *
+ * <p>Las notas se guardan en bloques ordenados de como mucho
+ * {@value #BLOCK_SIZE} entradas. Una versión nueva copia solo el bloque que
+ * cambia y la lista de bloques, y comparte el resto con la anterior, por lo
+ * que el coste de una escritura no crece con el número de notas.</p>
+ *
+ * <p>Mientras el índice no está cargado la versión no tiene notas
+ * ({@link #isLoaded()} devuelve {@code false}), pero su número de versión
+ * sigue avanzando con cada escritura, lo que permite descartar una carga que
+ * se haya cruzado con ella.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public final class NoteSnapshot {
+
+    /** Número máximo de notas de cada bloque. */
+    static final int BLOCK_SIZE = 256;
+
+    private final long version;
+    private final Index all;
+    private final Map<Integer, Index> byCategory;
+    private final boolean tooLarge;
+
+    private NoteSnapshot(long version, Index all, Map<Integer, Index> byCategory, boolean tooLarge) {
+        this.version = version;
+        this.all = all;
+        this.byCategory = byCategory;
+        this.tooLarge = tooLarge;
+    }
+
+    /**
+     * Crea una versión sin cargar.
+     *
+     * @param version Número de versión.
+     * @param tooLarge Indica que la tabla supera el máximo de la caché y no
+     *                 debe intentarse la carga.
+     * @return La versión vacía.
+     */
+    static NoteSnapshot unloaded(long version, boolean tooLarge) {
+        return new NoteSnapshot(version, null, Map.of(), tooLarge);
+    }
+
+    /**
+     * Crea una versión cargada con los resúmenes indicados.
+     *
+     * @param version Número de versión.
+     * @param notes Resúmenes de todas las notas, en cualquier orden. La
+     *              versión se queda con los objetos: no deben modificarse.
+     * @return La versión cargada.
+     */
+    static NoteSnapshot of(long version, List<Note> notes) {
+        List<Note> sorted = new ArrayList<>(notes);
+        sorted.sort(Comparator.comparingInt(Note::getId));
+
+        Map<Integer, List<Note>> categories = new HashMap<>();
+        for (Note note : sorted) {
+            categories.computeIfAbsent(categoryIdOf(note), id -> new ArrayList<>()).add(note);
+        }
+
+        Map<Integer, Index> byCategory = new HashMap<>();
+        categories.forEach((id, list) -> byCategory.put(id, Index.of(list)));
+
+        return new NoteSnapshot(version, Index.of(sorted), byCategory, false);
+    }
+
+    /**
+     * Devuelve el número de versión, que aumenta con cada escritura.
+     *
+     * @return El número de versión.
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Indica si la versión contiene el índice de notas.
+     *
+     * @return {@code true} si está cargado.
+     */
+    public boolean isLoaded() {
+        return all != null;
+    }
+
+    /**
+     * Indica que la tabla supera el máximo de la caché y no se carga.
+     *
+     * @return {@code true} si no debe intentarse la carga.
+     */
+    boolean isTooLarge() {
+        return tooLarge;
+    }
+
+    /**
+     * Devuelve el número de notas del índice.
+     *
+     * @return El número de notas, o {@code -1} si no está cargado.
+     */
+    public int size() {
+        return all == null ? -1 : all.size;
+    }
+
+    /**
+     * Obtiene el resumen de una nota.
+     *
+     * @param id Identificador de la nota.
+     * @return Una copia del resumen, o {@code null} si no está en el índice.
+     */
+    public Note get(int id) {
+        Note note = all == null ? null : all.get(id);
+        return note == null ? null : summaryOf(note);
+    }
+
+    /**
+     * Obtiene una página de resúmenes, de la nota más reciente a la más
+     * antigua.
+     *
+     * @param afterId Identificador de la última nota de la página anterior, o
+     *                {@code 0} para la primera página.
+     * @param limit Número máximo de notas.
+     * @param categoryId Categoría por la que filtrar, o {@code 0} para todas.
+     * @return Copias de los resúmenes, o una lista vacía si no está cargado.
+     */
+    public List<Note> page(int afterId, int limit, int categoryId) {
+        Index source = indexFor(categoryId);
+        return source == null
+                ? Collections.emptyList()
+                : source.descending(afterId > 0 ? afterId : Integer.MAX_VALUE, limit);
+    }
+
+    /**
+     * Obtiene todos los resúmenes, de la nota más reciente a la más antigua.
+     *
+     * @param categoryId Categoría por la que filtrar, o {@code 0} para todas.
+     * @return Copias de los resúmenes, o una lista vacía si no está cargado.
+     */
+    public List<Note> all(int categoryId) {
+        Index source = indexFor(categoryId);
+        return source == null
+                ? Collections.emptyList()
+                : source.descending(Integer.MAX_VALUE, source.size);
+    }
+
+    /**
+     * Crea la versión siguiente con una nota añadida o modificada.
+     *
+     * @param note Nota guardada; solo se toman su identificador, su título y
+     *             su categoría.
+     * @param maxNotes Número máximo de notas del índice; si se supera, la
+     *                 versión siguiente queda sin cargar.
+     * @return La versión siguiente.
+     */
+    NoteSnapshot with(Note note, int maxNotes) {
+        if (all == null) {
+            return unloaded(version + 1, tooLarge);
+        }
+
+        Note summary = summaryOf(note);
+        int id = summary.getId();
+        int categoryId = categoryIdOf(summary);
+
+        Note previous = all.get(id);
+        Index nextAll = all.with(summary);
+        if (nextAll.size > maxNotes) {
+            return unloaded(version + 1, true);
+        }
+
+        Map<Integer, Index> nextCategories = new HashMap<>(byCategory);
+        if (previous != null && categoryIdOf(previous) != categoryId) {
+            removeFrom(nextCategories, categoryIdOf(previous), id);
+        }
+        nextCategories.compute(categoryId,
+                (key, current) -> (current == null ? Index.EMPTY : current).with(summary));
+
+        return new NoteSnapshot(version + 1, nextAll, nextCategories, false);
+    }
+
+    /**
+     * Crea la versión siguiente sin la nota indicada.
+     *
+     * @param id Identificador de la nota eliminada.
+     * @return La versión siguiente.
+     */
+    NoteSnapshot without(int id) {
+        if (all == null) {
+            return unloaded(version + 1, tooLarge);
+        }
+
+        Note previous = all.get(id);
+        if (previous == null) {
+            return new NoteSnapshot(version + 1, all, byCategory, false);
+        }
+
+        Map<Integer, Index> nextCategories = new HashMap<>(byCategory);
+        removeFrom(nextCategories, categoryIdOf(previous), id);
+
+        return new NoteSnapshot(version + 1, all.without(id), nextCategories, false);
+    }
+
+    private Index indexFor(int categoryId) {
+        if (all == null) {
+            return null;
+        }
+        return categoryId == 0 ? all : byCategory.getOrDefault(categoryId, Index.EMPTY);
+    }
+
+    private static void removeFrom(Map<Integer, Index> categories, int categoryId, int id) {
+        Index category = categories.get(categoryId);
+        if (category == null) {
+            return;
+        }
+
+        Index next = category.without(id);
+        if (next.size == 0) {
+            categories.remove(categoryId);
+        } else {
+            categories.put(categoryId, next);
+        }
+    }
+
+    private static int categoryIdOf(Note note) {
+        return note.getCategory() == null ? 0 : note.getCategory().getId();
+    }
+
+    private static Note summaryOf(Note note) {
+        return Note.summary(note.getId(), note.getTitle(), note.getCategory());
+    }
+
+    /**
+     * Lista inmutable de notas ordenada por identificador, repartida en
+     * bloques que las versiones sucesivas comparten.
+     */
+    private static final class Index {
+
+        static final Index EMPTY = new Index(new Note[0][], 0);
+
+        /** Bloques no vacíos, ordenados, con los identificadores crecientes. */
+        private final Note[][] blocks;
+        private final int size;
+
+        private Index(Note[][] blocks, int size) {
+            this.blocks = blocks;
+            this.size = size;
+        }
+
+        /**
+         * Crea un índice a partir de notas ya ordenadas por identificador,
+         * con los bloques llenos.
+         */
+        static Index of(List<Note> sorted) {
+            int count = (sorted.size() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            Note[][] blocks = new Note[count][];
+            for (int i = 0; i < count; i++) {
+                int from = i * BLOCK_SIZE;
+                blocks[i] = sorted.subList(from, Math.min(from + BLOCK_SIZE, sorted.size()))
+                        .toArray(new Note[0]);
+            }
+            return new Index(blocks, sorted.size());
+        }
+
+        Note get(int id) {
+            int block = blockFor(id);
+            if (block == blocks.length) {
+                return null;
+            }
+
+            int position = find(blocks[block], id);
+            return position >= 0 ? blocks[block][position] : null;
+        }
+
+        Index with(Note note) {
+            int id = note.getId();
+            if (blocks.length == 0) {
+                return new Index(new Note[][] {{note}}, 1);
+            }
+
+            // Una nota posterior a todas, el caso habitual, va al último bloque
+            int block = Math.min(blockFor(id), blocks.length - 1);
+            Note[] current = blocks[block];
+            int position = find(current, id);
+
+            if (position >= 0) {
+                Note[] replaced = current.clone();
+                replaced[position] = note;
+                return new Index(replace(block, replaced), size);
+            }
+
+            int insertAt = -position - 1;
+            Note[] grown = new Note[current.length + 1];
+            System.arraycopy(current, 0, grown, 0, insertAt);
+            grown[insertAt] = note;
+            System.arraycopy(current, insertAt, grown, insertAt + 1, current.length - insertAt);
+
+            if (grown.length <= BLOCK_SIZE) {
+                return new Index(replace(block, grown), size + 1);
+            }
+
+            // El bloque lleno se parte en dos: al final de la lista se deja
+            // lleno el primero, para que las altas sigan llenando bloques
+            int split = block == blocks.length - 1 && insertAt == current.length
+                    ? BLOCK_SIZE
+                    : grown.length / 2;
+            Note[][] next = new Note[blocks.length + 1][];
+            System.arraycopy(blocks, 0, next, 0, block);
+            next[block] = Arrays.copyOfRange(grown, 0, split);
+            next[block + 1] = Arrays.copyOfRange(grown, split, grown.length);
+            System.arraycopy(blocks, block + 1, next, block + 2, blocks.length - block - 1);
+            return new Index(next, size + 1);
+        }
+
+        Index without(int id) {
+            int block = blockFor(id);
+            if (block == blocks.length) {
+                return this;
+            }
+
+            Note[] current = blocks[block];
+            int position = find(current, id);
+            if (position < 0) {
+                return this;
+            }
+
+            if (current.length == 1) {
+                Note[][] next = new Note[blocks.length - 1][];
+                System.arraycopy(blocks, 0, next, 0, block);
+                System.arraycopy(blocks, block + 1, next, block, blocks.length - block - 1);
+                return new Index(next, size - 1);
+            }
+
+            Note[] shrunk = new Note[current.length - 1];
+            System.arraycopy(current, 0, shrunk, 0, position);
+            System.arraycopy(current, position + 1, shrunk, position, shrunk.length - position);
+            return new Index(replace(block, shrunk), size - 1);
+        }
+
+        /**
+         * Devuelve copias de hasta {@code limit} notas con identificador
+         * menor que {@code beforeId}, de mayor a menor.
+         */
+        List<Note> descending(int beforeId, int limit) {
+            List<Note> notes = new ArrayList<>(Math.min(limit, size));
+
+            int block = Math.min(blockFor(beforeId), blocks.length - 1);
+            for (; block >= 0 && notes.size() < limit; block--) {
+                Note[] current = blocks[block];
+                int position = find(current, beforeId);
+                int from = position >= 0 ? position - 1 : -position - 2;
+                for (int i = from; i >= 0 && notes.size() < limit; i--) {
+                    notes.add(summaryOf(current[i]));
+                }
+            }
+
+            return notes;
+        }
+
+        /**
+         * Devuelve el primer bloque cuya última nota tiene un identificador
+         * mayor o igual que {@code id}, o el número de bloques si no hay
+         * ninguno.
+         */
+        private int blockFor(int id) {
+            int low = 0;
+            int high = blocks.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                Note[] block = blocks[middle];
+                if (block[block.length - 1].getId() < id) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private Note[][] replace(int block, Note[] replacement) {
+            Note[][] next = blocks.clone();
+            next[block] = replacement;
+            return next;
+        }
+
+        /**
+         * Busca un identificador en un bloque, con el mismo convenio que
+         * {@link Arrays#binarySearch(int[], int)}.
+         */
+        private static int find(Note[] block, int id) {
+            int low = 0;
+            int high = block.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int current = block[middle].getId();
+                if (current < id) {
+                    low = middle + 1;
+                } else if (current > id) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+}
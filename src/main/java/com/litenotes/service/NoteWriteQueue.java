@@ -0,0 +1,493 @@
+package com.litenotes.service;
+
+import com.litenotes.model.Note;
+import com.litenotes.model.NoteChunk;
+import com.litenotes.repository.NoteRepository;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Cola de escritura diferida de notas con confirmación en grupo. Todas las
+ * altas, modificaciones y bajas que realiza {@link NoteService} pasan por un
+ * único hilo escritor que las agrupa en transacciones, de forma que muchas
+ * operaciones comparten una sola sincronización con el disco.
+ *
+ * <p>El hilo escritor toma la primera operación pendiente y sigue recogiendo
+ * las que llegan hasta reunir {@value #DEFAULT_BATCH_SIZE} operaciones o hasta
+ * que pasa una breve ventana de espera. Dentro de un lote, las modificaciones
+ * de la misma nota se reducen a una sola fila: si llegan desde la misma
+ * instancia de {@link Note} solo cuenta la última, y si llegan desde copias
+ * distintas se combinan los campos que cambia cada una, igual que si se
+ * hubieran escrito por orden. Una baja anula las modificaciones de esa nota
+ * del mismo lote, que fallan igual que las de una nota que ya no existe.</p>
+ *
+ * <p>Cuando una operación se confirma, la nota del llamante toma como
+ * guardados los valores que se escribieron ({@link Note#markSaved(Note)}),
+ * de modo que su siguiente modificación solo escribe lo que cambie a partir
+ * de ahí. Las modificaciones descartadas al reducir el lote no se marcan.</p>
+ *
+ * <p>Las ediciones de notas fragmentadas ({@link #updateChunks}) y las
+ * modificaciones y bajas condicionales pasan por la misma cola, para que se
+ * apliquen en orden con el resto, pero cada una en su propia transacción. La
+ * condición se comprueba en esa transacción, así que ninguna otra escritura
+ * puede colarse entre la comprobación y la escritura.</p>
+ *
+ * <p>Cada operación devuelve un {@link CompletableFuture} que se completa
+ * cuando su transacción se ha confirmado en disco. Si el lote falla, sus
+ * operaciones se reintentan una a una para que solo falle la que provocó el
+ * error.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public final class NoteWriteQueue {
+
+    /** Propiedad de sistema con el número máximo de operaciones por lote. */
+    public static final String BATCH_SIZE_PROPERTY = "litenotes.write.batchSize";
+
+    /** Propiedad de sistema con la ventana de espera de un lote, en milisegundos. */
+    public static final String LINGER_PROPERTY = "litenotes.write.lingerMs";
+
+    private static final int DEFAULT_BATCH_SIZE = 256;
+    private static final long DEFAULT_LINGER_MS = 2;
+
+    private static NoteWriteQueue shared;
+
+    private enum Kind { INSERT, UPDATE, DELETE, CHUNKS }
+
+    /**
+     * Operación pendiente. {@code data} es una copia de la nota tomada al
+     * encolarla, para que los cambios posteriores del llamante no se cuelen en
+     * la escritura; {@code original} recibe el identificador generado y los
+     * valores guardados.
+     * {@code chunks} solo se usa en las ediciones por fragmentos, y
+     * {@code precondition} en las operaciones condicionales.
+     */
+    private record Mutation(Kind kind, Note original, Note data, int id, List<NoteChunk> chunks,
+                            Predicate<Note> precondition, CompletableFuture<Note> future) {}
+
+    /** Marca de fin que detiene el hilo escritor. */
+    private static final Mutation STOP = new Mutation(null, null, null, 0, null, null, null);
+
+    private final NoteRepository repository;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final BlockingQueue<Mutation> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+
+    private volatile boolean closed;
+
+    /**
+     * Crea una cola y arranca su hilo escritor.
+     *
+     * @param repository Repositorio en el que se aplican los lotes.
+     * @param batchSize Número máximo de operaciones por transacción.
+     * @param lingerMs Tiempo máximo que se espera a que lleguen más
+     *                 operaciones antes de confirmar un lote.
+     */
+    public NoteWriteQueue(NoteRepository repository, int batchSize, long lingerMs) {
+        this.repository = repository;
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        this.writer = new Thread(this::run, "litenotes-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Devuelve la cola compartida por toda la aplicación, creándola en el
+     * primer uso con la configuración de las propiedades de sistema.
+     *
+     * @return La cola de escritura compartida.
+     */
+    public static synchronized NoteWriteQueue shared() {
+        if (shared == null) {
+            shared = new NoteWriteQueue(
+                    new NoteRepository(),
+                    Integer.getInteger(BATCH_SIZE_PROPERTY, DEFAULT_BATCH_SIZE),
+                    Long.getLong(LINGER_PROPERTY, DEFAULT_LINGER_MS));
+        }
+        return shared;
+    }
+
+    /**
+     * Cierra la cola compartida, si existe, esperando a que se escriban las
+     * operaciones pendientes.
+     */
+    public static synchronized void shutdownShared() {
+        if (shared != null) {
+            shared.close();
+            shared = null;
+        }
+    }
+
+    /**
+     * Encola el alta de una nota.
+     *
+     * @param note Nota que se desea insertar. Cuando se confirma, recibe el
+     *             identificador generado.
+     * @return Un futuro que se completa con la misma nota una vez guardada.
+     */
+    public CompletableFuture<Note> insert(Note note) {
+        return enqueue(Kind.INSERT, note, 0);
+    }
+
+    /**
+     * Encola la modificación de una nota existente.
+     *
+     * @param note Nota con los nuevos valores.
+     * @return Un futuro que se completa, una vez guardada, con una copia de
+     *         la fila tal como quedó escrita, que puede incluir los cambios de
+     *         otras copias de la nota escritos en el mismo lote, o con una
+     *         {@link NoSuchElementException} si la nota ya no
+     *         existe.
+     */
+    public CompletableFuture<Note> update(Note note) {
+        return update(note, null);
+    }
+
+    /**
+     * Encola la modificación condicional de una nota existente: justo antes
+     * de escribirla se lee la versión guardada y, si no cumple la condición,
+     * no se escribe nada.
+     *
+     * @param note Nota con los nuevos valores.
+     * @param precondition Condición que debe cumplir la nota guardada, leída
+     *                     completa, o {@code null} para no comprobar nada.
+     * @return Un futuro que se completa como {@link #update(Note)}, o con una
+     *         {@link ConcurrentModificationException} si la nota ya no existe
+     *         o no cumple la condición.
+     */
+    public CompletableFuture<Note> update(Note note, Predicate<Note> precondition) {
+        return enqueue(Kind.UPDATE, note, note.getId(), null, precondition);
+    }
+
+    /**
+     * Encola la modificación de una nota fragmentada, de la que solo se
+     * escriben los fragmentos que han cambiado.
+     *
+     * @param note Nota con el título y la categoría nuevos; su contenido se
+     *             ignora.
+     * @param chunks Fragmentos que forman el contenido completo, en orden.
+     * @return Un futuro que se completa con la misma nota una vez guardada.
+     * @see NoteRepository#saveChunks(Note, List)
+     */
+    public CompletableFuture<Note> updateChunks(Note note, List<NoteChunk> chunks) {
+        return enqueue(Kind.CHUNKS, note, note.getId(), List.copyOf(chunks), null);
+    }
+
+    /**
+     * Encola la baja de una nota.
+     *
+     * @param id Identificador de la nota que se desea eliminar.
+     * @return Un futuro que se completa cuando la baja se ha confirmado.
+     */
+    public CompletableFuture<Void> delete(int id) {
+        return delete(id, null);
+    }
+
+    /**
+     * Encola la baja condicional de una nota, que solo se aplica si la
+     * versión guardada cumple la condición justo antes de eliminarla.
+     *
+     * @param id Identificador de la nota que se desea eliminar.
+     * @param precondition Condición que debe cumplir la nota guardada, leída
+     *                     completa, o {@code null} para no comprobar nada.
+     * @return Un futuro que se completa cuando la baja se ha confirmado, o
+     *         con una {@link ConcurrentModificationException} si la nota ya
+     *         no existe o no cumple la condición.
+     */
+    public CompletableFuture<Void> delete(int id, Predicate<Note> precondition) {
+        return enqueue(Kind.DELETE, null, id, null, precondition).thenAccept(ignored -> {});
+    }
+
+    /**
+     * Deja de aceptar operaciones, espera a que se escriban las pendientes y
+     * detiene el hilo escritor.
+     */
+    public void close() {
+        closed = true;
+        queue.offer(STOP);
+
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CompletableFuture<Note> enqueue(Kind kind, Note note, int id) {
+        return enqueue(kind, note, id, null, null);
+    }
+
+    private CompletableFuture<Note> enqueue(Kind kind, Note note, int id, List<NoteChunk> chunks,
+                                            Predicate<Note> precondition) {
+        if (closed) {
+            return CompletableFuture.failedFuture(
+                    new IllegalStateException("La cola de escritura está cerrada"));
+        }
+
+        Note data = note == null ? null : note.copy();
+        CompletableFuture<Note> future = new CompletableFuture<>();
+
+        queue.offer(new Mutation(kind, note, data, id, chunks, precondition, future));
+        return future;
+    }
+
+    /**
+     * Bucle del hilo escritor: reúne un lote por iteración y lo confirma.
+     */
+    private void run() {
+        boolean running = true;
+
+        while (running) {
+            List<Mutation> batch = new ArrayList<>();
+
+            try {
+                Mutation first = queue.take();
+                if (first == STOP) {
+                    break;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Mutation next = remaining > 0
+                            ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                            : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    if (next == STOP) {
+                        running = false;
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                running = false;
+            }
+
+            if (!batch.isEmpty()) {
+                flushInOrder(batch);
+            }
+        }
+
+        // Operaciones que llegaron mientras se cerraba la cola
+        Mutation late;
+        while ((late = queue.poll()) != null) {
+            if (late != STOP) {
+                late.future().completeExceptionally(
+                        new IllegalStateException("La cola de escritura está cerrada"));
+            }
+        }
+    }
+
+    /**
+     * Aplica un lote respetando el orden de llegada: las ediciones por
+     * fragmentos y las operaciones condicionales no se agrupan, así que se
+     * aplican cada una en su propia transacción, después de las operaciones
+     * que llegaron antes que ellas.
+     */
+    private void flushInOrder(List<Mutation> batch) {
+        List<Mutation> pending = new ArrayList<>();
+
+        for (Mutation mutation : batch) {
+            if (mutation.kind() != Kind.CHUNKS && mutation.precondition() == null) {
+                pending.add(mutation);
+                continue;
+            }
+
+            if (!pending.isEmpty()) {
+                flush(pending);
+                pending = new ArrayList<>();
+            }
+            applyAlone(mutation);
+        }
+
+        if (!pending.isEmpty()) {
+            flush(pending);
+        }
+    }
+
+    /**
+     * Aplica en su propia transacción una edición por fragmentos o una
+     * operación condicional.
+     */
+    private void applyAlone(Mutation mutation) {
+        try {
+            boolean applied = switch (mutation.kind()) {
+                case CHUNKS -> {
+                    repository.saveChunks(mutation.data(), mutation.chunks());
+                    yield true;
+                }
+                case UPDATE -> repository.updateIf(mutation.data(), mutation.precondition());
+                case DELETE -> repository.deleteIf(mutation.id(), mutation.precondition());
+                case INSERT -> throw new IllegalStateException("Las altas no admiten condiciones");
+            };
+
+            if (!applied) {
+                mutation.future().completeExceptionally(
+                        new ConcurrentModificationException("La nota " + mutation.id() + " ha cambiado"));
+                return;
+            }
+
+            if (mutation.original() != null) {
+                mutation.original().markSaved(mutation.data());
+            }
+            complete(mutation, mutation.data());
+        } catch (SQLException | RuntimeException e) {
+            mutation.future().completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Reduce el lote y lo aplica en una transacción. Si falla, reintenta cada
+     * operación por separado.
+     */
+    private void flush(List<Mutation> batch) {
+        try {
+            Map<Integer, Note> rows = apply(batch);
+            for (Mutation mutation : batch) {
+                complete(mutation, rows.get(mutation.id()));
+            }
+        } catch (SQLException e) {
+            if (batch.size() == 1) {
+                batch.get(0).future().completeExceptionally(e);
+                return;
+            }
+
+            for (Mutation mutation : batch) {
+                flush(List.of(mutation));
+            }
+        } catch (RuntimeException e) {
+            batch.forEach(mutation -> mutation.future().completeExceptionally(e));
+        }
+    }
+
+    /**
+     * Reduce el lote y lo aplica en una transacción. Las altas y las
+     * modificaciones que se escriben marcan sus notas como guardadas. Las
+     * modificaciones de notas que ya no existen, porque se eliminaron antes o
+     * en el mismo lote, no se marcan.
+     *
+     * @return La fila escrita para cada nota modificada que existía, por
+     *         identificador.
+     */
+    private Map<Integer, Note> apply(List<Mutation> batch) throws SQLException {
+        List<Mutation> inserts = new ArrayList<>();
+        Map<Integer, Map<Note, Mutation>> updates = new LinkedHashMap<>();
+        Set<Integer> deletes = new LinkedHashSet<>();
+
+        for (Mutation mutation : batch) {
+            switch (mutation.kind()) {
+                case INSERT -> inserts.add(mutation);
+                case UPDATE -> {
+                    if (!deletes.contains(mutation.id())) {
+                        // Por instancia solo cuenta la última, en el orden en
+                        // que llegó
+                        Map<Note, Mutation> sources = updates.computeIfAbsent(
+                                mutation.id(), id -> new LinkedHashMap<>());
+                        sources.remove(mutation.original());
+                        sources.put(mutation.original(), mutation);
+                    }
+                }
+                case DELETE -> {
+                    updates.remove(mutation.id());
+                    deletes.add(mutation.id());
+                }
+            }
+        }
+
+        Map<Integer, Note> rows = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Map<Note, Mutation>> entry : updates.entrySet()) {
+            Note row = null;
+            for (Mutation mutation : entry.getValue().values()) {
+                row = row == null ? mutation.data().copy() : merge(row, mutation.data());
+            }
+            rows.put(entry.getKey(), row);
+        }
+
+        int[] counts = repository.applyBatch(inserts.stream().map(Mutation::data).toList(), rows.values(), deletes);
+
+        // Los recuentos siguen el orden de las filas
+        var ids = rows.keySet().iterator();
+        for (int count : counts) {
+            int id = ids.next();
+            if (count == 0) {
+                ids.remove();
+                updates.remove(id);
+            }
+        }
+
+        for (Mutation mutation : inserts) {
+            mutation.original().markSaved(mutation.data());
+        }
+        for (Map<Note, Mutation> sources : updates.values()) {
+            for (Mutation mutation : sources.values()) {
+                mutation.original().markSaved(mutation.data());
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Combina la fila reunida hasta ahora con una modificación posterior
+     * hecha desde otra copia de la nota: la modificación gana en los campos
+     * que cambia y conserva los que la fila ya cambiaba.
+     */
+    private static Note merge(Note row, Note later) {
+        Note merged = later.copy();
+        if (!later.isTitleModified() && row.isTitleModified()) {
+            merged.setTitle(row.getTitle());
+        }
+        if (!later.isContentModified() && row.isContentModified()) {
+            merged.setContent(row.getContent());
+        }
+        if (!later.isCategoryModified() && row.isCategoryModified()) {
+            merged.setCategory(row.getCategory());
+        }
+        return merged;
+    }
+
+    /**
+     * Completa una operación confirmada. Las modificaciones reciben una copia
+     * de la fila escrita para su nota; si no hay fila, porque la nota ya no
+     * existía o una baja del mismo lote la eliminó, fallan con una
+     * {@link NoSuchElementException}.
+     */
+    private static void complete(Mutation mutation, Note row) {
+        switch (mutation.kind()) {
+            case INSERT -> {
+                mutation.original().setId(mutation.data().getId());
+                mutation.future().complete(mutation.original());
+            }
+            case UPDATE -> {
+                if (row == null) {
+                    mutation.future().completeExceptionally(
+                            new NoSuchElementException("La nota " + mutation.id() + " ya no existe"));
+                    return;
+                }
+                Note written = row.copy();
+                written.markSaved();
+                mutation.future().complete(written);
+            }
+            default -> mutation.future().complete(mutation.original());
+        }
+    }
+}
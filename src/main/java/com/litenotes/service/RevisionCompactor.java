@@ -0,0 +1,112 @@
+package com.litenotes.service;
+
+import com.litenotes.repository.RevisionRepository;
+
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Compacta en segundo plano el historial de revisiones de las notas.
+ *
+ * <p>Cada modificación confirmada deja en el historial una copia completa de
+ * la versión anterior; {@link NoteService} avisa al compactador, que espera
+ * {@value #DEFAULT_DELAY_MS} ms (propiedad {@value #DELAY_PROPERTY}) para
+ * reunir las copias de varios guardados seguidos, como los del guardado
+ * automático, y después las reescribe como diferencias con
+ * {@link RevisionRepository#compactPending(int)} en un hilo propio.</p>
+ *
+ * <p>Las copias que quedan pendientes al cerrar la aplicación son válidas
+ * tal cual y se compactan tras la siguiente modificación.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public final class RevisionCompactor {
+
+    /** Propiedad de sistema con la espera antes de compactar, en milisegundos. */
+    public static final String DELAY_PROPERTY = "litenotes.revisions.compactDelayMs";
+
+    private static final long DEFAULT_DELAY_MS = 2000;
+
+    /** Revisiones que se compactan en cada transacción. */
+    private static final int BATCH_SIZE = 100;
+
+    private static RevisionCompactor shared;
+
+    private final RevisionRepository repository;
+    private final long delayMillis;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * Crea un compactador sobre el repositorio indicado.
+     *
+     * @param repository Repositorio del historial.
+     * @param delayMillis Espera desde el primer aviso hasta compactar.
+     */
+    public RevisionCompactor(RevisionRepository repository, long delayMillis) {
+        this.repository = repository;
+        this.delayMillis = delayMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "litenotes-revisions");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Devuelve el compactador compartido por toda la aplicación.
+     *
+     * @return El compactador compartido.
+     */
+    public static synchronized RevisionCompactor shared() {
+        if (shared == null) {
+            shared = new RevisionCompactor(new RevisionRepository(),
+                    Long.getLong(DELAY_PROPERTY, DEFAULT_DELAY_MS));
+        }
+        return shared;
+    }
+
+    /**
+     * Avisa de que se ha confirmado una modificación. Programa una
+     * compactación si no hay ya una esperando.
+     */
+    public void updated() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.schedule(this::run, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Compacta todas las revisiones pendientes en el hilo que llama. Las
+     * compactaciones no se solapan, para que cada una vea terminadas las
+     * revisiones anteriores de cada nota.
+     *
+     * @return El número de revisiones compactadas.
+     * @throws SQLException Si falla alguna lectura o escritura.
+     */
+    public synchronized int compactAll() throws SQLException {
+        int total = 0;
+        int compacted;
+        do {
+            compacted = repository.compactPending(BATCH_SIZE);
+            total += compacted;
+        } while (compacted == BATCH_SIZE);
+        return total;
+    }
+
+    private void run() {
+        // Los avisos que lleguen a partir de aquí programan otra pasada
+        scheduled.set(false);
+
+        try {
+            compactAll();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.litenotes.service;
+
+import com.litenotes.repository.Database;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecutor compartido en el que se realizan todas las operaciones de los
+ * servicios asíncronos de LiteNotes ({@link AsyncNoteService} y
+ * {@link AsyncCategoryService}), de forma que el hilo de JavaFX nunca espera
+ * a la base de datos.
+ *
+ * <p>Usa un número fijo de hilos demonio, uno más que las conexiones de
+ * lectura disponibles: más hilos solo esperarían a que el pool de
+ * {@link Database} quedara libre.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public final class ServiceExecutor {
+
+    private static ExecutorService executor;
+
+    private ServiceExecutor() {}
+
+    /**
+     * Devuelve el ejecutor compartido, creándolo en el primer uso.
+     *
+     * @return El ejecutor de operaciones de base de datos.
+     */
+    public static synchronized ExecutorService get() {
+        if (executor == null) {
+            int threads = Database.getReaderCount() + 1;
+            executor = Executors.newFixedThreadPool(threads, daemonThreads());
+        }
+        return executor;
+    }
+
+    /**
+     * Detiene el ejecutor compartido. Las tareas pendientes se descartan.
+     */
+    public static synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, "litenotes-db-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,561 @@
+package com.litenotes.service;
+
+import com.litenotes.metrics.Metrics;
+import com.litenotes.metrics.OperationMetrics;
+import com.litenotes.model.Note;
+import com.litenotes.repository.NoteRepository;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * Índice en memoria de las palabras de los títulos, para filtrar la lista de
+ * notas mientras el usuario escribe sin consultar la base de datos.
+ *
+ * <p>Cada título se divide en palabras que se normalizan sin mayúsculas ni
+ * tildes ({@code "Canción"} se guarda como {@code "cancion"} y {@code "ñu"}
+ * como {@code "nu"}), y las palabras se guardan en un árbol de prefijos cuyos
+ * nodos conocen las notas que contienen la palabra que termina en ellos. Una
+ * consulta recorre el árbol hasta el prefijo y reúne las notas de esa rama,
+ * por lo que su coste depende del número de resultados y no del de notas.</p>
+ *
+ * <p>Como la {@link NoteCache}, el índice se carga completo en segundo plano
+ * la primera vez que se consulta, solo si la tabla no supera
+ * {@value #MAX_NOTES_PROPERTY} notas, y después se mantiene al día con cada
+ * escritura confirmada de {@link NoteService}. Mientras no está cargado, las
+ * consultas devuelven {@code null}. Se desactiva con la propiedad de sistema
+ * {@value #ENABLED_PROPERTY}{@code =false}.</p>
+ *
+ * <p>Las consultas se hacen con un {@link Search}, que recuerda el resultado
+ * de la anterior: si el nuevo texto solo añade letras o palabras, se filtran
+ * las notas que ya coincidían en lugar de volver a recorrer el árbol.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public final class TitleIndex {
+
+    /** Propiedad de sistema que activa o desactiva el índice. */
+    public static final String ENABLED_PROPERTY = "litenotes.titleIndex.enabled";
+
+    /** Propiedad de sistema con el número máximo de notas del índice. */
+    public static final String MAX_NOTES_PROPERTY = "litenotes.titleIndex.maxNotes";
+
+    private static final int DEFAULT_MAX_NOTES = 500_000;
+
+    private static final OperationMetrics SEARCH = Metrics.operation("TitleIndex.search");
+
+    /**
+     * Coste relativo de comprobar una nota del resultado anterior frente al
+     * de reunir una aparición de la rama del árbol.
+     */
+    private static final int FILTER_COST = 8;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static TitleIndex shared;
+
+    /**
+     * Nota indexada: su resumen y las palabras normalizadas de su título,
+     * sin repetir.
+     */
+    private record Entry(Note summary, String[] words) {}
+
+    private final NoteRepository repository;
+    private final boolean enabled;
+    private final int maxNotes;
+    private final AtomicBoolean loading = new AtomicBoolean();
+
+    /** Raíz del árbol; {@code null} mientras no está cargado. */
+    private Node root;
+    private Map<Integer, Entry> entries;
+
+    /** Se incrementa con cada cambio, para descartar cargas y consultas antiguas. */
+    private long version;
+
+    /** Indica que la tabla supera el máximo y no se intenta cargar. */
+    private boolean tooLarge;
+
+    /**
+     * Crea un índice sobre el repositorio indicado.
+     *
+     * @param repository Repositorio del que se cargan los títulos.
+     * @param enabled Indica si el índice está activo.
+     * @param maxNotes Número máximo de notas del índice.
+     */
+    public TitleIndex(NoteRepository repository, boolean enabled, int maxNotes) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.maxNotes = maxNotes;
+    }
+
+    /**
+     * Devuelve el índice compartido por toda la aplicación, creándolo en el
+     * primer uso con la configuración de las propiedades de sistema.
+     *
+     * @return El índice compartido.
+     */
+    public static synchronized TitleIndex shared() {
+        if (shared == null) {
+            shared = new TitleIndex(
+                    new NoteRepository(),
+                    Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true")),
+                    Integer.getInteger(MAX_NOTES_PROPERTY, DEFAULT_MAX_NOTES));
+        }
+        return shared;
+    }
+
+    /**
+     * Crea una búsqueda sobre este índice.
+     *
+     * @return Una búsqueda sin consultas anteriores.
+     */
+    public Search newSearch() {
+        return new Search();
+    }
+
+    /**
+     * Refleja en el índice una nota creada o modificada, una vez confirmada
+     * en la base de datos.
+     *
+     * @param note Nota guardada; solo se usan su identificador, su título y
+     *             su categoría.
+     */
+    public synchronized void saved(Note note) {
+        if (!enabled) {
+            return;
+        }
+
+        version++;
+        if (root == null) {
+            return;
+        }
+
+        remove(note.getId());
+        add(root, entries, Note.summary(note.getId(), note.getTitle(), note.getCategory()));
+
+        if (entries.size() > maxNotes) {
+            root = null;
+            entries = null;
+            tooLarge = true;
+        }
+    }
+
+    /**
+     * Refleja en el índice la baja de una nota, una vez confirmada.
+     *
+     * @param id Identificador de la nota eliminada.
+     */
+    public synchronized void deleted(int id) {
+        if (!enabled) {
+            return;
+        }
+
+        version++;
+        if (root != null) {
+            remove(id);
+        }
+    }
+
+    /**
+     * Vacía el índice. Se usa cuando la base de datos se modifica sin pasar
+     * por {@link NoteService}, como en una importación masiva.
+     */
+    public synchronized void invalidate() {
+        version++;
+        root = null;
+        entries = null;
+        tooLarge = false;
+    }
+
+    /**
+     * Divide un texto en palabras normalizadas: sin tildes ni otros signos
+     * diacríticos y en minúsculas.
+     *
+     * @param text Texto que se desea dividir.
+     * @return Las palabras, en el orden del texto.
+     */
+    static String[] words(String text) {
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        String[] words = SEPARATORS.split(folded.toLowerCase(Locale.ROOT));
+
+        int count = 0;
+        for (String word : words) {
+            if (!word.isEmpty()) {
+                words[count++] = word;
+            }
+        }
+        return Arrays.copyOf(words, count);
+    }
+
+    /**
+     * Carga el índice completo. Si durante la consulta se confirma algún
+     * cambio, el resultado podría no incluirlo y se descarta; la siguiente
+     * búsqueda volverá a intentarlo.
+     */
+    private void load() {
+        try {
+            long start;
+            synchronized (this) {
+                start = version;
+            }
+
+            int count = repository.count();
+            if (count < 0) {
+                return;
+            }
+            if (count > maxNotes) {
+                synchronized (this) {
+                    if (version == start) {
+                        tooLarge = true;
+                    }
+                }
+                return;
+            }
+
+            Node loadedRoot = new Node();
+            Map<Integer, Entry> loadedEntries = new HashMap<>(2 * count);
+            for (Note note : repository.getAll()) {
+                add(loadedRoot, loadedEntries, note);
+            }
+
+            synchronized (this) {
+                if (version == start && root == null) {
+                    root = loadedRoot;
+                    entries = loadedEntries;
+                    version++;
+                }
+            }
+        } finally {
+            loading.set(false);
+        }
+    }
+
+    /**
+     * Indica si el índice está cargado o, si no lo está, lanza su carga en
+     * segundo plano. Se llama con el monitor del índice.
+     */
+    private boolean ready() {
+        if (!enabled) {
+            return false;
+        }
+
+        if (root == null) {
+            if (!tooLarge && loading.compareAndSet(false, true)) {
+                ServiceExecutor.get().execute(this::load);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private static void add(Node root, Map<Integer, Entry> entries, Note summary) {
+        Set<String> distinct = new LinkedHashSet<>(Arrays.asList(words(summary.getTitle())));
+        Entry entry = new Entry(summary, distinct.toArray(new String[0]));
+        entries.put(summary.getId(), entry);
+
+        for (String word : entry.words()) {
+            Node node = root;
+            node.postings++;
+            for (int i = 0; i < word.length(); i++) {
+                node = node.childOrCreate(word.charAt(i));
+                node.postings++;
+            }
+            node.addId(summary.getId());
+        }
+    }
+
+    private void remove(int id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+
+        for (String word : entry.words()) {
+            root.remove(word, 0, id);
+        }
+    }
+
+    /**
+     * Devuelve el nodo del prefijo indicado.
+     *
+     * @return El nodo, o {@code null} si ninguna palabra empieza así.
+     */
+    private Node nodeOf(String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * Reúne en {@code ids} las notas de todas las palabras de la rama del
+     * nodo indicado.
+     */
+    private static void collect(Node node, BitSet ids) {
+        List<Node> pending = new ArrayList<>();
+        pending.add(node);
+        while (!pending.isEmpty()) {
+            Node current = pending.remove(pending.size() - 1);
+            for (int i = 0; i < current.idCount; i++) {
+                ids.set(current.ids[i]);
+            }
+            for (int i = 0; i < current.childCount; i++) {
+                pending.add(current.children[i]);
+            }
+        }
+    }
+
+    /**
+     * Comprueba si una nota cumple una consulta: cada palabra de la consulta
+     * debe ser el principio de alguna palabra del título, y la nota debe
+     * pertenecer a la categoría indicada.
+     */
+    private static boolean matches(Entry entry, String[] query, int categoryId) {
+        if (categoryId != 0) {
+            Note summary = entry.summary();
+            if (summary.getCategory() == null || summary.getCategory().getId() != categoryId) {
+                return false;
+            }
+        }
+
+        for (String prefix : query) {
+            boolean found = false;
+            for (String word : entry.words()) {
+                if (word.startsWith(prefix)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Búsqueda incremental sobre el índice de títulos, pensada para un campo
+     * de texto: cada llamada a {@link #find(String, int, int)} aprovecha el
+     * resultado de la anterior cuando el texto nuevo la amplía.
+     *
+     * <p>Una búsqueda guarda estado entre consultas y no debe compartirse
+     * entre hilos; cada campo de búsqueda usa la suya.</p>
+     */
+    public final class Search {
+
+        private String lastQuery;
+        private int lastCategoryId;
+        private long lastVersion = -1;
+
+        /** Todas las notas que cumplían la consulta anterior. */
+        private BitSet lastMatches;
+        private int lastCount;
+
+        private Search() {}
+
+        /**
+         * Obtiene las notas cuyo título contiene palabras que empiezan por
+         * cada una de las palabras del texto, sin distinguir mayúsculas ni
+         * tildes, de la más reciente a la más antigua.
+         *
+         * @param text Texto introducido por el usuario.
+         * @param categoryId Categoría por la que filtrar, o {@code 0} para
+         *                   todas.
+         * @param limit Número máximo de notas.
+         * @return Los resúmenes de las notas, o {@code null} si el índice no
+         *         está cargado.
+         * @throws IllegalArgumentException Si el límite no es positivo.
+         */
+        public List<Note> find(String text, int categoryId, int limit) {
+            if (limit <= 0) {
+                throw new IllegalArgumentException("El límite de resultados debe ser positivo");
+            }
+
+            long start = SEARCH.start();
+            String[] query = words(text == null ? "" : text);
+            String joined = String.join(" ", query);
+
+            synchronized (TitleIndex.this) {
+                if (!ready()) {
+                    lastMatches = null;
+                    return null;
+                }
+
+                BitSet matches = search(joined, query, categoryId);
+
+                lastQuery = joined;
+                lastCategoryId = categoryId;
+                lastVersion = version;
+                lastMatches = matches;
+                lastCount = matches.cardinality();
+
+                List<Note> notes = new ArrayList<>(Math.min(limit, lastCount));
+                for (int id = matches.length() - 1; id >= 0 && notes.size() < limit;
+                        id = matches.previousSetBit(id - 1)) {
+                    Note summary = entries.get(id).summary();
+                    notes.add(Note.summary(summary.getId(), summary.getTitle(), summary.getCategory()));
+                }
+
+                SEARCH.succeeded(start, notes.size());
+                return notes;
+            }
+        }
+
+        /**
+         * Obtiene todas las notas que cumplen la consulta.
+         *
+         * <p>Se parte de la palabra con menos apariciones en el árbol y se
+         * comprueban las demás en cada nota. Si el resultado anterior contiene
+         * al nuevo y es bastante más pequeño que esa rama, se filtra en su
+         * lugar.</p>
+         */
+        private BitSet search(String joined, String[] query, int categoryId) {
+            Node best = null;
+            for (String word : query) {
+                Node node = nodeOf(word);
+                if (node == null) {
+                    return new BitSet();
+                }
+                if (best == null || node.postings < best.postings) {
+                    best = node;
+                }
+            }
+            if (best == null) {
+                return new BitSet();
+            }
+
+            if (narrows(joined, categoryId) && (long) lastCount * FILTER_COST <= best.postings) {
+                BitSet matches = new BitSet();
+                for (int id = lastMatches.nextSetBit(0); id >= 0; id = lastMatches.nextSetBit(id + 1)) {
+                    if (matches(entries.get(id), query, categoryId)) {
+                        matches.set(id);
+                    }
+                }
+                return matches;
+            }
+
+            BitSet matches = new BitSet();
+            collect(best, matches);
+
+            // Con una sola palabra y sin categoría, la rama es el resultado
+            if (query.length > 1 || categoryId != 0) {
+                for (int id = matches.nextSetBit(0); id >= 0; id = matches.nextSetBit(id + 1)) {
+                    if (!matches(entries.get(id), query, categoryId)) {
+                        matches.clear(id);
+                    }
+                }
+            }
+            return matches;
+        }
+
+        /**
+         * Indica si el resultado de la consulta anterior contiene todas las
+         * notas de la nueva: el índice no ha cambiado, la categoría es la
+         * misma o la anterior eran todas, y el texto nuevo solo añade letras
+         * o palabras al anterior.
+         */
+        private boolean narrows(String joined, int categoryId) {
+            return lastMatches != null
+                    && lastVersion == version
+                    && (lastCategoryId == categoryId || lastCategoryId == 0)
+                    && !lastQuery.isEmpty()
+                    && joined.startsWith(lastQuery);
+        }
+    }
+
+    /**
+     * Nodo del árbol de prefijos: sus hijos, ordenados por carácter, las
+     * notas que contienen la palabra que termina en él y el número de
+     * apariciones de toda su rama, que estima el coste de reunirla.
+     */
+    private static final class Node {
+
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final int[] NO_IDS = new int[0];
+
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private int childCount;
+
+        private int[] ids = NO_IDS;
+        private int idCount;
+
+        /** Apariciones de palabras en este nodo y sus descendientes. */
+        private int postings;
+
+        Node child(char key) {
+            int position = Arrays.binarySearch(keys, 0, childCount, key);
+            return position >= 0 ? children[position] : null;
+        }
+
+        Node childOrCreate(char key) {
+            int position = Arrays.binarySearch(keys, 0, childCount, key);
+            if (position >= 0) {
+                return children[position];
+            }
+
+            int insertAt = -position - 1;
+            if (childCount == keys.length) {
+                int capacity = Math.max(2, 2 * childCount);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, insertAt, keys, insertAt + 1, childCount - insertAt);
+            System.arraycopy(children, insertAt, children, insertAt + 1, childCount - insertAt);
+
+            Node child = new Node();
+            keys[insertAt] = key;
+            children[insertAt] = child;
+            childCount++;
+            return child;
+        }
+
+        void addId(int id) {
+            if (idCount == ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(2, 2 * idCount));
+            }
+            ids[idCount++] = id;
+        }
+
+        /**
+         * Quita la nota de la palabra que empieza en la posición indicada y
+         * poda las ramas que quedan vacías.
+         *
+         * @return {@code true} si este nodo ha quedado vacío.
+         */
+        boolean remove(String word, int position, int id) {
+            postings--;
+            if (position == word.length()) {
+                for (int i = 0; i < idCount; i++) {
+                    if (ids[i] == id) {
+                        ids[i] = ids[--idCount];
+                        break;
+                    }
+                }
+            } else {
+                int index = Arrays.binarySearch(keys, 0, childCount, word.charAt(position));
+                if (index >= 0 && children[index].remove(word, position + 1, id)) {
+                    System.arraycopy(keys, index + 1, keys, index, childCount - index - 1);
+                    System.arraycopy(children, index + 1, children, index, childCount - index - 1);
+                    children[--childCount] = null;
+                }
+            }
+            return idCount == 0 && childCount == 0;
+        }
+    }
+}
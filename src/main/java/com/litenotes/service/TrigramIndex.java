@@ -0,0 +1,979 @@
+package com.litenotes.service;
+
+import com.litenotes.metrics.Metrics;
+import com.litenotes.metrics.OperationMetrics;
+import com.litenotes.model.Note;
+import com.litenotes.model.SearchResult;
+import com.litenotes.repository.NoteRepository;
+
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Índice en memoria de los trigramas (secuencias de tres caracteres) del
+ * título y el contenido de las notas. Permite encontrar un fragmento
+ * cualquiera del texto, aunque esté en mitad de una palabra, y las notas con
+ * palabras parecidas a las buscadas cuando el usuario se equivoca al
+ * escribirlas; la búsqueda de texto completo no hace ninguna de las dos
+ * cosas.
+ *
+ * <p>El texto se normaliza antes de dividirlo: sin mayúsculas ni tildes, y
+ * con cualquier secuencia de signos o espacios reducida a un espacio. Para
+ * cada trigrama se guarda la lista ordenada de notas que lo contienen,
+ * comprimida como diferencias entre números consecutivos en formato de
+ * longitud variable (un byte para diferencias menores que 128).</p>
+ *
+ * <p>Las listas solo crecen por el final: cada nota guardada recibe un número
+ * de documento mayor que todos los anteriores y su documento anterior se
+ * marca como borrado, de modo que modificar una nota no obliga a reescribir
+ * las listas de sus trigramas. Cuando los documentos borrados superan la
+ * cuarta parte, el índice se compacta en segundo plano.</p>
+ *
+ * <p>Los cambios confirmados por {@link NoteService} se aplican en un hilo
+ * propio, en el mismo orden en que llegan, por lo que no alargan las
+ * escrituras; una búsqueda hecha justo después de guardar puede no ver aún el
+ * cambio. El índice se carga completo la primera vez que se busca, en el
+ * hilo de la búsqueda, y solo si la tabla no supera
+ * {@value #MAX_NOTES_PROPERTY} notas. Se desactiva con la propiedad de
+ * sistema {@value #ENABLED_PROPERTY}{@code =false}.</p>
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+public final class TrigramIndex {
+
+    /** Propiedad de sistema que activa o desactiva el índice. */
+    public static final String ENABLED_PROPERTY = "litenotes.trigramIndex.enabled";
+
+    /** Propiedad de sistema con el número máximo de notas del índice. */
+    public static final String MAX_NOTES_PROPERTY = "litenotes.trigramIndex.maxNotes";
+
+    /**
+     * Parecido mínimo, entre 0 y 1, entre el texto buscado y alguna parte de
+     * la nota para que {@link #similar(String, int, int)} la devuelva.
+     */
+    public static final double MIN_SIMILARITY = 0.4;
+
+    private static final int DEFAULT_MAX_NOTES = 500_000;
+
+    /** Notas candidatas que se comprueban por cada resultado pedido. */
+    private static final int CANDIDATES_PER_RESULT = 5;
+
+    /** Caracteres de contexto a cada lado de la coincidencia en el fragmento. */
+    private static final int SNIPPET_CONTEXT = 60;
+
+    /** Documentos borrados a partir de los cuales se plantea compactar. */
+    private static final int MIN_COMPACTION = 4096;
+
+    private static final OperationMetrics LOAD = Metrics.operation("TrigramIndex.load");
+    private static final OperationMetrics SUBSTRING = Metrics.operation("TrigramIndex.substring");
+    private static final OperationMetrics SIMILAR = Metrics.operation("TrigramIndex.similar");
+
+    /** Marca de los caracteres que desaparecen al normalizar, como las tildes sueltas. */
+    private static final char SKIP = '\uFFFF';
+
+    /** Normalización precalculada de los caracteres latinos más habituales. */
+    private static final char[] FOLDED = new char[0x250];
+
+    static {
+        for (char c = 0; c < FOLDED.length; c++) {
+            FOLDED[c] = computeFold(c);
+        }
+    }
+
+    private static TrigramIndex shared;
+
+    private final NoteRepository repository;
+    private final boolean enabled;
+    private final int maxNotes;
+    private final ExecutorService updater;
+    private final Object loadLock = new Object();
+
+    /** Índice cargado; {@code null} mientras no lo está. */
+    private State state;
+
+    /** Se incrementa con cada cambio, para descartar cargas que lo pierdan. */
+    private long version;
+
+    /** Se incrementa cada vez que se carga o se vacía el índice. */
+    private long epoch;
+
+    /** Indica que la tabla supera el máximo y no se intenta cargar. */
+    private boolean tooLarge;
+
+    /**
+     * Crea un índice sobre el repositorio indicado.
+     *
+     * @param repository Repositorio del que se leen las notas.
+     * @param enabled Indica si el índice está activo.
+     * @param maxNotes Número máximo de notas del índice.
+     */
+    public TrigramIndex(NoteRepository repository, boolean enabled, int maxNotes) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.maxNotes = maxNotes;
+        this.updater = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "litenotes-trigrams");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Devuelve el índice compartido por toda la aplicación, creándolo en el
+     * primer uso con la configuración de las propiedades de sistema.
+     *
+     * @return El índice compartido.
+     */
+    public static synchronized TrigramIndex shared() {
+        if (shared == null) {
+            shared = new TrigramIndex(
+                    new NoteRepository(),
+                    Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true")),
+                    Integer.getInteger(MAX_NOTES_PROPERTY, DEFAULT_MAX_NOTES));
+        }
+        return shared;
+    }
+
+    /**
+     * Refleja en el índice una nota creada o modificada, una vez confirmada
+     * en la base de datos. Si la nota es un resumen, como tras guardar una
+     * nota fragmentada, su texto se vuelve a leer de la base de datos.
+     *
+     * @param note Nota guardada.
+     */
+    public void saved(Note note) {
+        Note copy = note.isContentLoaded()
+                ? new Note(note.getId(), note.getTitle(), note.getContent(), note.getCategory())
+                : Note.summary(note.getId(), note.getTitle(), note.getCategory());
+        enqueue(copy.getId(), copy);
+    }
+
+    /**
+     * Refleja en el índice la baja de una nota, una vez confirmada.
+     *
+     * @param id Identificador de la nota eliminada.
+     */
+    public void deleted(int id) {
+        enqueue(id, null);
+    }
+
+    /**
+     * Vacía el índice. Se usa cuando la base de datos se modifica sin pasar
+     * por {@link NoteService}, como en una importación masiva.
+     */
+    public synchronized void invalidate() {
+        version++;
+        epoch++;
+        state = null;
+        tooLarge = false;
+    }
+
+    /**
+     * Busca las notas cuyo título o contenido contienen el texto indicado en
+     * cualquier posición, sin distinguir mayúsculas ni tildes. Las notas
+     * guardadas más recientemente aparecen primero.
+     *
+     * <p>El índice descarta las notas a las que les falta alguno de los
+     * trigramas del texto; las demás se leen y se comprueban hasta reunir el
+     * número de resultados pedido.</p>
+     *
+     * @param query Texto buscado, de al menos tres caracteres.
+     * @param categoryId Categoría por la que filtrar, o {@code 0} para todas.
+     * @param limit Número máximo de resultados.
+     * @return Los resultados, con la coincidencia resaltada en el fragmento,
+     *         o una lista vacía si el texto es demasiado corto o el índice no
+     *         está disponible.
+     * @throws IllegalArgumentException Si el límite no es positivo.
+     */
+    public List<SearchResult> substring(String query, int categoryId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("El límite de resultados debe ser positivo");
+        }
+
+        String folded = fold(query == null ? "" : query, null).strip();
+        if (folded.length() < 3 || !ensureLoaded()) {
+            return new ArrayList<>();
+        }
+
+        long start = SUBSTRING.start();
+        int[] candidates;
+        synchronized (this) {
+            if (state == null) {
+                return new ArrayList<>();
+            }
+            candidates = state.containing(trigrams(folded), categoryId);
+        }
+
+        List<SearchResult> results = new ArrayList<>();
+        for (int i = 0; i < candidates.length && results.size() < limit; i++) {
+            Note note = repository.getById(candidates[i]);
+            if (note == null || !inCategory(note, categoryId)) {
+                continue;
+            }
+
+            Match match = Match.substring(note, folded);
+            if (match != null) {
+                results.add(match.toResult(note, -1));
+            }
+        }
+
+        SUBSTRING.succeeded(start, results.size());
+        return results;
+    }
+
+    /**
+     * Busca las notas con palabras parecidas al texto indicado, para
+     * encontrarlas aunque el usuario lo haya escrito con errores.
+     *
+     * <p>El parecido es el coeficiente de Dice entre los trigramas del texto
+     * y los de la secuencia de palabras de la nota, del mismo número de
+     * palabras, que más se le parece. Las candidatas salen del índice,
+     * ordenadas por los trigramas que comparten con el texto y ponderadas por
+     * lo raro que es cada uno; después se leen y se calcula su parecido.</p>
+     *
+     * @param query Texto buscado.
+     * @param categoryId Categoría por la que filtrar, o {@code 0} para todas.
+     * @param limit Número máximo de resultados.
+     * @return Los resultados de más a menos parecido, con un parecido de al
+     *         menos {@value #MIN_SIMILARITY}; su puntuación es el parecido
+     *         cambiado de signo, de modo que un número menor indica mayor
+     *         relevancia, como en la búsqueda de texto completo.
+     * @throws IllegalArgumentException Si el límite no es positivo.
+     */
+    public List<SearchResult> similar(String query, int categoryId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("El límite de resultados debe ser positivo");
+        }
+
+        String folded = fold(query == null ? "" : query, null).strip();
+        if (folded.isEmpty() || !ensureLoaded()) {
+            return new ArrayList<>();
+        }
+
+        long start = SIMILAR.start();
+        long[] wanted = trigrams(" " + folded + " ");
+        int words = folded.split(" ").length;
+
+        int[] candidates;
+        synchronized (this) {
+            if (state == null) {
+                return new ArrayList<>();
+            }
+            candidates = state.ranked(wanted, categoryId, limit * CANDIDATES_PER_RESULT);
+        }
+
+        List<Match> matches = new ArrayList<>();
+        List<Note> notes = new ArrayList<>();
+        for (int id : candidates) {
+            Note note = repository.getById(id);
+            if (note == null || !inCategory(note, categoryId)) {
+                continue;
+            }
+
+            Match match = Match.similar(note, wanted, words);
+            if (match != null && match.similarity >= MIN_SIMILARITY) {
+                matches.add(match);
+                notes.add(note);
+            }
+        }
+
+        Integer[] order = new Integer[matches.size()];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, Comparator.comparingDouble(i -> -matches.get(i).similarity));
+
+        List<SearchResult> results = new ArrayList<>(Math.min(limit, order.length));
+        for (int i = 0; i < order.length && results.size() < limit; i++) {
+            Match match = matches.get(order[i]);
+            results.add(match.toResult(notes.get(order[i]), -match.similarity));
+        }
+
+        SIMILAR.succeeded(start, results.size());
+        return results;
+    }
+
+    /**
+     * Encola un cambio para aplicarlo en el hilo del índice, si está
+     * cargado; si no, basta con anotar que ha habido un cambio.
+     *
+     * @param id Identificador de la nota.
+     * @param note Nota guardada, o {@code null} si se ha eliminado.
+     */
+    private void enqueue(int id, Note note) {
+        long target;
+        synchronized (this) {
+            if (!enabled) {
+                return;
+            }
+            version++;
+            if (state == null) {
+                return;
+            }
+            target = epoch;
+        }
+
+        updater.execute(() -> apply(target, id, note));
+    }
+
+    /**
+     * Aplica un cambio en el hilo del índice. Los trigramas se calculan fuera
+     * del bloqueo; solo la actualización de las listas lo necesita.
+     */
+    private void apply(long target, int id, Note note) {
+        Note full = note;
+        if (note != null && !note.isContentLoaded()) {
+            full = repository.getById(id);
+        }
+
+        long[] keys = full == null ? null : trigrams(indexed(full));
+
+        State current;
+        synchronized (this) {
+            if (state == null || epoch != target) {
+                return;
+            }
+            state.remove(id);
+            if (keys != null) {
+                state.add(id, categoryIdOf(full), keys);
+            }
+            current = state;
+        }
+
+        if (current.deletedCount > MIN_COMPACTION && current.deletedCount > current.docCount / 4) {
+            // Solo este hilo modifica el índice: se puede leer sin bloqueo
+            // mientras las búsquedas siguen usando el anterior
+            State compacted = current.compacted();
+            synchronized (this) {
+                if (state == current) {
+                    state = compacted;
+                }
+            }
+        }
+    }
+
+    /**
+     * Carga el índice si aún no lo está, en el hilo que llama.
+     *
+     * @return {@code true} si el índice está cargado.
+     */
+    private boolean ensureLoaded() {
+        synchronized (loadLock) {
+            long start;
+            synchronized (this) {
+                if (!enabled || tooLarge) {
+                    return false;
+                }
+                if (state != null) {
+                    return true;
+                }
+                start = version;
+            }
+
+            // Un cambio confirmado durante la carga podría no estar en ella:
+            // se descarta y se vuelve a intentar
+            for (int attempt = 0; attempt < 3; attempt++) {
+                long loadStart = LOAD.start();
+                State loaded = load();
+                synchronized (this) {
+                    if (loaded == null) {
+                        tooLarge = version == start;
+                        LOAD.failed();
+                        return false;
+                    }
+                    if (version == start) {
+                        state = loaded;
+                        epoch++;
+                        LOAD.succeeded(loadStart, loaded.docCount - 1);
+                        return true;
+                    }
+                    start = version;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Lee todas las notas y construye el índice.
+     *
+     * @return El índice, o {@code null} si la tabla supera el máximo o no se
+     *         puede leer.
+     */
+    private State load() {
+        int count = repository.count();
+        if (count < 0 || count > maxNotes) {
+            return null;
+        }
+
+        State loaded = new State();
+        try {
+            repository.stream(note -> loaded.add(note.getId(), categoryIdOf(note), trigrams(indexed(note))));
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+        return loaded;
+    }
+
+    /**
+     * Devuelve el texto normalizado que se indexa de una nota: su título y su
+     * contenido, con un espacio al principio y al final para que los
+     * trigramas marquen también dónde empiezan y terminan las palabras.
+     */
+    private static String indexed(Note note) {
+        String text = note.getContent() == null
+                ? note.getTitle()
+                : note.getTitle() + "\n" + note.getContent();
+        return " " + fold(text, null).strip() + " ";
+    }
+
+    /**
+     * Normaliza un texto para el índice: sin mayúsculas ni tildes, y con cada
+     * secuencia de caracteres que no son letras ni números reducida a un
+     * espacio.
+     *
+     * @param text Texto original.
+     * @param offsets Si no es {@code null}, recibe para cada carácter del
+     *                resultado su posición en el texto original; debe tener
+     *                al menos la longitud del texto.
+     * @return El texto normalizado.
+     */
+    static String fold(String text, int[] offsets) {
+        StringBuilder folded = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            c = c < FOLDED.length ? FOLDED[c] : computeFold(c);
+
+            if (c == SKIP || (c == ' ' && (folded.length() == 0 || folded.charAt(folded.length() - 1) == ' '))) {
+                continue;
+            }
+            if (offsets != null) {
+                offsets[folded.length()] = i;
+            }
+            folded.append(c);
+        }
+        return folded.toString();
+    }
+
+    private static char computeFold(char c) {
+        int type = Character.getType(c);
+        if (type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK
+                || type == Character.COMBINING_SPACING_MARK) {
+            return SKIP;
+        }
+        if (!Character.isLetterOrDigit(c)) {
+            return ' ';
+        }
+
+        String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+        return Character.toLowerCase(decomposed.charAt(0));
+    }
+
+    /**
+     * Devuelve los trigramas distintos de un texto normalizado, cada uno con
+     * sus tres caracteres en un {@code long}, ordenados.
+     */
+    static long[] trigrams(String folded) {
+        if (folded.length() < 3) {
+            return new long[0];
+        }
+
+        long[] keys = new long[folded.length() - 2];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = (long) folded.charAt(i) << 32 | (long) folded.charAt(i + 1) << 16 | folded.charAt(i + 2);
+        }
+        Arrays.sort(keys);
+
+        int count = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (i == 0 || keys[i] != keys[i - 1]) {
+                keys[count++] = keys[i];
+            }
+        }
+        return Arrays.copyOf(keys, count);
+    }
+
+    private static int categoryIdOf(Note note) {
+        return note.getCategory() == null ? 0 : note.getCategory().getId();
+    }
+
+    private static boolean inCategory(Note note, int categoryId) {
+        return categoryId == 0 || categoryIdOf(note) == categoryId;
+    }
+
+    /**
+     * Coincidencia encontrada en una nota: su posición en el texto original y
+     * su parecido con lo buscado.
+     */
+    private static final class Match {
+
+        /** Indica si la coincidencia está en el título. */
+        final boolean inTitle;
+        final int from;
+        final int to;
+        final double similarity;
+
+        private Match(boolean inTitle, int from, int to, double similarity) {
+            this.inTitle = inTitle;
+            this.from = from;
+            this.to = to;
+            this.similarity = similarity;
+        }
+
+        /**
+         * Busca el texto normalizado en el contenido y, si no está, en el
+         * título.
+         *
+         * @return La coincidencia, o {@code null} si no aparece.
+         */
+        static Match substring(Note note, String folded) {
+            String content = note.getContent();
+            if (content != null) {
+                int[] offsets = new int[content.length()];
+                int at = fold(content, offsets).indexOf(folded);
+                if (at >= 0) {
+                    return new Match(false, offsets[at], offsets[at + folded.length() - 1] + 1, 1);
+                }
+            }
+
+            return fold(note.getTitle(), null).contains(folded) ? new Match(true, 0, 0, 1) : null;
+        }
+
+        /**
+         * Busca la secuencia de palabras del título o del contenido que más
+         * se parece a lo buscado.
+         *
+         * @param wanted Trigramas de lo buscado, ordenados.
+         * @param words Número de palabras de lo buscado.
+         * @return La mejor coincidencia, o {@code null} si no hay ninguna.
+         */
+        static Match similar(Note note, long[] wanted, int words) {
+            Match title = best(note.getTitle(), wanted, words, true);
+            Match content = note.getContent() == null ? null : best(note.getContent(), wanted, words, false);
+
+            if (content == null || (title != null && title.similarity > content.similarity)) {
+                return title;
+            }
+            return content;
+        }
+
+        private static Match best(String text, long[] wanted, int words, boolean inTitle) {
+            int[] offsets = new int[text.length()];
+            String folded = fold(text, offsets);
+
+            // Posiciones de inicio y fin de cada palabra del texto normalizado
+            List<int[]> bounds = new ArrayList<>();
+            for (int i = 0; i < folded.length(); ) {
+                int end = folded.indexOf(' ', i);
+                end = end < 0 ? folded.length() : end;
+                if (end > i) {
+                    bounds.add(new int[] {i, end});
+                }
+                i = end + 1;
+            }
+
+            Match best = null;
+            int windows = bounds.size() - Math.min(words, bounds.size()) + 1;
+            for (int i = 0; i < windows && !bounds.isEmpty(); i++) {
+                int from = bounds.get(i)[0];
+                int to = bounds.get(Math.min(i + words, bounds.size()) - 1)[1];
+
+                double similarity = dice(trigrams(" " + folded.substring(from, to) + " "), wanted);
+                if (best == null || similarity > best.similarity) {
+                    best = new Match(inTitle, offsets[from], offsets[to - 1] + 1, similarity);
+                }
+            }
+            return best;
+        }
+
+        private static double dice(long[] found, long[] wanted) {
+            int shared = 0;
+            for (long key : found) {
+                if (Arrays.binarySearch(wanted, key) >= 0) {
+                    shared++;
+                }
+            }
+            return 2.0 * shared / (found.length + wanted.length);
+        }
+
+        /**
+         * Crea el resultado con un fragmento del contenido alrededor de la
+         * coincidencia, resaltada igual que en la búsqueda de texto completo.
+         * Si la coincidencia está en el título, el fragmento es el principio
+         * del contenido.
+         */
+        SearchResult toResult(Note note, double rank) {
+            Note summary = Note.summary(note.getId(), note.getTitle(), note.getCategory());
+            String content = note.getContent() == null ? "" : note.getContent();
+
+            StringBuilder snippet = new StringBuilder();
+            if (inTitle) {
+                snippet.append(content, 0, Math.min(content.length(), 2 * SNIPPET_CONTEXT));
+                if (content.length() > 2 * SNIPPET_CONTEXT) {
+                    snippet.append('\u2026');
+                }
+            } else {
+                int start = Math.max(0, from - SNIPPET_CONTEXT);
+                int end = Math.min(content.length(), to + SNIPPET_CONTEXT);
+                if (start > 0) {
+                    snippet.append('\u2026');
+                }
+                snippet.append(content, start, from)
+                       .append(SearchResult.HIGHLIGHT_START)
+                       .append(content, from, to)
+                       .append(SearchResult.HIGHLIGHT_END)
+                       .append(content, to, end);
+                if (end < content.length()) {
+                    snippet.append('\u2026');
+                }
+            }
+
+            return new SearchResult(summary, snippet.toString().replace('\n', ' '), rank);
+        }
+    }
+
+    /**
+     * Contenido del índice. Los documentos se numeran desde {@code 1} en el
+     * orden en que se añaden; cada nota tiene como mucho un documento vivo.
+     * Solo lo modifica el hilo del índice, con el monitor del índice.
+     */
+    private static final class State {
+
+        private final TrigramMap postings = new TrigramMap();
+
+        private int[] docNote = new int[1024];
+        private int[] docCategory = new int[1024];
+        private int docCount = 1;
+
+        /** Documento vivo de cada nota, por identificador, o {@code 0}. */
+        private int[] noteDoc = new int[1024];
+
+        private final BitSet deleted = new BitSet();
+        private int deletedCount;
+
+        void add(int noteId, int categoryId, long[] keys) {
+            int doc = docCount++;
+            if (doc == docNote.length) {
+                docNote = Arrays.copyOf(docNote, 2 * doc);
+                docCategory = Arrays.copyOf(docCategory, 2 * doc);
+            }
+            docNote[doc] = noteId;
+            docCategory[doc] = categoryId;
+
+            if (noteId >= noteDoc.length) {
+                noteDoc = Arrays.copyOf(noteDoc, Math.max(2 * noteDoc.length, noteId + 1));
+            }
+            noteDoc[noteId] = doc;
+
+            for (long key : keys) {
+                postings.getOrCreate(key).append(doc);
+            }
+        }
+
+        void remove(int noteId) {
+            if (noteId < noteDoc.length && noteDoc[noteId] != 0) {
+                deleted.set(noteDoc[noteId]);
+                deletedCount++;
+                noteDoc[noteId] = 0;
+            }
+        }
+
+        /**
+         * Devuelve las notas vivas que contienen todos los trigramas, de la
+         * guardada más recientemente a la más antigua.
+         */
+        int[] containing(long[] keys, int categoryId) {
+            Postings[] lists = new Postings[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                lists[i] = postings.get(keys[i]);
+                if (lists[i] == null) {
+                    return new int[0];
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.count));
+
+            // Se parte de la lista más corta y se cruza con las demás
+            int[] docs = lists.length == 0 ? new int[0] : lists[0].decode();
+            int count = docs.length;
+            for (int i = 1; i < lists.length && count > 0; i++) {
+                count = lists[i].retain(docs, count);
+            }
+
+            int[] notes = new int[count];
+            int found = 0;
+            for (int i = count - 1; i >= 0; i--) {
+                int doc = docs[i];
+                if (!deleted.get(doc) && (categoryId == 0 || docCategory[doc] == categoryId)) {
+                    notes[found++] = docNote[doc];
+                }
+            }
+            return Arrays.copyOf(notes, found);
+        }
+
+        /**
+         * Devuelve como mucho {@code limit} notas vivas con al menos una
+         * cuarta parte de los trigramas, ordenadas por la suma de los pesos
+         * de los que contienen. Cada trigrama pesa más cuanto menos notas lo
+         * tienen.
+         */
+        int[] ranked(long[] keys, int categoryId, int limit) {
+            float[] scores = new float[docCount];
+            short[] shared = new short[docCount];
+            double live = Math.max(1, docCount - 1 - deletedCount);
+
+            for (long key : keys) {
+                Postings list = postings.get(key);
+                if (list == null) {
+                    continue;
+                }
+
+                float weight = (float) Math.log(1 + live / list.count);
+                int position = 0;
+                int doc = 0;
+                for (int i = 0; i < list.count; i++) {
+                    int delta = 0;
+                    int shift = 0;
+                    byte b;
+                    do {
+                        b = list.data[position++];
+                        delta |= (b & 0x7F) << shift;
+                        shift += 7;
+                    } while (b < 0);
+                    doc += delta;
+                    scores[doc] += weight;
+                    shared[doc]++;
+                }
+            }
+
+            int minShared = Math.max(1, (keys.length + 3) / 4);
+            PriorityQueue<Integer> best = new PriorityQueue<>(
+                    Comparator.comparingDouble((Integer doc) -> scores[doc]).thenComparingInt(doc -> doc));
+            for (int doc = 1; doc < docCount; doc++) {
+                if (shared[doc] < minShared || deleted.get(doc)
+                        || (categoryId != 0 && docCategory[doc] != categoryId)) {
+                    continue;
+                }
+                best.add(doc);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+
+            int[] notes = new int[best.size()];
+            for (int i = notes.length - 1; i >= 0; i--) {
+                notes[i] = docNote[best.poll()];
+            }
+            return notes;
+        }
+
+        /**
+         * Crea una copia sin los documentos borrados, renumerando los vivos
+         * en el mismo orden.
+         */
+        State compacted() {
+            State copy = new State();
+
+            int[] renumbered = new int[docCount];
+            for (int doc = 1; doc < docCount; doc++) {
+                if (!deleted.get(doc)) {
+                    int added = copy.docCount++;
+                    renumbered[doc] = added;
+                    if (added == copy.docNote.length) {
+                        copy.docNote = Arrays.copyOf(copy.docNote, 2 * added);
+                        copy.docCategory = Arrays.copyOf(copy.docCategory, 2 * added);
+                    }
+                    copy.docNote[added] = docNote[doc];
+                    copy.docCategory[added] = docCategory[doc];
+                }
+            }
+
+            copy.noteDoc = new int[noteDoc.length];
+            for (int note = 0; note < noteDoc.length; note++) {
+                copy.noteDoc[note] = renumbered[noteDoc[note]];
+            }
+
+            postings.forEach((key, list) -> {
+                Postings compactedList = null;
+                for (int doc : list.decode()) {
+                    if (renumbered[doc] != 0) {
+                        if (compactedList == null) {
+                            compactedList = copy.postings.getOrCreate(key);
+                        }
+                        compactedList.append(renumbered[doc]);
+                    }
+                }
+            });
+            return copy;
+        }
+    }
+
+    /**
+     * Lista de documentos de un trigrama, ordenada y comprimida: cada número
+     * se guarda como la diferencia con el anterior, en bloques de siete bits
+     * en los que el bit alto indica que sigue otro byte.
+     */
+    private static final class Postings {
+
+        private byte[] data = new byte[4];
+        private int size;
+        private int count;
+        private int last;
+
+        void append(int doc) {
+            if (size + 5 > data.length) {
+                data = Arrays.copyOf(data, Math.max(size + 5, 2 * data.length));
+            }
+
+            int delta = doc - last;
+            while ((delta & ~0x7F) != 0) {
+                data[size++] = (byte) ((delta & 0x7F) | 0x80);
+                delta >>>= 7;
+            }
+            data[size++] = (byte) delta;
+
+            last = doc;
+            count++;
+        }
+
+        int[] decode() {
+            int[] docs = new int[count];
+            int position = 0;
+            int doc = 0;
+            for (int i = 0; i < count; i++) {
+                int delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[position++];
+                    delta |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                doc += delta;
+                docs[i] = doc;
+            }
+            return docs;
+        }
+
+        /**
+         * Deja al principio de {@code docs} solo los documentos que también
+         * están en esta lista, recorriendo ambas en orden.
+         *
+         * @return El número de documentos que quedan.
+         */
+        int retain(int[] docs, int length) {
+            int kept = 0;
+            int position = 0;
+            int doc = 0;
+            int read = 0;
+
+            for (int i = 0; i < length; i++) {
+                int wanted = docs[i];
+                while (doc < wanted && read < count) {
+                    int delta = 0;
+                    int shift = 0;
+                    byte b;
+                    do {
+                        b = data[position++];
+                        delta |= (b & 0x7F) << shift;
+                        shift += 7;
+                    } while (b < 0);
+                    doc += delta;
+                    read++;
+                }
+                if (doc == wanted) {
+                    docs[kept++] = wanted;
+                } else if (doc < wanted) {
+                    break;
+                }
+            }
+            return kept;
+        }
+    }
+
+    /**
+     * Tabla de trigramas a listas de documentos con direccionamiento
+     * abierto, para no crear un objeto por cada clave consultada.
+     */
+    private static final class TrigramMap {
+
+        /** Recibe cada trigrama con su lista. */
+        @FunctionalInterface
+        interface Visitor {
+            void visit(long key, Postings postings);
+        }
+
+        private long[] keys = new long[1024];
+        private Postings[] values = new Postings[1024];
+        private int size;
+
+        Postings get(long key) {
+            int mask = keys.length - 1;
+            for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+                if (keys[slot] == 0) {
+                    return null;
+                }
+            }
+        }
+
+        Postings getOrCreate(long key) {
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            for (; keys[slot] != 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+
+            Postings created = new Postings();
+            keys[slot] = key;
+            values[slot] = created;
+            if (++size > keys.length / 2) {
+                grow();
+            }
+            return created;
+        }
+
+        void forEach(Visitor visitor) {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != 0) {
+                    visitor.visit(keys[slot], values[slot]);
+                }
+            }
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            Postings[] oldValues = values;
+            keys = new long[2 * oldKeys.length];
+            values = new Postings[2 * oldValues.length];
+
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = slot(oldKeys[i], mask);
+                    while (keys[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        private static int slot(long key, int mask) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+        }
+    }
+}
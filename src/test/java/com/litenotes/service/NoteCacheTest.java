@@ -0,0 +1,76 @@
+package com.litenotes.service;
+
+import com.litenotes.model.Category;
+import com.litenotes.model.Note;
+import com.litenotes.repository.NoteRepository;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Pruebas de las lecturas de notas completas a través de {@link NoteCache}.
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+class NoteCacheTest {
+
+    private static final Category CATEGORY = new Category(1, "General");
+
+    private final NoteCache cache = new NoteCache(new NoteRepository(), true, 1000, 1024 * 1024);
+
+    @Test
+    void readThroughIsStoredWhenNothingWasWritten() {
+        long version = cache.version(7);
+        cache.put(new Note(7, "Leída", "v1", CATEGORY), version);
+
+        assertEquals("v1", cache.get(7).getContent());
+    }
+
+    @Test
+    void readThroughOlderThanSaveIsDiscarded() {
+        long version = cache.version(7);
+        cache.saved(new Note(7, "Guardada", "v2", CATEGORY));
+        cache.put(new Note(7, "Leída", "v1", CATEGORY), version);
+
+        assertEquals("v2", cache.get(7).getContent());
+    }
+
+    @Test
+    void readThroughOlderThanDeleteIsDiscarded() {
+        long version = cache.version(7);
+        cache.deleted(7);
+        cache.put(new Note(7, "Leída", "v1", CATEGORY), version);
+
+        assertNull(cache.get(7));
+    }
+
+    @Test
+    void saveAfterDeleteDoesNotRestoreNote() {
+        cache.saved(new Note(7, "Guardada", "v1", CATEGORY));
+        cache.deleted(7);
+        cache.saved(new Note(7, "Tardía", "v2", CATEGORY));
+
+        assertNull(cache.get(7));
+    }
+
+    @Test
+    void oversizedSaveDropsPreviousBody() {
+        NoteCache small = new NoteCache(new NoteRepository(), true, 1000, 64);
+        small.saved(new Note(7, "Guardada", "v1", CATEGORY));
+        small.saved(new Note(7, "Guardada", "x".repeat(100), CATEGORY));
+
+        assertNull(small.get(7));
+    }
+
+    @Test
+    void readThroughOlderThanInvalidateIsDiscarded() {
+        long version = cache.version(7);
+        cache.invalidate();
+        cache.put(new Note(7, "Leída", "v1", CATEGORY), version);
+
+        assertNull(cache.get(7));
+    }
+}
@@ -0,0 +1,171 @@
+package com.litenotes.service;
+
+import com.litenotes.model.Category;
+import com.litenotes.model.Note;
+import com.litenotes.repository.CategoryRepository;
+import com.litenotes.repository.Database;
+import com.litenotes.repository.NoteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de la reducción de lotes de {@link NoteWriteQueue}. La ventana de
+ * espera es larga para que las modificaciones de cada prueba caigan en el
+ * mismo lote.
+ *
+ * @author Aníbal
+ * @version 1.0
+ * @since 2026
+ */
+class NoteWriteQueueTest {
+
+    @TempDir
+    Path directory;
+
+    private NoteRepository repository;
+    private NoteWriteQueue queue;
+    private Category first;
+    private Category second;
+    private int id;
+
+    @BeforeEach
+    void open() throws Exception {
+        Database.configure(directory.resolve("notes.db").toString());
+        Database.initialize();
+
+        CategoryRepository categories = new CategoryRepository();
+        first = categories.findOrCreate("Primera");
+        second = categories.findOrCreate("Segunda");
+
+        repository = new NoteRepository();
+        queue = new NoteWriteQueue(repository, 256, 200);
+        id = queue.insert(new Note(0, "Original", "Contenido", first)).join().getId();
+    }
+
+    @AfterEach
+    void close() {
+        queue.close();
+        Database.close();
+    }
+
+    @Test
+    void partialUpdatesFromDifferentCopiesAreMerged() {
+        Note x = repository.getById(id);
+        Note y = repository.getById(id);
+        x.setTitle("Nuevo título");
+        y.setCategory(second);
+
+        CompletableFuture<Note> fromX = queue.update(x);
+        CompletableFuture<Note> fromY = queue.update(y);
+        CompletableFuture.allOf(fromX, fromY).join();
+
+        Note stored = repository.getById(id);
+        assertEquals("Nuevo título", stored.getTitle());
+        assertEquals(second.getId(), stored.getCategory().getId());
+        assertEquals("Contenido", stored.getContent());
+
+        for (CompletableFuture<Note> future : List.of(fromX, fromY)) {
+            Note written = future.join();
+            assertEquals("Nuevo título", written.getTitle());
+            assertEquals(second.getId(), written.getCategory().getId());
+            assertFalse(written.isModified());
+        }
+        assertFalse(x.isModified());
+        assertFalse(y.isModified());
+    }
+
+    @Test
+    void laterUpdateFromSameInstanceReplacesEarlierOne() {
+        Note note = repository.getById(id);
+        note.setTitle("Intermedio");
+        CompletableFuture<Note> earlier = queue.update(note);
+        note.setTitle("Original");
+        note.setContent("Editado");
+        CompletableFuture<Note> later = queue.update(note);
+        CompletableFuture.allOf(earlier, later).join();
+
+        Note stored = repository.getById(id);
+        assertEquals("Original", stored.getTitle());
+        assertEquals("Editado", stored.getContent());
+    }
+
+    @Test
+    void conditionalUpdateIsCheckedAgainstStoredRow() {
+        Predicate<Note> unchanged = stored -> stored.getTitle().equals("Original");
+        Note x = repository.getById(id);
+        Note y = repository.getById(id);
+        x.setTitle("Primero");
+        y.setTitle("Segundo");
+
+        CompletableFuture<Note> first = queue.update(x, unchanged);
+        CompletableFuture<Note> second = queue.update(y, unchanged);
+
+        assertEquals("Primero", first.join().getTitle());
+        CompletionException error = assertThrows(CompletionException.class, second::join);
+        assertInstanceOf(ConcurrentModificationException.class, error.getCause());
+        assertEquals("Primero", repository.getById(id).getTitle());
+
+        CompletionException deleteError = assertThrows(CompletionException.class,
+                () -> queue.delete(id, unchanged).join());
+        assertInstanceOf(ConcurrentModificationException.class, deleteError.getCause());
+        assertEquals("Primero", repository.getById(id).getTitle());
+    }
+
+    @Test
+    void deleteDiscardsEarlierUpdates() {
+        Note note = repository.getById(id);
+        note.setTitle("Borrada");
+        CompletableFuture<Note> update = queue.update(note);
+        CompletableFuture<Void> delete = queue.delete(id);
+
+        delete.join();
+        assertMissing(update);
+        assertNull(repository.getById(id));
+    }
+
+    @Test
+    void updateAfterDeleteInSameBatchFails() {
+        Note note = repository.getById(id);
+        note.setTitle("Tardía");
+        CompletableFuture<Void> delete = queue.delete(id);
+        CompletableFuture<Note> update = queue.update(note);
+
+        delete.join();
+        assertMissing(update);
+        assertNull(repository.getById(id));
+        assertTrue(note.isModified());
+    }
+
+    @Test
+    void updateAfterCommittedDeleteFails() {
+        Note note = repository.getById(id);
+        queue.delete(id).join();
+
+        note.setTitle("Tardía");
+        assertMissing(queue.update(note));
+        assertNull(repository.getById(id));
+        assertTrue(note.isModified());
+    }
+
+    private static void assertMissing(CompletableFuture<Note> update) {
+        CompletionException error = assertThrows(CompletionException.class, update::join);
+        assertInstanceOf(NoSuchElementException.class, error.getCause());
+    }
+}